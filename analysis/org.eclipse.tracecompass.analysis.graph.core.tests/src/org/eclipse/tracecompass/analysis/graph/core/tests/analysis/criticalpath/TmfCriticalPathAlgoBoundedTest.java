@@ -11,15 +11,26 @@
 
 package org.eclipse.tracecompass.analysis.graph.core.tests.analysis.criticalpath;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfGraph;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.CriticalPathAlgorithmException;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.ICriticalPathAlgorithm;
 import org.eclipse.tracecompass.analysis.graph.core.tests.stubs.GraphBuilder;
+import org.eclipse.tracecompass.analysis.graph.core.tests.stubs.GraphFactory;
+import org.eclipse.tracecompass.analysis.graph.core.tests.stubs.GraphOps;
 import org.eclipse.tracecompass.internal.analysis.graph.core.criticalpath.CriticalPathAlgorithmBounded;
+import org.junit.Test;
 
 /**
  * Test the {@link CriticalPathAlgorithmBounded} critical path algorithm
@@ -46,4 +57,49 @@ public class TmfCriticalPathAlgoBoundedTest extends TmfCriticalPathAlgorithmTest
         return builder.criticalPathBounded();
     }
 
+    private static TmfGraph compute(ICriticalPathAlgorithm cp, TmfVertex start) {
+        try {
+            return cp.compute(start, null);
+        } catch (CriticalPathAlgorithmException e) {
+            fail(e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Test that an algorithm instance, that memoizes the blockings it resolves,
+     * computes the same critical paths as new instances when computing the
+     * critical paths of all the workers of a graph concurrently and many times
+     */
+    @Test
+    public void testConcurrentMemoized() {
+        for (GraphBuilder builder : new GraphBuilder[] { GraphFactory.GRAPH_NESTED, GraphFactory.GRAPH_WAKEUP_EMBEDDED,
+                GraphFactory.GRAPH_WAKEUP_INTERLEAVE, GraphFactory.GRAPH_WAKEUP_MUTUAL, GraphFactory.GRAPH_NET1 }) {
+            TmfGraph main = builder.build();
+            assertNotNull(main);
+            List<IGraphWorker> workers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                workers.addAll(main.getWorkers());
+            }
+            ICriticalPathAlgorithm cp = new CriticalPathAlgorithmBounded(main);
+            Map<IGraphWorker, List<TmfGraph>> paths = new ConcurrentHashMap<>();
+            workers.parallelStream().forEach(worker -> {
+                TmfVertex head = main.getHead(worker);
+                assertNotNull(head);
+                TmfGraph path = compute(cp, head);
+                paths.computeIfAbsent(worker, w -> Collections.synchronizedList(new ArrayList<>())).add(path);
+            });
+            assertEquals(main.getWorkers().size(), paths.size());
+            for (IGraphWorker worker : main.getWorkers()) {
+                TmfVertex head = main.getHead(worker);
+                assertNotNull(head);
+                TmfGraph expected = compute(new CriticalPathAlgorithmBounded(main), head);
+                assertEquals(10, paths.get(worker).size());
+                for (TmfGraph actual : paths.get(worker)) {
+                    GraphOps.checkEquality(expected, actual);
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.graph.core.tests.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge.EdgeType;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfGraph;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex.EdgeDirection;
+import org.eclipse.tracecompass.analysis.graph.core.building.IGraphWorkerSerializer;
+import org.eclipse.tracecompass.analysis.graph.core.tests.stubs.TestGraphWorker;
+import org.eclipse.tracecompass.internal.analysis.graph.core.base.TmfGraphFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link TmfGraphFile} class, that saves a graph on disk
+ */
+public class TmfGraphFileTest {
+
+    private static final IGraphWorker WORKER1 = new TestGraphWorker(1);
+    private static final IGraphWorker WORKER2 = new TestGraphWorker(2);
+    private static final IGraphWorker WORKER3 = new TestGraphWorker(3);
+
+    private static final IGraphWorkerSerializer SERIALIZER = new IGraphWorkerSerializer() {
+
+        @Override
+        public byte[] serialize(IGraphWorker worker) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(((TestGraphWorker) worker).getValue()).array();
+        }
+
+        @Override
+        public IGraphWorker deserialize(ByteBuffer buffer) {
+            return new TestGraphWorker(buffer.getInt());
+        }
+    };
+
+    private Path fFile;
+
+    /**
+     * Create the file of the graph
+     *
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fFile = Files.createTempFile("graph", ".graph");
+    }
+
+    /**
+     * Delete the file of the graph
+     *
+     * @throws IOException
+     *             If the file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fFile);
+    }
+
+    /**
+     * Build this graph:
+     *
+     * <pre>
+     * Worker 1  0---1---3-------7
+     *               |           |
+     * Worker 2      2---4   5---7
+     *                   |
+     * Worker 3          4
+     * </pre>
+     */
+    private static TmfGraph createGraph() {
+        TmfGraph graph = new TmfGraph();
+        TmfVertex v0 = new TmfVertex(0);
+        TmfVertex v1 = new TmfVertex(1);
+        TmfVertex v2 = new TmfVertex(2);
+        TmfVertex v4 = new TmfVertex(4);
+        TmfVertex v4b = new TmfVertex(4);
+        TmfVertex v7b = new TmfVertex(7);
+        graph.add(WORKER1, v0);
+        graph.append(WORKER1, v1, EdgeType.RUNNING);
+        graph.append(WORKER1, new TmfVertex(3), EdgeType.BLOCKED, "lock");
+        graph.append(WORKER1, new TmfVertex(7), EdgeType.RUNNING);
+        graph.add(WORKER2, v2);
+        graph.append(WORKER2, v4, EdgeType.NETWORK, "socket");
+        graph.add(WORKER2, new TmfVertex(5));
+        graph.append(WORKER2, v7b, EdgeType.PREEMPTED, "lock");
+        graph.add(WORKER3, v4b);
+        graph.link(v1, v2, EdgeType.DEFAULT, "fork");
+        graph.link(v4, v4b, EdgeType.NETWORK);
+        TmfVertex tail = graph.getTail(WORKER1);
+        assertNotNull(tail);
+        graph.link(v7b, tail, EdgeType.DEFAULT);
+        return graph;
+    }
+
+    private static void assertEdgeEquals(TmfGraph expectedGraph, TmfGraph graph, TmfVertex expectedVertex, TmfVertex vertex, EdgeDirection direction) {
+        TmfEdge expected = expectedVertex.getEdge(direction);
+        TmfEdge edge = vertex.getEdge(direction);
+        if (expected == null) {
+            assertNull(edge);
+            return;
+        }
+        assertNotNull(edge);
+        assertEquals(expected.getType(), edge.getType());
+        assertEquals(expected.getLinkQualifier(), edge.getLinkQualifier());
+        assertEquals(expected.getVertexFrom().getTs(), edge.getVertexFrom().getTs());
+        assertEquals(expected.getVertexTo().getTs(), edge.getVertexTo().getTs());
+        assertEquals(expectedGraph.getParentOf(expected.getVertexFrom()), graph.getParentOf(edge.getVertexFrom()));
+        assertEquals(expectedGraph.getParentOf(expected.getVertexTo()), graph.getParentOf(edge.getVertexTo()));
+    }
+
+    /**
+     * Test that a graph read from a file is the graph that was written
+     *
+     * @throws IOException
+     *             If the file cannot be written or read
+     */
+    @Test
+    public void testWriteRead() throws IOException {
+        TmfGraph expected = createGraph();
+        TmfGraphFile.write(fFile, expected, SERIALIZER, 1);
+        TmfGraph graph = TmfGraphFile.read(fFile, SERIALIZER, 1);
+        assertNotNull(graph);
+        assertEquals(expected.size(), graph.size());
+        assertEquals(expected.getWorkers(), graph.getWorkers());
+        for (IGraphWorker worker : expected.getWorkers()) {
+            List<TmfVertex> expectedVertices = expected.getNodesOf(worker);
+            List<TmfVertex> vertices = graph.getNodesOf(worker);
+            assertEquals(expectedVertices.size(), vertices.size());
+            for (int i = 0; i < vertices.size(); i++) {
+                TmfVertex expectedVertex = expectedVertices.get(i);
+                TmfVertex vertex = vertices.get(i);
+                assertEquals(expectedVertex.getTs(), vertex.getTs());
+                for (EdgeDirection direction : EdgeDirection.values()) {
+                    assertEdgeEquals(expected, graph, expectedVertex, vertex, direction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that a graph written by another version is not read
+     *
+     * @throws IOException
+     *             If the file cannot be written or read
+     */
+    @Test
+    public void testVersion() throws IOException {
+        TmfGraphFile.write(fFile, createGraph(), SERIALIZER, 1);
+        assertNull(TmfGraphFile.read(fFile, SERIALIZER, 2));
+    }
+
+    /**
+     * Test writing and reading an empty graph
+     *
+     * @throws IOException
+     *             If the file cannot be written or read
+     */
+    @Test
+    public void testEmptyGraph() throws IOException {
+        TmfGraphFile.write(fFile, new TmfGraph(), SERIALIZER, 1);
+        TmfGraph graph = TmfGraphFile.read(fFile, SERIALIZER, 1);
+        assertNotNull(graph);
+        assertEquals(0, graph.size());
+        assertNull(graph.getHead());
+    }
+}
@@ -275,6 +275,36 @@ public class TmfGraphTest {
         assertEquals(WORKER2, fGraph.getParentOf(fV1));
     }
 
+    /**
+     * Test the {@link TmfGraph#getParentOf(TmfVertex)} and
+     * {@link TmfGraph#size()} methods with vertices in 2 graphs
+     */
+    @Test
+    public void testParentTwoGraphs() {
+        TmfGraph other = new TmfGraph();
+        fGraph.append(WORKER1, fV0);
+        other.add(WORKER2, fV0);
+        other.add(WORKER2, fV1);
+        assertEquals(WORKER1, fGraph.getParentOf(fV0));
+        assertEquals(WORKER2, other.getParentOf(fV0));
+        assertNull(fGraph.getParentOf(fV1));
+        assertEquals(1, fGraph.size());
+        assertEquals(2, other.size());
+
+        /* Adding a vertex again does not change the size */
+        other.add(WORKER3, fV0);
+        assertEquals(WORKER3, other.getParentOf(fV0));
+        assertEquals(2, other.size());
+
+        assertEquals(fV0, fGraph.removeTail(WORKER1));
+        assertNull(fGraph.getParentOf(fV0));
+        assertEquals(0, fGraph.size());
+        assertEquals(WORKER3, other.getParentOf(fV0));
+        assertEquals(fV1, other.removeTail(WORKER2));
+        assertNull(other.getParentOf(fV1));
+        assertEquals(1, other.size());
+    }
+
     /**
      * Test the {@link TmfGraph#getVertexAt(ITmfTimestamp, IGraphWorker)} method
      */
@@ -427,6 +457,45 @@ public class TmfGraphTest {
         assertEquals(23, stats.getSum().longValue());
     }
 
+    /**
+     * Test the time range queries of the {@link TmfGraphStatistics} class
+     */
+    @Test
+    public void testGraphStatisticsRange() {
+        TmfGraph graph = buildFullGraph();
+        TmfGraphStatistics stats = new TmfGraphStatistics();
+        stats.computeGraphStatistics(graph, WORKER1);
+        assertEquals(12, stats.getSum(WORKER1, 0, 15));
+        assertEquals(7, stats.getSum(WORKER1, 1, 11));
+        assertEquals(0, stats.getSum(WORKER1, 3, 4));
+        assertEquals(5, stats.getSum(WORKER1, 6, 12));
+        assertEquals(5, stats.getSum(WORKER2, 6, 12));
+        assertEquals(10, stats.getSum(6, 12));
+        assertEquals(0.5, stats.getPercent(WORKER1, 6, 12), 0.0001);
+        assertEquals(5, stats.getSum(WORKER1, EdgeType.DEFAULT, 6, 12));
+        assertEquals(0, stats.getSum(WORKER1, EdgeType.RUNNING, 6, 12));
+        assertEquals(0, stats.getSum(WORKER3, 0, 15));
+
+        /* Compare with the durations of the edges clipped to each range */
+        for (long start = -1; start <= 16; start++) {
+            for (long end = start; end <= 16; end++) {
+                long expected = 0;
+                for (IGraphWorker worker : graph.getWorkers()) {
+                    long expectedWorker = 0;
+                    for (TmfVertex vertex : graph.getNodesOf(worker)) {
+                        TmfEdge edge = vertex.getEdge(EdgeDirection.OUTGOING_HORIZONTAL_EDGE);
+                        if (edge != null) {
+                            expectedWorker += Math.max(0, Math.min(end, edge.getVertexTo().getTs()) - Math.max(start, vertex.getTs()));
+                        }
+                    }
+                    assertEquals(expectedWorker, stats.getSum(worker, start, end));
+                    expected += expectedWorker;
+                }
+                assertEquals(expected, stats.getSum(start, end));
+            }
+        }
+    }
+
     /**
      * This visitor throws an exception if it visits twice the same vertex
      *
@@ -35,6 +35,15 @@ public class TestGraphWorker implements IGraphWorker {
         fValue = i;
     }
 
+    /**
+     * Get the integer representing this worker
+     *
+     * @return The integer representing this worker
+     */
+    public int getValue() {
+        return fValue;
+    }
+
     @Override
     public String getHostId() {
         return "test";
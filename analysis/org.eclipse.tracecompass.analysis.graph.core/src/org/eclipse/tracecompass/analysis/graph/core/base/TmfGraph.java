@@ -45,13 +45,20 @@ import com.google.common.collect.ListMultimap;
  * belongs to an object (the key of the multimap) at a given time. This is why
  * we use a ListMultimap to represent the graph, instead of a simple list.
  *
+ * The worker of a vertex is kept in the vertex itself for the first graph the
+ * vertex is added to, a map is only used for the vertices that are also in
+ * another graph. On large execution graphs, a map entry per vertex used more
+ * memory than the vertex.
+ *
  * @author Francis Giraldeau
  * @author Geneviève Bastien
  */
 public class TmfGraph {
 
     private final ListMultimap<IGraphWorker, TmfVertex> fNodeMap;
+    /* Workers of the vertices whose first graph is another graph */
     private final Map<TmfVertex, IGraphWorker> fReverse;
+    private int fSize = 0;
 
     /* Latch tracking if the graph is done building or not */
     private final CountDownLatch fFinishedLatch = new CountDownLatch(1);
@@ -75,7 +82,7 @@ public class TmfGraph {
     public void add(IGraphWorker worker, TmfVertex vertex) {
         List<TmfVertex> list = fNodeMap.get(worker);
         list.add(vertex);
-        fReverse.put(vertex, worker);
+        setParent(vertex, worker);
     }
 
     /**
@@ -111,7 +118,7 @@ public class TmfGraph {
             link.setType(type);
         }
         list.add(vertex);
-        fReverse.put(vertex, worker);
+        setParent(vertex, worker);
         return link;
     }
 
@@ -137,7 +144,7 @@ public class TmfGraph {
             link = tail.linkHorizontal(vertex, type, linkQualifier);
         }
         list.add(vertex);
-        fReverse.put(vertex, worker);
+        setParent(vertex, worker);
         return link;
     }
 
@@ -178,8 +185,8 @@ public class TmfGraph {
      * @return The newly created edge
      */
     public TmfEdge link(TmfVertex from, TmfVertex to, EdgeType type) {
-        IGraphWorker ofrom = fReverse.get(from);
-        IGraphWorker oto = fReverse.get(to);
+        IGraphWorker ofrom = getParentOf(from);
+        IGraphWorker oto = getParentOf(to);
         if (ofrom == null) {
             throw new IllegalArgumentException(Messages.TmfGraph_FromNotInGraph);
         }
@@ -221,8 +228,8 @@ public class TmfGraph {
      * @since 2.1
      */
     public TmfEdge link(TmfVertex from, TmfVertex to, EdgeType type, String linkQualifier) {
-        IGraphWorker ofrom = fReverse.get(from);
-        IGraphWorker oto = fReverse.get(to);
+        IGraphWorker ofrom = getParentOf(from);
+        IGraphWorker oto = getParentOf(to);
         if (ofrom == null) {
             throw new IllegalArgumentException(Messages.TmfGraph_FromNotInGraph);
         }
@@ -268,7 +275,7 @@ public class TmfGraph {
         List<TmfVertex> list = fNodeMap.get(worker);
         if (!list.isEmpty()) {
             TmfVertex last = list.remove(list.size() - 1);
-            fReverse.remove(last);
+            removeParent(last);
             return last;
         }
         return null;
@@ -350,9 +357,35 @@ public class TmfGraph {
      * @return The object the vertex belongs to
      */
     public @Nullable IGraphWorker getParentOf(TmfVertex node) {
+        if (node.fGraph == this) {
+            return node.fWorker;
+        }
         return fReverse.get(node);
     }
 
+    private void setParent(TmfVertex vertex, IGraphWorker worker) {
+        TmfGraph graph = vertex.fGraph;
+        if (graph == null) {
+            vertex.fGraph = this;
+            vertex.fWorker = worker;
+            fSize++;
+        } else if (graph == this) {
+            vertex.fWorker = worker;
+        } else if (fReverse.put(vertex, worker) == null) {
+            fSize++;
+        }
+    }
+
+    private void removeParent(TmfVertex vertex) {
+        if (vertex.fGraph == this) {
+            vertex.fGraph = null;
+            vertex.fWorker = null;
+            fSize--;
+        } else if (fReverse.remove(vertex) != null) {
+            fSize--;
+        }
+    }
+
     /**
      * Returns the graph objects
      *
@@ -368,7 +401,7 @@ public class TmfGraph {
      * @return number of vertices
      */
     public int size() {
-        return fReverse.size();
+        return fSize;
     }
 
     @Override
@@ -17,6 +17,7 @@ package org.eclipse.tracecompass.analysis.graph.core.base;
 
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge.EdgeType;
@@ -32,7 +33,7 @@ public class TmfVertex implements Comparable<TmfVertex> {
 
     private static final String UNKNOWN_EDGE_DIRECTION_TYPE = "Unknown edge direction type : "; //$NON-NLS-1$
 
-    private static long count = 0;
+    private static final AtomicLong COUNT = new AtomicLong();
 
     /**
      * Describe the four edges coming in and out of a vertex
@@ -73,6 +74,13 @@ public class TmfVertex implements Comparable<TmfVertex> {
     private final long fTimestamp;
     private final long fId;
 
+    /*
+     * The first graph this vertex was added to and its worker in this graph,
+     * so that the graph does not need a map of the workers of its vertices
+     */
+    @Nullable TmfGraph fGraph = null;
+    @Nullable IGraphWorker fWorker = null;
+
     /**
      * Default Constructor
      */
@@ -88,9 +96,7 @@ public class TmfVertex implements Comparable<TmfVertex> {
      */
     public TmfVertex(final long ts) {
         fTimestamp = ts;
-        synchronized (TmfVertex.class) {
-            fId = count++;
-        }
+        fId = COUNT.getAndIncrement();
     }
 
     /**
@@ -113,9 +119,7 @@ public class TmfVertex implements Comparable<TmfVertex> {
      */
     public TmfVertex(TmfVertex node, final long ts) {
         fTimestamp = ts;
-        synchronized (TmfVertex.class) {
-            fId = count++;
-        }
+        fId = COUNT.getAndIncrement();
         fOutgoingVertical = node.fOutgoingVertical;
         fIncomingVertical = node.fIncomingVertical;
         fOutgoingHorizontal = node.fOutgoingHorizontal;
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.graph.core.building;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
+
+/**
+ * Converts the workers of a graph to and from bytes, so that the graph built
+ * by a {@link TmfGraphBuilderModule} can be saved in a supplementary file and
+ * read back when the trace is opened again, instead of being rebuilt from the
+ * events.
+ *
+ * @since 2.2
+ */
+public interface IGraphWorkerSerializer {
+
+    /**
+     * Get the bytes of a worker
+     *
+     * @param worker
+     *            The worker to serialize
+     * @return The bytes representing this worker
+     */
+    byte[] serialize(IGraphWorker worker);
+
+    /**
+     * Read a worker from the bytes returned by {@link #serialize(IGraphWorker)}
+     *
+     * @param buffer
+     *            A buffer containing only the bytes of the worker
+     * @return The worker
+     */
+    IGraphWorker deserialize(ByteBuffer buffer);
+
+}
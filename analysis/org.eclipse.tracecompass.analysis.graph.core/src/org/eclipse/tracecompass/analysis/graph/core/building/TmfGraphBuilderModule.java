@@ -11,6 +11,11 @@
 
 package org.eclipse.tracecompass.analysis.graph.core.building;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -18,6 +23,7 @@ import org.eclipse.tracecompass.analysis.graph.core.base.TmfGraph;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.CriticalPathModule;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.ICriticalPathProvider;
 import org.eclipse.tracecompass.internal.analysis.graph.core.Activator;
+import org.eclipse.tracecompass.internal.analysis.graph.core.base.TmfGraphFile;
 import org.eclipse.tracecompass.tmf.core.analysis.TmfAbstractAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
@@ -26,6 +32,7 @@ import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 
 /**
  * Base class for all modules building graphs
@@ -35,6 +42,8 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  */
 public abstract class TmfGraphBuilderModule extends TmfAbstractAnalysisModule implements ICriticalPathProvider {
 
+    private static final String EXTENSION = ".graph"; //$NON-NLS-1$
+
     private @Nullable TmfGraph fGraph;
     private @Nullable ITmfEventRequest fRequest;
     private final CriticalPathModule fCriticalPathModule;
@@ -53,6 +62,44 @@ public abstract class TmfGraphBuilderModule extends TmfAbstractAnalysisModule im
      */
     protected abstract ITmfGraphProvider getGraphProvider();
 
+    /**
+     * Gets the serializer of the workers of the graph. If the module has a
+     * serializer, the graph is saved in a supplementary file of the trace and
+     * read from this file the next time the analysis is executed, instead of
+     * being built again from the events. By default, the graph is only kept
+     * in memory.
+     *
+     * @return The worker serializer, or <code>null</code> if the graph is not
+     *         saved on disk
+     * @since 2.2
+     */
+    protected @Nullable IGraphWorkerSerializer getWorkerSerializer() {
+        return null;
+    }
+
+    /**
+     * Graph builder modules that save their graph on disk should provide a
+     * version number. If the graph built by the provider or the serialized
+     * workers change, this version number should be incremented, so that the
+     * graph saved by a previous version is built again.
+     *
+     * @return The version number of the graph
+     * @since 2.2
+     */
+    protected int getVersion() {
+        return 1;
+    }
+
+    /**
+     * Returns the file name for saving the graph
+     *
+     * @return The graph file name
+     * @since 2.2
+     */
+    protected String getDataFileName() {
+        return getId() + EXTENSION;
+    }
+
     /**
      * Gets the graph generated by the analysis
      *
@@ -69,20 +116,65 @@ public abstract class TmfGraphBuilderModule extends TmfAbstractAnalysisModule im
     @Override
     protected boolean executeAnalysis(final IProgressMonitor monitor) {
         if (fGraph == null) {
-            final ITmfGraphProvider provider = getGraphProvider();
-
-            /*
-             * TODO: This will eventually support multiple backends so we can
-             * save the graph on disk, like the state system, but for now, it is
-             * just in memory
-             */
+            IGraphWorkerSerializer serializer = getWorkerSerializer();
+            Path file = getGraphFile();
+            if (serializer != null && file != null) {
+                TmfGraph graph = readGraph(file, serializer);
+                if (graph != null) {
+                    fGraph = graph;
+                    return !monitor.isCanceled();
+                }
+            }
 
+            final ITmfGraphProvider provider = getGraphProvider();
             createGraph(provider);
 
+            ITmfEventRequest request = fRequest;
+            TmfGraph graph = fGraph;
+            if (serializer != null && file != null && graph != null && request != null && !request.isCancelled() && !monitor.isCanceled()) {
+                saveGraph(file, graph, serializer);
+            }
         }
         return !monitor.isCanceled();
     }
 
+    private @Nullable Path getGraphFile() {
+        ITmfTrace trace = getTrace();
+        if (trace == null) {
+            return null;
+        }
+        return Paths.get(TmfTraceManager.getSupplementaryFileDir(trace), getDataFileName());
+    }
+
+    private @Nullable TmfGraph readGraph(Path file, IGraphWorkerSerializer serializer) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            TmfGraph graph = TmfGraphFile.read(file, serializer, getVersion());
+            if (graph != null) {
+                return graph;
+            }
+        } catch (IOException | RuntimeException e) {
+            Activator.getInstance().logWarning("Error reading the graph file " + file + ", the graph will be built again", e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        /* The file is from another version or is corrupted, delete it */
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Ignore
+        }
+        return null;
+    }
+
+    private void saveGraph(Path file, TmfGraph graph, IGraphWorkerSerializer serializer) {
+        try {
+            TmfGraphFile.write(file, graph, serializer, getVersion());
+        } catch (IOException e) {
+            Activator.getInstance().logError("Error writing the graph file " + file, e); //$NON-NLS-1$
+        }
+    }
+
     @Override
     public boolean setTrace(@NonNull ITmfTrace trace) throws TmfAnalysisException {
         boolean ret = super.setTrace(trace);
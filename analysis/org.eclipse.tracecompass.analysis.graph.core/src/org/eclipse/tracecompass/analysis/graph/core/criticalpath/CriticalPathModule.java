@@ -11,6 +11,11 @@
 
 package org.eclipse.tracecompass.analysis.graph.core.criticalpath;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -25,8 +30,11 @@ import org.eclipse.tracecompass.internal.analysis.graph.core.criticalpath.Critic
 import org.eclipse.tracecompass.internal.analysis.graph.core.criticalpath.Messages;
 import org.eclipse.tracecompass.tmf.core.analysis.TmfAbstractAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Class to implement the critical path analysis
  *
@@ -47,6 +55,14 @@ public class CriticalPathModule extends TmfAbstractAnalysisModule implements ICr
 
     private volatile @Nullable TmfGraph fCriticalPath;
 
+    /*
+     * The algorithm for the current graph, with the blockings it already
+     * resolved, and the critical paths of the workers already computed on
+     * this graph
+     */
+    private @Nullable CriticalPathAlgorithmBounded fAlgorithm;
+    private final Map<IGraphWorker, TmfGraph> fCriticalPaths = new ConcurrentHashMap<>();
+
     /**
      * Default constructor
      *
@@ -88,21 +104,102 @@ public class CriticalPathModule extends TmfAbstractAnalysisModule implements ICr
             throw new TmfAnalysisException("Critical Path analysis: graph " + graphModule.getName() + " is null"); //$NON-NLS-1$//$NON-NLS-2$
         }
 
+        try {
+            fCriticalPath = getCriticalPath(graph, worker);
+            return true;
+        } catch (CriticalPathAlgorithmException e) {
+            Activator.getInstance().logError(NonNullUtils.nullToEmptyString(e.getMessage()), e);
+        }
+        return false;
+    }
+
+    /**
+     * Get the critical path of a worker, from the cache of the critical paths
+     * already computed on this graph
+     */
+    private TmfGraph getCriticalPath(TmfGraph graph, IGraphWorker worker) throws CriticalPathAlgorithmException {
+        CriticalPathAlgorithmBounded algorithm = getAlgorithm(graph);
+        TmfGraph criticalPath = fCriticalPaths.get(worker);
+        if (criticalPath != null) {
+            return criticalPath;
+        }
         TmfVertex head = graph.getHead(worker);
         if (head == null) {
             /* Nothing happens with this worker, return an empty graph */
-            fCriticalPath = new TmfGraph();
-            return true;
+            criticalPath = new TmfGraph();
+        } else {
+            criticalPath = algorithm.compute(head, null);
+        }
+        fCriticalPaths.put(worker, criticalPath);
+        return criticalPath;
+    }
+
+    /**
+     * Get the critical paths of many workers. The critical paths not already
+     * computed are computed in parallel. This method waits for the graph to be
+     * built.
+     *
+     * @param workers
+     *            The workers for which to get the critical path
+     * @return The critical path of each worker, or an empty map if the graph
+     *         could not be built
+     * @since 2.2
+     */
+    public Map<IGraphWorker, TmfGraph> getCriticalPaths(Collection<IGraphWorker> workers) {
+        TmfGraph graph = getGraph();
+        if (graph == null) {
+            return Collections.emptyMap();
         }
+        Map<IGraphWorker, TmfGraph> criticalPaths = new ConcurrentHashMap<>();
+        workers.parallelStream().forEach(worker -> {
+            try {
+                criticalPaths.put(worker, getCriticalPath(graph, worker));
+            } catch (CriticalPathAlgorithmException e) {
+                Activator.getInstance().logError(NonNullUtils.nullToEmptyString(e.getMessage()), e);
+            }
+        });
+        return ImmutableMap.copyOf(criticalPaths);
+    }
 
-        ICriticalPathAlgorithm cp = getAlgorithm(graph);
+    /**
+     * Get the critical path of a worker in a time range. The critical path
+     * starts at the first vertex of the worker at or after the start time and
+     * stops before the end time. This method waits for the graph to be built.
+     *
+     * @param worker
+     *            The worker for which to get the critical path
+     * @param start
+     *            The start time of the range
+     * @param end
+     *            The end time of the range
+     * @return The critical path in this time range, or <code>null</code> if
+     *         the graph could not be built
+     * @since 2.2
+     */
+    public @Nullable TmfGraph getCriticalPath(IGraphWorker worker, long start, long end) {
+        TmfGraph graph = getGraph();
+        if (graph == null) {
+            return null;
+        }
+        TmfVertex head = graph.getVertexAt(TmfTimestamp.fromNanos(start), worker);
+        if (head == null || head.getTs() >= end) {
+            return new TmfGraph();
+        }
         try {
-            fCriticalPath = cp.compute(head, null);
-            return true;
+            return getAlgorithm(graph).compute(head, new TmfVertex(end));
         } catch (CriticalPathAlgorithmException e) {
             Activator.getInstance().logError(NonNullUtils.nullToEmptyString(e.getMessage()), e);
         }
-        return false;
+        return null;
+    }
+
+    private @Nullable TmfGraph getGraph() {
+        TmfGraphBuilderModule graphModule = fGraphModule;
+        graphModule.schedule();
+        if (!graphModule.waitForCompletion()) {
+            return null;
+        }
+        return graphModule.getGraph();
     }
 
     @Override
@@ -118,8 +215,15 @@ public class CriticalPathModule extends TmfAbstractAnalysisModule implements ICr
         schedule();
     }
 
-    private static ICriticalPathAlgorithm getAlgorithm(TmfGraph graph) {
-        return new CriticalPathAlgorithmBounded(graph);
+    private synchronized CriticalPathAlgorithmBounded getAlgorithm(TmfGraph graph) {
+        CriticalPathAlgorithmBounded algorithm = fAlgorithm;
+        if (algorithm == null || algorithm.getGraph() != graph) {
+            /* The graph changed, forget the results on the previous graph */
+            fCriticalPaths.clear();
+            algorithm = new CriticalPathAlgorithmBounded(graph);
+            fAlgorithm = algorithm;
+        }
+        return algorithm;
     }
 
     @Override
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.graph.core.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge;
+
+/**
+ * Index of the durations of the horizontal edges of a worker, to get the time
+ * spent by the worker in any time range without visiting the edges again.
+ *
+ * The edges are sorted by start time, with the prefix sums of their durations.
+ * The horizontal edges of a worker follow each other and do not overlap, so
+ * the edges in a time range are found with two binary searches and only the
+ * first and last edge of the range need to be clipped.
+ */
+final class DurationIndex {
+
+    private final long[] fStarts;
+    private final long[] fEnds;
+    /* fPrefix[i] is the sum of the durations of the first i edges */
+    private final long[] fPrefix;
+
+    /**
+     * Constructor
+     *
+     * @param edges
+     *            The horizontal edges of a worker
+     */
+    public DurationIndex(List<TmfEdge> edges) {
+        List<TmfEdge> sorted = new ArrayList<>(edges);
+        sorted.sort(Comparator.comparingLong(edge -> edge.getVertexFrom().getTs()));
+        int size = sorted.size();
+        fStarts = new long[size];
+        fEnds = new long[size];
+        fPrefix = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            TmfEdge edge = sorted.get(i);
+            fStarts[i] = edge.getVertexFrom().getTs();
+            fEnds[i] = edge.getVertexTo().getTs();
+            fPrefix[i + 1] = fPrefix[i] + edge.getDuration();
+        }
+    }
+
+    /**
+     * Get the sum of the durations of all the edges
+     *
+     * @return The total duration
+     */
+    public long getSum() {
+        return fPrefix[fPrefix.length - 1];
+    }
+
+    /**
+     * Get the sum of the durations of the edges in a time range, the edges
+     * partially in the range count only for the time they are in the range
+     *
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The duration of the edges in the range
+     */
+    public long getSum(long start, long end) {
+        if (end <= start) {
+            return 0;
+        }
+        /* The first edge ending after the start, the first starting at end */
+        int first = firstGreaterThan(fEnds, start);
+        int last = firstGreaterOrEqual(fStarts, end);
+        if (first >= last) {
+            return 0;
+        }
+        long sum = fPrefix[last] - fPrefix[first];
+        sum -= Math.max(0, start - fStarts[first]);
+        sum -= Math.max(0, fEnds[last - 1] - end);
+        return sum;
+    }
+
+    private static int firstGreaterThan(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int firstGreaterOrEqual(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
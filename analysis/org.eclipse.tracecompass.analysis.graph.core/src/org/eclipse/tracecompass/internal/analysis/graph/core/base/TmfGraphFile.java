@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.graph.core.base;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge.EdgeType;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfGraph;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex.EdgeDirection;
+import org.eclipse.tracecompass.analysis.graph.core.building.IGraphWorkerSerializer;
+
+/**
+ * Reads and writes a {@link TmfGraph} in a binary file.
+ *
+ * The file starts with a header, followed by the table of the edge qualifiers
+ * and the table of the workers. Each worker entry has the offset of its
+ * section, its number of vertices, the time range of its vertices and the
+ * serialized worker. The section of a worker is an array of fixed size vertex
+ * records sorted by time, so a vertex can be found by its index or by a binary
+ * search on its timestamp. A vertex record is its timestamp followed by its
+ * outgoing horizontal and vertical edges, which are the worker and vertex
+ * index of the target, the edge type and the qualifier index. The incoming
+ * edges are the outgoing edges of other vertices, so they are not saved.
+ *
+ * The sections are memory-mapped when the graph is read.
+ */
+public final class TmfGraphFile {
+
+    private static final int MAGIC = 0x7E5C6A22;
+    private static final int FILE_VERSION = 1;
+
+    /* Magic, file version, provider version, workers, qualifiers, tables */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + Long.BYTES;
+    /* Target worker, target index, type and qualifier */
+    private static final int EDGE_SIZE = 3 * Integer.BYTES + Byte.BYTES;
+    /* Timestamp, outgoing horizontal and vertical edges */
+    private static final int VERTEX_SIZE = Long.BYTES + 2 * EDGE_SIZE;
+
+    private static final int NO_EDGE = -1;
+    private static final int NO_QUALIFIER = -1;
+    private static final EdgeType[] EDGE_TYPES = EdgeType.values();
+
+    private TmfGraphFile() {
+        // Do nothing
+    }
+
+    /**
+     * Write a graph to a file. The graph is first written to a temporary file
+     * next to the target, so an interrupted write does not leave an incomplete
+     * file behind.
+     *
+     * @param file
+     *            The file to write
+     * @param graph
+     *            The graph to save
+     * @param serializer
+     *            The serializer of the workers of the graph
+     * @param version
+     *            The version of the graph provider, the graph is not read if
+     *            the version changes
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public static void write(Path file, TmfGraph graph, IGraphWorkerSerializer serializer, int version) throws IOException {
+        List<IGraphWorker> workers = new ArrayList<>(graph.getWorkers());
+        Map<IGraphWorker, Integer> workerIndexes = new HashMap<>();
+        /* TmfVertex does not override equals, so this is an identity map */
+        Map<TmfVertex, Integer> vertexIndexes = new HashMap<>();
+        Map<String, Integer> qualifiers = new LinkedHashMap<>();
+        List<byte[]> workerBytes = new ArrayList<>();
+        long tablesSize = 0;
+        for (int i = 0; i < workers.size(); i++) {
+            IGraphWorker worker = workers.get(i);
+            workerIndexes.put(worker, i);
+            List<TmfVertex> vertices = graph.getNodesOf(worker);
+            for (int j = 0; j < vertices.size(); j++) {
+                TmfVertex vertex = vertices.get(j);
+                vertexIndexes.put(vertex, j);
+                addQualifier(qualifiers, vertex.getEdge(EdgeDirection.OUTGOING_HORIZONTAL_EDGE));
+                addQualifier(qualifiers, vertex.getEdge(EdgeDirection.OUTGOING_VERTICAL_EDGE));
+            }
+            byte[] bytes = serializer.serialize(worker);
+            workerBytes.add(bytes);
+            tablesSize += Long.BYTES + Integer.BYTES + 2 * Long.BYTES + Integer.BYTES + bytes.length;
+        }
+        List<byte[]> qualifierBytes = new ArrayList<>();
+        for (String qualifier : qualifiers.keySet()) {
+            byte[] bytes = qualifier.getBytes(StandardCharsets.UTF_8);
+            qualifierBytes.add(bytes);
+            tablesSize += Integer.BYTES + bytes.length;
+        }
+
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(version);
+            out.writeInt(workers.size());
+            out.writeInt(qualifiers.size());
+            out.writeLong(tablesSize);
+            for (byte[] bytes : qualifierBytes) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            long offset = HEADER_SIZE + tablesSize;
+            for (int i = 0; i < workers.size(); i++) {
+                List<TmfVertex> vertices = graph.getNodesOf(workers.get(i));
+                byte[] bytes = workerBytes.get(i);
+                out.writeLong(offset);
+                out.writeInt(vertices.size());
+                out.writeLong(vertices.isEmpty() ? 0 : vertices.get(0).getTs());
+                out.writeLong(vertices.isEmpty() ? 0 : vertices.get(vertices.size() - 1).getTs());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                offset += (long) vertices.size() * VERTEX_SIZE;
+            }
+            for (IGraphWorker worker : workers) {
+                for (TmfVertex vertex : graph.getNodesOf(worker)) {
+                    out.writeLong(vertex.getTs());
+                    writeEdge(out, graph, vertex.getEdge(EdgeDirection.OUTGOING_HORIZONTAL_EDGE), workerIndexes, vertexIndexes, qualifiers);
+                    writeEdge(out, graph, vertex.getEdge(EdgeDirection.OUTGOING_VERTICAL_EDGE), workerIndexes, vertexIndexes, qualifiers);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpFile);
+            throw e;
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void addQualifier(Map<String, Integer> qualifiers, @Nullable TmfEdge edge) {
+        if (edge == null) {
+            return;
+        }
+        String qualifier = edge.getLinkQualifier();
+        if (qualifier != null && !qualifiers.containsKey(qualifier)) {
+            qualifiers.put(qualifier, qualifiers.size());
+        }
+    }
+
+    private static void writeEdge(DataOutputStream out, TmfGraph graph, @Nullable TmfEdge edge, Map<IGraphWorker, Integer> workerIndexes, Map<TmfVertex, Integer> vertexIndexes, Map<String, Integer> qualifiers) throws IOException {
+        TmfVertex to = (edge == null) ? null : edge.getVertexTo();
+        IGraphWorker worker = (to == null) ? null : graph.getParentOf(to);
+        Integer workerIndex = (worker == null) ? null : workerIndexes.get(worker);
+        Integer vertexIndex = (to == null) ? null : vertexIndexes.get(to);
+        if (edge == null || workerIndex == null || vertexIndex == null) {
+            /* No edge, or an edge to a vertex that is not in the graph */
+            out.writeInt(NO_EDGE);
+            out.writeInt(NO_EDGE);
+            out.writeByte(0);
+            out.writeInt(NO_QUALIFIER);
+            return;
+        }
+        out.writeInt(workerIndex);
+        out.writeInt(vertexIndex);
+        out.writeByte(edge.getType().ordinal());
+        String qualifier = edge.getLinkQualifier();
+        Integer qualifierIndex = (qualifier == null) ? null : qualifiers.get(qualifier);
+        out.writeInt(qualifierIndex == null ? NO_QUALIFIER : qualifierIndex);
+    }
+
+    /**
+     * Read a graph from a file written by
+     * {@link #write(Path, TmfGraph, IGraphWorkerSerializer, int)}
+     *
+     * @param file
+     *            The file to read
+     * @param serializer
+     *            The serializer of the workers of the graph
+     * @param version
+     *            The version of the graph provider
+     * @return The graph, or <code>null</code> if the file is not a graph file
+     *         or if it was written by another version
+     * @throws IOException
+     *             If the file cannot be read
+     */
+    public static @Nullable TmfGraph read(Path file, IGraphWorkerSerializer serializer, int version) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != FILE_VERSION || header.getInt() != version) {
+                return null;
+            }
+            int nbWorkers = header.getInt();
+            int nbQualifiers = header.getInt();
+            long tablesSize = header.getLong();
+            if (tablesSize < 0 || tablesSize > Integer.MAX_VALUE || HEADER_SIZE + tablesSize > fileSize) {
+                throw new IOException("Invalid graph file: " + file); //$NON-NLS-1$
+            }
+
+            ByteBuffer tables = channel.map(MapMode.READ_ONLY, HEADER_SIZE, tablesSize);
+            String[] qualifiers = new String[nbQualifiers];
+            for (int i = 0; i < nbQualifiers; i++) {
+                byte[] bytes = new byte[tables.getInt()];
+                tables.get(bytes);
+                qualifiers[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            /* Create the vertices of all workers, then link them */
+            TmfGraph graph = new TmfGraph();
+            MappedByteBuffer[] sections = new MappedByteBuffer[nbWorkers];
+            TmfVertex[][] vertices = new TmfVertex[nbWorkers][];
+            for (int i = 0; i < nbWorkers; i++) {
+                long offset = tables.getLong();
+                int nbVertices = tables.getInt();
+                /* Skip the time range, it is only used to seek in the file */
+                tables.position(tables.position() + 2 * Long.BYTES);
+                int length = tables.getInt();
+                ByteBuffer workerBuffer = tables.slice();
+                workerBuffer.limit(length);
+                tables.position(tables.position() + length);
+                IGraphWorker worker = serializer.deserialize(workerBuffer);
+
+                long sectionSize = (long) nbVertices * VERTEX_SIZE;
+                if (nbVertices < 0 || sectionSize > Integer.MAX_VALUE || offset + sectionSize > fileSize) {
+                    throw new IOException("Invalid graph file: " + file); //$NON-NLS-1$
+                }
+                MappedByteBuffer section = channel.map(MapMode.READ_ONLY, offset, sectionSize);
+                sections[i] = section;
+                TmfVertex[] workerVertices = new TmfVertex[nbVertices];
+                for (int j = 0; j < nbVertices; j++) {
+                    TmfVertex vertex = new TmfVertex(section.getLong(j * VERTEX_SIZE));
+                    workerVertices[j] = vertex;
+                    graph.add(worker, vertex);
+                }
+                vertices[i] = workerVertices;
+            }
+            for (int i = 0; i < nbWorkers; i++) {
+                MappedByteBuffer section = sections[i];
+                TmfVertex[] workerVertices = vertices[i];
+                for (int j = 0; j < workerVertices.length; j++) {
+                    int position = j * VERTEX_SIZE + Long.BYTES;
+                    readEdge(section, position, workerVertices[j], vertices, qualifiers, true);
+                    readEdge(section, position + EDGE_SIZE, workerVertices[j], vertices, qualifiers, false);
+                }
+            }
+            graph.closeGraph();
+            return graph;
+        }
+    }
+
+    private static void readEdge(ByteBuffer section, int position, TmfVertex from, TmfVertex[][] vertices, String[] qualifiers, boolean horizontal) {
+        int workerIndex = section.getInt(position);
+        if (workerIndex == NO_EDGE) {
+            return;
+        }
+        TmfVertex to = vertices[workerIndex][section.getInt(position + Integer.BYTES)];
+        EdgeType type = EDGE_TYPES[section.get(position + 2 * Integer.BYTES)];
+        int qualifierIndex = section.getInt(position + 2 * Integer.BYTES + Byte.BYTES);
+        String qualifier = (qualifierIndex == NO_QUALIFIER) ? null : qualifiers[qualifierIndex];
+        if (horizontal) {
+            from.linkHorizontal(to, type, qualifier);
+        } else {
+            from.linkVertical(to, type, qualifier);
+        }
+    }
+
+}
@@ -15,13 +15,19 @@
 
 package org.eclipse.tracecompass.internal.analysis.graph.core.base;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
 import org.eclipse.tracecompass.analysis.graph.core.base.ITmfGraphVisitor;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge;
+import org.eclipse.tracecompass.analysis.graph.core.base.TmfEdge.EdgeType;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfGraph;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
 
@@ -29,6 +35,12 @@ import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
  * Class that computes statistics on time spent in the elements (objects) of a
  * graph
  *
+ * The horizontal edges of each worker are also indexed, by worker and by edge
+ * type, once the graph is visited by
+ * {@link #computeGraphStatistics(TmfGraph, IGraphWorker)}, so that the time
+ * spent in any time range is computed with binary searches instead of visiting
+ * the graph again.
+ *
  * @author Francis Giraldeau
  * @author Geneviève Bastien
  * @author Matthew Khouzam
@@ -39,6 +51,14 @@ public class TmfGraphStatistics implements ITmfGraphVisitor {
     private Long fTotal;
     private @Nullable TmfGraph fGraph;
 
+    /*
+     * The horizontal edges of the workers being visited, released once they
+     * are indexed at the end of the visit
+     */
+    private final Map<IGraphWorker, List<TmfEdge>> fWorkerEdges = new HashMap<>();
+    private Map<IGraphWorker, DurationIndex> fIndex = Collections.emptyMap();
+    private Map<IGraphWorker, Map<EdgeType, DurationIndex>> fTypeIndex = Collections.emptyMap();
+
     /**
      * Constructor
      */
@@ -62,6 +82,9 @@ public class TmfGraphStatistics implements ITmfGraphVisitor {
         clear();
         fGraph = graph;
         fGraph.scanLineTraverse(fGraph.getHead(current), this);
+        synchronized (fWorkerStats) {
+            buildIndex();
+        }
     }
 
     @Override
@@ -91,6 +114,7 @@ public class TmfGraphStatistics implements ITmfGraphVisitor {
                 }
                 fWorkerStats.put(worker, duration);
                 fTotal += edge.getDuration();
+                fWorkerEdges.computeIfAbsent(worker, w -> new ArrayList<>()).add(edge);
             }
         }
     }
@@ -140,6 +164,108 @@ public class TmfGraphStatistics implements ITmfGraphVisitor {
         }
     }
 
+    /**
+     * Get the duration spent by one element of the graph in a time range
+     *
+     * @param worker
+     *            The object to get the time spent for
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The sum of the durations in the time range
+     */
+    public long getSum(@Nullable IGraphWorker worker, long start, long end) {
+        synchronized (fWorkerStats) {
+            DurationIndex index = fIndex.get(worker);
+            return (index == null) ? 0 : index.getSum(start, end);
+        }
+    }
+
+    /**
+     * Get the duration spent by one element of the graph in edges of a type,
+     * in a time range
+     *
+     * @param worker
+     *            The object to get the time spent for
+     * @param type
+     *            The type of the edges
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The sum of the durations of the edges of this type in the time
+     *         range
+     */
+    public long getSum(@Nullable IGraphWorker worker, EdgeType type, long start, long end) {
+        synchronized (fWorkerStats) {
+            Map<EdgeType, DurationIndex> indexes = fTypeIndex.get(worker);
+            DurationIndex index = (indexes == null) ? null : indexes.get(type);
+            return (index == null) ? 0 : index.getSum(start, end);
+        }
+    }
+
+    /**
+     * Get the total duration of the graph vertices in a time range
+     *
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The sum of the durations in the time range
+     */
+    public long getSum(long start, long end) {
+        synchronized (fWorkerStats) {
+            long sum = 0;
+            for (DurationIndex index : fIndex.values()) {
+                sum += index.getSum(start, end);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Get the percentage of time by one element of the graph in a time range
+     *
+     * @param worker
+     *            The object to get the percentage for
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The percentage time spent in this element in the time range
+     */
+    public double getPercent(@Nullable IGraphWorker worker, long start, long end) {
+        synchronized (fWorkerStats) {
+            long total = getSum(start, end);
+            if (total == 0) {
+                return 0;
+            }
+            return (double) getSum(worker, start, end) / (double) total;
+        }
+    }
+
+    /* Must be called while holding the fWorkerStats lock */
+    private void buildIndex() {
+        Map<IGraphWorker, DurationIndex> index = new HashMap<>();
+        Map<IGraphWorker, Map<EdgeType, DurationIndex>> typeIndex = new HashMap<>();
+        for (Entry<IGraphWorker, List<TmfEdge>> entry : fWorkerEdges.entrySet()) {
+            List<TmfEdge> edges = entry.getValue();
+            index.put(entry.getKey(), new DurationIndex(edges));
+            Map<EdgeType, List<TmfEdge>> edgesByType = new EnumMap<>(EdgeType.class);
+            for (TmfEdge edge : edges) {
+                edgesByType.computeIfAbsent(edge.getType(), t -> new ArrayList<>()).add(edge);
+            }
+            Map<EdgeType, DurationIndex> indexes = new EnumMap<>(EdgeType.class);
+            edgesByType.forEach((type, typeEdges) -> indexes.put(type, new DurationIndex(typeEdges)));
+            typeIndex.put(entry.getKey(), indexes);
+        }
+        fIndex = index;
+        fTypeIndex = typeIndex;
+        /* The indexes have what they need, do not keep the edges alive */
+        fWorkerEdges.clear();
+    }
+
     /**
      * Clear statistics
      */
@@ -148,6 +274,9 @@ public class TmfGraphStatistics implements ITmfGraphVisitor {
         synchronized (fWorkerStats) {
             fTotal = 0L;
             fWorkerStats.clear();
+            fWorkerEdges.clear();
+            fIndex = Collections.emptyMap();
+            fTypeIndex = Collections.emptyMap();
         }
     }
 
@@ -14,10 +14,13 @@ package org.eclipse.tracecompass.internal.analysis.graph.core.criticalpath;
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
@@ -27,6 +30,8 @@ import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex;
 import org.eclipse.tracecompass.analysis.graph.core.base.TmfVertex.EdgeDirection;
 import org.eclipse.tracecompass.analysis.graph.core.criticalpath.CriticalPathAlgorithmException;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * Critical path bounded algorithm: backward resolution of blocking limited to
  * the blocking window
@@ -36,10 +41,46 @@ import org.eclipse.tracecompass.analysis.graph.core.criticalpath.CriticalPathAlg
  * F. Giraldeau and M.Dagenais, Wait analysis of distributed systems using
  * kernel tracing, IEEE Transactions on Parallel and Distributed Systems
  *
+ * The resolved blockings are memoized, so that the blockings shared by the
+ * critical paths of many workers are resolved only once. The graph must not be
+ * modified while the algorithm is used. The critical paths of different
+ * workers can then be computed concurrently with the same instance.
+ *
  * @author Francis Giraldeau
  */
 public class CriticalPathAlgorithmBounded extends AbstractCriticalPathAlgorithm {
 
+    /*
+     * The sub-paths of the blockings already resolved, by blocking edge and
+     * bound. TmfEdge and TmfVertex do not override equals, so the keys are
+     * compared by identity.
+     */
+    private final Map<BlockingKey, List<TmfEdge>> fResolved = new ConcurrentHashMap<>();
+
+    private static final class BlockingKey {
+        private final TmfEdge fBlocking;
+        private final TmfVertex fBound;
+
+        public BlockingKey(TmfEdge blocking, TmfVertex bound) {
+            fBlocking = blocking;
+            fBound = bound;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(fBlocking) + System.identityHashCode(fBound);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof BlockingKey)) {
+                return false;
+            }
+            BlockingKey other = (BlockingKey) obj;
+            return fBlocking == other.fBlocking && fBound == other.fBound;
+        }
+    }
+
     /**
      * Constructor
      *
@@ -105,7 +146,7 @@ public class CriticalPathAlgorithmBounded extends AbstractCriticalPathAlgorithm
                 break;
             case NETWORK:
             case BLOCKED:
-                List<TmfEdge> links = resolveBlockingBounded(nextEdge, nextEdge.getVertexFrom());
+                List<TmfEdge> links = new ArrayList<>(resolveBlockingBounded(nextEdge, nextEdge.getVertexFrom()));
                 Collections.reverse(links);
                 appendPathComponent(criticalPath, graph, currentVertex, links);
                 break;
@@ -190,9 +231,24 @@ public class CriticalPathAlgorithmBounded extends AbstractCriticalPathAlgorithm
      * @param bound
      *            The vertex that limits the boundary until which to resolve the
      *            blocking
-     * @return The list of non-blocking edges
+     * @return The unmodifiable list of non-blocking edges
      */
     private List<TmfEdge> resolveBlockingBounded(TmfEdge blocking, TmfVertex bound) {
+        TmfVertex currentBound = bound.compareTo(blocking.getVertexFrom()) < 0 ? blocking.getVertexFrom() : bound;
+        BlockingKey key = new BlockingKey(blocking, currentBound);
+        List<TmfEdge> resolved = fResolved.get(key);
+        if (resolved == null) {
+            /*
+             * Not computeIfAbsent, the resolution is recursive. Concurrent
+             * threads may resolve the same blocking, with the same result.
+             */
+            resolved = ImmutableList.copyOf(computeBlockingBounded(blocking, currentBound));
+            fResolved.put(key, resolved);
+        }
+        return resolved;
+    }
+
+    private List<TmfEdge> computeBlockingBounded(TmfEdge blocking, TmfVertex currentBound) {
 
         LinkedList<TmfEdge> subPath = new LinkedList<>();
         TmfVertex junction = findIncoming(blocking.getVertexTo(), EdgeDirection.OUTGOING_HORIZONTAL_EDGE);
@@ -205,8 +261,6 @@ public class CriticalPathAlgorithmBounded extends AbstractCriticalPathAlgorithm
         subPath.add(down);
         TmfVertex vertexFrom = down.getVertexFrom();
 
-        TmfVertex currentBound = bound.compareTo(blocking.getVertexFrom()) < 0 ? blocking.getVertexFrom() : bound;
-
         Deque<TmfVertex> stack = new ArrayDeque<>();
         while (vertexFrom != null && vertexFrom.compareTo(currentBound) > 0) {
             /* shortcut for down link that goes beyond the blocking */
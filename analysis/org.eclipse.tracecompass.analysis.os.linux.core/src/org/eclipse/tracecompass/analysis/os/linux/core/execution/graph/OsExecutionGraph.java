@@ -11,8 +11,10 @@
 
 package org.eclipse.tracecompass.analysis.os.linux.core.execution.graph;
 
+import org.eclipse.tracecompass.analysis.graph.core.building.IGraphWorkerSerializer;
 import org.eclipse.tracecompass.analysis.graph.core.building.ITmfGraphProvider;
 import org.eclipse.tracecompass.analysis.graph.core.building.TmfGraphBuilderModule;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.execution.graph.OsWorkerSerializer;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
@@ -47,6 +49,11 @@ public class OsExecutionGraph extends TmfGraphBuilderModule {
         return new OsExecutionGraphProvider(trace);
     }
 
+    @Override
+    protected IGraphWorkerSerializer getWorkerSerializer() {
+        return OsWorkerSerializer.INSTANCE;
+    }
+
     @Override
     protected String getFullHelpText() {
         return super.getFullHelpText();
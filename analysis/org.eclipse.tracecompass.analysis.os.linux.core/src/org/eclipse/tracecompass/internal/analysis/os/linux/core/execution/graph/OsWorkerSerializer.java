@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.os.linux.core.execution.graph;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
+import org.eclipse.tracecompass.analysis.graph.core.building.IGraphWorkerSerializer;
+import org.eclipse.tracecompass.analysis.os.linux.core.execution.graph.OsWorker;
+import org.eclipse.tracecompass.analysis.os.linux.core.model.HostThread;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+
+/**
+ * Serializer of the {@link OsWorker} of the execution graph. The status of the
+ * workers is only used while building the graph, so it is not saved.
+ */
+public final class OsWorkerSerializer implements IGraphWorkerSerializer {
+
+    /** The instance of this serializer */
+    public static final OsWorkerSerializer INSTANCE = new OsWorkerSerializer();
+
+    private OsWorkerSerializer() {
+        // Do nothing
+    }
+
+    @Override
+    public byte[] serialize(IGraphWorker worker) {
+        if (!(worker instanceof OsWorker)) {
+            throw new IllegalArgumentException("Not an OS worker: " + worker); //$NON-NLS-1$
+        }
+        OsWorker osWorker = (OsWorker) worker;
+        HostThread hostThread = osWorker.getHostThread();
+        int size = SafeByteBufferFactory.getStringSizeInBuffer(hostThread.getHost())
+                + Integer.BYTES
+                + SafeByteBufferFactory.getStringSizeInBuffer(osWorker.getName())
+                + Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        ISafeByteBufferWriter writer = SafeByteBufferFactory.wrapWriter(buffer, size);
+        writer.putString(hostThread.getHost());
+        writer.putInt(hostThread.getTid());
+        writer.putString(osWorker.getName());
+        writer.putLong(osWorker.getStart());
+        return buffer.array();
+    }
+
+    @Override
+    public IGraphWorker deserialize(ByteBuffer buffer) {
+        ISafeByteBufferReader reader = SafeByteBufferFactory.wrapReader(buffer, buffer.remaining());
+        String host = reader.getString();
+        int tid = reader.getInt();
+        String name = reader.getString();
+        long start = reader.getLong();
+        return new OsWorker(new HostThread(host, tid), name, start);
+    }
+
+}
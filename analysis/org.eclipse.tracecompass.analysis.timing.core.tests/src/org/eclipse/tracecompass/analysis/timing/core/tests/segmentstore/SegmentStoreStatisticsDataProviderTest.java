@@ -13,6 +13,7 @@ package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,19 +52,19 @@ public class SegmentStoreStatisticsDataProviderTest {
     // Test data
     // ------------------------------------------------------------------------
 
-    private static final @NonNull List<@NonNull String> EXPECTED_HEADER_LIST = Arrays.asList("Label", "Minimum", "Maximum", "Average", "Std Dev", "Count", "Total");
-    private static final @NonNull List<@NonNull String> EXPECTED_TOOLTIP_LIST = Arrays.asList("", "", "", "", "", "", "");
+    private static final @NonNull List<@NonNull String> EXPECTED_HEADER_LIST = Arrays.asList("Label", "Minimum", "Maximum", "Average", "Std Dev", "Count", "Total", "P50", "P90", "P99", "P99.9");
+    private static final @NonNull List<@NonNull String> EXPECTED_TOOLTIP_LIST = Arrays.asList("", "", "", "", "", "", "", "", "", "", "");
 
     private static final List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_FULL = Arrays.asList(
-            Arrays.asList("", "0", "65.534 µs", "32.767 µs", "18.918 µs", "65535", "2.147 s"),
-            Arrays.asList("Total", "0", "65.534 µs", "32.767 µs", "18.918 µs", "65535", "2.147 s"),
-            Arrays.asList("even", "0", "65.534 µs", "32.767 µs", "18.919 µs", "32768", "1.074 s"),
-            Arrays.asList("odd", "1 ns", "65.533 µs", "32.767 µs", "18.918 µs", "32767", "1.074 s"));
+            Arrays.asList("", "0", "65.534 µs", "32.767 µs", "18.918 µs", "65535", "2.147 s", "32.512 µs", "58.88 µs", "65.024 µs", "65.024 µs"),
+            Arrays.asList("Total", "0", "65.534 µs", "32.767 µs", "18.918 µs", "65535", "2.147 s", "32.512 µs", "58.88 µs", "65.024 µs", "65.024 µs"),
+            Arrays.asList("even", "0", "65.534 µs", "32.767 µs", "18.919 µs", "32768", "1.074 s", "32.512 µs", "58.88 µs", "65.024 µs", "65.024 µs"),
+            Arrays.asList("odd", "1 ns", "65.533 µs", "32.767 µs", "18.918 µs", "32767", "1.074 s", "32.512 µs", "58.88 µs", "65.024 µs", "65.024 µs"));
 
     private static final @NonNull List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_SELECTION = Arrays.asList(
-            Arrays.asList("Selection", "512 ns", "4.096 µs", "2.304 µs", "1.035 µs", "3585", "8.26 ms"),
-            Arrays.asList("even", "512 ns", "4.096 µs", "2.304 µs", "1.035 µs", "1793", "4.131 ms"),
-            Arrays.asList("odd", "513 ns", "4.095 µs", "2.304 µs", "1.035 µs", "1792", "4.129 ms"));
+            Arrays.asList("Selection", "512 ns", "4.096 µs", "2.304 µs", "1.035 µs", "3585", "8.26 ms", "2.336 µs", "3.744 µs", "4.064 µs", "4.064 µs"),
+            Arrays.asList("even", "512 ns", "4.096 µs", "2.304 µs", "1.035 µs", "1793", "4.131 ms", "2.336 µs", "3.744 µs", "4.064 µs", "4.064 µs"),
+            Arrays.asList("odd", "513 ns", "4.095 µs", "2.304 µs", "1.035 µs", "1792", "4.129 ms", "2.272 µs", "3.744 µs", "4.064 µs", "4.064 µs"));
 
     private static final @NonNull List<@NonNull StatisticsHolder> EXPECTED_STATS_FULL = Arrays.asList(
             new StatisticsHolder("", 0, -1, 0, 65534, 32767.0, 18918.46, 65535, 2147385345.0, 0, 0, 65534, 131068),
@@ -77,10 +78,10 @@ public class SegmentStoreStatisticsDataProviderTest {
             new StatisticsHolder("odd", 7, 5, 513, 4095, 2304.0, 1034.9, 1792, 4128768.0, 513, 1026, 4095, 8190));
 
     private static final List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_WITH_MAPPER_FULL = Arrays.asList(
-            Arrays.asList("My", "0", "65534", "32767.0", "18918.46928268775", "65535", "2.147385345E9"),
-            Arrays.asList("MyTotal", "0", "65534", "32767.0", "18918.46928268775", "65535", "2.147385345E9"),
-            Arrays.asList("Myeven", "0", "65534", "32767.0", "18918.90229373787", "32768", "1.073709056E9"),
-            Arrays.asList("Myodd", "1", "65533", "32767.0", "18918.32494346861", "32767", "1.073676289E9"));
+            Arrays.asList("My", "0", "65534", "32767.0", "18918.46928268775", "65535", "2.147385345E9", "32512.0", "58880.0", "65024.0", "65024.0"),
+            Arrays.asList("MyTotal", "0", "65534", "32767.0", "18918.46928268775", "65535", "2.147385345E9", "32512.0", "58880.0", "65024.0", "65024.0"),
+            Arrays.asList("Myeven", "0", "65534", "32767.0", "18918.90229373787", "32768", "1.073709056E9", "32512.0", "58880.0", "65024.0", "65024.0"),
+            Arrays.asList("Myodd", "1", "65533", "32767.0", "18918.32494346861", "32767", "1.073676289E9", "32512.0", "58880.0", "65024.0", "65024.0"));
 
     private static final @NonNull List<@NonNull StatisticsHolder> EXPECTED_STATS_WITH_MAPPER_FULL = Arrays.asList(
             new StatisticsHolder("My", 1, -1, 0, 65534, 32767.0, 18918.46, 65535, 2147385345.0, 0, 0, 65534, 131068),
@@ -88,6 +89,9 @@ public class SegmentStoreStatisticsDataProviderTest {
             new StatisticsHolder("Myeven", 9, 8, 0, 65534, 32767.0, 18918.90, 32768, 1073709056.0, 0, 0, 65534, 131068),
             new StatisticsHolder("Myodd", 10, 8, 1, 65533, 32767.0, 18918.32, 32767, 1073676289.0, 1, 2, 65533, 131066));
 
+    /* Relative error of the estimated percentiles */
+    private static final double QUANTILE_ERROR = 0.02;
+
     private static List<ITableColumnDescriptor> fExpectedDescriptors;
 
     private static SegmentStoreStatisticsDataProvider fTestDataProvider;
@@ -291,6 +295,12 @@ public class SegmentStoreStatisticsDataProviderTest {
             assertEquals("Min end (index " + index + ")", expectedEntries.get(i).fMinEnd, entry.getMinEnd());
             assertEquals("Max start (index " + index + ")", expectedEntries.get(i).fMaxStart, entry.getMaxStart());
             assertEquals("Max end (index " + index + ")", expectedEntries.get(i).fMaxEnd, entry.getMaxEnd());
+
+            /* The percentiles are estimated, check that they are consistent */
+            assertTrue("P50 (index " + index + ")", entry.getMin() <= entry.getP50() && entry.getP50() <= entry.getP90());
+            assertTrue("P90 (index " + index + ")", entry.getP90() <= entry.getP99());
+            assertTrue("P99 (index " + index + ")", entry.getP99() <= entry.getP999() && entry.getP999() <= entry.getMax());
+            assertEquals("P50 (index " + index + ")", expectedEntries.get(i).fMin + (expectedEntries.get(i).fMax - expectedEntries.get(i).fMin) / 2.0, entry.getP50(), QUANTILE_ERROR * expectedEntries.get(i).fMax);
         }
     }
 
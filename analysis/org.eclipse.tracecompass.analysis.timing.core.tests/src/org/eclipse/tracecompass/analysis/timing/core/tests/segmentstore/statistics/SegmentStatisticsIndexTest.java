@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsIndex;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.junit.Test;
+
+/**
+ * Test the {@link SegmentStatisticsIndex}, the statistics of the ranges should
+ * be the same as the statistics of the intersecting segments
+ */
+public class SegmentStatisticsIndexTest {
+
+    private static final long START = 1000;
+    private static final long END = 1000000;
+    private static final double DELTA = 1e-6;
+
+    private static @Nullable String getType(ISegment segment) {
+        return segment.getLength() % 3 == 0 ? null : String.valueOf(segment.getLength() % 3);
+    }
+
+    /**
+     * Test the statistics of random ranges, some of them outside the range of
+     * the index
+     */
+    @Test
+    public void testRanges() {
+        Random random = new Random(42);
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        SegmentStatisticsIndex index = new SegmentStatisticsIndex(START, END, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        for (int i = 0; i < 20000; i++) {
+            /* A few segments are before or after the range of the index */
+            long start = random.nextInt((int) (END + START)) - START / 2;
+            long length = random.nextInt(100) == 0 ? random.nextInt(100000) : random.nextInt(500);
+            ISegment segment = new BasicSegment(start, start + length);
+            store.add(segment);
+            index.update(segment);
+        }
+        index.build();
+
+        assertSummary(store, index.getAll(), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertSummary(store, getStats(index, store, START, END), START, END);
+        assertSummary(store, getStats(index, store, Long.MIN_VALUE, START + 500), Long.MIN_VALUE, START + 500);
+        assertSummary(store, getStats(index, store, END - 500, Long.MAX_VALUE), END - 500, Long.MAX_VALUE);
+        for (int i = 0; i < 200; i++) {
+            long start = random.nextInt((int) (END + START)) - START;
+            long end = start + (i % 2 == 0 ? random.nextInt(1000) : random.nextInt((int) END));
+            assertSummary(store, getStats(index, store, start, end), start, end);
+        }
+    }
+
+    /**
+     * Test that the index built in parallel from the segment store has the
+     * same statistics as the index built sequentially
+     */
+    @Test
+    public void testParallelBuild() {
+        Random random = new Random(7);
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        SegmentStatisticsIndex sequential = new SegmentStatisticsIndex(START, END, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        for (int i = 0; i < 50000; i++) {
+            long start = random.nextInt((int) (END + START)) - START / 2;
+            ISegment segment = new BasicSegment(start, start + random.nextInt(2000));
+            store.add(segment);
+            sequential.update(segment);
+        }
+        sequential.build();
+        SegmentStatisticsIndex parallel = new SegmentStatisticsIndex(START, END, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        assertTrue(parallel.build(store, new NullProgressMonitor()));
+
+        assertSummary(store, parallel.getAll(), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertStatistics(sequential.getAll().getTotal(), parallel.getAll().getTotal());
+        for (int i = 0; i < 50; i++) {
+            long start = random.nextInt((int) END);
+            long end = start + random.nextInt((int) END);
+            assertSummary(store, getStats(parallel, store, start, end), start, end);
+        }
+    }
+
+    /**
+     * Test that a canceled parallel build stops
+     */
+    @Test
+    public void testParallelBuildCanceled() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        store.add(new BasicSegment(START, END));
+        SegmentStatisticsIndex index = new SegmentStatisticsIndex(START, END, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        assertFalse(index.build(store, monitor));
+    }
+
+    /**
+     * Test an index with less time than buckets and an empty index
+     */
+    @Test
+    public void testSmallRange() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        SegmentStatisticsIndex index = new SegmentStatisticsIndex(10, 20, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        index.build();
+        assertEquals(0, getStats(index, store, 0, 30).getTotal().getNbElements());
+
+        index = new SegmentStatisticsIndex(10, 20, ISegment::getLength, SegmentStatisticsIndexTest::getType);
+        for (long i = 0; i < 30; i++) {
+            ISegment segment = new BasicSegment(i, i + i % 4);
+            store.add(segment);
+            index.update(segment);
+        }
+        index.build();
+        for (long start = 0; start < 30; start++) {
+            for (long end = start; end < 30; end++) {
+                assertSummary(store, getStats(index, store, start, end), start, end);
+            }
+        }
+    }
+
+    private static SegmentStatisticsIndex.Summary getStats(SegmentStatisticsIndex index, ISegmentStore<@NonNull ISegment> store, long start, long end) {
+        SegmentStatisticsIndex.Summary summary = index.getStatsForRange(start, end, store, new NullProgressMonitor());
+        assertNotNull(summary);
+        return summary;
+    }
+
+    private static void assertSummary(ISegmentStore<@NonNull ISegment> store, SegmentStatisticsIndex.Summary actual, long start, long end) {
+        IStatistics<@NonNull ISegment> total = new Statistics<>(ISegment::getLength);
+        Map<String, IStatistics<@NonNull ISegment>> perType = new HashMap<>();
+        for (ISegment segment : store.getIntersectingElements(start, end)) {
+            total.update(segment);
+            String type = getType(segment);
+            if (type != null) {
+                perType.computeIfAbsent(type, t -> new Statistics<>(ISegment::getLength)).update(segment);
+            }
+        }
+        assertStatistics(total, actual.getTotal());
+        assertEquals(perType.keySet(), actual.getPerType().keySet());
+        for (Map.Entry<String, IStatistics<@NonNull ISegment>> entry : perType.entrySet()) {
+            IStatistics<@NonNull ISegment> actualStats = actual.getPerType().get(entry.getKey());
+            assertNotNull(actualStats);
+            assertStatistics(entry.getValue(), actualStats);
+        }
+    }
+
+    private static void assertStatistics(IStatistics<@NonNull ISegment> expected, IStatistics<@NonNull ISegment> actual) {
+        assertEquals(expected.getNbElements(), actual.getNbElements());
+        if (expected.getNbElements() == 0) {
+            return;
+        }
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getTotal(), actual.getTotal(), DELTA);
+        assertEquals(expected.getMean(), actual.getMean(), DELTA);
+        assertEquals(expected.getStdDev(), actual.getStdDev(), DELTA);
+        /* The merged histograms are the same as the histogram of the segments */
+        assertEquals(expected.getQuantile(0.5), actual.getQuantile(0.5), DELTA);
+        assertEquals(expected.getQuantile(0.99), actual.getQuantile(0.99), DELTA);
+    }
+}
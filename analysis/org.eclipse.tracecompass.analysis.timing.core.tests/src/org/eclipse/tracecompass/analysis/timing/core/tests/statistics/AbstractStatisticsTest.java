@@ -60,6 +60,8 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
 
     private static final double ERROR = 0.000001;
     private static final double APPROX_ERROR = 0.0001;
+    private static final double QUANTILE_ERROR = 0.02;
+    private static final double @NonNull [] QUANTILES = { 0.0, 0.5, 0.9, 0.99, 0.999, 1.0 };
 
     private final @Nullable Function<@NonNull E, @NonNull Long> fMapper;
 
@@ -111,6 +113,11 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
         assertEquals("Min Element", expected.getMinObject(), toBeTested.getMinObject());
         assertEquals("Max Element", expected.getMaxObject(), toBeTested.getMaxObject());
         assertEquals("Standard Deviation", expected.getStdDev(), toBeTested.getStdDev(), APPROX_ERROR * expected.getStdDev());
+        for (double quantile : QUANTILES) {
+            double expectedQuantile = expected.getQuantile(quantile);
+            /* The values smaller than 1 are estimated as 0 */
+            assertEquals("Quantile " + quantile, expectedQuantile, toBeTested.getQuantile(quantile), QUANTILE_ERROR * Math.abs(expectedQuantile) + 1.0);
+        }
     }
 
     /**
@@ -152,6 +159,7 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
         assertNull(stats.getMaxObject());
         assertEquals("Nb objects", 0, stats.getNbElements());
         assertEquals("Total", 0, stats.getTotal(), ERROR);
+        assertEquals("Median", Double.NaN, stats.getQuantile(0.5), ERROR);
     }
 
     /**
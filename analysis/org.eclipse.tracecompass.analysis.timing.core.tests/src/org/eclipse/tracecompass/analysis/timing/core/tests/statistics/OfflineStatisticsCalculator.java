@@ -12,8 +12,10 @@
 package org.eclipse.tracecompass.analysis.timing.core.tests.statistics;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -161,6 +163,23 @@ public class OfflineStatisticsCalculator<@NonNull E> implements IStatistics<E> {
         return total;
     }
 
+    /**
+     * Get a quantile, with the nearest rank method
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1
+     * @return the value of the quantile
+     */
+    @Override
+    public double getQuantile(double quantile) {
+        if (fElements.isEmpty()) {
+            return Double.NaN;
+        }
+        List<Long> values = fElements.stream().map(fMapper).sorted().collect(Collectors.toList());
+        long rank = Math.max(1, (long) Math.ceil(quantile * values.size()));
+        return values.get((int) rank - 1);
+    }
+
     @Override
     public long getNbElements() {
         return fElements.size();
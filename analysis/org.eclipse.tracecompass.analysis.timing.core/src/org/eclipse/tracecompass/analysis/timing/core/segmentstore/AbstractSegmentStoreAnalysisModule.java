@@ -130,8 +130,9 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
     protected abstract boolean buildAnalysisSegments(ISegmentStore<ISegment> segmentStore, IProgressMonitor monitor) throws TmfAnalysisException;
 
     /**
-     * Get the reader for the segments on disk. If the segment store is not on
-     * disk, this method can return null.
+     * Get the reader for the segments on disk or in the columns of a
+     * {@link SegmentStoreType#Columnar} store. If the segment store is in
+     * memory, this method can return null.
      *
      * @return The segment reader
      * @since 3.0
@@ -181,6 +182,9 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
             final @Nullable String dataFileName = getDataFileName();
             store = buildOnDiskSegmentStore(dataFileName, monitor);
             break;
+        case Columnar:
+            store = buildColumnarSegmentStore(monitor);
+            break;
         default:
             Activator.getInstance().logError("Unknown segment store type: " + type); //$NON-NLS-1$
             break;
@@ -246,6 +250,17 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         return segmentStore;
     }
 
+    private @Nullable ISegmentStore<@NonNull ISegment> buildColumnarSegmentStore(IProgressMonitor monitor) throws TmfAnalysisException {
+        ISegmentStore<ISegment> segmentStore = SegmentStoreFactory.createColumnarSegmentStore(getSegmentReader());
+        boolean completed = buildAnalysisSegments(segmentStore, monitor);
+        if (!completed) {
+            segmentStore.dispose();
+            return null;
+        }
+
+        return segmentStore;
+    }
+
     /**
      * Send the segment store to all its listener
      *
@@ -36,6 +36,10 @@ public class SegmentStoreStatisticsModel extends TmfTreeDataModel {
     private final long fMinEnd;
     private final long fMaxStart;
     private final long fMaxEnd;
+    private final double fP50;
+    private final double fP90;
+    private final double fP99;
+    private final double fP999;
 
     /**
      * Constructor
@@ -76,6 +80,10 @@ public class SegmentStoreStatisticsModel extends TmfTreeDataModel {
         fMean = statistics.getMean();
         fStdDev = statistics.getStdDev();
         fTotal = statistics.getTotal();
+        fP50 = statistics.getQuantile(0.5);
+        fP90 = statistics.getQuantile(0.9);
+        fP99 = statistics.getQuantile(0.99);
+        fP999 = statistics.getQuantile(0.999);
 
         ISegment max = statistics.getMaxObject();
         if (max != null) {
@@ -190,4 +198,44 @@ public class SegmentStoreStatisticsModel extends TmfTreeDataModel {
         return fMaxEnd;
     }
 
+    /**
+     * Get the median (50th percentile) from the statistics
+     *
+     * @return the median, or NaN if it is not available
+     * @since 5.3
+     */
+    public double getP50() {
+        return fP50;
+    }
+
+    /**
+     * Get the 90th percentile from the statistics
+     *
+     * @return the 90th percentile, or NaN if it is not available
+     * @since 5.3
+     */
+    public double getP90() {
+        return fP90;
+    }
+
+    /**
+     * Get the 99th percentile from the statistics
+     *
+     * @return the 99th percentile, or NaN if it is not available
+     * @since 5.3
+     */
+    public double getP99() {
+        return fP99;
+    }
+
+    /**
+     * Get the 99.9th percentile from the statistics
+     *
+     * @return the 99.9th percentile, or NaN if it is not available
+     * @since 5.3
+     */
+    public double getP999() {
+        return fP999;
+    }
+
 }
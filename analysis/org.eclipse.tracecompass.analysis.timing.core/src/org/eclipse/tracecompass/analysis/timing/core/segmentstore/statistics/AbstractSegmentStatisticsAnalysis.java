@@ -22,6 +22,7 @@ import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreP
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatisticsAnalysis;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsIndex;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
@@ -46,6 +47,8 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     private Map<String, IStatistics<ISegment>> fPerSegmentTypeStats = new HashMap<>();
 
+    private volatile @Nullable SegmentStatisticsIndex fStatisticsIndex = null;
+
     /**
      * Gets the segment mapper. This allows values to be resolved
      *
@@ -77,14 +80,31 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             return false;
         }
 
-        IStatistics<ISegment> totalStats = getTotalStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
-        if (totalStats == null) {
+        ISegmentStoreProvider segmentStoreProviderModule = fSegmentStoreProviderModule;
+        ITmfTrace trace = getTrace();
+        if (segmentStoreProviderModule == null || trace == null) {
+            return false;
+        }
+        if (segmentStoreProviderModule instanceof IAnalysisModule) {
+            ((IAnalysisModule) segmentStoreProviderModule).waitForCompletion();
+        }
+
+        /*
+         * Compute the statistics of the whole trace and the index of the
+         * statistics by time range, filling its buckets in parallel
+         */
+        SegmentStatisticsIndex index = new SegmentStatisticsIndex(trace.getStartTime().toNanos(), trace.getEndTime().toNanos(), getMapper(), this::getSegmentType);
+        ISegmentStore<@NonNull ISegment> store = segmentStoreProviderModule.getSegmentStore();
+        if (store == null) {
+            index.build();
+        } else if (!index.build(store, monitor)) {
             return false;
         }
 
-        Map<String, IStatistics<ISegment>> perTypeStats = getPerTypeStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
-        fTotalStats = totalStats;
-        fPerSegmentTypeStats = perTypeStats;
+        SegmentStatisticsIndex.Summary all = index.getAll();
+        fTotalStats = all.getTotal();
+        fPerSegmentTypeStats = all.getPerType();
+        fStatisticsIndex = index;
 
         return true;
     }
@@ -123,6 +143,10 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsTotal();
         }
+        SegmentStatisticsIndex.Summary summary = getIndexedStats(start, end, monitor);
+        if (summary != null) {
+            return summary.getTotal();
+        }
         return getTotalStats(start, end, monitor);
     }
 
@@ -157,9 +181,32 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsPerType();
         }
+        SegmentStatisticsIndex.Summary summary = getIndexedStats(start, end, monitor);
+        if (summary != null) {
+            return summary.getPerType();
+        }
         return getPerTypeStats(start, end, monitor);
     }
 
+    /**
+     * Get the statistics of a range from the index, once the analysis is done.
+     *
+     * @return The statistics, or null if the index is not built yet or the
+     *         request is canceled
+     */
+    private SegmentStatisticsIndex.@Nullable Summary getIndexedStats(long start, long end, IProgressMonitor monitor) {
+        SegmentStatisticsIndex index = fStatisticsIndex;
+        ISegmentStoreProvider segmentStoreProviderModule = fSegmentStoreProviderModule;
+        if (index == null || segmentStoreProviderModule == null) {
+            return null;
+        }
+        ISegmentStore<@NonNull ISegment> segmentStore = segmentStoreProviderModule.getSegmentStore();
+        if (segmentStore == null) {
+            return null;
+        }
+        return index.getStatsForRange(Long.min(start, end), Long.max(start, end), segmentStore, monitor);
+    }
+
     private static boolean isEternity(long start, long end) {
         return start == TmfTimeRange.ETERNITY.getStartTime().toNanos() && end == TmfTimeRange.ETERNITY.getEndTime().toNanos();
     }
@@ -217,7 +264,8 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     /**
      * Get the type of a segment. Statistics per type will use this type as a
-     * key
+     * key. The statistics are computed in parallel, so this method, like
+     * {@link #getMapper()}, may be called from many threads at once.
      *
      * @param segment
      *            the segment for which to get the type
@@ -107,6 +107,22 @@ public interface IStatistics<@NonNull E> {
      */
     double getTotal();
 
+    /**
+     * Gets a quantile of the values, with the nearest rank method: the
+     * smallest value such that at least this fraction of the values are
+     * smaller or equal. Implementations may return an estimate.
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1, for example 0.99 for the 99th
+     *            percentile
+     * @return The quantile, or NaN if there are no elements or the quantiles
+     *         are not available
+     * @since 5.3
+     */
+    default double getQuantile(double quantile) {
+        return Double.NaN;
+    }
+
     /**
      * Update the statistics based on a given object
      * <p>
@@ -118,7 +134,10 @@ public interface IStatistics<@NonNull E> {
     void update(E object);
 
     /**
-     * Merge 2 statistics classes for the same object type
+     * Merge 2 statistics classes for the same object type. The merge is
+     * associative, so statistics computed separately on parts of a set of
+     * objects, for example in parallel, can be merged in any grouping to get
+     * the statistics of the whole set.
      *
      * @param other
      *            The other statistics object
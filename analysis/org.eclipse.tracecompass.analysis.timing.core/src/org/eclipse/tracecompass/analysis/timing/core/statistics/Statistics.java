@@ -17,6 +17,7 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.NumberComparator;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.QuantileSketch;
 
 /**
  * Class that calculates statistics on a certain type of object. If the object
@@ -49,6 +50,11 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
     private double fVariance;
     private double fTotal;
 
+    /**
+     * Histogram of the values, to estimate their quantiles
+     */
+    private final QuantileSketch fSketch = new QuantileSketch();
+
     /**
      * Constructor
      */
@@ -135,6 +141,23 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         return fTotal;
     }
 
+    /**
+     * Gets an estimate of a quantile of the values. The values are counted in
+     * a histogram whose bins are narrower than 1/32 of their values, so the
+     * estimate is within 1.6% of the actual quantile, between the minimum and
+     * maximum values.
+     *
+     * @since 5.3
+     */
+    @Override
+    public double getQuantile(double quantile) {
+        if (fNbElements == 0) {
+            return Double.NaN;
+        }
+        double value = fSketch.getQuantile(quantile);
+        return Math.max(fMinNum.doubleValue(), Math.min(fMaxNum.doubleValue(), value));
+    }
+
     @Override
     public void update(E object) {
         Number number = fMapper.apply(object);
@@ -155,6 +178,7 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fMean += delta / fNbElements;
         fVariance += delta * (doubleValue - fMean);
         fTotal += doubleValue;
+        fSketch.add(doubleValue);
     }
 
     private void updateMax(@Nullable E object, Number number) {
@@ -216,6 +240,7 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         double otherAverage = other.getMean();
         fNbElements += otherSegments;
         fTotal += other.getTotal();
+        fSketch.merge(other.fSketch);
 
         /*
          * Average is a weighted average
@@ -223,25 +248,14 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fMean = ((oldNbSeg * oldAverage) + (otherAverage * otherSegments)) / fNbElements;
 
         /*
-         * This one is a bit tricky.
-         *
-         * The variance is the sum of the deltas from a mean squared.
-         *
-         * So if we add the old mean squared back to to variance and remove the
-         * new mean, the standard deviation can be easily calculated.
-         */
-        double avg1Sq = oldAverage * oldAverage;
-        double avg2sq = otherAverage * otherAverage;
-        double avgtSq = fMean * fMean;
-        /*
-         * This is a tricky part, bear in mind that the set is not continuous
-         * but discrete, Therefore, we have for n elements, n-1 intervals
-         * between them. Ergo, n-1 intervals are used for divisions and
-         * multiplications.
+         * The variance is the sum of the squared deltas from the mean. When
+         * merging, the squared deltas of each set must be moved from the mean
+         * of the set to the new mean, which adds the squared delta between the
+         * means for each element, weighted by the number of elements of each
+         * set (Chan et al. pairwise algorithm).
          */
-        double variance1 = fVariance / (oldNbSeg - 1);
-        double variance2 = other.fVariance / (otherSegments - 1);
-        fVariance = ((variance1 + avg1Sq - avgtSq) * (oldNbSeg - 1) + (variance2 + avg2sq - avgtSq) * (otherSegments - 1));
+        double delta = otherAverage - oldAverage;
+        fVariance += other.fVariance + delta * delta * ((double) oldNbSeg * otherSegments / fNbElements);
     }
 
     private void copy(Statistics<E> copyOther) {
@@ -253,6 +267,7 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fNbElements = copyOther.fNbElements;
         fTotal = copyOther.fTotal;
         fVariance = copyOther.fVariance;
+        fSketch.copy(copyOther.fSketch);
     }
 
     @Override
@@ -100,6 +100,22 @@ public class Messages extends NLS {
      * Name of the total column
      */
     public static @Nullable String SegmentStoreStatistics_TotalLabel;
+    /**
+     * Name of the median column
+     */
+    public static @Nullable String SegmentStoreStatistics_P50Label;
+    /**
+     * Name of the 90th percentile column
+     */
+    public static @Nullable String SegmentStoreStatistics_P90Label;
+    /**
+     * Name of the 99th percentile column
+     */
+    public static @Nullable String SegmentStoreStatistics_P99Label;
+    /**
+     * Name of the 99.9th percentile column
+     */
+    public static @Nullable String SegmentStoreStatistics_P999Label;
     /**
      * Name of the standard deviation column
      */
@@ -41,7 +41,8 @@ import com.google.common.collect.ImmutableList;
     }
     /**
      * Set a mapper function to convert a statistics Number to String.
-     * Used for minimum, maximum, average, standard deviation and total.
+     * Used for minimum, maximum, average, standard deviation, total and
+     * percentiles.
      *
      * @param mapper
      *              function to convert a Number to String
@@ -148,9 +149,29 @@ import com.google.common.collect.ImmutableList;
             }
         });
 
+        addQuantileAspect(aspectsBuilder, Objects.requireNonNull(Messages.SegmentStoreStatistics_P50Label), 0.5);
+        addQuantileAspect(aspectsBuilder, Objects.requireNonNull(Messages.SegmentStoreStatistics_P90Label), 0.9);
+        addQuantileAspect(aspectsBuilder, Objects.requireNonNull(Messages.SegmentStoreStatistics_P99Label), 0.99);
+        addQuantileAspect(aspectsBuilder, Objects.requireNonNull(Messages.SegmentStoreStatistics_P999Label), 0.999);
+
         return aspectsBuilder.build();
     }
 
+    private void addQuantileAspect(ImmutableList.Builder<IDataAspect<NamedStatistics>> aspectsBuilder, String name, double quantile) {
+        aspectsBuilder.add(new IDataAspect<NamedStatistics>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+            @Override
+            public @Nullable Object apply(NamedStatistics input) {
+                double value = input.getStatistics().getQuantile(quantile);
+                /* The quantiles are not available for all the statistics */
+                return Double.isNaN(value) ? "" : fMapper.apply(value); //$NON-NLS-1$
+            }
+        });
+    }
+
    /**
     * Wrapper of statistics name and actual statistics implementation
     */
@@ -0,0 +1,185 @@
+/**********************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable histogram of values with a bounded relative error, to estimate
+ * their quantiles without keeping the values.
+ * <p>
+ * Like an HDR histogram, the values are counted in bins whose width is
+ * proportional to their magnitude: each power of 2 is divided in
+ * 32 bins, so the value returned for a quantile is within 1/64 (1.6%) of the
+ * actual value. Values of magnitude smaller
+ * than 1 are counted together as 0.
+ * <p>
+ * Only the bins that have values are kept, in sorted arrays, so the sketch of a
+ * few values is small and the sketch of any number of values has at most a few
+ * thousand bins. Merging two sketches adds their counts, so merging is
+ * associative and gives the same sketch as counting all the values in one.
+ * This class is not thread-safe.
+ */
+public final class QuantileSketch {
+
+    private static final int SUB_BINS_BITS = 5;
+    private static final int SUB_BINS = 1 << SUB_BINS_BITS;
+
+    private static final int[] NO_BINS = new int[0];
+    private static final long[] NO_COUNTS = new long[0];
+
+    /** Sorted bins, the bins of negative values are negative */
+    private int[] fBins = NO_BINS;
+    private long[] fCounts = NO_COUNTS;
+    private int fSize = 0;
+    private long fNbValues = 0;
+
+    /**
+     * Count a value
+     *
+     * @param value
+     *            The value
+     */
+    public void add(double value) {
+        int bin = getBin(value);
+        int index = Arrays.binarySearch(fBins, 0, fSize, bin);
+        if (index >= 0) {
+            fCounts[index]++;
+        } else {
+            insert(-index - 1, bin, 1);
+        }
+        fNbValues++;
+    }
+
+    /**
+     * Add the counts of another sketch to this one
+     *
+     * @param other
+     *            The other sketch
+     */
+    public void merge(QuantileSketch other) {
+        if (other.fSize == 0) {
+            return;
+        }
+        int[] bins = new int[fSize + other.fSize];
+        long[] counts = new long[bins.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < fSize || j < other.fSize) {
+            if (j == other.fSize || (i < fSize && fBins[i] < other.fBins[j])) {
+                bins[size] = fBins[i];
+                counts[size++] = fCounts[i++];
+            } else if (i == fSize || other.fBins[j] < fBins[i]) {
+                bins[size] = other.fBins[j];
+                counts[size++] = other.fCounts[j++];
+            } else {
+                bins[size] = fBins[i];
+                counts[size++] = fCounts[i++] + other.fCounts[j++];
+            }
+        }
+        fBins = bins;
+        fCounts = counts;
+        fSize = size;
+        fNbValues += other.fNbValues;
+    }
+
+    /**
+     * Replace the counts of this sketch with a copy of the counts of another
+     *
+     * @param other
+     *            The sketch to copy
+     */
+    public void copy(QuantileSketch other) {
+        fBins = Arrays.copyOf(other.fBins, other.fSize);
+        fCounts = Arrays.copyOf(other.fCounts, other.fSize);
+        fSize = other.fSize;
+        fNbValues = other.fNbValues;
+    }
+
+    /**
+     * Get the number of values counted
+     *
+     * @return The number of values
+     */
+    public long getNbValues() {
+        return fNbValues;
+    }
+
+    /**
+     * Estimate a quantile of the values, with the nearest rank method
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1, for example 0.99 for the 99th
+     *            percentile
+     * @return The estimated value, or NaN if there are no values
+     */
+    public double getQuantile(double quantile) {
+        if (fNbValues == 0 || Double.isNaN(quantile)) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, quantile) * fNbValues));
+        long count = 0;
+        for (int i = 0; i < fSize; i++) {
+            count += fCounts[i];
+            if (count >= rank) {
+                return getValue(fBins[i]);
+            }
+        }
+        return getValue(fBins[fSize - 1]);
+    }
+
+    private void insert(int index, int bin, long count) {
+        if (fSize == fBins.length) {
+            int capacity = Math.max(4, fSize * 2);
+            fBins = Arrays.copyOf(fBins, capacity);
+            fCounts = Arrays.copyOf(fCounts, capacity);
+        }
+        System.arraycopy(fBins, index, fBins, index + 1, fSize - index);
+        System.arraycopy(fCounts, index, fCounts, index + 1, fSize - index);
+        fBins[index] = bin;
+        fCounts[index] = count;
+        fSize++;
+    }
+
+    /**
+     * Get the bin of a value: 0 for the values of magnitude smaller than 1,
+     * then the exponent and the first bits of the mantissa of the value, plus
+     * 1, negated for negative values.
+     */
+    private static int getBin(double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude >= 1.0)) {
+            /* Also NaN */
+            return 0;
+        }
+        int exponent = Math.getExponent(magnitude);
+        double mantissa = Math.scalb(magnitude, -exponent);
+        int subBin = Math.min(SUB_BINS - 1, (int) ((mantissa - 1.0) * SUB_BINS));
+        int bin = 1 + (exponent << SUB_BINS_BITS) + subBin;
+        return value < 0 ? -bin : bin;
+    }
+
+    /**
+     * Get the value in the middle of a bin
+     */
+    private static double getValue(int bin) {
+        if (bin == 0) {
+            return 0.0;
+        }
+        int magnitudeBin = Math.abs(bin) - 1;
+        int exponent = magnitudeBin >> SUB_BINS_BITS;
+        int subBin = magnitudeBin & (SUB_BINS - 1);
+        double value = Math.scalb(1.0 + (subBin + 0.5) / SUB_BINS, exponent);
+        return bin < 0 ? -value : value;
+    }
+}
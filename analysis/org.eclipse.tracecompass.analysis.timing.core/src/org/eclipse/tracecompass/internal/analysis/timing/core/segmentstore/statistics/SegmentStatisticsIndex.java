@@ -0,0 +1,380 @@
+/**********************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Index of the statistics of a segment store by time range, to get the
+ * statistics of a range without reading all of its segments.
+ * <p>
+ * The time range of the store is divided in buckets of equal duration, each
+ * with the total and per type statistics of the segments that start in it.
+ * The buckets are the leaves of a tree whose nodes merge the statistics of
+ * their children, so the statistics of a range of complete buckets are merged
+ * from O(log n) nodes. Only the segments that start in the partial buckets at
+ * the edges of the range, and those that start before the range but end in
+ * it, are read from the segment store.
+ * <p>
+ * The first and last buckets also hold the segments that start before or after
+ * the time range given to the constructor. The index is either built by a
+ * single thread, with {@link #update} then {@link #build()}, or from a segment
+ * store with {@link #build(ISegmentStore, IProgressMonitor)}, which reads the
+ * store once and fills the buckets in parallel. It is read-only and
+ * thread-safe afterwards.
+ */
+@NonNullByDefault
+public class SegmentStatisticsIndex {
+
+    /** Maximum number of buckets of the index */
+    public static final int MAX_BUCKETS = 1024;
+
+    /** Number of buckets filled by each task of a parallel build */
+    private static final int BUCKETS_PER_TASK = 16;
+
+    private final Function<ISegment, @Nullable Number> fMapper;
+    private final Function<ISegment, @Nullable String> fTypeResolver;
+    private final long fStart;
+    private final long fBucketDuration;
+    private final int fNbBuckets;
+
+    /**
+     * The nodes of the tree, the root at index 1, the children of node i at 2i
+     * and 2i + 1, and the buckets starting at index fNbBuckets. Nodes without
+     * segments are null.
+     */
+    private final @Nullable Summary[] fNodes;
+
+    /**
+     * The statistics of a group of segments, total and per type
+     */
+    public final class Summary {
+        private final IStatistics<ISegment> fTotal = new Statistics<>(fMapper);
+        private final Map<String, IStatistics<ISegment>> fPerType = new HashMap<>();
+
+        private Summary() {
+            // Created by the index
+        }
+
+        private void update(ISegment segment) {
+            fTotal.update(segment);
+            String type = fTypeResolver.apply(segment);
+            if (type != null) {
+                fPerType.computeIfAbsent(type, t -> new Statistics<>(fMapper)).update(segment);
+            }
+        }
+
+        private void merge(@Nullable Summary other) {
+            if (other == null) {
+                return;
+            }
+            fTotal.merge(other.fTotal);
+            for (Map.Entry<String, IStatistics<ISegment>> entry : other.fPerType.entrySet()) {
+                fPerType.computeIfAbsent(entry.getKey(), t -> new Statistics<>(fMapper)).merge(entry.getValue());
+            }
+        }
+
+        /**
+         * Get the statistics of all the segments
+         *
+         * @return The total statistics
+         */
+        public IStatistics<ISegment> getTotal() {
+            return fTotal;
+        }
+
+        /**
+         * Get the statistics of the segments of each type
+         *
+         * @return The statistics per type
+         */
+        public Map<String, IStatistics<ISegment>> getPerType() {
+            return fPerType;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param start
+     *            The start of the time range of the segments, usually the start
+     *            of the trace
+     * @param end
+     *            The end of the time range of the segments
+     * @param mapper
+     *            The function giving the value of a segment for the statistics
+     * @param typeResolver
+     *            The function giving the type of a segment for the statistics
+     *            per type, or null if the segment has no type
+     */
+    public SegmentStatisticsIndex(long start, long end, Function<ISegment, @Nullable Number> mapper, Function<ISegment, @Nullable String> typeResolver) {
+        fMapper = mapper;
+        fTypeResolver = typeResolver;
+        fStart = start;
+        /* Avoid the overflow of the duration of the eternity */
+        double range = Math.max(1.0, (double) end - (double) start + 1.0);
+        fNbBuckets = (int) Math.min(MAX_BUCKETS, range);
+        fBucketDuration = (long) Math.ceil(range / fNbBuckets);
+        fNodes = new @Nullable Summary[2 * fNbBuckets];
+    }
+
+    /**
+     * Add a segment to the index, before it is built
+     *
+     * @param segment
+     *            The segment
+     */
+    public void update(ISegment segment) {
+        int index = fNbBuckets + getBucket(segment.getStart());
+        Summary bucket = fNodes[index];
+        if (bucket == null) {
+            bucket = new Summary();
+            fNodes[index] = bucket;
+        }
+        bucket.update(segment);
+    }
+
+    /**
+     * Compute the nodes of the tree once all the segments were added
+     */
+    public void build() {
+        for (int i = fNbBuckets - 1; i > 0; i--) {
+            Summary left = fNodes[2 * i];
+            Summary right = fNodes[2 * i + 1];
+            if (left != null || right != null) {
+                Summary node = new Summary();
+                node.merge(left);
+                node.merge(right);
+                fNodes[i] = node;
+            }
+        }
+    }
+
+    /**
+     * Build the index from all the segments of a segment store. The store is
+     * read once and its segments are grouped by bucket, then the buckets are
+     * split between the tasks of the fork-join pool, which fill them, and the
+     * nodes of the tree merge the buckets.
+     *
+     * @param store
+     *            The segment store
+     * @param monitor
+     *            The progress monitor
+     * @return true if the index was built, false if the monitor was canceled
+     */
+    public boolean build(ISegmentStore<ISegment> store, IProgressMonitor monitor) {
+        /* Count the segments of each bucket, at the index after the bucket */
+        int[] offsets = new int[fNbBuckets + 1];
+        List<ISegment> segments = new ArrayList<>();
+        boolean sorted = true;
+        int previous = 0;
+        for (ISegment segment : store) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            segments.add(segment);
+            int bucket = getBucket(segment.getStart());
+            offsets[bucket + 1]++;
+            sorted &= previous <= bucket;
+            previous = bucket;
+        }
+        for (int i = 0; i < fNbBuckets; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        /*
+         * The segments of bucket i are between offsets[i] and offsets[i + 1],
+         * they are already in that order if the store iterates by start time
+         */
+        ISegment[] byBucket = segments.toArray(new ISegment[segments.size()]);
+        if (!sorted) {
+            int[] next = Arrays.copyOf(offsets, fNbBuckets);
+            for (ISegment segment : segments) {
+                byBucket[next[getBucket(segment.getStart())]++] = segment;
+            }
+        }
+
+        new FillTask(byBucket, offsets, monitor, 0, fNbBuckets).invoke();
+        if (monitor.isCanceled()) {
+            return false;
+        }
+        build();
+        return true;
+    }
+
+    /**
+     * Task filling a range of buckets from the segments grouped by bucket,
+     * each task writes to its own buckets so they need no synchronization.
+     */
+    private final class FillTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -2470498962254651245L;
+
+        private final transient ISegment[] fSegments;
+        private final transient int[] fOffsets;
+        private final transient IProgressMonitor fMonitor;
+        private final int fFrom;
+        private final int fTo;
+
+        public FillTask(ISegment[] segments, int[] offsets, IProgressMonitor monitor, int from, int to) {
+            fSegments = segments;
+            fOffsets = offsets;
+            fMonitor = monitor;
+            fFrom = from;
+            fTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (fTo - fFrom > BUCKETS_PER_TASK) {
+                int middle = (fFrom + fTo) >>> 1;
+                invokeAll(new FillTask(fSegments, fOffsets, fMonitor, fFrom, middle), new FillTask(fSegments, fOffsets, fMonitor, middle, fTo));
+                return;
+            }
+            for (int bucket = fFrom; bucket < fTo; bucket++) {
+                if (fMonitor.isCanceled()) {
+                    return;
+                }
+                if (fOffsets[bucket] == fOffsets[bucket + 1]) {
+                    continue;
+                }
+                Summary summary = new Summary();
+                for (int i = fOffsets[bucket]; i < fOffsets[bucket + 1]; i++) {
+                    summary.update(fSegments[i]);
+                }
+                fNodes[fNbBuckets + bucket] = summary;
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of all the segments of the index
+     *
+     * @return The statistics of all the segments
+     */
+    public Summary getAll() {
+        /* The root, or the only bucket, has all the segments */
+        Summary all = new Summary();
+        all.merge(fNodes[1]);
+        return all;
+    }
+
+    /**
+     * Get the statistics of the segments intersecting a time range, the same
+     * segments as {@link ISegmentStore#getIntersectingElements(long, long)}
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @param store
+     *            The segment store that was indexed, to read the segments at
+     *            the edges of the range
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics, or null if the monitor was canceled
+     */
+    public @Nullable Summary getStatsForRange(long start, long end, ISegmentStore<ISegment> store, IProgressMonitor monitor) {
+        Summary summary = new Summary();
+        int first = getBucket(start);
+        if (start != getBucketStart(first)) {
+            first++;
+        }
+        int last = getBucket(end);
+        if (end != getBucketEnd(last)) {
+            last--;
+        }
+        if (first > last) {
+            /* No complete bucket, read all the segments */
+            return add(summary, store.getIntersectingElements(start, end), Long.MIN_VALUE, Long.MAX_VALUE, monitor);
+        }
+
+        /*
+         * The segments starting before the first complete bucket, including
+         * those that start before the range
+         */
+        if (first > 0) {
+            long leftEnd = getBucketStart(first) - 1;
+            if (add(summary, store.getIntersectingElements(start, Math.max(start, leftEnd)), Long.MIN_VALUE, leftEnd, monitor) == null) {
+                return null;
+            }
+        }
+
+        /* The complete buckets */
+        for (int left = first + fNbBuckets, right = last + 1 + fNbBuckets; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                summary.merge(fNodes[left++]);
+            }
+            if ((right & 1) == 1) {
+                summary.merge(fNodes[--right]);
+            }
+        }
+
+        /* The segments starting after the last complete bucket */
+        if (last < fNbBuckets - 1) {
+            long rightStart = getBucketEnd(last) + 1;
+            return add(summary, store.getIntersectingElements(rightStart, end), rightStart, Long.MAX_VALUE, monitor);
+        }
+        return summary;
+    }
+
+    private static @Nullable Summary add(Summary summary, Iterable<ISegment> segments, long minStart, long maxStart, IProgressMonitor monitor) {
+        for (ISegment segment : segments) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            long start = segment.getStart();
+            if (minStart <= start && start <= maxStart) {
+                summary.update(segment);
+            }
+        }
+        return summary;
+    }
+
+    private int getBucket(long time) {
+        if (time <= fStart) {
+            return 0;
+        }
+        long bucket = (time - fStart) / fBucketDuration;
+        /* time - fStart can overflow */
+        return (bucket < 0 || bucket >= fNbBuckets) ? fNbBuckets - 1 : (int) bucket;
+    }
+
+    /**
+     * Get the first time of a bucket, the first bucket starts at the beginning
+     * of time
+     */
+    private long getBucketStart(int bucket) {
+        return bucket == 0 ? Long.MIN_VALUE : fStart + bucket * fBucketDuration;
+    }
+
+    /**
+     * Get the last time of a bucket, the last bucket ends at the end of time
+     */
+    private long getBucketEnd(int bucket) {
+        return bucket == fNbBuckets - 1 ? Long.MAX_VALUE : fStart + (bucket + 1) * fBucketDuration - 1;
+    }
+}
@@ -26,6 +26,8 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldBuffer;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldSelection;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
@@ -97,6 +99,51 @@ public class CTFPacketReaderTest {
         assertFalse(cpr.hasMoreEvents());
     }
 
+    /**
+     * Test reading the fields of the events of a packet flat, without
+     * definitions
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testPacketFlatFields() throws CTFException {
+        byte[] bytes = { (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x01, (byte) 0xff, (byte) 0xff, (byte) 0xa5 };
+        BitBuffer input = createBitBuffer(bytes);
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), 8, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("field1", IntegerDeclaration.UINT_16L_DECL);
+        fields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        eventDec.setFields(fields);
+        List<@Nullable IEventDeclaration> declarations = Collections.singletonList(eventDec);
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(input, packetContext, declarations, eventHeaderDeclaration, null, null, trace);
+        FlatFieldSelection selection = new FlatFieldSelection("field2", "missing", "field1");
+        FlatFieldBuffer buffer = selection.createBuffer();
+
+        EventDefinition event = cpr.readNextEvent();
+        event.readFlatFields(selection, buffer);
+        assertTrue(buffer.isSet(0));
+        assertFalse(buffer.isSet(1));
+        assertTrue(buffer.isSet(2));
+        assertEquals(0L, buffer.getLong(0));
+        assertEquals(0L, buffer.getLong(2));
+
+        event = cpr.readNextEvent();
+        event.readFlatFields(selection, buffer);
+        assertEquals(1L, event.getTimestamp());
+        assertEquals(0xa5, buffer.getLong(0));
+        assertFalse(buffer.isSet(1));
+        assertEquals(65535L, buffer.getLong(2));
+        /* The definitions can still be decoded afterwards */
+        assertEquals(65535L, ((IntegerDefinition) event.getFields().getDefinition("field1")).getValue());
+        assertFalse(cpr.hasMoreEvents());
+    }
+
     /**
      * Test a packet with fields, a context and a header (a mostly normal
      * packet)
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows.Slice;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the class {@link StreamInputMappedWindows}
+ */
+public class CTFStreamInputMappedWindowsTest {
+
+    private static final int FILE_SIZE = 4096;
+    private static final int WINDOW_SIZE = 1024;
+
+    /**
+     * Temporary folder for the stream file
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    private StreamInputMappedWindows fFixture;
+
+    /**
+     * Create a stream file where each byte is its offset modulo 256
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        byte[] content = new byte[FILE_SIZE];
+        for (int i = 0; i < FILE_SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        File file = fFolder.newFile("channel0_0");
+        Files.write(file.toPath(), content);
+        fFixture = new StreamInputMappedWindows(file, WINDOW_SIZE);
+    }
+
+    /**
+     * Test that slices start at the requested offset and have the requested
+     * size
+     *
+     * @throws CTFException
+     *             if the file cannot be mapped
+     */
+    @Test
+    public void testSlice() throws CTFException {
+        Slice slice = fFixture.acquire(100, 50);
+        ByteBuffer buffer = slice.getBuffer();
+        assertEquals(50, buffer.capacity());
+        assertEquals(100, buffer.get(0));
+        assertEquals((byte) 149, buffer.get(49));
+        fFixture.release(slice);
+    }
+
+    /**
+     * Test that consecutive regions share a window, and that a region that
+     * does not fit in the window gets a new one
+     *
+     * @throws CTFException
+     *             if the file cannot be mapped
+     */
+    @Test
+    public void testSharedWindow() throws CTFException {
+        Slice first = fFixture.acquire(0, 512);
+        Slice second = fFixture.acquire(512, 512);
+        assertEquals(1, fFixture.getWindowCount());
+        Slice spanning = fFixture.acquire(1000, 100);
+        assertEquals(2, fFixture.getWindowCount());
+        assertEquals((byte) 1000, spanning.getBuffer().get(0));
+        assertEquals((byte) 1099, spanning.getBuffer().get(99));
+        Slice large = fFixture.acquire(2048, 2048);
+        assertEquals(2048, large.getBuffer().capacity());
+        assertEquals(3, fFixture.getWindowCount());
+        fFixture.release(first);
+        fFixture.release(second);
+        fFixture.release(spanning);
+        fFixture.release(large);
+    }
+
+    /**
+     * Test that only a few unused windows are kept, and never the windows in
+     * use
+     *
+     * @throws CTFException
+     *             if the file cannot be mapped
+     */
+    @Test
+    public void testEviction() throws CTFException {
+        Slice inUse = fFixture.acquire(0, 10);
+        for (int i = 1; i < 4; i++) {
+            fFixture.release(fFixture.acquire(i * WINDOW_SIZE, 10));
+        }
+        assertEquals(3, fFixture.getWindowCount());
+        /* The window in use was the least recently used one */
+        assertEquals(0, inUse.getBuffer().get(0));
+        fFixture.release(inUse);
+        assertEquals(2, fFixture.getWindowCount());
+        /* Releasing twice does nothing */
+        fFixture.release(inUse);
+        assertEquals(2, fFixture.getWindowCount());
+    }
+
+    /**
+     * Test mapping past the end of the file
+     *
+     * @throws CTFException
+     *             expected
+     */
+    @Test(expected = CTFException.class)
+    public void testPastEnd() throws CTFException {
+        fFixture.acquire(FILE_SIZE - 10, 20);
+    }
+}
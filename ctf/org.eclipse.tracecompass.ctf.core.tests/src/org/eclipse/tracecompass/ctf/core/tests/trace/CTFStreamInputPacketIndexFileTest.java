@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the class {@link StreamInputPacketIndexFile}
+ */
+public class CTFStreamInputPacketIndexFileTest {
+
+    private static final long STREAM_ID = 3;
+
+    /**
+     * Temporary folder for the stream and index files
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    private File fStreamFile;
+    private File fIndexFile;
+    private StreamInputPacketIndex fIndex;
+
+    /**
+     * Create a stream file and its index
+     *
+     * @throws IOException
+     *             if the stream file cannot be created
+     * @throws CTFException
+     *             if the packet context cannot be read
+     */
+    @Before
+    public void setUp() throws IOException, CTFException {
+        fStreamFile = fFolder.newFile("channel0_0");
+        Files.write(fStreamFile.toPath(), new byte[1024]);
+        fIndexFile = new File(fFolder.getRoot(), "index/channel0_0.packets.idx");
+
+        StructDeclaration sd = new StructDeclaration(8);
+        sd.addField("timestamp_begin", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("timestamp_end", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("content_size", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("cpu_id", IntegerDeclaration.INT_32B_DECL);
+        sd.addField("load_factor", new FloatDeclaration(24, 8, ByteOrder.BIG_ENDIAN, 8));
+        sd.addField("name", StringDeclaration.getStringDeclaration(Encoding.ASCII));
+        final EnumDeclaration declaration = new EnumDeclaration(IntegerDeclaration.INT_8_DECL);
+        declaration.add(0, 10, "low");
+        sd.addField("level", declaration);
+        BitBuffer bb = new BitBuffer(ByteBuffer.allocate(128));
+        bb.getByteBuffer().putInt(100);
+        bb.getByteBuffer().putInt(200);
+        bb.getByteBuffer().putInt(256);
+        bb.getByteBuffer().putInt(2);
+        bb.getByteBuffer().putFloat((float) .75);
+        bb.getByteBuffer().put(("Test").getBytes());
+        bb.getByteBuffer().put((byte) 0);
+        bb.getByteBuffer().put((byte) 5);
+        StructDefinition sdef = sd.createDefinition(null, ILexicalScope.PACKET_HEADER, bb);
+
+        fIndex = new StreamInputPacketIndex();
+        assertTrue(fIndex.append(new StreamInputPacketIndexEntry(0, sdef, 1024, 0, 64)));
+        assertTrue(fIndex.append(new PacketStub(1, 300, 400)));
+        assertTrue(fIndex.append(new PacketStub(2, 400, 500)));
+    }
+
+    /**
+     * Test that a saved index is read back identically
+     *
+     * @throws IOException
+     *             if the index file cannot be written or read
+     * @throws CTFException
+     *             if the index file cannot be mapped
+     */
+    @Test
+    public void testReadWrite() throws IOException, CTFException {
+        StreamInputPacketIndexFile.write(fIndexFile, fStreamFile, STREAM_ID, fIndex, 12);
+        StreamInputPacketIndexFile indexFile = StreamInputPacketIndexFile.read(fIndexFile, fStreamFile, STREAM_ID);
+        assertNotNull(indexFile);
+        assertEquals(12, indexFile.getLostSoFar());
+        List<ICTFPacketDescriptor> entries = indexFile.getEntries();
+        assertEquals(fIndex.size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ICTFPacketDescriptor expected = fIndex.getElement(i);
+            ICTFPacketDescriptor actual = entries.get(i);
+            assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+            assertEquals(expected.getOffsetBytes(), actual.getOffsetBytes());
+            assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+            assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+            assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+            assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+            assertEquals(expected.getLostEvents(), actual.getLostEvents());
+            assertEquals(expected.getTarget(), actual.getTarget());
+            assertEquals(expected.getTargetId(), actual.getTargetId());
+            assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+            assertEquals(expected.getAttributes(), actual.getAttributes());
+        }
+        assertEquals("CPU2", entries.get(0).getTarget());
+        assertEquals(2, entries.get(0).getTargetId());
+
+        /* The read entries can be searched and appended to */
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        index.setEntries(entries);
+        assertEquals(1, index.search(350));
+        assertTrue(index.append(new PacketStub(3, 500, 600)));
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Test that an index is not read if the stream file changed
+     *
+     * @throws IOException
+     *             if the index file cannot be written or read
+     * @throws CTFException
+     *             if the index file cannot be mapped
+     */
+    @Test
+    public void testOutdated() throws IOException, CTFException {
+        StreamInputPacketIndexFile.write(fIndexFile, fStreamFile, STREAM_ID, fIndex, 0);
+        assertNull(StreamInputPacketIndexFile.read(fIndexFile, fStreamFile, STREAM_ID + 1));
+        Files.write(fStreamFile.toPath(), new byte[1], StandardOpenOption.APPEND);
+        assertNull(StreamInputPacketIndexFile.read(fIndexFile, fStreamFile, STREAM_ID));
+    }
+
+    /**
+     * Test reading a missing or invalid index file
+     *
+     * @throws IOException
+     *             if the index file cannot be written or read
+     * @throws CTFException
+     *             if the index file cannot be mapped
+     */
+    @Test
+    public void testInvalid() throws IOException, CTFException {
+        assertNull(StreamInputPacketIndexFile.read(fIndexFile, fStreamFile, STREAM_ID));
+        File invalid = fFolder.newFile("invalid.idx");
+        Files.write(invalid.toPath(), new byte[128]);
+        assertNull(StreamInputPacketIndexFile.read(invalid, fStreamFile, STREAM_ID));
+    }
+}
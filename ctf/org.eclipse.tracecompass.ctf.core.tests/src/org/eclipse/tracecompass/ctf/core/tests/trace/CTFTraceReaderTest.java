@@ -300,6 +300,68 @@ public class CTFTraceReaderTest {
         assertTrue(result);
     }
 
+    /**
+     * Test that decoding the streams in parallel gives the same events, in the
+     * same order, as decoding them on demand, including after a seek.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testParallelDecoding() throws CTFException {
+        try (CTFTraceReader parallel = new CTFTraceReader(CtfTestTraceUtils.getTrace(testTrace))) {
+            parallel.setParallelDecoding(true);
+            assertTrue(parallel.isParallelDecoding());
+            int count = 0;
+            do {
+                IEventDefinition expected = fixture.getCurrentEventDef();
+                IEventDefinition actual = parallel.getCurrentEventDef();
+                assertNotNull(expected);
+                assertNotNull(actual);
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertEquals(expected.getDeclaration().getName(), actual.getDeclaration().getName());
+                assertEquals(expected.getCPU(), actual.getCPU());
+                count++;
+                if (count == 5000) {
+                    long seekTime = expected.getTimestamp() + 1;
+                    assertEquals(fixture.seek(seekTime), parallel.seek(seekTime));
+                }
+            } while (fixture.advance() & parallel.advance());
+            assertFalse(fixture.hasMoreEvents());
+            assertFalse(parallel.hasMoreEvents());
+        }
+    }
+
+    /**
+     * Test that turning the parallel decoding off and on in the middle of a
+     * read does not skip or repeat any event
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testToggleParallelDecoding() throws CTFException {
+        try (CTFTraceReader parallel = new CTFTraceReader(CtfTestTraceUtils.getTrace(testTrace))) {
+            parallel.setParallelDecoding(true);
+            int count = 0;
+            do {
+                IEventDefinition expected = fixture.getCurrentEventDef();
+                IEventDefinition actual = parallel.getCurrentEventDef();
+                assertNotNull(expected);
+                assertNotNull(actual);
+                assertEquals(expected.getTimestamp(), actual.getTimestamp());
+                assertEquals(expected.getDeclaration().getName(), actual.getDeclaration().getName());
+                assertEquals(expected.getCPU(), actual.getCPU());
+                count++;
+                if (count % 3000 == 0) {
+                    parallel.setParallelDecoding(!parallel.isParallelDecoding());
+                }
+            } while (fixture.advance() & parallel.advance());
+            assertFalse(fixture.hasMoreEvents());
+            assertFalse(parallel.hasMoreEvents());
+        }
+    }
+
     /**
      * @return
      */
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.SimpleDatatypeDefinition;
+
+/**
+ * Reusable buffer receiving the values of the fields of a
+ * {@link FlatFieldSelection}. Integer and enum fields are stored as longs,
+ * floating point fields as doubles. A slot is not set when the event has no
+ * such field, or if the field is not a number.
+ *
+ * The buffer is overwritten by each read, it should not be shared between
+ * threads.
+ *
+ * @since 4.1
+ */
+@NonNullByDefault
+public final class FlatFieldBuffer {
+
+    private final long[] fLongs;
+    private final double[] fDoubles;
+    private final boolean[] fSet;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the number of slots
+     */
+    public FlatFieldBuffer(int size) {
+        fLongs = new long[size];
+        fDoubles = new double[size];
+        fSet = new boolean[size];
+    }
+
+    /**
+     * Get the number of slots of this buffer
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return fSet.length;
+    }
+
+    /**
+     * Get whether a slot was set by the last read
+     *
+     * @param slot
+     *            the slot
+     * @return true if the field was read
+     */
+    public boolean isSet(int slot) {
+        return fSet[slot];
+    }
+
+    /**
+     * Get the integer value of a slot
+     *
+     * @param slot
+     *            the slot
+     * @return the value, or 0 if the slot is not set. For a floating point
+     *         field, the value is truncated.
+     */
+    public long getLong(int slot) {
+        return fLongs[slot];
+    }
+
+    /**
+     * Get the floating point value of a slot
+     *
+     * @param slot
+     *            the slot
+     * @return the value, or 0 if the slot is not set
+     */
+    public double getDouble(int slot) {
+        return fDoubles[slot];
+    }
+
+    /**
+     * Set an integer value. This is meant to be used by the readers.
+     *
+     * @param slot
+     *            the slot
+     * @param value
+     *            the value
+     */
+    public void setLong(int slot, long value) {
+        fLongs[slot] = value;
+        fDoubles[slot] = value;
+        fSet[slot] = true;
+    }
+
+    /**
+     * Set a floating point value. This is meant to be used by the readers.
+     *
+     * @param slot
+     *            the slot
+     * @param value
+     *            the value
+     */
+    public void setDouble(int slot, double value) {
+        fLongs[slot] = (long) value;
+        fDoubles[slot] = value;
+        fSet[slot] = true;
+    }
+
+    /**
+     * Unset all the slots
+     */
+    public void clear() {
+        Arrays.fill(fLongs, 0L);
+        Arrays.fill(fDoubles, 0.0);
+        Arrays.fill(fSet, false);
+    }
+
+    /**
+     * Fill the buffer from already decoded fields. This is the fallback for
+     * events whose fields cannot be read flat.
+     *
+     * @param fields
+     *            the fields of the event, can be null
+     * @param selection
+     *            the fields to read
+     */
+    void readFrom(@Nullable ICompositeDefinition fields, FlatFieldSelection selection) {
+        clear();
+        if (fields == null) {
+            return;
+        }
+        int size = Math.min(selection.size(), size());
+        for (int slot = 0; slot < size; slot++) {
+            IDefinition definition = fields.getDefinition(selection.getFieldName(slot));
+            if (definition instanceof SimpleDatatypeDefinition) {
+                Long value = ((SimpleDatatypeDefinition) definition).getIntegerValue();
+                if (value != null) {
+                    setLong(slot, value);
+                }
+            } else if (definition instanceof FloatDefinition) {
+                setDouble(slot, ((FloatDefinition) definition).getValue());
+            }
+        }
+    }
+}
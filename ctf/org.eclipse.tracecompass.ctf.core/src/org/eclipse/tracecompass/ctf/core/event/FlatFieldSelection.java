@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A selection of event fields to read with
+ * {@link IEventDefinition#readFlatFields(FlatFieldSelection, FlatFieldBuffer)}.
+ * The fields are resolved once per event declaration, so a selection should be
+ * created once, typically when a state provider is created, and reused for
+ * every event.
+ *
+ * The position of a field name in the selection is its slot in the
+ * {@link FlatFieldBuffer}.
+ *
+ * @since 4.1
+ */
+@NonNullByDefault
+public final class FlatFieldSelection {
+
+    private final @NonNull String[] fFieldNames;
+
+    /**
+     * Constructor
+     *
+     * @param fieldNames
+     *            the names of the fields to read, in slot order
+     */
+    public FlatFieldSelection(@NonNull String... fieldNames) {
+        fFieldNames = Arrays.copyOf(fieldNames, fieldNames.length);
+    }
+
+    /**
+     * Get the number of fields in this selection
+     *
+     * @return the number of fields
+     */
+    public int size() {
+        return fFieldNames.length;
+    }
+
+    /**
+     * Get the name of the field in a slot
+     *
+     * @param slot
+     *            the slot
+     * @return the name of the field
+     */
+    public String getFieldName(int slot) {
+        return fFieldNames[slot];
+    }
+
+    /**
+     * Create a buffer big enough to read this selection
+     *
+     * @return a new buffer
+     */
+    public FlatFieldBuffer createBuffer() {
+        return new FlatFieldBuffer(fFieldNames.length);
+    }
+
+    @Override
+    public String toString() {
+        return "FlatFieldSelection " + Arrays.toString(fFieldNames); //$NON-NLS-1$
+    }
+}
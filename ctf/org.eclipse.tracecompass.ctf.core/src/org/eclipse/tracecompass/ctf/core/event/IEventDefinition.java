@@ -15,6 +15,7 @@ import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
 
 /**
@@ -103,4 +104,23 @@ public interface IEventDefinition {
         return null;
     }
 
+    /**
+     * Read some numeric fields of the event payload into a reusable buffer.
+     * When the payload of the event is made of fixed size fields, they are
+     * read directly from the trace, without creating any definition.
+     * Otherwise, the values are taken from {@link #getFields()}.
+     *
+     * @param selection
+     *            the fields to read
+     * @param buffer
+     *            the buffer receiving the values, see
+     *            {@link FlatFieldSelection#createBuffer()}
+     * @throws CTFException
+     *             if the fields could not be read
+     * @since 4.1
+     */
+    default void readFlatFields(@NonNull FlatFieldSelection selection, @NonNull FlatFieldBuffer buffer) throws CTFException {
+        buffer.readFrom(getFields(), selection);
+    }
+
 }
\ No newline at end of file
@@ -17,9 +17,6 @@ package org.eclipse.tracecompass.ctf.core.trace;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
-import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
 import org.eclipse.core.runtime.IStatus;
@@ -36,9 +33,11 @@ import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
-import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows.Slice;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
 import org.eclipse.tracecompass.internal.ctf.core.utils.Utils;
 
 /**
@@ -55,6 +54,8 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private static final int MAP_SIZE = 4096;
 
+    private static final String PACKET_INDEX_FILE_SUFFIX = ".packets.idx"; //$NON-NLS-1$
+
     /**
      * The associated Stream
      */
@@ -94,6 +95,18 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * The mapped regions of the file, shared by the readers of this input
+     */
+    private final StreamInputMappedWindows fMappedWindows;
+
+    /**
+     * Whether the saved packet index was looked for, and whether the index is
+     * saved (or does not need to be)
+     */
+    private boolean fPacketIndexFileRead = false;
+    private boolean fPacketIndexFileWritten = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -111,6 +124,7 @@ public class CTFStreamInput implements IDefinitionScope {
         fStream = stream;
         fFile = file;
         fFileName = fFile.getName();
+        fMappedWindows = new StreamInputMappedWindows(file, StreamInputMappedWindows.DEFAULT_WINDOW_SIZE);
 
         fIndex = new StreamInputPacketIndex();
         /*
@@ -150,9 +164,19 @@ public class CTFStreamInput implements IDefinitionScope {
      * @return the stream input Index
      */
     StreamInputPacketIndex getIndex() {
+        readPacketIndexFile();
         return fIndex;
     }
 
+    /**
+     * Get the mapped regions of the stream file
+     *
+     * @return the mapped windows of the file
+     */
+    StreamInputMappedWindows getMappedWindows() {
+        return fMappedWindows;
+    }
+
     /**
      * Gets the filename of the streamInput file.
      *
@@ -225,6 +249,7 @@ public class CTFStreamInput implements IDefinitionScope {
      *             If there was a problem reading the packed header
      */
     public boolean addPacketHeaderIndex() throws CTFException {
+        readPacketIndexFile();
         long currentPosBits = 0L;
         if (!fIndex.isEmpty()) {
             ICTFPacketDescriptor pos = fIndex.lastElement();
@@ -236,9 +261,87 @@ public class CTFStreamInput implements IDefinitionScope {
         if (currentPosBits < getStreamSizeBits()) {
             return fIndex.append(createPacketIndexEntry(currentPosBits));
         }
+        writePacketIndexFile();
         return false;
     }
 
+    private @Nullable File getPacketIndexFile() {
+        File directory = getStream().getTrace().getPacketIndexDirectory();
+        if (directory == null) {
+            return null;
+        }
+        return new File(directory, fFileName + PACKET_INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * Read the saved packet index of this stream, the first time the index is
+     * needed
+     */
+    private synchronized void readPacketIndexFile() {
+        if (fPacketIndexFileRead) {
+            return;
+        }
+        fPacketIndexFileRead = true;
+        File indexFile = getPacketIndexFile();
+        if (indexFile == null || !fIndex.isEmpty()) {
+            return;
+        }
+        try {
+            StreamInputPacketIndexFile savedIndex = StreamInputPacketIndexFile.read(indexFile, fFile, getStream().getId());
+            if (savedIndex == null || savedIndex.getEntries().isEmpty()) {
+                return;
+            }
+            fIndex.setEntries(savedIndex.getEntries());
+            fLostSoFar = savedIndex.getLostSoFar();
+            setTimestampEnd(fIndex.lastElement().getTimestampEnd());
+            fPacketIndexFileWritten = true;
+        } catch (IOException | CTFException e) {
+            Activator.log("Cannot read packet index file " + indexFile + ", the packet headers will be read", e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Save the packet index of this stream, once it is complete
+     */
+    private synchronized void writePacketIndexFile() {
+        if (fPacketIndexFileWritten || fIndex.isEmpty()) {
+            return;
+        }
+        fPacketIndexFileWritten = true;
+        File indexFile = getPacketIndexFile();
+        if (indexFile == null) {
+            return;
+        }
+        try {
+            StreamInputPacketIndexFile.write(indexFile, fFile, getStream().getId(), fIndex, fLostSoFar);
+        } catch (IOException e) {
+            Activator.log("Cannot write packet index file " + indexFile, e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Get the stream packet context of a packet. It is read again from the
+     * stream file if the packet descriptor does not have it, for example if it
+     * comes from a saved packet index.
+     *
+     * @param entry
+     *            the packet descriptor
+     * @return the packet context definition, or null if it cannot be read
+     */
+    @Nullable StructDefinition getPacketContext(ICTFPacketDescriptor entry) {
+        if (entry instanceof StreamInputPacketIndexEntry) {
+            return ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
+        }
+        try {
+            BitBuffer bitBuffer = createBitBufferForPacketHeader(entry.getOffsetBits(), fFile.length());
+            parseTracePacketHeader(bitBuffer);
+            return fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer);
+        } catch (CTFException e) {
+            Activator.log("Cannot read the packet context at offset " + entry.getOffsetBytes() + " of " + fFile, e); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
     private long getStreamSizeBits() {
         return fFile.length() * Byte.SIZE;
     }
@@ -246,11 +349,9 @@ public class CTFStreamInput implements IDefinitionScope {
     private ICTFPacketDescriptor createPacketIndexEntry(long dataOffsetbits)
             throws CTFException {
 
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            if (fc == null) {
-                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
-            }
-            BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetbits);
+        try {
+            long size = fFile.length();
+            BitBuffer bitBuffer = createBitBufferForPacketHeader(dataOffsetbits, size);
             /*
              * Read the trace packet header if it exists.
              */
@@ -259,7 +360,6 @@ public class CTFStreamInput implements IDefinitionScope {
             /*
              * Read the stream packet context if it exists.
              */
-            long size = fc.size();
             ICTFPacketDescriptor packetIndex = parsePacketContext(dataOffsetbits, size, bitBuffer);
 
             /* Basic validation */
@@ -271,34 +371,27 @@ public class CTFStreamInput implements IDefinitionScope {
                 throw new CTFException("Not enough data remaining in the file for the size of this packet"); //$NON-NLS-1$
             }
             return packetIndex;
-        } catch (IOException e) {
-            throw new CTFException("Failed to create packet index entry", e); //$NON-NLS-1$
         } catch (CTFException e) {
             throw new CTFException("Cannot create packet entry at bit " + dataOffsetbits, e); //$NON-NLS-1$
         }
     }
 
-    private BitBuffer createBitBufferForPacketHeader(FileChannel fc, long dataOffsetbits) throws CTFException, IOException {
+    private BitBuffer createBitBufferForPacketHeader(long dataOffsetbits, long fileSizeBytes) throws CTFException {
         /*
          * create a packet bit buffer to read the packet header
          */
         int maximumSize = fStreamPacketContextDecl.getMaximumSize() + fTracePacketHeaderDecl.getMaximumSize();
-        BitBuffer bitBuffer = new BitBuffer(createPacketBitBuffer(fc, dataOffsetbits/Byte.SIZE, maximumSize));
+        BitBuffer bitBuffer = new BitBuffer(createPacketBitBuffer(dataOffsetbits / Byte.SIZE, maximumSize, fileSizeBytes));
         bitBuffer.setByteOrder(getStream().getTrace().getByteOrder());
         return bitBuffer;
     }
 
-    private static ByteBuffer getByteBufferAt(FileChannel fc, long position, long size) throws CTFException, IOException {
-        return SafeMappedByteBuffer.map(fc, MapMode.READ_ONLY, position, size);
-    }
-
-    private static ByteBuffer createPacketBitBuffer(FileChannel fc,
-            long packetOffsetBytes, long maxSize) throws CTFException, IOException {
+    private ByteBuffer createPacketBitBuffer(long packetOffsetBytes, long maxSize, long fileSizeBytes) throws CTFException {
         /*
          * If there is less data remaining than what we want to map, reduce the
          * map size.
          */
-        long remain = fc.size() - packetOffsetBytes;
+        long remain = fileSizeBytes - packetOffsetBytes;
         /*
          * Initial size, it is the minimum of the the file size and the maximum
          * possible size of the
@@ -309,13 +402,12 @@ public class CTFStreamInput implements IDefinitionScope {
         }
 
         /*
-         * Map the packet.
+         * Get the packet from the mapped windows of the file, the header is
+         * read right away so the slice can be released.
          */
-        try {
-            return getByteBufferAt(fc, packetOffsetBytes, mapSize);
-        } catch (IllegalArgumentException | IOException e) {
-            throw new CTFException(e);
-        }
+        Slice slice = fMappedWindows.acquire(packetOffsetBytes, mapSize);
+        fMappedWindows.release(slice);
+        return slice.getBuffer();
     }
 
     private StructDefinition parseTracePacketHeader(
@@ -18,9 +18,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,9 +34,11 @@ import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
-import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputMappedWindows.Slice;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPrefetcher;
 
 /**
  * A CTF trace event reader. Reads the events of a trace file.
@@ -84,6 +88,28 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     private boolean fLive = false;
 
+    /**
+     * Executor used to decode events ahead, null if events are decoded on
+     * demand
+     */
+    private @Nullable Executor fPrefetchExecutor = null;
+
+    /**
+     * The running prefetcher, created lazily when reading
+     */
+    private @Nullable StreamInputPrefetcher fPrefetcher = null;
+
+    /**
+     * Events that were decoded ahead when the prefetcher was stopped, they are
+     * read before decoding the following events of the packets
+     */
+    private final Deque<IEventDefinition> fPendingEvents = new ArrayDeque<>();
+
+    /**
+     * The mapped slice of the current packet
+     */
+    private @Nullable Slice fCurrentSlice = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -138,7 +164,9 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (size < 0) {
                 throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
             }
-            BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
+            Slice slice = fStreamInput.getMappedWindows().acquire(packet.getOffsetBits() / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+            setCurrentSlice(slice);
+            BitBuffer bitBuffer = new BitBuffer(slice.getBuffer());
             bitBuffer.position(packet.getPayloadStartBits());
             IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
             CTFTrace trace = getStreamInput().getStream().getTrace();
@@ -147,6 +175,17 @@ public class CTFStreamInputReader implements AutoCloseable {
         return ctfPacketReader;
     }
 
+    /**
+     * Set the slice of the current packet, releasing the previous one
+     */
+    private void setCurrentSlice(@Nullable Slice slice) {
+        Slice previous = fCurrentSlice;
+        fCurrentSlice = slice;
+        if (previous != null) {
+            fStreamInput.getMappedWindows().release(previous);
+        }
+    }
+
     /**
      * Get a bytebuffer map of the file
      *
@@ -161,11 +200,10 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @since 2.0
      */
     public ByteBuffer getByteBufferAt(long position, long size) throws CTFException {
-        try {
-            return SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
-        } catch (IOException e) {
-            throw new CTFIOException(e.getMessage(), e);
-        }
+        StreamInputMappedWindows windows = fStreamInput.getMappedWindows();
+        Slice slice = windows.acquire(position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+        windows.release(slice);
+        return slice.getBuffer();
     }
 
     /**
@@ -177,10 +215,13 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        stopPrefetching();
+        fPendingEvents.clear();
         if (fFileChannel != null) {
             fFileChannel.close();
         }
         fPacketReader = NullPacketReader.INSTANCE;
+        setCurrentSlice(null);
     }
 
     // ------------------------------------------------------------------------
@@ -224,6 +265,11 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @return The CPU id (a number)
      */
     public int getCPU() {
+        IEventDefinition currentEvent = fCurrentEvent;
+        if ((fPrefetcher != null || !fPendingEvents.isEmpty()) && currentEvent != null) {
+            /* The packet reader may already be in a later packet */
+            return currentEvent.getCPU();
+        }
         return fPacketReader.getCPU();
     }
 
@@ -260,6 +306,9 @@ public class CTFStreamInputReader implements AutoCloseable {
      *            whether the trace is read live or not
      */
     public void setLive(boolean live) {
+        if (live) {
+            stopPrefetching();
+        }
         fLive = live;
     }
 
@@ -272,6 +321,45 @@ public class CTFStreamInputReader implements AutoCloseable {
         return fLive;
     }
 
+    /**
+     * Set the executor used to decode the events of this stream ahead of the
+     * reader. When set, events are decoded in batches on the executor and
+     * {@link #readNextEvent()} only takes already decoded events. Decoding
+     * ahead is suspended while seeking and when reading a live trace.
+     *
+     * @param executor
+     *            the executor decoding the events, or null to decode the
+     *            events on demand in the reading thread
+     * @since 4.1
+     */
+    public void setPrefetchExecutor(@Nullable Executor executor) {
+        stopPrefetching();
+        fPrefetchExecutor = executor;
+    }
+
+    /**
+     * Stop the decoding ahead, the decoding state then belongs to the calling
+     * thread again. The events that were decoded ahead and not read yet are
+     * kept, they are the next events read, unless the caller repositions the
+     * reader.
+     */
+    private void stopPrefetching() {
+        StreamInputPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher != null) {
+            fPendingEvents.addAll(prefetcher.stop());
+            fPrefetcher = null;
+        }
+    }
+
+    /**
+     * Stop the decoding ahead before moving the reader, dropping the events
+     * that were decoded ahead
+     */
+    private void stopPrefetchingForSeek() {
+        stopPrefetching();
+        fPendingEvents.clear();
+    }
+
     /**
      * Get the event context of the stream
      *
@@ -292,27 +380,34 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public CTFResponse readNextEvent() throws CTFException {
-
+        Executor executor = fPrefetchExecutor;
+        if (executor == null || fLive) {
+            return readNextEventSync();
+        }
+        StreamInputPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher == null) {
+            prefetcher = new StreamInputPrefetcher(this::decodeNextEvent, executor, StreamInputPrefetcher.DEFAULT_BATCH_SIZE, StreamInputPrefetcher.DEFAULT_DEPTH);
+            fPrefetcher = prefetcher;
+            prefetcher.start();
+        }
         try {
-            /*
-             * Change packet if needed
-             */
-            while (!fPacketReader.hasMoreEvents()) {
-                final ICTFPacketDescriptor prevPacket = fPacketReader.getCurrentPacket();
-                if (prevPacket == null) {
-                    if (fLive) {
-                        goToNextPacket();
-                    }
-                    break;
-                }
-                goToNextPacket();
-            }
+            IEventDefinition event = prefetcher.next();
+            setCurrentEvent(event);
+            return event != null ? CTFResponse.OK : CTFResponse.FINISH;
+        } catch (CTFException e) {
+            throw new CTFException("Trace read error " + fStreamInput.getFilename(), e); //$NON-NLS-1$
+        }
+    }
 
-            /*
-             * If an event is available, read it.
-             */
-            if (fPacketReader.hasMoreEvents()) {
-                setCurrentEvent(fPacketReader.readNextEvent());
+    /**
+     * Reads the next event in the current event variable, in the calling
+     * thread.
+     */
+    private CTFResponse readNextEventSync() throws CTFException {
+        try {
+            IEventDefinition event = decodeNextEvent();
+            if (event != null) {
+                setCurrentEvent(event);
                 return CTFResponse.OK;
             }
             this.setCurrentEvent(null);
@@ -322,6 +417,44 @@ public class CTFStreamInputReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Decode the next event from the packets, changing packet if needed. The
+     * events left by a stopped prefetcher are returned first. This only
+     * updates the decoding state, not the current event.
+     *
+     * @return the decoded event, or null if there are no more events for now
+     * @throws CTFException
+     *             if an error occurs
+     */
+    private @Nullable IEventDefinition decodeNextEvent() throws CTFException {
+        IEventDefinition pending = fPendingEvents.pollFirst();
+        if (pending != null) {
+            return pending;
+        }
+
+        /*
+         * Change packet if needed
+         */
+        while (!fPacketReader.hasMoreEvents()) {
+            final ICTFPacketDescriptor prevPacket = fPacketReader.getCurrentPacket();
+            if (prevPacket == null) {
+                if (fLive) {
+                    goToNextPacket();
+                }
+                break;
+            }
+            goToNextPacket();
+        }
+
+        /*
+         * If an event is available, read it.
+         */
+        if (fPacketReader.hasMoreEvents()) {
+            return fPacketReader.readNextEvent();
+        }
+        return null;
+    }
+
     /**
      * Change the current packet of the packet reader to the next one.
      *
@@ -365,6 +498,7 @@ public class CTFStreamInputReader implements AutoCloseable {
     public long seek(long timestamp) throws CTFException {
         long offset = 0;
 
+        stopPrefetchingForSeek();
         gotoPacket(timestamp);
 
         /*
@@ -393,10 +527,10 @@ public class CTFStreamInputReader implements AutoCloseable {
          * - found the first event with a timestamp greater or equal the given
          * timestamp.
          */
-        readNextEvent();
+        readNextEventSync();
         IEventDefinition currentEvent = getCurrentEvent();
         while (currentEvent != null && (currentEvent.getTimestamp() < timestamp)) {
-            readNextEvent();
+            readNextEventSync();
             currentEvent = getCurrentEvent();
             offset++;
         }
@@ -425,6 +559,8 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     public void goToLastEvent() throws CTFException {
 
+        stopPrefetchingForSeek();
+
         /*
          * Go to the beginning of the trace
          */
@@ -472,7 +608,7 @@ public class CTFStreamInputReader implements AutoCloseable {
         IEventDefinition prevEvent = null;
         while (fCurrentEvent != null) {
             prevEvent = fCurrentEvent;
-            readNextEvent();
+            readNextEventSync();
         }
         /*
          * Go back to the previous event
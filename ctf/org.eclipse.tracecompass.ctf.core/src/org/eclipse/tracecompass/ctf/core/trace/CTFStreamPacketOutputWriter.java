@@ -38,7 +38,6 @@ import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
-import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 
 /**
  * CTF trace packet writer.
@@ -119,9 +118,7 @@ public class CTFStreamPacketOutputWriter {
                     stream.getEventContextDecl(),
                     trace.getPacketHeaderDef(),
                     trace);
-            if (entry instanceof StreamInputPacketIndexEntry) {
-                context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
-            }
+            context = fStreamInput.getPacketContext(entry);
             if (context == null) {
                 return;
             }
@@ -172,9 +169,7 @@ public class CTFStreamPacketOutputWriter {
                     trace.getPacketHeaderDef(),
                     trace);
             long lastLargeTimestamp = entry.getTimestampBegin();
-            if (entry instanceof StreamInputPacketIndexEntry) {
-                context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
-            }
+            context = fStreamInput.getPacketContext(entry);
             if (context == null) {
                 return;
             }
@@ -197,7 +192,7 @@ public class CTFStreamPacketOutputWriter {
                         StructDefinition structDefinition = (StructDefinition) eventHeader;
                         def = structDefinition.lookupDefinition(CTFStrings.TIMESTAMP);
                     }
-                    Definition definition = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef().getDefinition(CTFStrings.TIMESTAMP_BEGIN);
+                    Definition definition = context.getDefinition(CTFStrings.TIMESTAMP_BEGIN);
                     if (definition != null && def != null && def.size() == definition.size()) {
                         lastLargeTimestamp = timestampInCycles;
                     }
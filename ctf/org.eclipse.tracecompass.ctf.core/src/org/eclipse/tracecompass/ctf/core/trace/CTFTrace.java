@@ -119,6 +119,12 @@ public class CTFTrace implements IDefinitionScope {
      */
     private CTFClock fSingleClock = null;
 
+    /**
+     * Directory where the packet indexes of the streams are saved, null if
+     * they are not saved
+     */
+    private volatile File fPacketIndexDirectory = null;
+
     /**
      * Packet header structure definition
      *
@@ -417,6 +423,33 @@ public class CTFTrace implements IDefinitionScope {
         return fPath;
     }
 
+    /**
+     * Get the directory where the packet indexes of the streams are saved
+     *
+     * @return the packet index directory, or null if the packet indexes are
+     *         not saved
+     * @since 4.1
+     */
+    public @Nullable File getPacketIndexDirectory() {
+        return fPacketIndexDirectory;
+    }
+
+    /**
+     * Set the directory where the packet indexes of the streams are saved. A
+     * stream that is completely indexed saves its packet index in this
+     * directory, and the next time the trace is opened, the saved index is
+     * read instead of the packet headers, as long as the stream file did not
+     * change. This must be set before the streams are read.
+     *
+     * @param directory
+     *            the packet index directory, or null to not save the packet
+     *            indexes
+     * @since 4.1
+     */
+    public void setPacketIndexDirectory(@Nullable File directory) {
+        fPacketIndexDirectory = directory;
+    }
+
     /**
      * Get all the streams as an iterable.
      *
@@ -30,6 +30,7 @@ import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.Activator;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPrefetcher;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderTimestampComparator;
 
 /**
@@ -84,6 +85,11 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Whether the streams are decoded ahead on the shared decoding pool
+     */
+    private boolean fParallelDecoding = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -132,6 +138,7 @@ public class CTFTraceReader implements AutoCloseable {
         CTFTraceReader newReader = null;
 
         newReader = new CTFTraceReader(fTrace);
+        newReader.setParallelDecoding(fParallelDecoding);
         newReader.fStartTime = fStartTime;
         newReader.fEndTime = fEndTime;
         return newReader;
@@ -226,6 +233,37 @@ public class CTFTraceReader implements AutoCloseable {
         fEventCountPerTraceFile = new long[fStreamInputReaders.size()];
     }
 
+    /**
+     * Set whether the streams of this trace are decoded in parallel. When
+     * enabled, each stream input reader decodes its packets ahead into bounded
+     * event batches on a shared worker pool, and this reader only merges the
+     * decoded events by timestamp. This is worth it when there are many
+     * streams, as the decoding of each stream can run on its own core.
+     *
+     * @param parallel
+     *            true to decode the streams in parallel, false to decode them
+     *            on demand in the reading thread
+     * @since 4.1
+     */
+    public void setParallelDecoding(boolean parallel) {
+        fParallelDecoding = parallel;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setPrefetchExecutor(parallel ? StreamInputPrefetcher.getSharedExecutor() : null);
+            }
+        }
+    }
+
+    /**
+     * Get whether the streams of this trace are decoded in parallel
+     *
+     * @return true if the streams are decoded ahead on a worker pool
+     * @since 4.1
+     */
+    public boolean isParallelDecoding() {
+        return fParallelDecoding;
+    }
+
     /**
      * Returns whether or not this CTFTraceReader has been closed
      *
@@ -255,6 +293,9 @@ public class CTFTraceReader implements AutoCloseable {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(checkNotNull(streamInput));
                         streamInputReaderToAdd.readNextEvent();
+                        if (fParallelDecoding) {
+                            streamInputReaderToAdd.setPrefetchExecutor(StreamInputPrefetcher.getSharedExecutor());
+                        }
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
                     }
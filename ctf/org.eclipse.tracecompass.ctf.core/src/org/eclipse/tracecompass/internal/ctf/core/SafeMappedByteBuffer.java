@@ -35,6 +35,16 @@ public final class SafeMappedByteBuffer {
 
     private SafeMappedByteBuffer(){}
 
+    /**
+     * Whether the buffers are really mapped on this platform. If not, mapping
+     * a region allocates and reads the whole region.
+     *
+     * @return true if the files are mapped, false if they are read
+     */
+    public static boolean isMappingSupported() {
+        return !IS_WIN32;
+    }
+
     /**
      * Maps a region of this channel's file directly into memory. On Windows, this
      * will allocate a new ByteBuffer and read the file.
@@ -40,6 +40,7 @@ import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
 import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.FlatStructReader;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
 
@@ -72,6 +73,15 @@ public class EventDeclaration implements IEventDeclaration {
      */
     private StructDeclaration fFields = null;
 
+    /**
+     * Flat reader of the event fields, null if the fields are not flat. Only
+     * resolved on the first read, as the fields may be set after the
+     * declaration is created.
+     */
+    private volatile @Nullable FlatStructReader fFlatFields = null;
+
+    private volatile boolean fFlatFieldsResolved = false;
+
     /**
      * Stream to which belongs this event.
      */
@@ -127,10 +137,32 @@ public class EventDeclaration implements IEventDeclaration {
         final CTFTrace trace = stream == null ? null : stream.getTrace();
         StructDefinition streamEventContext = streamEventContextDecl != null ? streamEventContextDecl.createDefinition(trace, ILexicalScope.STREAM_EVENT_CONTEXT, input) : null;
         StructDefinition eventContext = fContext != null ? fContext.createFieldDefinition(eventHeaderDef, trace, ILexicalScope.CONTEXT, input) : null;
+        int cpu = (int) packetDescriptor.getTargetId();
+
+        /*
+         * Flat payloads are only skipped here, they are decoded if and when
+         * someone needs their definitions. The payload is needed now if it
+         * holds the timestamp.
+         */
+        FlatStructReader flatFields = getFlatFieldsReader();
+        if (flatFields != null && !fFields.hasField(CTFStrings.TIMESTAMP)) {
+            LazyEventPayload lazyPayload = new LazyEventPayload(fFields, flatFields, eventHeaderDef, trace, input);
+            long timestamp = calculateTimestamp(eventHeaderDef, prevTimestamp, null, eventContext);
+            return new EventDefinition(
+                    this,
+                    cpu,
+                    timestamp,
+                    eventHeaderDef,
+                    streamEventContext,
+                    eventContext,
+                    packetContext,
+                    lazyPayload,
+                    packetDescriptor);
+        }
+
         StructDefinition eventPayload = fFields != null ? fFields.createFieldDefinition(eventHeaderDef, trace, ILexicalScope.FIELDS, input) : null;
         long timestamp = calculateTimestamp(eventHeaderDef, prevTimestamp, eventPayload, eventContext);
 
-        int cpu = (int) packetDescriptor.getTargetId();
         return new EventDefinition(
                 this,
                 cpu,
@@ -231,6 +263,7 @@ public class EventDeclaration implements IEventDeclaration {
      */
     public void setFields(StructDeclaration fields) {
         fFields = fields;
+        fFlatFieldsResolved = false;
     }
 
     @Override
@@ -238,6 +271,21 @@ public class EventDeclaration implements IEventDeclaration {
         return fFields;
     }
 
+    /**
+     * Get the reader of the event fields, if they can be read flat
+     *
+     * @return the flat reader, or null if there are no fields or they are not
+     *         flat
+     */
+    public @Nullable FlatStructReader getFlatFieldsReader() {
+        if (!fFlatFieldsResolved) {
+            StructDeclaration fields = fFields;
+            fFlatFields = fields != null ? FlatStructReader.create(fields) : null;
+            fFlatFieldsResolved = true;
+        }
+        return fFlatFields;
+    }
+
     @Override
     public StructDeclaration getContext() {
         return fContext;
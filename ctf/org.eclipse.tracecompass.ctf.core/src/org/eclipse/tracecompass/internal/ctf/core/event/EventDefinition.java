@@ -21,6 +21,9 @@ import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldBuffer;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldSelection;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
@@ -66,7 +69,13 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
     /**
      * The event fields structure definition.
      */
-    private final ICompositeDefinition fFields;
+    private volatile ICompositeDefinition fFields;
+
+    /**
+     * The payload that was not decoded yet, null if it was decoded with the
+     * event
+     */
+    private final @Nullable LazyEventPayload fLazyFields;
 
     /**
      * The current cpu, could be @link {@link IPacketHeader#UNKNOWN_CPU}
@@ -119,6 +128,51 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
         fCpu = cpu;
         fTimestamp = timestamp;
         fFields = fields;
+        fLazyFields = null;
+        fEventContext = eventContext;
+        fPacketContext = packetContext;
+        fStreamContext = streamContext;
+        fPacketAttributes = packetDescriptor != null ? packetDescriptor.getAttributes() : Collections.emptyMap();
+    }
+
+    /**
+     * Constructs an event definition whose payload is decoded only when it is
+     * needed.
+     *
+     * @param declaration
+     *            The corresponding event declaration
+     * @param cpu
+     *            The cpu source of the event
+     * @param timestamp
+     *            event timestamp
+     * @param eventHeaderDefinition
+     *            The event header definition, can be null
+     * @param streamContext
+     *            the stream context
+     * @param eventContext
+     *            The event context
+     * @param packetContext
+     *            the packet context
+     * @param lazyFields
+     *            The location of the event fields
+     * @param packetDescriptor
+     *            descriptor of the packet containing this event
+     */
+    EventDefinition(IEventDeclaration declaration,
+            int cpu,
+            long timestamp,
+            ICompositeDefinition eventHeaderDefinition,
+            ICompositeDefinition streamContext,
+            ICompositeDefinition eventContext,
+            ICompositeDefinition packetContext,
+            @NonNull LazyEventPayload lazyFields,
+            @Nullable ICTFPacketDescriptor packetDescriptor) {
+        fDeclaration = declaration;
+        fEventHeaderDefinition = eventHeaderDefinition;
+        fCpu = cpu;
+        fTimestamp = timestamp;
+        fFields = null;
+        fLazyFields = lazyFields;
         fEventContext = eventContext;
         fPacketContext = packetContext;
         fStreamContext = streamContext;
@@ -154,7 +208,33 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
 
     @Override
     public ICompositeDefinition getFields() {
-        return fFields;
+        ICompositeDefinition fields = fFields;
+        LazyEventPayload lazyFields = fLazyFields;
+        if (fields == null && lazyFields != null) {
+            /*
+             * Decoding twice in a race is harmless, the result is the same.
+             * The payload was skipped when the event was read, which throws
+             * the CTFException of a payload going past the end of the packet,
+             * so decoding it is not expected to fail.
+             */
+            try {
+                fields = lazyFields.decode();
+            } catch (CTFException e) {
+                throw new IllegalStateException("Could not decode the fields of event " + fDeclaration.getName(), e); //$NON-NLS-1$
+            }
+            fFields = fields;
+        }
+        return fields;
+    }
+
+    @Override
+    public void readFlatFields(@NonNull FlatFieldSelection selection, @NonNull FlatFieldBuffer buffer) throws CTFException {
+        LazyEventPayload lazyFields = fLazyFields;
+        if (lazyFields != null) {
+            lazyFields.readFlat(selection, buffer);
+            return;
+        }
+        IEventDefinition.super.readFlatFields(selection, buffer);
     }
 
     @Override
@@ -241,7 +321,7 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
         if (lookupPath.equals("context")) { //$NON-NLS-1$
             return fEventContext;
         } else if (lookupPath.equals("fields")) { //$NON-NLS-1$
-            return fFields;
+            return getFields();
         } else {
             return null;
         }
@@ -264,11 +344,12 @@ public final class EventDefinition implements IDefinitionScope, IEventDefinition
             }
         }
 
-        if (fFields != null) {
-            list = fFields.getFieldNames();
+        ICompositeDefinition fields = getFields();
+        if (fields != null) {
+            list = fields.getFieldNames();
 
             for (String field : list) {
-                retString.append(field).append(" : ").append(fFields.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
+                retString.append(field).append(" : ").append(fields.getDefinition(field).toString()).append(cr); //$NON-NLS-1$
             }
         }
 
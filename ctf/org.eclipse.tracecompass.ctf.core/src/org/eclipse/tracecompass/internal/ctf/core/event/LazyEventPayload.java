@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldBuffer;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldSelection;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.FlatStructReader;
+
+/**
+ * The location of a flat event payload that was skipped while reading the
+ * event. The payload can either be read flat, or decoded into definitions
+ * when they are needed.
+ */
+final class LazyEventPayload {
+
+    private final StructDeclaration fDeclaration;
+    private final FlatStructReader fReader;
+    private final @Nullable ICompositeDefinition fEventHeader;
+    private final @Nullable IDefinitionScope fScope;
+    private final @NonNull ByteBuffer fBuffer;
+    private final ByteOrder fByteOrder;
+    private final long fPosition;
+
+    /**
+     * Skip the payload of an event, keeping its location
+     *
+     * @param declaration
+     *            the payload declaration
+     * @param reader
+     *            the flat reader of the payload declaration
+     * @param eventHeader
+     *            the event header, scope of the payload
+     * @param scope
+     *            the definition scope of the payload
+     * @param input
+     *            the input, positioned at the start of the payload. It is
+     *            positioned after the payload on return.
+     * @throws CTFException
+     *             if the payload goes past the end of the input
+     */
+    public LazyEventPayload(StructDeclaration declaration, FlatStructReader reader, @Nullable ICompositeDefinition eventHeader, @Nullable IDefinitionScope scope, BitBuffer input) throws CTFException {
+        fDeclaration = declaration;
+        fReader = reader;
+        fEventHeader = eventHeader;
+        fScope = scope;
+        /*
+         * Keep the packet buffer itself, reads are done on duplicates as the
+         * bit buffers reading it change its byte order and position.
+         */
+        fBuffer = input.getByteBuffer();
+        fByteOrder = input.getByteOrder();
+        fPosition = input.position();
+        reader.skip(input);
+    }
+
+    /**
+     * Read the selected fields, without creating definitions
+     *
+     * @param selection
+     *            the fields to read
+     * @param buffer
+     *            the buffer to fill
+     * @throws CTFException
+     *             if the payload could not be read
+     */
+    public void readFlat(FlatFieldSelection selection, FlatFieldBuffer buffer) throws CTFException {
+        BitBuffer input = new BitBuffer(checkNotNull(fBuffer.duplicate()), fByteOrder);
+        input.position(fPosition);
+        fReader.read(input, selection, buffer);
+    }
+
+    /**
+     * Decode the payload into definitions
+     *
+     * @return the payload definition
+     * @throws CTFException
+     *             if the payload could not be read
+     */
+    public StructDefinition decode() throws CTFException {
+        BitBuffer input = new BitBuffer(checkNotNull(fBuffer.duplicate()), fByteOrder);
+        input.position(fPosition);
+        return fDeclaration.createFieldDefinition(fEventHeader, fScope, ILexicalScope.FIELDS, input);
+    }
+}
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldBuffer;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldSelection;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+
+/**
+ * Reads the fields of a flat struct (see {@link StructDeclarationFlattener})
+ * directly into primitive values, without creating any definition. The layout
+ * of the struct is resolved once in primitive arrays, so reading a field only
+ * costs aligning the position and reading its bits.
+ *
+ * Only structs made of integers, enums, 32 or 64 bit floats and aligned byte
+ * arrays can be read this way. Byte arrays are skipped, they cannot be
+ * selected.
+ */
+public final class FlatStructReader {
+
+    private static final int MAX_INTEGER_LENGTH = Long.SIZE;
+
+    private static final byte KIND_INTEGER = 0;
+    private static final byte KIND_FLOAT_32 = 1;
+    private static final byte KIND_FLOAT_64 = 2;
+    private static final byte KIND_BYTES = 3;
+
+    private final long fStructAlignment;
+    private final @NonNull String[] fNames;
+    private final byte[] fKinds;
+    private final int[] fLengths;
+    private final long[] fAlignments;
+    private final boolean[] fSigned;
+    private final ByteOrder[] fByteOrders;
+
+    /**
+     * Field indexes of the selections read with this reader, most selections
+     * live as long as an analysis, so they are weakly referenced.
+     */
+    private final LoadingCache<FlatFieldSelection, int[]> fResolvedSelections = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<FlatFieldSelection, int[]>() {
+                @Override
+                public int[] load(FlatFieldSelection selection) {
+                    return resolve(selection);
+                }
+            });
+
+    private FlatStructReader(StructDeclaration struct, int nbFields) {
+        fStructAlignment = struct.getAlignment();
+        fNames = new @NonNull String[nbFields];
+        fKinds = new byte[nbFields];
+        fLengths = new int[nbFields];
+        fAlignments = new long[nbFields];
+        fSigned = new boolean[nbFields];
+        fByteOrders = new ByteOrder[nbFields];
+    }
+
+    /**
+     * Create a flat reader for a struct declaration
+     *
+     * @param struct
+     *            the struct declaration, it should already have been
+     *            flattened
+     * @return the reader, or null if the struct is not flat
+     */
+    public static @Nullable FlatStructReader create(StructDeclaration struct) {
+        List<@NonNull String> fieldNames = Lists.newArrayList(struct.getFieldsList());
+        FlatStructReader reader = new FlatStructReader(struct, fieldNames.size());
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String name = fieldNames.get(i);
+            IDeclaration declaration = struct.getField(name);
+            reader.fNames[i] = name;
+            if (declaration instanceof EnumDeclaration) {
+                declaration = ((EnumDeclaration) declaration).getContainerType();
+            }
+            if (declaration instanceof IntegerDeclaration) {
+                IntegerDeclaration integer = (IntegerDeclaration) declaration;
+                if (integer.getLength() > MAX_INTEGER_LENGTH) {
+                    return null;
+                }
+                reader.fKinds[i] = KIND_INTEGER;
+                reader.fLengths[i] = integer.getLength();
+                reader.fAlignments[i] = integer.getAlignment();
+                reader.fSigned[i] = integer.isSigned();
+                reader.fByteOrders[i] = integer.getByteOrder();
+            } else if (declaration instanceof FloatDeclaration) {
+                FloatDeclaration floatDecl = (FloatDeclaration) declaration;
+                int length = floatDecl.getExponent() + floatDecl.getMantissa();
+                if (length == Float.SIZE) {
+                    reader.fKinds[i] = KIND_FLOAT_32;
+                } else if (length == Double.SIZE) {
+                    reader.fKinds[i] = KIND_FLOAT_64;
+                } else {
+                    return null;
+                }
+                reader.fLengths[i] = length;
+                reader.fAlignments[i] = floatDecl.getAlignment();
+                reader.fByteOrders[i] = floatDecl.getByteOrder();
+            } else if (declaration instanceof ArrayDeclaration && ((ArrayDeclaration) declaration).isAlignedBytes()) {
+                ArrayDeclaration array = (ArrayDeclaration) declaration;
+                reader.fKinds[i] = KIND_BYTES;
+                reader.fLengths[i] = array.getLength() * Byte.SIZE;
+                reader.fAlignments[i] = array.getAlignment();
+            } else {
+                return null;
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * Get the number of fields of the struct
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fNames.length;
+    }
+
+    /**
+     * Get the index of a field by name
+     *
+     * @param name
+     *            the name of the field
+     * @return the index of the field, or -1 if there is no such field that can
+     *         be read flat
+     */
+    public int getFieldIndex(String name) {
+        for (int i = 0; i < fNames.length; i++) {
+            if (fNames[i].equals(name) && fKinds[i] != KIND_BYTES) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Move the input past the struct, without reading it
+     *
+     * @param input
+     *            the input, positioned at the start of the struct
+     * @throws CTFException
+     *             if the struct goes past the end of the input
+     */
+    public void skip(BitBuffer input) throws CTFException {
+        long position = align(input.position(), fStructAlignment);
+        for (int i = 0; i < fNames.length; i++) {
+            position = align(position, fAlignments[i]) + fLengths[i];
+        }
+        input.position(position);
+    }
+
+    /**
+     * Read the selected fields of the struct into a buffer. Fields that are
+     * not in the struct are marked as not set in the buffer.
+     *
+     * @param input
+     *            the input, positioned at the start of the struct
+     * @param selection
+     *            the fields to read
+     * @param buffer
+     *            the buffer to fill, it must be at least as big as the
+     *            selection
+     * @throws CTFException
+     *             if the struct goes past the end of the input
+     */
+    public void read(BitBuffer input, FlatFieldSelection selection, FlatFieldBuffer buffer) throws CTFException {
+        int[] slots = getSlots(selection);
+        buffer.clear();
+        ByteOrder previousByteOrder = input.getByteOrder();
+        long position = align(input.position(), fStructAlignment);
+        try {
+            for (int i = 0; i < fNames.length; i++) {
+                position = align(position, fAlignments[i]);
+                int slot = slots[i];
+                if (slot >= 0) {
+                    input.position(position);
+                    input.setByteOrder(fByteOrders[i]);
+                    switch (fKinds[i]) {
+                    case KIND_INTEGER:
+                        buffer.setLong(slot, input.get(fLengths[i], fSigned[i]));
+                        break;
+                    case KIND_FLOAT_32:
+                        buffer.setDouble(slot, Float.intBitsToFloat((int) input.get(Float.SIZE, false)));
+                        break;
+                    case KIND_FLOAT_64:
+                        buffer.setDouble(slot, Double.longBitsToDouble(input.get(Double.SIZE, false)));
+                        break;
+                    default:
+                        break;
+                    }
+                }
+                position += fLengths[i];
+            }
+            input.position(position);
+        } finally {
+            input.setByteOrder(previousByteOrder);
+        }
+    }
+
+    private int[] getSlots(FlatFieldSelection selection) throws CTFException {
+        try {
+            return fResolvedSelections.get(selection);
+        } catch (ExecutionException e) {
+            throw new CTFException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Map each field of the struct to its slot in the selection, -1 for the
+     * fields that are not selected.
+     */
+    private int[] resolve(FlatFieldSelection selection) {
+        int[] slots = new int[fNames.length];
+        Arrays.fill(slots, -1);
+        for (int slot = 0; slot < selection.size(); slot++) {
+            int index = getFieldIndex(selection.getFieldName(slot));
+            if (index >= 0) {
+                slots[index] = slot;
+            }
+        }
+        return slots;
+    }
+
+    private static long align(long position, long alignment) {
+        long mask = alignment - 1;
+        return (position + mask) & ~mask;
+    }
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+
+/**
+ * Maps a stream file in large windows and hands out slices of them, so that
+ * reading the packets of a stream one after the other does not map and unmap
+ * every packet.
+ * <p>
+ * A window starts at the first region that needs it and covers at least the
+ * window size, so a packet is never split between two windows. The windows are
+ * reference counted by their slices: a window that has slices in use is kept,
+ * and only a few unused windows are kept, the least recently used ones are
+ * dropped first. A dropped window is unmapped by the garbage collector once no
+ * buffer refers to it anymore.
+ */
+@NonNullByDefault
+public final class StreamInputMappedWindows {
+
+    /**
+     * Default size of a window, in bytes
+     */
+    public static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Number of unused windows that are kept mapped
+     */
+    private static final int MAX_IDLE_WINDOWS = 2;
+
+    /**
+     * A slice of a window, it must be released once it is not used anymore
+     */
+    public static final class Slice {
+        private final ByteBuffer fBuffer;
+        private @Nullable Window fWindow;
+
+        private Slice(ByteBuffer buffer, Window window) {
+            fBuffer = buffer;
+            fWindow = window;
+        }
+
+        /**
+         * Get the buffer of the slice, its position 0 is the start of the
+         * requested region
+         *
+         * @return the buffer
+         */
+        public ByteBuffer getBuffer() {
+            return fBuffer;
+        }
+    }
+
+    private static final class Window {
+        private final long fStart;
+        private final long fEnd;
+        private final ByteBuffer fBuffer;
+        private int fRefCount = 0;
+        private long fLastUse = 0;
+
+        public Window(long start, ByteBuffer buffer) {
+            fStart = start;
+            fEnd = start + buffer.capacity();
+            fBuffer = buffer;
+        }
+
+        public boolean contains(long offset, long size) {
+            return offset >= fStart && offset + size <= fEnd;
+        }
+    }
+
+    private final File fFile;
+    private final long fWindowSize;
+    private final List<Window> fWindows = new ArrayList<>();
+    private long fClock = 0;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            the stream file
+     * @param windowSize
+     *            the minimum size of a window, in bytes
+     */
+    public StreamInputMappedWindows(File file, long windowSize) {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid window size " + windowSize); //$NON-NLS-1$
+        }
+        fFile = file;
+        fWindowSize = windowSize;
+    }
+
+    /**
+     * Get a slice of the file. The window containing it is kept mapped until
+     * the slice is released.
+     *
+     * @param offset
+     *            the offset of the region in the file, in bytes
+     * @param size
+     *            the size of the region, in bytes
+     * @return the slice
+     * @throws CTFException
+     *             if the region could not be mapped
+     */
+    public synchronized Slice acquire(long offset, long size) throws CTFException {
+        if (offset < 0 || size < 0 || size > Integer.MAX_VALUE) {
+            throw new CTFIOException("Cannot map " + size + " bytes at " + offset + " of " + fFile); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        Window window = find(offset, size);
+        if (window == null) {
+            window = map(offset, size);
+            fWindows.add(window);
+        }
+        window.fRefCount++;
+        window.fLastUse = ++fClock;
+        ByteBuffer buffer = window.fBuffer.duplicate();
+        int start = (int) (offset - window.fStart);
+        buffer.position(start);
+        buffer.limit(start + (int) size);
+        return new Slice(checkNotNull(buffer.slice()), window);
+    }
+
+    /**
+     * Release a slice. The buffer of the slice stays readable, but its window
+     * may be dropped.
+     *
+     * @param slice
+     *            the slice to release
+     */
+    public synchronized void release(Slice slice) {
+        Window window = slice.fWindow;
+        if (window == null) {
+            return;
+        }
+        slice.fWindow = null;
+        window.fRefCount--;
+        if (window.fRefCount == 0) {
+            evictIdleWindows();
+        }
+    }
+
+    /**
+     * Get the number of windows currently kept
+     *
+     * @return the number of windows
+     */
+    public synchronized int getWindowCount() {
+        return fWindows.size();
+    }
+
+    private @Nullable Window find(long offset, long size) {
+        for (Window window : fWindows) {
+            if (window.contains(offset, size)) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    private Window map(long offset, long size) throws CTFException {
+        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+            /*
+             * Map the whole window when the file is really mapped, mapping a
+             * larger region is almost free. Otherwise only read what is needed.
+             */
+            long mapSize = size;
+            if (SafeMappedByteBuffer.isMappingSupported()) {
+                mapSize = Math.max(size, Math.min(fWindowSize, fc.size() - offset));
+            }
+            return new Window(offset, SafeMappedByteBuffer.map(fc, MapMode.READ_ONLY, offset, mapSize));
+        } catch (IOException e) {
+            throw new CTFIOException(e.getMessage(), e);
+        }
+    }
+
+    private void evictIdleWindows() {
+        int idle = 0;
+        for (Window window : fWindows) {
+            if (window.fRefCount == 0) {
+                idle++;
+            }
+        }
+        while (idle > MAX_IDLE_WINDOWS) {
+            Window lru = null;
+            for (Window window : fWindows) {
+                if (window.fRefCount == 0 && (lru == null || window.fLastUse < lru.fLastUse)) {
+                    lru = window;
+                }
+            }
+            fWindows.remove(lru);
+            idle--;
+        }
+    }
+}
@@ -44,9 +44,10 @@ public class StreamInputPacketIndex {
 
     /**
      * Entries of the index. They are sorted by increasing begin timestamp.
-     * index builder.
+     * index builder. This is an unmodifiable list if the entries were read
+     * from an index file, it is copied on the first append.
      */
-    private final List<ICTFPacketDescriptor> fEntries = new ArrayList<>();
+    private List<ICTFPacketDescriptor> fEntries = new ArrayList<>();
 
     // ------------------------------------------------------------------------
     // Operations
@@ -84,6 +85,17 @@ public class StreamInputPacketIndex {
         }
     }
 
+    /**
+     * Replaces the entries of the index by entries that were already
+     * validated, such as the entries of a saved index. The list is not copied.
+     *
+     * @param entries
+     *            the sorted and validated entries
+     */
+    public synchronized void setEntries(List<ICTFPacketDescriptor> entries) {
+        fEntries = entries;
+    }
+
     /**
      * Appends the specified element to the end of this data structure
      *
@@ -110,6 +122,9 @@ public class StreamInputPacketIndex {
             return false;
         }
 
+        if (!(fEntries instanceof ArrayList)) {
+            fEntries = new ArrayList<>(fEntries);
+        }
         fEntries.add(entryToAdd);
         return true;
     }
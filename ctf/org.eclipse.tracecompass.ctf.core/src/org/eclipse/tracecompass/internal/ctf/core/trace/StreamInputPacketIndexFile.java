@@ -0,0 +1,447 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Packet index of a stream input, saved to disk so that the packet headers do
+ * not need to be read again the next time the trace is opened.
+ * <p>
+ * The file is made of a header, one fixed size record per packet and a
+ * variable size section with the target and attributes of each packet. The
+ * whole file is mapped when it is read, the records are decoded on access, and
+ * the attributes only when they are requested.
+ * <p>
+ * The header keeps the size and modification time of the stream file, a file
+ * that does not match the stream file anymore is ignored.
+ */
+@NonNullByDefault
+public final class StreamInputPacketIndexFile {
+
+    private static final int MAGIC = 0x43544649; /* "CTFI" */
+    private static final int VERSION = 1;
+
+    /* magic, version, file size, file time, stream id, lost events, count */
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 4 * Long.BYTES + 2 * Integer.BYTES;
+    private static final int RECORD_SIZE = 9 * Long.BYTES;
+
+    private static final byte TYPE_LONG = 0;
+    private static final byte TYPE_DOUBLE = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_ENUM = 3;
+
+    private static final int NULL_STRING = -1;
+
+    private final List<ICTFPacketDescriptor> fEntries;
+    private final long fLostSoFar;
+
+    private StreamInputPacketIndexFile(List<ICTFPacketDescriptor> entries, long lostSoFar) {
+        fEntries = entries;
+        fLostSoFar = lostSoFar;
+    }
+
+    /**
+     * Get the packets of the index. The list is backed by the mapped file and
+     * cannot be modified.
+     *
+     * @return the packet descriptors, sorted by offset
+     */
+    public List<ICTFPacketDescriptor> getEntries() {
+        return fEntries;
+    }
+
+    /**
+     * Get the total number of lost events in the stream at the end of the
+     * index
+     *
+     * @return the number of lost events
+     */
+    public long getLostSoFar() {
+        return fLostSoFar;
+    }
+
+    // ------------------------------------------------------------------------
+    // Read
+    // ------------------------------------------------------------------------
+
+    /**
+     * Read a packet index file
+     *
+     * @param indexFile
+     *            the packet index file
+     * @param streamFile
+     *            the stream file that was indexed
+     * @param streamId
+     *            the id of the stream
+     * @return the index, or null if there is no index file or if it does not
+     *         match the stream file
+     * @throws IOException
+     *             if the file could not be read
+     * @throws CTFException
+     *             if the file could not be mapped
+     */
+    public static @Nullable StreamInputPacketIndexFile read(File indexFile, File streamFile, long streamId) throws IOException, CTFException {
+        if (!indexFile.isFile() || indexFile.length() < HEADER_SIZE || indexFile.length() > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (FileChannel fc = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            buffer = SafeMappedByteBuffer.map(fc, MapMode.READ_ONLY, 0, fc.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            return null;
+        }
+        int position = 2 * Integer.BYTES;
+        long fileSize = buffer.getLong(position);
+        position += Long.BYTES;
+        long fileTime = buffer.getLong(position);
+        position += Long.BYTES;
+        long fileStreamId = buffer.getLong(position);
+        position += Long.BYTES;
+        long lostSoFar = buffer.getLong(position);
+        position += Long.BYTES;
+        int count = buffer.getInt(position);
+        if (fileSize != streamFile.length() || fileTime != streamFile.lastModified() || fileStreamId != streamId) {
+            return null;
+        }
+        if (count < 0 || (long) HEADER_SIZE + (long) count * RECORD_SIZE > buffer.capacity()) {
+            return null;
+        }
+        return new StreamInputPacketIndexFile(new MappedEntries(buffer, count), lostSoFar);
+    }
+
+    /**
+     * The packet descriptors of a mapped index file
+     */
+    private static final class MappedEntries extends AbstractList<ICTFPacketDescriptor> implements RandomAccess {
+
+        private final ByteBuffer fBuffer;
+        private final int fCount;
+
+        public MappedEntries(ByteBuffer buffer, int count) {
+            fBuffer = buffer;
+            fCount = count;
+        }
+
+        @Override
+        public ICTFPacketDescriptor get(int index) {
+            if (index < 0 || index >= fCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + fCount); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            return new MappedEntry(fBuffer, HEADER_SIZE + index * RECORD_SIZE);
+        }
+
+        @Override
+        public int size() {
+            return fCount;
+        }
+    }
+
+    /**
+     * A packet descriptor read from a record. The target and attributes of the
+     * packet are decoded the first time they are requested.
+     */
+    private static final class MappedEntry implements ICTFPacketDescriptor {
+
+        private final ByteBuffer fBuffer;
+        private final long fOffsetBits;
+        private final long fPacketSizeBits;
+        private final long fContentSizeBits;
+        private final long fTimestampBegin;
+        private final long fTimestampEnd;
+        private final long fLostEvents;
+        private final long fTargetId;
+        private final long fPayloadStartBits;
+        private final int fDataPosition;
+
+        private volatile @Nullable String fTarget = null;
+        private volatile @Nullable Map<String, Object> fAttributes = null;
+
+        public MappedEntry(ByteBuffer buffer, int recordPosition) {
+            fBuffer = buffer;
+            int position = recordPosition;
+            fOffsetBits = buffer.getLong(position);
+            position += Long.BYTES;
+            fPacketSizeBits = buffer.getLong(position);
+            position += Long.BYTES;
+            fContentSizeBits = buffer.getLong(position);
+            position += Long.BYTES;
+            fTimestampBegin = buffer.getLong(position);
+            position += Long.BYTES;
+            fTimestampEnd = buffer.getLong(position);
+            position += Long.BYTES;
+            fLostEvents = buffer.getLong(position);
+            position += Long.BYTES;
+            fTargetId = buffer.getLong(position);
+            position += Long.BYTES;
+            fPayloadStartBits = buffer.getLong(position);
+            position += Long.BYTES;
+            fDataPosition = (int) buffer.getLong(position);
+        }
+
+        @Override
+        public boolean includes(long ts) {
+            return (ts >= fTimestampBegin) && (ts <= fTimestampEnd);
+        }
+
+        @Override
+        public long getOffsetBits() {
+            return fOffsetBits;
+        }
+
+        @Override
+        public long getPacketSizeBits() {
+            return fPacketSizeBits;
+        }
+
+        @Override
+        public long getContentSizeBits() {
+            return fContentSizeBits;
+        }
+
+        @Override
+        public long getTimestampBegin() {
+            return fTimestampBegin;
+        }
+
+        @Override
+        public long getTimestampEnd() {
+            return fTimestampEnd;
+        }
+
+        @Override
+        public long getLostEvents() {
+            return fLostEvents;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            Map<String, Object> attributes = fAttributes;
+            if (attributes == null) {
+                decodeData();
+                attributes = fAttributes;
+            }
+            return attributes == null ? ImmutableMap.of() : attributes;
+        }
+
+        @Override
+        public @Nullable String getTarget() {
+            if (fAttributes == null) {
+                decodeData();
+            }
+            return fTarget;
+        }
+
+        @Override
+        public long getTargetId() {
+            return fTargetId;
+        }
+
+        @Override
+        public long getOffsetBytes() {
+            return (long) Math.ceil(fOffsetBits / (double) Byte.SIZE);
+        }
+
+        @Override
+        public long getPayloadStartBits() {
+            return fPayloadStartBits;
+        }
+
+        private void decodeData() {
+            /* Use a view, the position of the shared buffer must not move */
+            ByteBuffer data = fBuffer.duplicate();
+            data.position(fDataPosition);
+            String target = readString(data);
+            int count = data.getInt();
+            ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+            for (int i = 0; i < count; i++) {
+                String name = String.valueOf(readString(data));
+                byte type = data.get();
+                switch (type) {
+                case TYPE_LONG:
+                    builder.put(name, data.getLong());
+                    break;
+                case TYPE_DOUBLE:
+                    builder.put(name, data.getDouble());
+                    break;
+                case TYPE_STRING:
+                    builder.put(name, String.valueOf(readString(data)));
+                    break;
+                case TYPE_ENUM:
+                    String label = String.valueOf(readString(data));
+                    builder.put(name, new AbstractMap.SimpleImmutableEntry<>(label, data.getLong()));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown attribute type " + type); //$NON-NLS-1$
+                }
+            }
+            fTarget = target;
+            fAttributes = builder.build();
+        }
+
+        @Override
+        public String toString() {
+            return "StreamInputPacketIndexEntry [offsetBits=" + fOffsetBits //$NON-NLS-1$
+                    + ", timestampBegin=" + fTimestampBegin + ", timestampEnd=" //$NON-NLS-1$ //$NON-NLS-2$
+                    + fTimestampEnd + "]"; //$NON-NLS-1$
+        }
+    }
+
+    private static @Nullable String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ------------------------------------------------------------------------
+    // Write
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write the packet index of a stream to a file. The file is first written
+     * next to the destination, then moved, so that a partially written index
+     * is never read.
+     *
+     * @param indexFile
+     *            the packet index file
+     * @param streamFile
+     *            the stream file that was indexed
+     * @param streamId
+     *            the id of the stream
+     * @param index
+     *            the complete packet index of the stream
+     * @param lostSoFar
+     *            the total number of lost events in the stream
+     * @throws IOException
+     *             if the file could not be written
+     */
+    public static void write(File indexFile, File streamFile, long streamId, StreamInputPacketIndex index, long lostSoFar) throws IOException {
+        /* Read before writing, a stream that changes is seen as outdated */
+        long fileSize = streamFile.length();
+        long fileTime = streamFile.lastModified();
+        int count = index.size();
+        File parent = indexFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent); //$NON-NLS-1$
+        }
+        File tmpFile = new File(indexFile.getPath() + ".tmp"); //$NON-NLS-1$
+        try (FileChannel fc = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long dataStart = HEADER_SIZE + (long) count * RECORD_SIZE;
+            long[] dataPositions = new long[count];
+
+            /* Variable size section first, to know where each entry starts */
+            fc.position(dataStart);
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(fc)));
+            for (int i = 0; i < count; i++) {
+                dataPositions[i] = dataStart + data.size();
+                ICTFPacketDescriptor entry = index.getElement(i);
+                writeString(data, entry.getTarget());
+                Map<String, Object> attributes = entry.getAttributes();
+                data.writeInt(attributes.size());
+                for (Entry<String, Object> attribute : attributes.entrySet()) {
+                    writeAttribute(data, attribute.getKey(), attribute.getValue());
+                }
+            }
+            data.flush();
+            if (dataStart + data.size() > Integer.MAX_VALUE) {
+                throw new IOException("Packet index too large for " + streamFile); //$NON-NLS-1$
+            }
+
+            fc.position(0);
+            DataOutputStream records = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(fc)));
+            records.writeInt(MAGIC);
+            records.writeInt(VERSION);
+            records.writeLong(fileSize);
+            records.writeLong(fileTime);
+            records.writeLong(streamId);
+            records.writeLong(lostSoFar);
+            records.writeInt(count);
+            records.writeInt(0);
+            for (int i = 0; i < count; i++) {
+                ICTFPacketDescriptor entry = index.getElement(i);
+                records.writeLong(entry.getOffsetBits());
+                records.writeLong(entry.getPacketSizeBits());
+                records.writeLong(entry.getContentSizeBits());
+                records.writeLong(entry.getTimestampBegin());
+                records.writeLong(entry.getTimestampEnd());
+                records.writeLong(entry.getLostEvents());
+                records.writeLong(entry.getTargetId());
+                records.writeLong(entry.getPayloadStartBits());
+                records.writeLong(dataPositions[i]);
+            }
+            records.flush();
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpFile.toPath());
+            throw e;
+        }
+        Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeAttribute(DataOutputStream data, String name, Object value) throws IOException {
+        writeString(data, name);
+        if (value instanceof Double || value instanceof Float) {
+            data.writeByte(TYPE_DOUBLE);
+            data.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            data.writeByte(TYPE_LONG);
+            data.writeLong(((Number) value).longValue());
+        } else if (value instanceof Entry<?, ?> && ((Entry<?, ?>) value).getValue() instanceof Number) {
+            Entry<?, ?> enumValue = (Entry<?, ?>) value;
+            data.writeByte(TYPE_ENUM);
+            writeString(data, String.valueOf(enumValue.getKey()));
+            data.writeLong(((Number) enumValue.getValue()).longValue());
+        } else {
+            data.writeByte(TYPE_STRING);
+            writeString(data, String.valueOf(value));
+        }
+    }
+
+    private static void writeString(DataOutputStream data, @Nullable String value) throws IOException {
+        if (value == null) {
+            data.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+}
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
+
+/**
+ * Decodes the events of one stream ahead of the consumer, on a worker pool.
+ * Events are produced in bounded batches, so that a stream never has more than
+ * <code>depth * batchSize</code> decoded events waiting to be merged.
+ * <p>
+ * A decoding task only ever decodes one batch and then gives its worker thread
+ * back to the pool. The next batch is scheduled when there is room in the
+ * queue, either by the task itself or by the consumer when it takes a batch.
+ * This way, many streams can share a small pool without a stream waiting for
+ * its consumer while holding a worker thread.
+ */
+@NonNullByDefault
+public final class StreamInputPrefetcher {
+
+    /**
+     * Default number of events per batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * Default number of batches decoded in advance per stream
+     */
+    public static final int DEFAULT_DEPTH = 4;
+
+    private static final int CHECK_STOP_INTERVAL = 64;
+
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory());
+
+    /**
+     * The event decoder of a stream
+     */
+    @FunctionalInterface
+    public interface IEventDecoder {
+        /**
+         * Decode the next event of the stream
+         *
+         * @return the next event, or null if the stream has no more events
+         * @throws CTFException
+         *             if the event could not be read
+         */
+        @Nullable IEventDefinition decode() throws CTFException;
+    }
+
+    private static final class EventBatch {
+        private final List<IEventDefinition> fEvents;
+        private final boolean fLast;
+        private final @Nullable CTFException fError;
+
+        public EventBatch(List<IEventDefinition> events, boolean last, @Nullable CTFException error) {
+            fEvents = events;
+            fLast = last;
+            fError = error;
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger fCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nullable Runnable r) {
+            Thread thread = new Thread(r, "CTF Stream Decoder " + fCount.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final EventBatch EMPTY_BATCH = new EventBatch(Collections.emptyList(), false, null);
+
+    private final IEventDecoder fDecoder;
+    private final Executor fExecutor;
+    private final int fBatchSize;
+    private final BlockingQueue<EventBatch> fQueue;
+    private final AtomicBoolean fScheduled = new AtomicBoolean(false);
+    private final Object fDecodeLock = new Object();
+
+    /* Written by the decoding task, under fDecodeLock */
+    private boolean fDone = false;
+    private volatile boolean fStopped = false;
+
+    /* Consumer side */
+    private EventBatch fCurrent = EMPTY_BATCH;
+    private int fCurrentIndex = 0;
+
+    /**
+     * Constructor
+     *
+     * @param decoder
+     *            the decoder of the stream, it will only be called from one
+     *            thread at a time
+     * @param executor
+     *            the executor running the decoding tasks
+     * @param batchSize
+     *            the number of events per batch
+     * @param depth
+     *            the maximum number of batches decoded in advance
+     */
+    public StreamInputPrefetcher(IEventDecoder decoder, Executor executor, int batchSize, int depth) {
+        if (batchSize <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Batch size and depth must be positive"); //$NON-NLS-1$
+        }
+        fDecoder = decoder;
+        fExecutor = executor;
+        fBatchSize = batchSize;
+        fQueue = new ArrayBlockingQueue<>(depth);
+    }
+
+    /**
+     * Get the executor shared by all the stream decoders. It has one thread
+     * per available processor.
+     *
+     * @return the shared executor
+     */
+    public static Executor getSharedExecutor() {
+        return SHARED_EXECUTOR;
+    }
+
+    /**
+     * Start decoding in the background, from the current position of the
+     * decoder.
+     */
+    public void start() {
+        schedule();
+    }
+
+    /**
+     * Get the next decoded event, waiting for it to be decoded if needed.
+     *
+     * @return the next event, or null if the stream has no more events
+     * @throws CTFException
+     *             if the decoder failed to read the event
+     */
+    public @Nullable IEventDefinition next() throws CTFException {
+        while (fCurrentIndex >= fCurrent.fEvents.size()) {
+            CTFException error = fCurrent.fError;
+            if (error != null) {
+                throw error;
+            }
+            if (fCurrent.fLast) {
+                return null;
+            }
+            schedule();
+            try {
+                fCurrent = fQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CTFIOException(e);
+            }
+            fCurrentIndex = 0;
+            schedule();
+        }
+        return fCurrent.fEvents.get(fCurrentIndex++);
+    }
+
+    /**
+     * Stop decoding. When this method returns, the decoder is not used by any
+     * other thread anymore and can be repositioned by the caller. The events
+     * that were decoded but not consumed yet are returned, in order, so that
+     * the caller can read them before decoding the following ones itself.
+     *
+     * @return the events decoded ahead and not consumed
+     */
+    public List<IEventDefinition> stop() {
+        fStopped = true;
+        List<IEventDefinition> events = new ArrayList<>();
+        synchronized (fDecodeLock) {
+            events.addAll(fCurrent.fEvents.subList(fCurrentIndex, fCurrent.fEvents.size()));
+            for (EventBatch batch : fQueue) {
+                events.addAll(batch.fEvents);
+            }
+            fQueue.clear();
+        }
+        fCurrent = EMPTY_BATCH;
+        fCurrentIndex = 0;
+        return events;
+    }
+
+    private void schedule() {
+        if (!fStopped && fQueue.remainingCapacity() > 0 && fScheduled.compareAndSet(false, true)) {
+            fExecutor.execute(this::decodeBatch);
+        }
+    }
+
+    private void decodeBatch() {
+        try {
+            synchronized (fDecodeLock) {
+                if (fStopped || fDone) {
+                    return;
+                }
+                /*
+                 * When stopped in the middle of a batch, the events decoded so
+                 * far are still queued, the decoder has moved past them.
+                 */
+                List<IEventDefinition> events = new ArrayList<>(fBatchSize);
+                CTFException error = null;
+                try {
+                    while (events.size() < fBatchSize && !fDone) {
+                        if (events.size() % CHECK_STOP_INTERVAL == 0 && fStopped) {
+                            break;
+                        }
+                        IEventDefinition event = fDecoder.decode();
+                        if (event == null) {
+                            fDone = true;
+                        } else {
+                            events.add(event);
+                        }
+                    }
+                } catch (CTFException e) {
+                    error = e;
+                    fDone = true;
+                } catch (RuntimeException e) {
+                    /* Don't leave the consumer waiting for a batch */
+                    error = new CTFException(e.getMessage(), e);
+                    fDone = true;
+                }
+                /*
+                 * There is only one decoding task at a time and it is only
+                 * scheduled when the queue has room, so this cannot fail. The
+                 * consumer is the one stopping, so it does not take batches
+                 * meanwhile.
+                 */
+                fQueue.add(new EventBatch(events, fDone, error));
+            }
+        } finally {
+            fScheduled.set(false);
+        }
+        schedule();
+    }
+}
@@ -48,6 +48,13 @@ public class CtfIterator extends CTFTraceReader
     /** An invalid location */
     public static final CtfLocation NULL_LOCATION = new CtfLocation(CtfLocation.INVALID_LOCATION);
 
+    /**
+     * Number of events read in a row, without seeking, before the streams are
+     * decoded in parallel. Random accesses, like the events table does, would
+     * only waste the events decoded ahead.
+     */
+    private static final int PARALLEL_DECODING_THRESHOLD = 10000;
+
     private final @NonNull CtfTmfTrace fTrace;
 
     private CtfLocation fCurLocation;
@@ -56,6 +63,8 @@ public class CtfIterator extends CTFTraceReader
     private CtfLocation fPreviousLocation;
     private CtfTmfEvent fPreviousEvent;
 
+    private long fSequentialReads = 0;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -198,6 +207,11 @@ public class CtfIterator extends CTFTraceReader
         /* Update location to make sure the current event is updated */
         fCurLocation = new CtfLocation(ctfLocationData);
 
+        fSequentialReads = 0;
+        if (isParallelDecoding()) {
+            setParallelDecoding(false);
+        }
+
         /* Adjust the timestamp depending on the trace's offset */
         final long seekToTimestamp = ctfLocationData.getTimestamp();
         final long offsetTimestamp = this.getCtfTmfTrace().timestampNanoToCycles(seekToTimestamp);
@@ -251,6 +265,9 @@ public class CtfIterator extends CTFTraceReader
     @Override
     public synchronized boolean advance() {
         boolean ret = false;
+        if (++fSequentialReads == PARALLEL_DECODING_THRESHOLD && getPrio().size() > 1) {
+            setParallelDecoding(true);
+        }
         try {
             ret = super.advance();
         } catch (CTFException e) {
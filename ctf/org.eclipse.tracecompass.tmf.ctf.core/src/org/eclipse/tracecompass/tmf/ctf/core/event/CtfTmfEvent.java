@@ -27,10 +27,14 @@ import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldBuffer;
+import org.eclipse.tracecompass.ctf.core.event.FlatFieldSelection;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.Activator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfCustomAttributes;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
@@ -290,6 +294,31 @@ public class CtfTmfEvent extends TmfEvent
         return content;
     }
 
+    /**
+     * Read some numeric fields of the event into a reusable buffer. This is
+     * much cheaper than {@link #getContent()} when only a few integer fields
+     * are needed, for example in a state provider, as the fields are read
+     * directly from the trace when possible.
+     *
+     * @param selection
+     *            the fields to read, it should be created once and reused
+     * @param buffer
+     *            the buffer receiving the field values
+     * @return true if the fields were read, false if there was an error
+     *         reading the event
+     * @since 4.3
+     */
+    public boolean readFlatFields(FlatFieldSelection selection, FlatFieldBuffer buffer) {
+        try {
+            fEvent.readFlatFields(selection, buffer);
+            return true;
+        } catch (CTFException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+            buffer.clear();
+            return false;
+        }
+    }
+
     /**
      * Extract the field information from the structDefinition haze-inducing
      * mess, and put them into something ITmfEventField can cope with.
@@ -24,8 +24,10 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
@@ -154,6 +156,23 @@ public abstract class AbstractTestSegmentStore {
             buffer.putString(fPayload);
         }
 
+        @Override
+        public int hashCode() {
+            return Objects.hash(fStart, fEnd, fPayload);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TestSegment)) {
+                return false;
+            }
+            TestSegment other = (TestSegment) obj;
+            return fStart == other.fStart && fEnd == other.fEnd && fPayload.equals(other.fPayload);
+        }
+
     }
 
     /**
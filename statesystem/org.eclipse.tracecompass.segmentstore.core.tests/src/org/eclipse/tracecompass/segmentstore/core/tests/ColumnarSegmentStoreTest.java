@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.columnar.ColumnarSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.junit.Test;
+
+/**
+ * Unit tests for the columnar segment store
+ */
+public class ColumnarSegmentStoreTest extends AbstractTestSegmentStore {
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore() {
+        return new ColumnarSegmentStore<>(TestSegment.DESERIALISER);
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
+        ISegmentStore<@NonNull TestSegment> store = new ColumnarSegmentStore<>(TestSegment.DESERIALISER);
+        store.addAll(Arrays.asList(data));
+        return store;
+    }
+
+    /**
+     * Overrides the assert equals to compare 2 segments. The segments are read
+     * back from the columns, they are not the original segments.
+     *
+     * @param expected
+     *            The expected segment
+     * @param actual
+     *            The actual segment
+     */
+    @Override
+    protected void assertSegmentsEqual(@Nullable ISegment expected, @Nullable ISegment actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        assertEquals(((TestSegment) expected).getPayload(), ((TestSegment) actual).getPayload());
+    }
+
+    /**
+     * Test that the queries return the same segments as the LazyArrayListStore
+     * when there are many blocks of segments inserted out of order
+     */
+    @Test
+    public void testManySegments() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        ISegmentStore<@NonNull TestSegment> reference = new LazyArrayListStore<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long start = random.nextInt(100000);
+            long end = start + (random.nextInt(100) == 0 ? random.nextInt(50000) : random.nextInt(100));
+            TestSegment segment = new TestSegment(start, end, "segment " + i);
+            store.add(segment);
+            reference.add(segment);
+        }
+        assertEquals(reference.size(), store.size());
+        assertSameSegments(reference, store);
+        for (int i = 0; i < 100; i++) {
+            long start = random.nextInt(110000);
+            long end = start + random.nextInt(1000);
+            assertSameSegments(reference.getIntersectingElements(start, end), store.getIntersectingElements(start, end));
+        }
+        store.dispose();
+        reference.dispose();
+    }
+
+    /**
+     * Test that a query returns the segments added before it, in order, when
+     * segments are added out of order while it is iterated
+     */
+    @Test
+    public void testAddWhileIterating() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        ISegmentStore<@NonNull TestSegment> reference = new LazyArrayListStore<>();
+        for (int i = 0; i < 5000; i++) {
+            TestSegment segment = new TestSegment(i * 2, i * 2 + 10, "segment " + i);
+            store.add(segment);
+            reference.add(segment);
+        }
+        Iterable<@NonNull TestSegment> query = store.getIntersectingElements(1000, 9000);
+        Iterator<@NonNull TestSegment> actual = query.iterator();
+        int count = 0;
+        for (TestSegment expected : reference.getIntersectingElements(1000, 9000)) {
+            assertSegmentsEqual(expected, actual.next());
+            count++;
+            if (count % 500 == 0) {
+                /* Segments that sort before and after the current position */
+                store.add(new TestSegment(0, 10000, "added " + count));
+                store.add(new TestSegment(8000, 8001, "added " + count));
+            }
+        }
+        assertFalse(actual.hasNext());
+        assertTrue(count > 2000);
+        assertEquals(5000 + 2 * (count / 500), store.size());
+        store.dispose();
+        reference.dispose();
+    }
+
+    private void assertSameSegments(Iterable<@NonNull TestSegment> expected, Iterable<@NonNull TestSegment> actual) {
+        List<@NonNull TestSegment> actualList = new ArrayList<>();
+        actual.forEach(actualList::add);
+        Iterator<@NonNull TestSegment> actualIterator = actualList.iterator();
+        int count = 0;
+        for (TestSegment segment : expected) {
+            assertSegmentsEqual(segment, actualIterator.next());
+            count++;
+        }
+        assertEquals(count, actualList.size());
+    }
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests.htStore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.ThreadedHistoryTreeSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
+import org.eclipse.tracecompass.segmentstore.core.tests.AbstractTestSegmentStore;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Unit tests for the history tree segment store built in a separate thread
+ */
+@NonNullByDefault
+public class ThreadedHTStoreTest extends AbstractTestSegmentStore {
+
+    private @Nullable Path fFilePath;
+
+    @Override
+    protected ThreadedHistoryTreeSegmentStore<@NonNull TestSegment> getSegmentStore() {
+        try {
+            Path tmpFile = Files.createTempFile("tmpSegStore", null);
+            fFilePath = tmpFile;
+            assertNotNull(tmpFile);
+            return new ThreadedHistoryTreeSegmentStore<>(tmpFile, TestSegment.DESERIALISER, 1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't create the segment store: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
+        ThreadedHistoryTreeSegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        store.addAll(Arrays.asList(data));
+        return store;
+    }
+
+    /**
+     * Dispose of the segment store
+     */
+    @Override
+    @After
+    public void teardown() {
+        fSegmentStore.dispose();
+        Path filePath = fFilePath;
+        if (filePath != null) {
+            try {
+                Files.deleteIfExists(filePath);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error deleting the file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Overrides the assert equals to compare 2 segments. The HT segments are
+     * not identical to the original segments.
+     *
+     * @param expected
+     *            The expected segment
+     * @param actual
+     *            The actual segment
+     */
+    @Override
+    protected void assertSegmentsEqual(@Nullable ISegment expected, @Nullable ISegment actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        assertEquals(expected.getLength(), actual.getLength());
+    }
+
+    @Override
+    @Test
+    public void testIterationOrderNonSortedInsertion() {
+        /** The segments are not sorted, so this test does not apply */
+    }
+
+    @Override
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToSpecifyArraySubtype() {
+        super.testToSpecifyArraySubtype();
+    }
+
+    @Override
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToObjectArray() {
+        super.testToObjectArray();
+    }
+
+    @Override
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToSpecificArray() {
+        super.testToSpecificArray();
+    }
+
+    @Override
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddAllConstructor() {
+        super.testAddAllConstructor();
+    }
+
+    /**
+     * Test that the queries see all the segments while the store is being
+     * built, whether they are in the tree or still queued
+     */
+    @Test
+    public void testQueriesWhileBuilding() {
+        ThreadedHistoryTreeSegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        List<TestSegment> added = new ArrayList<>();
+        Random random = new Random(42);
+        try {
+            for (int i = 0; i < 20000; i++) {
+                long start = i * 10L + random.nextInt(100);
+                TestSegment segment = new TestSegment(start, start + random.nextInt(1000), "segment " + i);
+                store.add(segment);
+                added.add(segment);
+                if (i % 1000 == 999) {
+                    assertEquals(added.size(), store.size());
+                    long time = random.nextInt(i * 10);
+                    long expected = added.stream().filter(s -> s.getStart() <= time + 100 && s.getEnd() >= time).count();
+                    assertEquals(expected, Iterables.size(store.getIntersectingElements(time, time + 100)));
+                }
+            }
+            Iterable<@NonNull TestSegment> sorted = store.getIntersectingElements(0, Long.MAX_VALUE, SegmentComparators.INTERVAL_START_COMPARATOR);
+            long previous = Long.MIN_VALUE;
+            for (TestSegment segment : sorted) {
+                assertTrue(segment.getStart() >= previous);
+                previous = segment.getStart();
+            }
+            store.finishedBuilding(store.getEndTime());
+            assertEquals(added.size(), store.size());
+            assertEquals(added.size(), Iterables.size(store.getIntersectingElements(0, Long.MAX_VALUE)));
+        } finally {
+            store.dispose();
+        }
+    }
+
+    /**
+     * Test reading a store built in a separate thread
+     *
+     * @throws IOException
+     *             Exception thrown by application
+     */
+    @Test
+    public void testReadingSegmentStore() throws IOException {
+        Path dirPath = Files.createTempDirectory("tmpSegStoreDir");
+        Path filePath = Paths.get(dirPath.toString(), "tmpSegStore");
+        assertNotNull(filePath);
+
+        try {
+            ThreadedHistoryTreeSegmentStore<TestSegment> segmentStore = new ThreadedHistoryTreeSegmentStore<>(filePath, TestSegment.DESERIALISER, 1);
+            for (int i = 0; i < 1000; i++) {
+                segmentStore.add(new TestSegment(i, i + 3, "abc"));
+            }
+            segmentStore.close(false);
+            segmentStore.dispose();
+
+            // Open the segment store, it should be filled with the segments
+            segmentStore = new ThreadedHistoryTreeSegmentStore<>(filePath, TestSegment.DESERIALISER, 1);
+            assertEquals(1000, segmentStore.size());
+            assertEquals(1002, segmentStore.getEndTime());
+            segmentStore.dispose();
+        } finally {
+            Files.deleteIfExists(filePath);
+            Files.deleteIfExists(dirPath);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Implementation of an {@link ISegmentStore} that keeps the segments outside of
+ * the Java heap, in columns. The start and end times are columns of longs, and
+ * each segment is written with its own serialization in a payload area. The
+ * segments are only created, with the segment reader, when they are returned
+ * by a query, so a store of millions of segments takes a fraction of the heap
+ * of the {@link ISegment} objects.
+ * <p>
+ * Like the LazyArrayListStore, the segments are added at the end of the
+ * columns and the columns are sorted by start time, then end time, at the next
+ * read if they are out of order. Segments with the same start and end times
+ * are returned in the order they were added, not in their natural order.
+ * <p>
+ * The intersecting elements are found with a binary search on the start time
+ * column, and an index of the maximum end time of each block of segments to
+ * skip the blocks that end before the requested range. The queries are read
+ * lazily, one block at a time, so a query of millions of segments does not
+ * copy their offsets. They return the segments added before the query, even if
+ * the columns are sorted again in the meantime, but end if the store is
+ * cleared.
+ * <p>
+ * The off-heap memory is limited by the -XX:MaxDirectMemorySize option of the
+ * virtual machine. Removal operations are not supported.
+ *
+ * @param <E>
+ *            The type of segment held in this store
+ */
+public class ColumnarSegmentStore<E extends ISegment> implements ISegmentStore<E> {
+
+    /** Number of segments per block of the skip index */
+    private static final int BLOCK_SHIFT = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    /** Segments under this count are sorted by insertion */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final IHTIntervalReader<E> fSegmentReader;
+    private final ReentrantLock fLock = new ReentrantLock(false);
+
+    private final OffHeapLongColumn fStarts = new OffHeapLongColumn();
+    private final OffHeapLongColumn fEnds = new OffHeapLongColumn();
+    /** Offsets of the payloads, also the order of insertion */
+    private final OffHeapLongColumn fOffsets = new OffHeapLongColumn();
+    private final OffHeapPayloads fPayloads = new OffHeapPayloads();
+
+    /** Maximum end time of each block of segments */
+    private long[] fBlockMaxEnds = new long[16];
+
+    private @Nullable Iterable<E> fLastSnapshot = null;
+
+    private volatile int fSize = 0;
+    /** Offset after the payload of the last segment added */
+    private long fOffsetLimit = 0;
+    /** Number of times the columns were sorted, or cleared */
+    private int fSortCount = 0;
+    private int fClearCount = 0;
+    private boolean fDirty = false;
+    private long fStart = Long.MAX_VALUE;
+    private long fEnd = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param segmentReader
+     *            The reader to create the segments from their serialization,
+     *            the opposite of {@link ISegment#writeSegment}
+     */
+    public ColumnarSegmentStore(IHTIntervalReader<E> segmentReader) {
+        fSegmentReader = segmentReader;
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods from Collection
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean add(@Nullable E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("Cannot add null value"); //$NON-NLS-1$
+        }
+
+        fLock.lock();
+        try {
+            long start = val.getStart();
+            long end = val.getEnd();
+            int index = fSize;
+            if (index > 0 && !fDirty) {
+                long lastStart = fStarts.get(index - 1);
+                if (lastStart > start || (lastStart == start && fEnds.get(index - 1) > end)) {
+                    fDirty = true;
+                }
+            }
+            long offset = fPayloads.append(val);
+            fStarts.add(start);
+            fEnds.add(end);
+            fOffsets.add(offset);
+            fOffsetLimit = offset + 1;
+            updateBlockMaxEnd(index, end);
+            fSize = index + 1;
+            fLastSnapshot = null;
+            fStart = Math.min(fStart, start);
+            fEnd = Math.max(fEnd, end);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException();
+        }
+
+        fLock.lock();
+        try {
+            c.forEach(this::add);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return fSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return getIntersectingElements(Long.MIN_VALUE, Long.MAX_VALUE).iterator();
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        if (!(o instanceof ISegment)) {
+            return false;
+        }
+        ISegment segment = (ISegment) o;
+        long start = segment.getStart();
+        long end = segment.getEnd();
+        long[] offsets = new long[1];
+        int count = 0;
+        ByteBuffer[] chunks;
+        fLock.lock();
+        try {
+            sortIfDirty();
+            for (int i = lowerBound(start); i < fSize && fStarts.get(i) == start; i++) {
+                if (fEnds.get(i) == end) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = fOffsets.get(i);
+                }
+            }
+            if (count == 0) {
+                return false;
+            }
+            chunks = fPayloads.snapshot();
+        } finally {
+            fLock.unlock();
+        }
+        for (int i = 0; i < count; i++) {
+            if (OffHeapPayloads.read(chunks, offsets[i], fSegmentReader).equals(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(@Nullable Collection<?> c) {
+        if (c == null) {
+            return false;
+        }
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        List<E> list = new ArrayList<>(fSize);
+        iterator().forEachRemaining(list::add);
+        return list.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        List<E> list = new ArrayList<>(fSize);
+        iterator().forEachRemaining(list::add);
+        return list.toArray(a);
+    }
+
+    @Override
+    public void clear() {
+        fLock.lock();
+        try {
+            fStarts.clear();
+            fEnds.clear();
+            fOffsets.clear();
+            fPayloads.clear();
+            fBlockMaxEnds = new long[16];
+            fLastSnapshot = null;
+            fSize = 0;
+            fOffsetLimit = 0;
+            fClearCount++;
+            fDirty = false;
+            fStart = Long.MAX_VALUE;
+            fEnd = Long.MIN_VALUE;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods added by ISegmentStore
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        fLock.lock();
+        try {
+            sortIfDirty();
+            boolean all = start <= fStart && end >= fEnd;
+            if (all) {
+                Iterable<E> lastSnapshot = fLastSnapshot;
+                if (lastSnapshot != null) {
+                    return lastSnapshot;
+                }
+            }
+            if (fSize == 0 || start > fEnd || end < fStart) {
+                return Collections.emptyList();
+            }
+            SegmentIterable iterable = new SegmentIterable(start, end, fOffsetLimit, fClearCount, fPayloads.snapshot());
+            if (all) {
+                fLastSnapshot = iterable;
+            }
+            return iterable;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers, to call with the lock
+    // ------------------------------------------------------------------------
+
+    private void updateBlockMaxEnd(int index, long end) {
+        int block = index >>> BLOCK_SHIFT;
+        if (block == fBlockMaxEnds.length) {
+            fBlockMaxEnds = Arrays.copyOf(fBlockMaxEnds, block * 2);
+        }
+        if ((index & (BLOCK_SIZE - 1)) == 0) {
+            fBlockMaxEnds[block] = end;
+        } else {
+            fBlockMaxEnds[block] = Math.max(fBlockMaxEnds[block], end);
+        }
+    }
+
+    /**
+     * Get the index of the first segment starting at or after a time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fStarts.get(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the index of the first segment starting after a time
+     */
+    private int upperBound(long time) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fStarts.get(mid) <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the index of the first segment after a segment, in the order of the
+     * columns
+     */
+    private int upperBound(long start, long end, long offset) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, start, end, offset) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void sortIfDirty() {
+        if (!fDirty) {
+            return;
+        }
+        fSortCount++;
+        sort(0, fSize);
+        for (int i = 0; i < fSize; i++) {
+            updateBlockMaxEnd(i, fEnds.get(i));
+        }
+        fDirty = false;
+    }
+
+    /**
+     * Sort the columns between two indexes, by start time, end time, then
+     * order of insertion, which is the order of the payload offsets.
+     */
+    private void sort(int from, int to) {
+        int low = from;
+        int high = to;
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            int mid = (low + high) >>> 1;
+            long pivotStart = fStarts.get(mid);
+            long pivotEnd = fEnds.get(mid);
+            long pivotOffset = fOffsets.get(mid);
+            int i = low;
+            int j = high - 1;
+            while (i <= j) {
+                while (compare(i, pivotStart, pivotEnd, pivotOffset) < 0) {
+                    i++;
+                }
+                while (compare(j, pivotStart, pivotEnd, pivotOffset) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            /* Recurse in the smaller part to bound the depth of the stack */
+            if (j - low < high - i) {
+                sort(low, j + 1);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j + 1;
+            }
+        }
+        for (int i = low + 1; i < high; i++) {
+            for (int j = i; j > low && compare(j, fStarts.get(j - 1), fEnds.get(j - 1), fOffsets.get(j - 1)) < 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private int compare(int index, long start, long end, long offset) {
+        int cmp = Long.compare(fStarts.get(index), start);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compare(fEnds.get(index), end);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compare(fOffsets.get(index), offset);
+    }
+
+    private void swap(int i, int j) {
+        swap(fStarts, i, j);
+        swap(fEnds, i, j);
+        swap(fOffsets, i, j);
+    }
+
+    private static void swap(OffHeapLongColumn column, int i, int j) {
+        long tmp = column.get(i);
+        column.set(i, column.get(j));
+        column.set(j, tmp);
+    }
+
+    /**
+     * The segments of a query, read from their payloads as they are iterated.
+     * The segments added after the query, whose payloads are after the offset
+     * limit, are not returned.
+     */
+    private final class SegmentIterable implements Iterable<E> {
+
+        private final long fQueryStart;
+        private final long fQueryEnd;
+        private final long fQueryOffsetLimit;
+        private final int fQueryClearCount;
+        private final ByteBuffer[] fChunks;
+
+        public SegmentIterable(long start, long end, long offsetLimit, int clearCount, ByteBuffer[] chunks) {
+            fQueryStart = start;
+            fQueryEnd = end;
+            fQueryOffsetLimit = offsetLimit;
+            fQueryClearCount = clearCount;
+            fChunks = chunks;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new SegmentIterator(this);
+        }
+    }
+
+    /**
+     * Iterator of a query, which reads the offsets of the intersecting segments
+     * one block at a time with the lock
+     */
+    private final class SegmentIterator implements Iterator<E> {
+
+        private final SegmentIterable fQuery;
+        private final long[] fBlockOffsets = new long[BLOCK_SIZE];
+        private int fBlockCount = 0;
+        private int fBlockIndex = 0;
+
+        /* Position in the columns, valid while they are not sorted again */
+        private int fNextIndex = 0;
+        private int fIteratorSortCount;
+        private boolean fDone = false;
+
+        /* The last segment read from the columns, to find it after a sort */
+        private long fLastStart = Long.MIN_VALUE;
+        private long fLastEnd = Long.MIN_VALUE;
+        private long fLastOffset = -1;
+
+        public SegmentIterator(SegmentIterable query) {
+            fQuery = query;
+            fLock.lock();
+            try {
+                sortIfDirty();
+                fIteratorSortCount = fSortCount;
+            } finally {
+                fLock.unlock();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (fBlockIndex == fBlockCount && !fDone) {
+                readNextBlock();
+            }
+            return fBlockIndex < fBlockCount;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return OffHeapPayloads.read(fQuery.fChunks, fBlockOffsets[fBlockIndex++], fSegmentReader);
+        }
+
+        private void readNextBlock() {
+            fBlockCount = 0;
+            fBlockIndex = 0;
+            fLock.lock();
+            try {
+                if (fClearCount != fQuery.fQueryClearCount) {
+                    fDone = true;
+                    return;
+                }
+                sortIfDirty();
+                if (fSortCount != fIteratorSortCount) {
+                    fNextIndex = upperBound(fLastStart, fLastEnd, fLastOffset);
+                    fIteratorSortCount = fSortCount;
+                }
+                /* The segments after this index start after the range */
+                int last = upperBound(fQuery.fQueryEnd);
+                while (fBlockCount == 0 && fNextIndex < last) {
+                    int block = fNextIndex >>> BLOCK_SHIFT;
+                    int blockEnd = Math.min(last, (block + 1) << BLOCK_SHIFT);
+                    if (fBlockMaxEnds[block] >= fQuery.fQueryStart) {
+                        for (int i = fNextIndex; i < blockEnd; i++) {
+                            long offset = fOffsets.get(i);
+                            if (fEnds.get(i) >= fQuery.fQueryStart && offset < fQuery.fQueryOffsetLimit) {
+                                fBlockOffsets[fBlockCount++] = offset;
+                                fLastStart = fStarts.get(i);
+                                fLastEnd = fEnds.get(i);
+                                fLastOffset = offset;
+                            }
+                        }
+                    }
+                    fNextIndex = blockEnd;
+                }
+                fDone = (fBlockCount == 0);
+            } finally {
+                fLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A growable column of longs stored outside of the Java heap, in chunks of
+ * direct buffers so that it never has to be copied when it grows.
+ * <p>
+ * This class is not thread-safe, the segment store protects it with its lock.
+ */
+final class OffHeapLongColumn {
+
+    /** Each chunk holds 128k longs, 1 MB */
+    private static final int CHUNK_SHIFT = 17;
+    private static final int CHUNK_LENGTH = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_LENGTH - 1;
+
+    private final List<LongBuffer> fChunks = new ArrayList<>();
+    private int fSize = 0;
+
+    /**
+     * Get the number of values in the column
+     *
+     * @return The number of values
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Get a value
+     *
+     * @param index
+     *            The index of the value, smaller than {@link #size()}
+     * @return The value
+     */
+    public long get(int index) {
+        return fChunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    /**
+     * Replace a value
+     *
+     * @param index
+     *            The index of the value, smaller than {@link #size()}
+     * @param value
+     *            The new value
+     */
+    public void set(int index, long value) {
+        fChunks.get(index >>> CHUNK_SHIFT).put(index & CHUNK_MASK, value);
+    }
+
+    /**
+     * Add a value at the end of the column
+     *
+     * @param value
+     *            The value to add
+     */
+    public void add(long value) {
+        if (fSize == Integer.MAX_VALUE) {
+            throw new IllegalStateException("The column is full"); //$NON-NLS-1$
+        }
+        if ((fSize >>> CHUNK_SHIFT) == fChunks.size()) {
+            fChunks.add(ByteBuffer.allocateDirect(CHUNK_LENGTH * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer());
+        }
+        set(fSize, value);
+        fSize++;
+    }
+
+    /**
+     * Remove all the values and release the chunks
+     */
+    public void clear() {
+        fChunks.clear();
+        fSize = 0;
+    }
+}
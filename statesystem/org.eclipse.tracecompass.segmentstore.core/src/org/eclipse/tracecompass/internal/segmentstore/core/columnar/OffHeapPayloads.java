@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+
+/**
+ * Append-only area outside of the Java heap where the segments are written
+ * with their own serialization, {@link ISegment#writeSegment}. A segment is
+ * identified by the offset of its payload, which never changes once written,
+ * so the offsets stay valid when the columns are sorted.
+ * <p>
+ * The payloads are only added under the lock of the segment store. They can be
+ * read without the lock from a snapshot of the chunks, as the bytes of a
+ * payload are never modified once written.
+ */
+final class OffHeapPayloads {
+
+    /** Payloads are written in chunks of 4 MB */
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    private final List<ByteBuffer> fChunks = new ArrayList<>();
+    private @Nullable ByteBuffer fCurrent = null;
+    private int fPosition = 0;
+
+    /**
+     * Write a segment at the end of the area
+     *
+     * @param segment
+     *            The segment to write
+     * @return The offset of the payload, to read the segment back
+     */
+    public long append(ISegment segment) {
+        int size = segment.getSizeOnDisk();
+        ByteBuffer current = fCurrent;
+        if (current == null || current.capacity() - fPosition < size) {
+            /* Payloads never span two chunks */
+            current = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, size));
+            fChunks.add(current);
+            fCurrent = current;
+            fPosition = 0;
+        }
+        ByteBuffer buffer = current.duplicate();
+        buffer.position(fPosition);
+        segment.writeSegment(SafeByteBufferFactory.wrapWriter(buffer, size));
+        long offset = ((long) (fChunks.size() - 1) << Integer.SIZE) | fPosition;
+        fPosition += size;
+        return offset;
+    }
+
+    /**
+     * Get the chunks written so far, to read payloads without the lock
+     *
+     * @return The chunks
+     */
+    public ByteBuffer[] snapshot() {
+        return fChunks.toArray(new ByteBuffer[fChunks.size()]);
+    }
+
+    /**
+     * Read a segment back from its payload
+     *
+     * @param chunks
+     *            A snapshot of the chunks taken after the segment was written
+     * @param offset
+     *            The offset of the payload
+     * @param reader
+     *            The reader of the segments
+     * @return The segment
+     */
+    public static <E extends ISegment> E read(ByteBuffer[] chunks, long offset, IHTIntervalReader<E> reader) {
+        ByteBuffer buffer = chunks[(int) (offset >>> Integer.SIZE)].duplicate();
+        int position = (int) offset;
+        buffer.position(position);
+        return reader.readInterval(SafeByteBufferFactory.wrapReader(buffer, buffer.capacity() - position));
+    }
+
+    /**
+     * Release all the payloads. The snapshots taken before stay readable.
+     */
+    public void clear() {
+        fChunks.clear();
+        fCurrent = null;
+        fPosition = 0;
+    }
+}
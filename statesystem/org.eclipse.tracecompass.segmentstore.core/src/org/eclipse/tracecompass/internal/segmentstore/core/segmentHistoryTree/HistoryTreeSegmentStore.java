@@ -122,6 +122,17 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
         return fSht;
     }
 
+    /**
+     * Get whether the history tree is complete, either because it was read
+     * from an existing file or because {@link #finishedBuilding(long)} was
+     * called
+     *
+     * @return <code>true</code> if the history tree is complete
+     */
+    protected boolean isFinishedBuilding() {
+        return fFinishedBuilding;
+    }
+
     /**
      * Get the start time of the history tree
      *
@@ -0,0 +1,403 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.exceptions.RangeException;
+import org.eclipse.tracecompass.internal.segmentstore.core.Activator;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Variant of the {@link HistoryTreeSegmentStore} which inserts the segments in
+ * the history tree in a separate thread, like the
+ * <code>ThreadedHistoryTreeBackend</code> of the state systems.
+ * <p>
+ * The added segments are queued in batches of {@value #BATCH_SIZE}. Each batch
+ * is sorted by start time, so that the segments of a batch go to the same
+ * nodes, then inserted by the writer thread, which also writes the nodes that
+ * are closed. The number of queued batches is bounded, so the analysis waits
+ * for the writer thread if it falls behind.
+ * <p>
+ * The store can be queried while it is being built: the queries read the
+ * history tree while the writer thread waits, and add the queued segments. The
+ * results of these queries are not lazy. Once the store is built, the queries
+ * are the same as those of the {@link HistoryTreeSegmentStore}.
+ *
+ * @param <E>
+ *            type of {@link ISegment}
+ */
+public class ThreadedHistoryTreeSegmentStore<E extends ISegment> extends HistoryTreeSegmentStore<E> {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    /** Lock of the history tree, held for writing by the writer thread */
+    private final ReentrantReadWriteLock fTreeLock = new ReentrantReadWriteLock(false);
+
+    /** Lock of the batches that are not yet in the history tree */
+    private final Object fQueueLock = new Object();
+    /** The batches to insert, the first one is being inserted */
+    private final Deque<List<E>> fQueue = new ArrayDeque<>();
+    /** The batch being filled */
+    private List<E> fBatch = new ArrayList<>(BATCH_SIZE);
+    private boolean fStopping = false;
+
+    /** The number of batches that can still be queued */
+    private final Semaphore fCapacity;
+    private final @Nullable Thread fWriterThread;
+
+    /**
+     * The store tracks its end time separately from the tree, to take into
+     * consideration the queued segments.
+     */
+    private volatile long fEndTime = Long.MIN_VALUE;
+
+    /**
+     * Constructor, with the default queue size
+     *
+     * @param newStateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param factory
+     *            Factory to read history tree objects from the backend
+     * @param version
+     *            The version number of the reader/writer
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     */
+    public ThreadedHistoryTreeSegmentStore(Path newStateFile, IHTIntervalReader<E> factory, int version) throws IOException {
+        this(newStateFile, factory, version, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Constructor. If the file already exists and is complete, it is read and
+     * no writer thread is started.
+     *
+     * @param newStateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param factory
+     *            Factory to read history tree objects from the backend
+     * @param version
+     *            The version number of the reader/writer
+     * @param queueSize
+     *            The maximum number of queued segments. 2000 - 10000 usually
+     *            works well
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     */
+    public ThreadedHistoryTreeSegmentStore(Path newStateFile, IHTIntervalReader<E> factory, int version, int queueSize) throws IOException {
+        super(newStateFile, factory, version);
+        fCapacity = new Semaphore(Math.max(1, queueSize / BATCH_SIZE));
+        if (isFinishedBuilding()) {
+            fWriterThread = null;
+            return;
+        }
+        Thread thread = new Thread(this::run, "Segment History Tree Thread"); //$NON-NLS-1$
+        /* Do not keep the application alive if the store is never closed */
+        thread.setDaemon(true);
+        thread.start();
+        fWriterThread = thread;
+    }
+
+    // ------------------------------------------------------------------------
+    // Writer thread
+    // ------------------------------------------------------------------------
+
+    private void run() {
+        while (true) {
+            synchronized (fQueueLock) {
+                while (fQueue.isEmpty()) {
+                    if (fStopping) {
+                        return;
+                    }
+                    try {
+                        fQueueLock.wait();
+                    } catch (InterruptedException e) {
+                        Activator.instance().logError("Segment history tree thread interrupted", e); //$NON-NLS-1$
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            fTreeLock.writeLock().lock();
+            try {
+                List<E> batch;
+                synchronized (fQueueLock) {
+                    batch = fQueue.peekFirst();
+                }
+                if (batch == null) {
+                    /* The queue was cleared */
+                    continue;
+                }
+                for (E segment : batch) {
+                    try {
+                        getSHT().insert(segment);
+                    } catch (RangeException e) {
+                        Activator.instance().logError("Error inserting segment " + segment, e); //$NON-NLS-1$
+                    }
+                }
+                /* Only remove the batch once it can be read from the tree */
+                synchronized (fQueueLock) {
+                    fQueue.pollFirst();
+                }
+            } finally {
+                fTreeLock.writeLock().unlock();
+            }
+            fCapacity.release();
+        }
+    }
+
+    /**
+     * Queue the batch being filled, the caller must hold the queue lock
+     */
+    private void queueBatch() {
+        fBatch.sort(SegmentComparators.INTERVAL_START_COMPARATOR);
+        fQueue.addLast(fBatch);
+        fBatch = new ArrayList<>(BATCH_SIZE);
+        fQueueLock.notifyAll();
+    }
+
+    /**
+     * Stop the writer thread and wait for it to finish
+     *
+     * @param discard
+     *            Whether to discard the queued segments instead of inserting
+     *            them
+     */
+    private void stopWriterThread(boolean discard) {
+        Thread thread = fWriterThread;
+        if (thread == null || !thread.isAlive()) {
+            return;
+        }
+        synchronized (fQueueLock) {
+            if (discard) {
+                discardQueue();
+            } else if (!fBatch.isEmpty()) {
+                queueBatch();
+            }
+            fStopping = true;
+            fQueueLock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Activator.instance().logError("Segment history tree thread interrupted", e); //$NON-NLS-1$
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Discard the queued segments, the caller must hold the queue lock
+     */
+    private void discardQueue() {
+        fCapacity.release(fQueue.size());
+        fQueue.clear();
+        fBatch.clear();
+    }
+
+    private boolean isBuilding() {
+        Thread thread = fWriterThread;
+        return thread != null && thread.isAlive();
+    }
+
+    // ------------------------------------------------------------------------
+    // HistoryTreeSegmentStore
+    // ------------------------------------------------------------------------
+
+    @Override
+    public long getEndTime() {
+        return Math.max(super.getEndTime(), fEndTime);
+    }
+
+    @Override
+    public void finishedBuilding(long endTime) {
+        /*
+         * Insert all the queued segments before the tree closes the latest
+         * branch
+         */
+        stopWriterThread(false);
+        super.finishedBuilding(endTime);
+    }
+
+    @Override
+    public void close(boolean deleteFiles) {
+        if (deleteFiles) {
+            stopWriterThread(true);
+        }
+        super.close(deleteFiles);
+    }
+
+    @Override
+    public void dispose() {
+        /*
+         * If the build is interrupted, the file will be deleted, there is no
+         * need to insert the queued segments
+         */
+        stopWriterThread(true);
+        super.dispose();
+    }
+
+    @Override
+    public boolean add(E interval) {
+        if (!isBuilding()) {
+            return super.add(interval);
+        }
+        boolean full;
+        synchronized (fQueueLock) {
+            fBatch.add(interval);
+            full = fBatch.size() >= BATCH_SIZE;
+            if (full && fCapacity.tryAcquire()) {
+                queueBatch();
+                full = false;
+            }
+        }
+        if (interval.getEnd() > fEndTime) {
+            fEndTime = interval.getEnd();
+        }
+        if (full) {
+            /* Wait for the writer thread outside of the lock */
+            fCapacity.acquireUninterruptibly();
+            synchronized (fQueueLock) {
+                if (fBatch.isEmpty()) {
+                    fCapacity.release();
+                } else {
+                    queueBatch();
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> c) {
+        if (c == null) {
+            return false;
+        }
+        c.forEach(this::add);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        if (!isBuilding()) {
+            return super.size();
+        }
+        fTreeLock.readLock().lock();
+        try {
+            int size = super.size();
+            synchronized (fQueueLock) {
+                for (List<E> batch : fQueue) {
+                    size += batch.size();
+                }
+                return size + fBatch.size();
+            }
+        } finally {
+            fTreeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (!isBuilding()) {
+            return super.isEmpty();
+        }
+        return size() == 0;
+    }
+
+    @Override
+    public @Nullable Iterator<E> iterator() {
+        if (!isBuilding()) {
+            return super.iterator();
+        }
+        return getIntersectingElements(Long.MIN_VALUE, Long.MAX_VALUE).iterator();
+    }
+
+    @Override
+    public void clear() {
+        fTreeLock.writeLock().lock();
+        try {
+            synchronized (fQueueLock) {
+                discardQueue();
+            }
+            super.clear();
+        } finally {
+            fTreeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public @NonNull Iterable<E> getIntersectingElements(long start, long end) {
+        if (!isBuilding()) {
+            return super.getIntersectingElements(start, end);
+        }
+        return getIntersectingWhileBuilding(start, end, null);
+    }
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end, @Nullable Comparator<ISegment> order) {
+        if (!isBuilding()) {
+            return super.getIntersectingElements(start, end, order);
+        }
+        return getIntersectingWhileBuilding(start, end, order);
+    }
+
+    /**
+     * Get the segments of the tree and of the queue that intersect a range.
+     * The writer thread waits while the tree is read so that no segment is
+     * returned twice or missed.
+     */
+    private List<E> getIntersectingWhileBuilding(long start, long end, @Nullable Comparator<ISegment> order) {
+        List<E> segments = new ArrayList<>();
+        fTreeLock.readLock().lock();
+        try {
+            Iterables.addAll(segments, super.getIntersectingElements(start, end));
+            synchronized (fQueueLock) {
+                for (List<E> batch : fQueue) {
+                    addIntersecting(segments, batch, start, end);
+                }
+                addIntersecting(segments, fBatch, start, end);
+            }
+        } finally {
+            fTreeLock.readLock().unlock();
+        }
+        if (order != null) {
+            segments.sort(order);
+        }
+        return segments;
+    }
+
+    private static <E extends ISegment> void addIntersecting(List<E> segments, List<E> batch, long start, long end) {
+        for (E segment : batch) {
+            if (segment.getStart() <= end && segment.getEnd() >= start) {
+                segments.add(segment);
+            }
+        }
+    }
+}
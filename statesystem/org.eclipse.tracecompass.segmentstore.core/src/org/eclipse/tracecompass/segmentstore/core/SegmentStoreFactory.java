@@ -24,7 +24,8 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.ArrayListStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
-import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.HistoryTreeSegmentStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.columnar.ColumnarSegmentStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.ThreadedHistoryTreeSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.treemap.TreeMapStore;
 
 /**
@@ -69,7 +70,18 @@ public final class SegmentStoreFactory<E> {
          *
          * @since 2.0
          */
-        OnDisk
+        OnDisk,
+        /**
+         * Segment store that keeps the segments outside of the Java heap, in
+         * columns, ideal for the very large stores that must still be fast to
+         * query. The segments are created from their serialization when they
+         * are read. These kind of stores should be created using the
+         * {@link SegmentStoreFactory#createColumnarSegmentStore(IHTIntervalReader)}
+         * factory method
+         *
+         * @since 3.1
+         */
+        Columnar
     }
 
     private SegmentStoreFactory() {
@@ -130,7 +142,9 @@ public final class SegmentStoreFactory<E> {
     }
 
     /**
-     * SegmentStore factory method that creates a segment store on disk
+     * SegmentStore factory method that creates a segment store on disk. The
+     * segments of a new store are written to disk in a separate thread, until
+     * {@link ISegmentStore#close(boolean)} is called.
      *
      * @param segmentFile
      *            The file where to store the segments
@@ -145,7 +159,21 @@ public final class SegmentStoreFactory<E> {
      * @since 2.1
      */
     public static <E extends ISegment> ISegmentStore<E> createOnDiskSegmentStore(Path segmentFile, IHTIntervalReader<E> segmentReader, int version) throws IOException {
-        return new HistoryTreeSegmentStore<>(segmentFile, segmentReader, version);
+        return new ThreadedHistoryTreeSegmentStore<>(segmentFile, segmentReader, version);
+    }
+
+    /**
+     * SegmentStore factory method that creates a segment store outside of the
+     * Java heap
+     *
+     * @param segmentReader
+     *            The factory to read the segments from a safe byte buffer
+     *
+     * @return an {@link ISegmentStore}
+     * @since 3.1
+     */
+    public static <E extends ISegment> ISegmentStore<E> createColumnarSegmentStore(IHTIntervalReader<E> segmentReader) {
+        return new ColumnarSegmentStore<>(segmentReader);
     }
 
     private static Set<@NonNull SegmentStoreType> getListOfFlags(SegmentStoreType... segmentTypes) {
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.statesystem.core.TransientState;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test the {@link TransientState} class
+ */
+public class TransientStateTest {
+
+    /** Time-out tests after 1 minute. */
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private TransientState fTransientState;
+
+    /**
+     * Create the transient state
+     */
+    @Before
+    public void setup() {
+        fTransientState = new TransientState(StateHistoryBackendFactory.createNullBackend("Test"));
+    }
+
+    /**
+     * Test the ongoing values and intervals
+     */
+    @Test
+    public void testOngoingState() {
+        TransientState ts = fTransientState;
+        for (int i = 0; i < 3000; i++) {
+            ts.addEmptyEntry();
+        }
+        ts.processStateChange(10, 1L, 0);
+        ts.processStateChange(20, 2L, 0);
+        ts.processStateChange(15, "a", 2999);
+
+        assertEquals(2L, ts.getOngoingStateValue(0));
+        assertEquals(20, ts.getOngoingStartTime(0));
+        assertNull(ts.getIntervalAt(19, 0));
+        ITmfStateInterval interval = ts.getIntervalAt(25, 0);
+        assertNotNull(interval);
+        assertEquals(20, interval.getStartTime());
+        assertEquals(20, interval.getEndTime());
+        assertEquals(2L, interval.getValue());
+
+        List<@Nullable Object> values = ts.getOngoingStateValues();
+        assertEquals(3000, values.size());
+        assertEquals("a", values.get(2999));
+        assertNull(values.get(1));
+
+        ts.changeOngoingStateValue(1, 5L);
+        assertEquals(5L, ts.getOngoingStateValue(1));
+        assertEquals(5L, values.get(1));
+    }
+
+    /**
+     * Test that the value and start time of an interval are always read
+     * together while the attributes are modified and added
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testConcurrentQueries() throws InterruptedException {
+        TransientState ts = fTransientState;
+        ts.addEmptyEntry();
+        AtomicReference<@Nullable String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long time = 0;
+            while (time < 100000) {
+                ITmfStateInterval interval = ts.getOngoingInterval(0);
+                Object value = interval.getValue();
+                if (value != null && (Long) value != interval.getStartTime()) {
+                    error.set("Value " + value + " for start time " + interval.getStartTime());
+                    return;
+                }
+                time = interval.getStartTime();
+            }
+        });
+        reader.start();
+        for (long time = 1; time <= 100000; time++) {
+            ts.processStateChange(time, time, 0);
+            if (time % 100 == 0) {
+                ts.addEmptyEntry();
+            }
+        }
+        reader.join();
+        assertNull(error.get());
+        assertEquals(1001, ts.getOngoingStateValues().size());
+    }
+
+    /**
+     * Test that queries never read an attribute out of the storage or from
+     * another slot while the ongoing state is replaced by smaller and bigger
+     * ones
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testConcurrentReplace() throws InterruptedException {
+        TransientState ts = fTransientState;
+        List<ITmfStateInterval> small = new ArrayList<>();
+        List<ITmfStateInterval> big = new ArrayList<>();
+        for (int quark = 0; quark < 1000; quark++) {
+            ITmfStateInterval interval = new TmfStateInterval(0, 0, quark, (long) quark);
+            big.add(interval);
+            if (quark < 10) {
+                small.add(interval);
+            }
+        }
+        ts.replaceOngoingState(big);
+        AtomicReference<@Nullable String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                int quark = i % 1000;
+                try {
+                    Object value = ts.getOngoingInterval(quark).getValue();
+                    if (value == null || (Long) value != quark) {
+                        error.set("Value " + value + " for quark " + quark);
+                        return;
+                    }
+                } catch (IndexOutOfBoundsException e) {
+                    if (quark < 10) {
+                        error.set("Quark " + quark + " out of bounds");
+                        return;
+                    }
+                }
+            }
+        });
+        reader.start();
+        while (reader.isAlive()) {
+            ts.replaceOngoingState(small);
+            ts.replaceOngoingState(big);
+        }
+        reader.join();
+        assertNull(error.get());
+    }
+
+    /**
+     * Test that the intervals read while the state changes never end before
+     * they start, and that queries running while the transient state is
+     * closed return nothing instead of failing
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testConcurrentClose() throws InterruptedException {
+        TransientState ts = fTransientState;
+        for (int quark = 0; quark < 100; quark++) {
+            ts.addEmptyEntry();
+        }
+        AtomicReference<@Nullable String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            List<@Nullable ITmfStateInterval> stateInfo = new ArrayList<>();
+            for (int quark = 0; quark < 100; quark++) {
+                stateInfo.add(null);
+            }
+            try {
+                while (ts.isActive()) {
+                    for (int quark = 0; quark < 100; quark++) {
+                        ITmfStateInterval interval = ts.getIntervalAt(Long.MAX_VALUE, quark);
+                        if (interval != null && interval.getEndTime() < interval.getStartTime()) {
+                            error.set("Interval " + interval + " ends before it starts");
+                            return;
+                        }
+                    }
+                    ts.doQuery(stateInfo, Long.MAX_VALUE);
+                }
+            } catch (RuntimeException e) {
+                error.set("Query failed: " + e);
+            }
+        });
+        reader.start();
+        for (long time = 1; time <= 100000; time++) {
+            ts.processStateChange(time, time, (int) (time % 100));
+        }
+        ts.closeTransientState(100000);
+        reader.join();
+        assertNull(error.get());
+        assertNull(ts.getIntervalAt(100000, 0));
+    }
+}
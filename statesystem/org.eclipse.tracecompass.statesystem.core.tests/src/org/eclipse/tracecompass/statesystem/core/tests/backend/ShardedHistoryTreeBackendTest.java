@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ShardedHistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.Test;
+
+/**
+ * Test the {@link ShardedHistoryTreeBackend} class.
+ */
+public class ShardedHistoryTreeBackendTest extends HistoryTreeBackendTest {
+
+    private static final int QUEUE_SIZE = 10;
+    private static final int NB_SHARDS = 3;
+
+    /**
+     * Constructor
+     *
+     * @param reOpen
+     *            True if the backend should be disposed and re-opened as a new
+     *            backend from the file, or false to use the backend as-is
+     */
+    public ShardedHistoryTreeBackendTest(Boolean reOpen) {
+        super(reOpen);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) throws IOException {
+        File historyTreeFile = File.createTempFile("ShardedHistoryTreeBackendTest", ".ht");
+        for (int i = 0; i < NB_SHARDS; i++) {
+            fHistoryTreeFiles.add(ShardedHistoryTreeBackend.getShardFile(historyTreeFile, i));
+        }
+        ShardedHistoryTreeBackend backend = new ShardedHistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, startTime, QUEUE_SIZE, NB_SHARDS, fBlockSize, fMaxChildren);
+        fBackendMap.put(backend, historyTreeFile);
+        return backend;
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForQuerying(IStateHistoryBackend backend) throws IOException {
+        if (!fReOpen) {
+            return backend;
+        }
+
+        File historyTreeFile = fBackendMap.remove(backend);
+
+        if (historyTreeFile == null) {
+            throw new IllegalStateException();
+        }
+
+        backend.dispose();
+        ShardedHistoryTreeBackend reOpenedBackend = new ShardedHistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, NB_SHARDS);
+        fBackendMap.put(reOpenedBackend, historyTreeFile);
+        return reOpenedBackend;
+    }
+
+    @Override
+    @Test
+    public void testIntervalBeforeStart() {
+        // Exception is thrown in a thread, so we can't catch it
+    }
+
+    /**
+     * Test that each attribute is stored in its own file and that the queries
+     * on several attributes return the intervals of all the files
+     *
+     * @throws IOException
+     *             if the backend cannot be created
+     * @throws StateSystemDisposedException
+     *             if the backend is disposed
+     */
+    @Test
+    public void testQueriesAcrossShards() throws IOException, StateSystemDisposedException {
+        int nbAttributes = 2 * NB_SHARDS + 1;
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            intervals.add(new TmfStateInterval(0, 9, quark, quark));
+            intervals.add(new TmfStateInterval(10, 20, quark, quark + 100));
+        }
+        IStateHistoryBackend backend = prepareBackend(0, 20, intervals);
+        assertNotNull(backend);
+
+        for (int i = 0; i < NB_SHARDS; i++) {
+            File file = ShardedHistoryTreeBackend.getShardFile(getStateFile(backend), i);
+            assertTrue(file.exists());
+        }
+
+        List<ITmfStateInterval> fullState = new ArrayList<>();
+        for (int i = 0; i < nbAttributes; i++) {
+            fullState.add(null);
+        }
+        backend.doQuery(fullState, 15);
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            ITmfStateInterval interval = fullState.get(quark);
+            assertNotNull(interval);
+            assertEquals(quark, interval.getAttribute());
+            assertEquals(quark + 100, interval.getValue());
+        }
+
+        ITmfStateInterval interval = backend.doSingularQuery(5, NB_SHARDS + 1);
+        assertNotNull(interval);
+        assertEquals(NB_SHARDS + 1, interval.getValue());
+
+        Set<Integer> quarks = new HashSet<>(Arrays.asList(1, 2, nbAttributes - 1));
+        Set<Object> values = new HashSet<>();
+        for (ITmfStateInterval result : backend.query2D(IntegerRangeCondition.forDiscreteRange(quarks), TimeRangeCondition.singleton(5))) {
+            assertTrue(quarks.contains(result.getAttribute()));
+            values.add(result.getValue());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, nbAttributes - 1)), values);
+    }
+
+    /**
+     * Test that a history is not opened with another number of trees than it
+     * was built with, and that the extra trees of a previous history are
+     * deleted when a new history is built
+     *
+     * @throws IOException
+     *             if the backend cannot be created
+     */
+    @Test
+    public void testShardCountMismatch() throws IOException {
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int quark = 0; quark < NB_SHARDS; quark++) {
+            intervals.add(new TmfStateInterval(0, 20, quark, quark));
+        }
+        IStateHistoryBackend backend = prepareBackend(0, 20, intervals);
+        assertNotNull(backend);
+        File stateFile = getStateFile(backend);
+        assertEquals(NB_SHARDS, ShardedHistoryTreeBackend.getShardCount(stateFile));
+
+        try {
+            new ShardedHistoryTreeBackend(SSID, stateFile, PROVIDER_VERSION, NB_SHARDS - 1);
+            fail("History opened with fewer trees");
+        } catch (IOException e) {
+            // Expected
+        }
+        try {
+            StateHistoryBackendFactory.createShardedHistoryTreeBackendExistingFile(SSID, stateFile, PROVIDER_VERSION, 1);
+            fail("History opened with a single tree");
+        } catch (IOException e) {
+            // Expected
+        }
+
+        IStateHistoryBackend newBackend = StateHistoryBackendFactory.createShardedHistoryTreeBackendNewFile(SSID, stateFile, PROVIDER_VERSION, 0, 0, 1);
+        newBackend.dispose();
+        for (int i = 1; i < NB_SHARDS; i++) {
+            assertFalse(ShardedHistoryTreeBackend.getShardFile(stateFile, i).exists());
+        }
+        assertEquals(1, ShardedHistoryTreeBackend.getShardCount(stateFile));
+    }
+
+    private File getStateFile(IStateHistoryBackend backend) {
+        File file = fBackendMap.get(backend);
+        assertNotNull(file);
+        return file;
+    }
+}
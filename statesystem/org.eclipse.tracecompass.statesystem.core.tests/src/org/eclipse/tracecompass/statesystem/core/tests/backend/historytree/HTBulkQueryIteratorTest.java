@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTBulkQueryIterator;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTIntervalCursor;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test the {@link HTBulkQueryIterator} class, through the 2D queries of the
+ * {@link HistoryTreeBackend}
+ */
+public class HTBulkQueryIteratorTest {
+
+    private static final int NB_ATTRIBUTES = 50;
+    private static final long END_TIME = 20000;
+
+    /**
+     * Temporary folder for the history tree file
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    private HistoryTreeBackend fBackend;
+
+    /**
+     * Build a history tree with many nodes
+     *
+     * @throws IOException
+     *             if the history tree file cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        File file = new File(fFolder.getRoot(), "bulk.ht");
+        fBackend = new HistoryTreeBackend("test", file, 0, 0, 4096, 3);
+        for (int quark = 0; quark < NB_ATTRIBUTES; quark++) {
+            fBackend.insertPastState(0, quark, quark, null);
+        }
+        for (long time = NB_ATTRIBUTES; time < END_TIME; time++) {
+            int quark = (int) (time % NB_ATTRIBUTES);
+            fBackend.insertPastState(time - NB_ATTRIBUTES + 1, time, quark, time);
+        }
+        fBackend.finishedBuilding(END_TIME);
+    }
+
+    /**
+     * Delete the history tree file
+     */
+    @After
+    public void tearDown() {
+        fBackend.removeFiles();
+    }
+
+    /**
+     * Test that reading the nodes level by level returns the same intervals
+     * as the depth-first search of the reverse queries
+     */
+    @Test
+    public void testSameIntervals() {
+        List<IntegerRangeCondition> quarkConditions = Arrays.asList(
+                IntegerRangeCondition.forDiscreteRange(Arrays.asList(0, 1, 2, 3)),
+                IntegerRangeCondition.forDiscreteRange(Arrays.asList(7, 25, 49)));
+        List<TimeRangeCondition> timeConditions = Arrays.asList(
+                TimeRangeCondition.forContinuousRange(0, END_TIME),
+                TimeRangeCondition.forContinuousRange(5000, 6000),
+                TimeRangeCondition.forDiscreteRange(Arrays.asList(10L, 1000L, 10000L, 19999L)));
+        for (IntegerRangeCondition quarks : quarkConditions) {
+            for (TimeRangeCondition times : timeConditions) {
+                Set<ITmfStateInterval> expected = toSet(fBackend.query2D(quarks, times, true));
+                Set<ITmfStateInterval> actual = toSet(fBackend.query2D(quarks, times, false));
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, actual);
+                for (ITmfStateInterval interval : actual) {
+                    assertTrue(quarks.test(interval.getAttribute()));
+                    assertTrue(times.intersects(interval.getStartTime(), interval.getEndTime()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that all the intervals of a long range are returned
+     */
+    @Test
+    public void testAllIntervals() {
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(Arrays.asList(0, 10, 20, 30, 40));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(0, END_TIME);
+        Set<ITmfStateInterval> intervals = toSet(fBackend.query2D(quarks, times, false));
+        /* Every interval of these attributes intersects the range */
+        assertEquals(5 * (END_TIME / NB_ATTRIBUTES), intervals.size());
+    }
+
+    /**
+     * Test that the intervals passed through the cursor are the same as the
+     * ones returned by the iterator
+     */
+    @Test
+    public void testForEach() {
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(Arrays.asList(0, 1, 2, 3, 25, 49));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(1000, 15000);
+        Set<ITmfStateInterval> expected = toSet(fBackend.query2D(quarks, times, false));
+        Set<ITmfStateInterval> actual = new HashSet<>();
+        fBackend.forEach2D(quarks, times, interval -> {
+            assertTrue(interval instanceof HTIntervalCursor);
+            assertEquals(interval.getEndTime(), interval.getValueLong());
+            assertTrue(actual.add(((HTIntervalCursor) interval).copy()));
+        });
+        assertEquals(expected, actual);
+    }
+
+    private static Set<ITmfStateInterval> toSet(Iterable<ITmfStateInterval> intervals) {
+        List<ITmfStateInterval> list = new ArrayList<>();
+        intervals.forEach(list::add);
+        Set<ITmfStateInterval> set = new HashSet<>(list);
+        /* No interval is returned twice once the tree is built */
+        assertEquals(list.size(), set.size());
+        return set;
+    }
+}
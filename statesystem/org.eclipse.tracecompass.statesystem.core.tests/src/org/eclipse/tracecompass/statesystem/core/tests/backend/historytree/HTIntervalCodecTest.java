@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTClassicIntervalCodec;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTCompactIntervalCodec;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.classic.HistoryTreeClassic;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test the formats of the intervals in the history tree files, and that the
+ * files of the previous format can still be read.
+ */
+public class HTIntervalCodecTest {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_CHILDREN = 3;
+    private static final int PROVIDER_VERSION = 0;
+    private static final int NB_ATTRIBUTES = 20;
+    private static final long END_TIME = 10000;
+    private static final String[] STATES = { "RUNNING", "WAIT_CPU", "SYSCALL", "IDLE" };
+
+    /**
+     * Temporary folder for the history tree files
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    /**
+     * Backend writing the files in the classic format
+     */
+    private static class ClassicBackend extends HistoryTreeBackend {
+        public ClassicBackend(File file) throws IOException {
+            super("test", file, PROVIDER_VERSION, 0, BLOCK_SIZE, MAX_CHILDREN);
+        }
+
+        @Override
+        protected IHistoryTree initializeSHT(HTConfig conf) throws IOException {
+            return new HistoryTreeClassic(new HTConfig(conf.getStateFile(), conf.getBlockSize(), conf.getMaxChildren(),
+                    conf.getProviderVersion(), conf.getTreeStart(), HTClassicIntervalCodec.INSTANCE));
+        }
+    }
+
+    /**
+     * Test that the intervals of both formats are read back from the files,
+     * and that the compact format takes less space
+     *
+     * @throws IOException
+     *             if the files cannot be written or read
+     */
+    @Test
+    public void testReadBack() throws IOException {
+        File compactFile = new File(fFolder.getRoot(), "compact.ht");
+        File classicFile = new File(fFolder.getRoot(), "classic.ht");
+        Set<ITmfStateInterval> expected = new HashSet<>();
+        fill(new HistoryTreeBackend("test", compactFile, PROVIDER_VERSION, 0, BLOCK_SIZE, MAX_CHILDREN), expected);
+        fill(new ClassicBackend(classicFile), new HashSet<>());
+
+        assertEquals(HTCompactIntervalCodec.FILE_VERSION, readFileVersion(compactFile));
+        assertEquals(HTClassicIntervalCodec.FILE_VERSION, readFileVersion(classicFile));
+        assertTrue(compactFile.length() < classicFile.length());
+
+        assertEquals(expected, readAll(compactFile));
+        assertEquals(expected, readAll(classicFile));
+    }
+
+    private static void fill(HistoryTreeBackend backend, Set<ITmfStateInterval> intervals) {
+        for (long time = 0; time < END_TIME; time += NB_ATTRIBUTES) {
+            for (int quark = 0; quark < NB_ATTRIBUTES; quark++) {
+                long start = time + quark;
+                long end = start + NB_ATTRIBUTES - 1;
+                Object value = getValue(time, quark);
+                backend.insertPastState(start, end, quark, value);
+                intervals.add(new HTInterval(start, end, quark, value));
+            }
+        }
+        backend.finishedBuilding(END_TIME + NB_ATTRIBUTES);
+        backend.dispose();
+    }
+
+    private static Object getValue(long time, int quark) {
+        switch (quark % 6) {
+        case 0:
+            return null;
+        case 1:
+            return (int) (time % 100) - 50;
+        case 2:
+            return time * 1000L;
+        case 3:
+            return time / 3.0;
+        case 4:
+            return "Thread " + time;
+        default:
+            return STATES[(int) (time / NB_ATTRIBUTES) % STATES.length];
+        }
+    }
+
+    private static Set<ITmfStateInterval> readAll(File file) throws IOException {
+        HistoryTreeBackend backend = new HistoryTreeBackend("test", file, PROVIDER_VERSION);
+        try {
+            Set<ITmfStateInterval> intervals = new HashSet<>();
+            for (ITmfStateInterval interval : backend.query2D(IntegerRangeCondition.forDiscreteRange(range()),
+                    TimeRangeCondition.forContinuousRange(0, END_TIME + NB_ATTRIBUTES))) {
+                intervals.add(new HTInterval(interval.getStartTime(), interval.getEndTime(), interval.getAttribute(), interval.getValue()));
+            }
+            return intervals;
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    private static Set<Integer> range() {
+        Set<Integer> quarks = new HashSet<>();
+        for (int quark = 0; quark < NB_ATTRIBUTES; quark++) {
+            quarks.add(quark);
+        }
+        return quarks;
+    }
+
+    private static int readFileVersion(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(Integer.BYTES);
+            /* The header is written in little endian */
+            return Integer.reverseBytes(raf.readInt());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTIntervalColumns;
+import org.junit.Test;
+
+/**
+ * Test the {@link HTIntervalColumns} class
+ */
+public class HTIntervalColumnsTest {
+
+    /**
+     * Test that the intervals are kept sorted by end time, start time, then
+     * attribute, whatever the order they are inserted in
+     */
+    @Test
+    public void testInsertionOrder() {
+        HTIntervalColumns columns = new HTIntervalColumns(2);
+        columns.insert(new HTInterval(0, 10, 1, null));
+        columns.insert(new HTInterval(5, 20, 1, null));
+        columns.insert(new HTInterval(0, 5, 2, null));
+        columns.insert(new HTInterval(3, 10, 0, null));
+        columns.insert(new HTInterval(0, 10, 0, null));
+
+        assertEquals(5, columns.size());
+        long[][] expected = { { 0, 5, 2 }, { 0, 10, 0 }, { 0, 10, 1 }, { 3, 10, 0 }, { 5, 20, 1 } };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], columns.getStartTime(i));
+            assertEquals(expected[i][1], columns.getEndTime(i));
+            assertEquals(expected[i][2], columns.getAttribute(i));
+        }
+
+        assertEquals(0, columns.getStartIndexFor(0));
+        assertEquals(1, columns.getStartIndexFor(6));
+        assertEquals(4, columns.getStartIndexFor(11));
+        assertEquals(5, columns.getStartIndexFor(21));
+    }
+
+    /**
+     * Test that the values are stored by type and read back as they were
+     */
+    @Test
+    public void testValues() {
+        HTIntervalColumns columns = new HTIntervalColumns();
+        Object[] values = { null, -3, Long.MAX_VALUE, 2.5, "string" };
+        for (int i = 0; i < values.length; i++) {
+            columns.insert(new HTInterval(i, i, i, values[i]));
+        }
+
+        assertNull(columns.getValue(0));
+        assertEquals(HTIntervalColumns.TYPE_NULL, columns.getType(0));
+        assertEquals(HTIntervalColumns.TYPE_INTEGER, columns.getType(1));
+        assertEquals(-3, columns.getLong(1));
+        assertEquals(HTIntervalColumns.TYPE_LONG, columns.getType(2));
+        assertEquals(Long.MAX_VALUE, columns.getLong(2));
+        assertEquals(HTIntervalColumns.TYPE_DOUBLE, columns.getType(3));
+        assertEquals(2.5, columns.getDouble(3), 0.0);
+        assertEquals(HTIntervalColumns.TYPE_OBJECT, columns.getType(4));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], columns.getValue(i));
+            assertEquals(new HTInterval(i, i, i, values[i]), columns.getInterval(i));
+        }
+    }
+
+    /**
+     * Test that the interval objects are created once and follow their
+     * interval when intervals are inserted before them
+     */
+    @Test
+    public void testIntervalObjects() {
+        HTIntervalColumns columns = new HTIntervalColumns(2);
+        columns.insert(new HTInterval(0, 10, 0, 1));
+        columns.insert(new HTInterval(0, 20, 0, 2));
+        HTInterval first = columns.getInterval(0);
+        HTInterval second = columns.getInterval(1);
+        assertSame(first, columns.getInterval(0));
+        assertSame(second, columns.getInterval(1));
+
+        /* Insert before, growing the columns */
+        columns.insert(new HTInterval(0, 5, 0, 3));
+        assertEquals(new HTInterval(0, 5, 0, 3), columns.getInterval(0));
+        assertSame(first, columns.getInterval(1));
+        assertSame(second, columns.getInterval(2));
+
+        /* The objects created to go through the intervals are not kept */
+        HTInterval created = columns.createInterval(1);
+        assertEquals(first, created);
+        assertNotSame(first, created);
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNodeCache;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HT_IO;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.LeafNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.classic.CoreNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test the {@link HTNodeCache} class
+ */
+public class HTNodeCacheTest {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    private static final IHTNodeFactory NODE_FACTORY = new IHTNodeFactory() {
+        @Override
+        public HTNode createCoreNode(HTConfig config, int seqNumber, int parentSeqNumber, long start) {
+            return new CoreNode(config, seqNumber, parentSeqNumber, start);
+        }
+
+        @Override
+        public HTNode createLeafNode(HTConfig config, int seqNumber, int parentSeqNumber, long start) {
+            return new LeafNode(config, seqNumber, parentSeqNumber, start);
+        }
+    };
+
+    /**
+     * Temporary folder for the history tree files
+     */
+    @Rule
+    public TemporaryFolder fFolder = new TemporaryFolder();
+
+    private HTConfig fConfig1;
+    private HTConfig fConfig2;
+    private HT_IO fTree1;
+    private HT_IO fTree2;
+
+    /**
+     * Create the tree I/O objects
+     *
+     * @throws IOException
+     *             if the files cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fConfig1 = new HTConfig(new File(fFolder.getRoot(), "tree1.ht"), BLOCK_SIZE, 2, 0, 0);
+        fConfig2 = new HTConfig(new File(fFolder.getRoot(), "tree2.ht"), BLOCK_SIZE, 2, 0, 0);
+        fTree1 = new HT_IO(fConfig1, true, NODE_FACTORY);
+        fTree2 = new HT_IO(fConfig2, true, NODE_FACTORY);
+    }
+
+    /**
+     * Close the files
+     */
+    @After
+    public void tearDown() {
+        fTree1.deleteFile();
+        fTree2.deleteFile();
+    }
+
+    /**
+     * Test that the cache is bounded by size and counts hits, misses and
+     * evictions
+     */
+    @Test
+    public void testSizeBound() {
+        HTNodeCache cache = new HTNodeCache(4 * BLOCK_SIZE, false);
+        for (int i = 0; i < 6; i++) {
+            cache.put(fTree1, new LeafNode(fConfig1, i, 0, 0), BLOCK_SIZE);
+        }
+        assertEquals(4 * BLOCK_SIZE, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+
+        assertNull(cache.get(fTree1, 0));
+        assertNull(cache.get(fTree1, 1));
+        assertNotNull(cache.get(fTree1, 2));
+        assertNull(cache.getIfPresent(fTree2, 2));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        /* Node 2 was used last, node 3 is dropped first */
+        cache.put(fTree1, new LeafNode(fConfig1, 6, 0, 0), BLOCK_SIZE);
+        assertNull(cache.getIfPresent(fTree1, 3));
+        assertNotNull(cache.getIfPresent(fTree1, 2));
+
+        cache.setMaximumSize(BLOCK_SIZE);
+        assertEquals(BLOCK_SIZE, cache.getSize());
+        cache.invalidate(fTree1);
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Test that the nodes are dropped from the tree using the most memory
+     */
+    @Test
+    public void testFairSharing() {
+        HTNodeCache cache = new HTNodeCache(4 * BLOCK_SIZE, false);
+        cache.put(fTree2, new LeafNode(fConfig2, 0, 0, 0), BLOCK_SIZE);
+        for (int i = 0; i < 10; i++) {
+            cache.put(fTree1, new LeafNode(fConfig1, i, 0, 0), BLOCK_SIZE);
+        }
+        assertEquals(3 * BLOCK_SIZE, cache.getSize(fTree1));
+        assertEquals(BLOCK_SIZE, cache.getSize(fTree2));
+        assertNotNull(cache.getIfPresent(fTree2, 0));
+    }
+
+    /**
+     * Test that the core nodes stay in the cache when they are pinned
+     */
+    @Test
+    public void testPinnedCoreNodes() {
+        HTNodeCache cache = new HTNodeCache(4 * BLOCK_SIZE, true);
+        HTNode root = new CoreNode(fConfig1, 0, -1, 0);
+        cache.put(fTree1, root, BLOCK_SIZE);
+        for (int i = 1; i < 10; i++) {
+            cache.put(fTree1, new LeafNode(fConfig1, i, 0, 0), BLOCK_SIZE);
+        }
+        assertSame(root, cache.getIfPresent(fTree1, 0));
+        assertEquals(4 * BLOCK_SIZE, cache.getSize());
+
+        /* Only a quarter of the cache can be pinned */
+        cache.put(fTree1, new CoreNode(fConfig1, 10, 0, 0), BLOCK_SIZE);
+        cache.put(fTree1, new LeafNode(fConfig1, 11, 0, 0), BLOCK_SIZE);
+        cache.put(fTree1, new LeafNode(fConfig1, 12, 0, 0), BLOCK_SIZE);
+        cache.put(fTree1, new LeafNode(fConfig1, 13, 0, 0), BLOCK_SIZE);
+        assertNull(cache.getIfPresent(fTree1, 10));
+        assertNotNull(cache.getIfPresent(fTree1, 0));
+
+        cache.setPinCoreNodes(false);
+        for (int i = 14; i < 18; i++) {
+            cache.put(fTree1, new LeafNode(fConfig1, i, 0, 0), BLOCK_SIZE);
+        }
+        assertNull(cache.getIfPresent(fTree1, 0));
+    }
+}
@@ -17,13 +17,17 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core;
 
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
 import java.io.PrintWriter;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -55,18 +59,75 @@ public class TransientState {
 
     private static final Logger LOGGER = TraceCompassLog.getLogger(TransientState.class);
 
+    /* Number of stripes, must be a power of 2 */
+    private static final int NB_STRIPES = 64;
+    private static final int STRIPE_MASK = NB_STRIPES - 1;
+
+    /* Minimum number of entries added to the arrays when they grow */
+    private static final int GROW_CHUNK = 1024;
+
+    /**
+     * The ongoing state of all the attributes, with the number of attributes
+     * it holds. The size and the arrays are published together in a new
+     * storage object, so a reader always sees arrays containing all the
+     * attributes of the size it read. The arrays are never shrunk: when they
+     * are full, a bigger copy is made and published, so a reader can keep
+     * using the arrays it has read.
+     */
+    private static final class Storage {
+        private final AtomicReferenceArray<@Nullable Object> fValues;
+        private final AtomicLongArray fStartTimes;
+        /* Only used by the writer */
+        private final @Nullable Class<?>[] fTypes;
+        private final int fSize;
+
+        public Storage(int capacity) {
+            this(new AtomicReferenceArray<>(capacity), new AtomicLongArray(capacity), new Class<?>[capacity], 0);
+        }
+
+        private Storage(AtomicReferenceArray<@Nullable Object> values, AtomicLongArray startTimes, @Nullable Class<?>[] types, int size) {
+            fValues = values;
+            fStartTimes = startTimes;
+            fTypes = types;
+            fSize = size;
+        }
+
+        public int capacity() {
+            return fTypes.length;
+        }
+
+        public Storage copy(int capacity) {
+            Storage copy = new Storage(new AtomicReferenceArray<>(capacity), new AtomicLongArray(capacity), new Class<?>[capacity], fSize);
+            for (int i = 0; i < fSize; i++) {
+                copy.fValues.lazySet(i, fValues.get(i));
+                copy.fStartTimes.lazySet(i, fStartTimes.get(i));
+            }
+            System.arraycopy(fTypes, 0, copy.fTypes, 0, fSize);
+            return copy;
+        }
+
+        /* A storage sharing the same arrays, with a different size */
+        public Storage withSize(int size) {
+            return new Storage(fValues, fStartTimes, fTypes, size);
+        }
+    }
+
     /* Indicates where to insert state changes that we generate */
     private final IStateHistoryBackend fBackend;
 
-    private final ReentrantReadWriteLock fRWLock = new ReentrantReadWriteLock(false);
+    /*
+     * Modifications are serialized by this lock, queries never take it. A
+     * query reads the value and start time of an attribute between two reads
+     * of the version of its stripe, the writer makes the version odd while it
+     * modifies an attribute of the stripe.
+     */
+    private final Object fWriteLock = new Object();
+    private final AtomicLongArray fStripeVersions = new AtomicLongArray(NB_STRIPES);
 
     private volatile boolean fIsActive;
     private volatile long fLatestTime;
 
-    /* A method accessing these arrays will have to go through the lock */
-    private List<@Nullable Object> fOngoingStateInfo;
-    private List<Long> fOngoingStateStartTimes;
-    private List<@Nullable Class<?>> fStateValueTypes;
+    private volatile Storage fStorage;
 
     /**
      * Constructor
@@ -77,9 +138,7 @@ public class TransientState {
     public TransientState(IStateHistoryBackend backend) {
         fBackend = backend;
         fIsActive = true;
-        fOngoingStateInfo = new ArrayList<>();
-        fOngoingStateStartTimes = new ArrayList<>();
-        fStateValueTypes = new ArrayList<>();
+        fStorage = new Storage(0);
 
         fLatestTime = backend.getStartTime();
     }
@@ -93,6 +152,50 @@ public class TransientState {
         return fLatestTime;
     }
 
+    private Storage getStorage(int quark) {
+        Storage storage = fStorage;
+        if (quark < 0 || quark >= storage.fSize) {
+            throw new IndexOutOfBoundsException("Quark: " + quark + ", Size: " + storage.fSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return storage;
+    }
+
+    /**
+     * Read the ongoing interval of an attribute, with a value and start time
+     * that were set together.
+     *
+     * @param storage
+     *            the storage that was loaded by the caller and that contains
+     *            the quark
+     * @return the ongoing interval, or null if it starts after the given time
+     */
+    private @Nullable ITmfStateInterval readInterval(Storage storage, int quark, long time) {
+        int stripe = quark & STRIPE_MASK;
+        while (true) {
+            long version = fStripeVersions.get(stripe);
+            if ((version & 1) == 0) {
+                long start = storage.fStartTimes.get(quark);
+                Object value = storage.fValues.get(quark);
+                long latestTime = fLatestTime;
+                if (fStripeVersions.get(stripe) == version) {
+                    if (time < start) {
+                        return null;
+                    }
+                    return new TmfStateInterval(start, Math.max(start, latestTime), quark, value);
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    private void beginWrite(int quark) {
+        fStripeVersions.incrementAndGet(quark & STRIPE_MASK);
+    }
+
+    private void endWrite(int quark) {
+        fStripeVersions.incrementAndGet(quark & STRIPE_MASK);
+    }
+
     /**
      * Retrieve the ongoing state value for a given index (attribute quark).
      *
@@ -103,26 +206,33 @@ public class TransientState {
      *             If the quark is out of range
      */
     public @Nullable Object getOngoingStateValue(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return fOngoingStateInfo.get(quark);
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        return getStorage(quark).fValues.get(quark);
     }
 
     /**
-     * Retrieve all the ongoing state values.
+     * Retrieve all the ongoing state values. The list is not a copy, it is a
+     * read-only view of the attributes that exist when this method is called,
+     * each element is read when it is accessed.
      *
      * @return The list of state values
      */
     public List<@Nullable Object> getOngoingStateValues() {
-        fRWLock.readLock().lock();
-        try {
-            return new ArrayList<>(fOngoingStateInfo);
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        final Storage storage = fStorage;
+        final int size = storage.fSize;
+        return new AbstractList<@Nullable Object>() {
+            @Override
+            public @Nullable Object get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                return storage.fValues.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
     /**
@@ -135,12 +245,7 @@ public class TransientState {
      *             If the quark is out of range
      */
     public long getOngoingStartTime(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return fOngoingStateStartTimes.get(quark);
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        return getStorage(quark).fStartTimes.get(quark);
     }
 
     /**
@@ -155,11 +260,11 @@ public class TransientState {
      *             If the quark is out of range
      */
     public void changeOngoingStateValue(int quark, @Nullable Object newValue) {
-        fRWLock.writeLock().lock();
-        try {
-            fOngoingStateInfo.set(quark, newValue);
-        } finally {
-            fRWLock.writeLock().unlock();
+        synchronized (fWriteLock) {
+            Storage storage = getStorage(quark);
+            beginWrite(quark);
+            storage.fValues.set(quark, newValue);
+            endWrite(quark);
         }
     }
 
@@ -175,13 +280,7 @@ public class TransientState {
      *             If the quark is out of range
      */
     public ITmfStateInterval getOngoingInterval(int quark) {
-        fRWLock.readLock().lock();
-        try {
-            return new TmfStateInterval(fOngoingStateStartTimes.get(quark), fLatestTime,
-                    quark, fOngoingStateInfo.get(quark));
-        } finally {
-            fRWLock.readLock().unlock();
-        }
+        return checkNotNull(readInterval(getStorage(quark), quark, Long.MAX_VALUE));
     }
 
     /**
@@ -199,16 +298,18 @@ public class TransientState {
      *             If the quark is out of range
      */
     public @Nullable ITmfStateInterval getIntervalAt(long time, int quark) {
-        fRWLock.readLock().lock();
-        try {
-            if (!isActive() || time < fOngoingStateStartTimes.get(quark)) {
+        if (!isActive()) {
+            return null;
+        }
+        Storage storage = fStorage;
+        if (quark < 0 || quark >= storage.fSize) {
+            /* The storage is emptied when the transient state is closed */
+            if (!isActive()) {
                 return null;
             }
-            return new TmfStateInterval(fOngoingStateStartTimes.get(quark),
-                    fLatestTime, quark, fOngoingStateInfo.get(quark));
-        } finally {
-            fRWLock.readLock().unlock();
+            throw new IndexOutOfBoundsException("Quark: " + quark + ", Size: " + storage.fSize); //$NON-NLS-1$ //$NON-NLS-2$
         }
+        return readInterval(storage, quark, time);
     }
 
     /**
@@ -224,22 +325,19 @@ public class TransientState {
      */
     public void replaceOngoingState(List<ITmfStateInterval> newStateIntervals) {
         final int size = newStateIntervals.size();
+        /* The new arrays are not visible until they are published */
+        Storage storage = new Storage(size).withSize(size);
+        int i = 0;
+        for (ITmfStateInterval interval : newStateIntervals) {
+            Object value = interval.getValue();
+            storage.fValues.lazySet(i, value);
+            storage.fStartTimes.lazySet(i, interval.getStartTime());
+            storage.fTypes[i] = value != null ? value.getClass() : null;
+            i++;
+        }
 
-        fRWLock.writeLock().lock();
-        try {
-            fOngoingStateInfo = new ArrayList<>(size);
-            fOngoingStateStartTimes = new ArrayList<>(size);
-            fStateValueTypes = new ArrayList<>(size);
-
-            for (ITmfStateInterval interval : newStateIntervals) {
-                Object value = interval.getValue();
-                fOngoingStateInfo.add(value);
-                fOngoingStateStartTimes.add(interval.getStartTime());
-                Class<?> objectClass = value != null ? value.getClass() : null;
-                fStateValueTypes.add(objectClass);
-            }
-        } finally {
-            fRWLock.writeLock().unlock();
+        synchronized (fWriteLock) {
+            fStorage = storage;
         }
     }
 
@@ -249,20 +347,23 @@ public class TransientState {
      * attribute tree, namely when we add sub-path attributes.
      */
     public void addEmptyEntry() {
-        fRWLock.writeLock().lock();
-        try {
+        synchronized (fWriteLock) {
+            Storage storage = fStorage;
+            int size = storage.fSize;
+            if (size == storage.capacity()) {
+                storage = storage.copy(size + Math.max(GROW_CHUNK, size >> 1));
+            }
             /*
              * Since this is a new attribute, we suppose it was in the
              * "null state" since the beginning (so we can have intervals
              * covering for all timestamps). A null interval will then get added
              * at the first state change.
              */
-            fOngoingStateInfo.add(null);
-            fStateValueTypes.add(null);
+            storage.fValues.set(size, null);
+            storage.fTypes[size] = null;
+            storage.fStartTimes.set(size, fBackend.getStartTime());
 
-            fOngoingStateStartTimes.add(fBackend.getStartTime());
-        } finally {
-            fRWLock.writeLock().unlock();
+            fStorage = storage.withSize(size + 1);
         }
     }
 
@@ -289,9 +390,9 @@ public class TransientState {
             return;
         }
 
-        fRWLock.writeLock().lock();
-        try {
-            Class<?> expectedSvType = fStateValueTypes.get(quark);
+        synchronized (fWriteLock) {
+            Storage storage = getStorage(quark);
+            Class<?> expectedSvType = storage.fTypes[quark];
 
             /*
              * Make sure the state value type we're inserting is the same as the
@@ -302,7 +403,7 @@ public class TransientState {
                  * The value hasn't been used yet, set it to the value we're
                  * currently inserting (which might be null/-1 again).
                  */
-                fStateValueTypes.set(quark, value != null ? value.getClass() : null);
+                storage.fTypes[quark] = value != null ? value.getClass() : null;
             } else if ((value != null) && (value.getClass() != expectedSvType)) {
                 /*
                  * We authorize inserting null values in any type of attribute,
@@ -312,7 +413,8 @@ public class TransientState {
                 throw new StateValueTypeException(fBackend.getSSID() + " Quark:" + quark + ", Type:" + value.getClass() + ", Expected:" + expectedSvType); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
             }
 
-            if (Objects.equals(fOngoingStateInfo.get(quark),value)) {
+            Object ongoingValue = storage.fValues.get(quark);
+            if (Objects.equals(ongoingValue, value)) {
                 /*
                  * This is the case where the new value and the one already
                  * present in the Builder are the same. We do not need to create
@@ -321,32 +423,41 @@ public class TransientState {
                 return;
             }
 
-            if (fOngoingStateStartTimes.get(quark) < eventTime) {
+            long ongoingStartTime = storage.fStartTimes.get(quark);
+            boolean newInterval = ongoingStartTime < eventTime;
+            if (newInterval) {
                 /*
                  * These two conditions are necessary to create an interval and
                  * update ongoingStateInfo.
                  */
-                fBackend.insertPastState(fOngoingStateStartTimes.get(quark),
+                fBackend.insertPastState(ongoingStartTime,
                         eventTime - 1, /* End Time */
                         quark, /* attribute quark */
-                        fOngoingStateInfo.get(quark)); /* StateValue */
-
-                fOngoingStateStartTimes.set(quark, eventTime);
+                        ongoingValue); /* StateValue */
             }
-            fOngoingStateInfo.set(quark, value);
 
-            /* Update the Transient State's lastestTime, if needed */
+            /* Queries of this attribute wait for both values to be set */
+            beginWrite(quark);
+            if (newInterval) {
+                storage.fStartTimes.set(quark, eventTime);
+            }
+            storage.fValues.set(quark, value);
+            /*
+             * Update the Transient State's latestTime, if needed, before the
+             * new start time is visible so intervals never end before they
+             * start
+             */
             if (fLatestTime < eventTime) {
                 fLatestTime = eventTime;
             }
-
-        } finally {
-            fRWLock.writeLock().unlock();
+            endWrite(quark);
         }
     }
 
     /**
-     * Run a "get state at time" query on the Transient State only.
+     * Run a "get state at time" query on the Transient State only. Each
+     * attribute is read consistently, but the state can change between the
+     * attributes.
      *
      * @param stateInfo
      *            The stateInfo object in which we will put our relevant
@@ -355,28 +466,28 @@ public class TransientState {
      *            The requested timestamp
      */
     public void doQuery(List<@Nullable ITmfStateInterval> stateInfo, long t) {
-        fRWLock.readLock().lock();
-        try {
+        if (!this.fIsActive) {
+            return;
+        }
+        Storage storage = fStorage;
+        if (stateInfo.size() > storage.fSize) {
+            /* The storage is emptied when the transient state is closed */
             if (!this.fIsActive) {
                 return;
             }
-            if (stateInfo.size() > fOngoingStateInfo.size()) {
-                throw new IllegalArgumentException();
-            }
+            throw new IllegalArgumentException();
+        }
 
-            for (int i = 0; i < stateInfo.size(); i++) {
-                /*
-                 * We build a dummy interval whose end time =
-                 * "current transient state end time" to put in the answer to
-                 * the query.
-                 */
-                final ITmfStateInterval interval = getIntervalAt(t, i);
-                if (interval != null) {
-                    stateInfo.set(i, interval);
-                }
+        for (int i = 0; i < stateInfo.size(); i++) {
+            /*
+             * We build a dummy interval whose end time =
+             * "current transient state end time" to put in the answer to the
+             * query.
+             */
+            final ITmfStateInterval interval = readInterval(storage, i, t);
+            if (interval != null) {
+                stateInfo.set(i, interval);
             }
-        } finally {
-            fRWLock.readLock().unlock();
         }
     }
 
@@ -392,7 +503,6 @@ public class TransientState {
      * @since 2.1
      */
     public Iterable<ITmfStateInterval> query2D(Collection<Integer> quarks, TimeRangeCondition timeCondition) {
-        fRWLock.readLock().lock();
         try (TraceCompassLogUtils.ScopeLog log = new TraceCompassLogUtils.ScopeLog(LOGGER, Level.FINEST, "TransientState:query2D", //$NON-NLS-1$
                 "ssid", fBackend.getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
@@ -409,8 +519,6 @@ public class TransientState {
                 }
             }
             return iterable;
-        } finally {
-            fRWLock.readLock().unlock();
         }
     }
 
@@ -429,10 +537,11 @@ public class TransientState {
             return;
         }
 
-        fRWLock.writeLock().lock();
-        try {
-            for (int i = 0; i < fOngoingStateInfo.size(); i++) {
-                if (fOngoingStateStartTimes.get(i) > endTime) {
+        synchronized (fWriteLock) {
+            Storage storage = fStorage;
+            for (int i = 0; i < storage.fSize; i++) {
+                long startTime = storage.fStartTimes.get(i);
+                if (startTime > endTime) {
                     /*
                      * Handle the cases where trace end > timestamp of last
                      * state change. This can happen when inserting "future"
@@ -441,10 +550,10 @@ public class TransientState {
                     continue;
                 }
                 try {
-                    fBackend.insertPastState(fOngoingStateStartTimes.get(i),
+                    fBackend.insertPastState(startTime,
                             endTime, /* End Time */
                             i, /* attribute quark */
-                            fOngoingStateInfo.get(i)); /* StateValue */
+                            storage.fValues.get(i)); /* StateValue */
 
                 } catch (TimeRangeException e) {
                     /*
@@ -455,12 +564,9 @@ public class TransientState {
                 }
             }
 
-            fOngoingStateInfo.clear();
-            fOngoingStateStartTimes.clear();
+            /* Readers check that the state is active before the storage */
             this.fIsActive = false;
-
-        } finally {
-            fRWLock.writeLock().unlock();
+            fStorage = new Storage(0);
         }
     }
 
@@ -496,10 +602,11 @@ public class TransientState {
             return;
         }
         writer.println("\nAttribute\tStateValue\tValid since time"); //$NON-NLS-1$
-        for (int i = 0; i < fOngoingStateInfo.size(); i++) {
+        Storage storage = fStorage;
+        for (int i = 0; i < storage.fSize; i++) {
             writer.format("%d\t\t", i); //$NON-NLS-1$
-            writer.print(String.valueOf(fOngoingStateInfo.get(i)) + "\t\t"); //$NON-NLS-1$
-            writer.println(fOngoingStateStartTimes.get(i).toString());
+            writer.print(String.valueOf(storage.fValues.get(i)) + "\t\t"); //$NON-NLS-1$
+            writer.println(storage.fStartTimes.get(i));
         }
         writer.println('\n');
         return;
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * Iterator over the intervals of a 2D query on a history tree, which reads the
+ * nodes in file order rather than one branch after the other.
+ * <p>
+ * The tree is visited one level at a time. All the nodes of a level that
+ * intersect the query are known once the level above is visited, so they are
+ * sorted by sequence number, which is their order in the file, and read in
+ * batches of consecutive blocks. While the intervals of a batch are returned,
+ * the next batch of the level can be read in the background.
+ */
+public final class HTBulkQueryIterator implements Iterator<@NonNull ITmfStateInterval> {
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(2, new DaemonThreadFactory());
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(@Nullable Runnable r) {
+            Thread thread = new Thread(r, "History Tree Prefetch"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private final IHistoryTree fTree;
+    private final IntegerRangeCondition fQuarks;
+    private final TimeRangeCondition fTimes;
+    private final int fBatchSize;
+    private final boolean fPrefetch;
+
+    /* Nodes of the level being visited, in file order */
+    private List<Integer> fLevel;
+    private int fLevelIndex = 0;
+    /* Children of the visited nodes, which make the next level */
+    private List<Integer> fNextLevel = new ArrayList<>();
+    /* Nodes read but not visited yet */
+    private final Deque<HTNode> fNodes = new ArrayDeque<>();
+    private @Nullable Future<List<HTNode>> fNextBatch = null;
+    private List<Integer> fNextBatchSeqNumbers = Collections.emptyList();
+    private Iterator<@NonNull HTInterval> fIntervals = Collections.emptyIterator();
+
+    /**
+     * Constructor
+     *
+     * @param tree
+     *            The history tree to query
+     * @param quarks
+     *            The quark condition
+     * @param times
+     *            The time condition
+     * @param prefetch
+     *            Whether the next batch of nodes is read in the background
+     */
+    public HTBulkQueryIterator(IHistoryTree tree, IntegerRangeCondition quarks, TimeRangeCondition times, boolean prefetch) {
+        fTree = tree;
+        fQuarks = quarks;
+        fTimes = times;
+        HTNode root = tree.getRootNode();
+        fBatchSize = Math.max(1, HT_IO.MAX_READ_SIZE / root.getConfig().getBlockSize());
+        fPrefetch = prefetch;
+        fLevel = Collections.singletonList(root.getSequenceNumber());
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (!fIntervals.hasNext()) {
+                HTNode node = nextNode();
+                if (node == null) {
+                    return false;
+                }
+                TimeRangeCondition subTimes = visit(node);
+                if (subTimes != null) {
+                    fIntervals = node.iterable2D(fQuarks, subTimes).iterator();
+                }
+            }
+            return true;
+        } catch (ClosedChannelException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run an action on all the remaining intervals. The intervals of the nodes
+     * not read yet are passed through a cursor instead of one object per
+     * interval, so they are only valid during the call to the action.
+     *
+     * @param action
+     *            The action to run on each interval
+     */
+    public void forEachInterval(Consumer<? super ITmfStateInterval> action) {
+        fIntervals.forEachRemaining(action);
+        HTIntervalCursor cursor = new HTIntervalCursor();
+        try {
+            HTNode node = nextNode();
+            while (node != null) {
+                TimeRangeCondition subTimes = visit(node);
+                if (subTimes != null) {
+                    node.forEach2D(fQuarks, subTimes, cursor, action);
+                }
+                node = nextNode();
+            }
+        } catch (ClosedChannelException e) {
+            // The tree was closed, there are no more intervals
+        }
+    }
+
+    /**
+     * Queue the children of a node intersecting the query
+     *
+     * @return The time condition reduced to the node, or null if the node
+     *         does not intersect the query
+     */
+    private @Nullable TimeRangeCondition visit(HTNode node) {
+        TimeRangeCondition subTimes = fTimes.subCondition(node.getNodeStart(), node.getNodeEnd());
+        /*
+         * During the SHT construction, the bounds of the children are not
+         * final, so we may have queued some nodes which don't overlap the
+         * query.
+         */
+        if (subTimes == null || !fQuarks.intersects(node.getMinQuark(), node.getMaxQuark())) {
+            return null;
+        }
+        if (node.getNodeType() == HTNode.NodeType.CORE) {
+            Deque<Integer> children = new ArrayDeque<>();
+            ((ParentNode) node).queueNextChildren2D(fQuarks, subTimes, children, false);
+            fNextLevel.addAll(children);
+        }
+        return subTimes;
+    }
+
+    @Override
+    public ITmfStateInterval next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return fIntervals.next();
+    }
+
+    private @Nullable HTNode nextNode() throws ClosedChannelException {
+        if (fNodes.isEmpty()) {
+            if (fLevelIndex >= fLevel.size()) {
+                if (fNextLevel.isEmpty()) {
+                    return null;
+                }
+                /* Go down one level, visiting its nodes in file order */
+                fNextLevel.sort(null);
+                fLevel = fNextLevel;
+                fLevelIndex = 0;
+                fNextLevel = new ArrayList<>();
+            }
+            fNodes.addAll(readBatch());
+        }
+        return fNodes.poll();
+    }
+
+    private List<HTNode> readBatch() throws ClosedChannelException {
+        List<HTNode> batch;
+        Future<List<HTNode>> future = fNextBatch;
+        if (future != null) {
+            fNextBatch = null;
+            batch = getPrefetchedBatch(future, fNextBatchSeqNumbers);
+        } else {
+            batch = fTree.readNodes(takeBatch());
+        }
+        if (fPrefetch && fLevelIndex < fLevel.size()) {
+            List<Integer> seqNumbers = takeBatch();
+            fNextBatchSeqNumbers = seqNumbers;
+            fNextBatch = PREFETCH_EXECUTOR.submit(() -> fTree.readNodes(seqNumbers));
+        }
+        return batch;
+    }
+
+    private List<Integer> takeBatch() {
+        int end = Math.min(fLevel.size(), fLevelIndex + fBatchSize);
+        List<Integer> seqNumbers = fLevel.subList(fLevelIndex, end);
+        fLevelIndex = end;
+        return seqNumbers;
+    }
+
+    private List<HTNode> getPrefetchedBatch(Future<List<HTNode>> future, List<Integer> seqNumbers) throws ClosedChannelException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fTree.readNodes(seqNumbers);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClosedChannelException) {
+                throw (ClosedChannelException) cause;
+            }
+            Activator.getDefault().logError(e.getMessage(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Codec of the version 11 of the history tree files, where each interval is
+ * written on its own, with {@link HTInterval#writeInterval}.
+ */
+@NonNullByDefault
+public final class HTClassicIntervalCodec implements IHTIntervalCodec {
+
+    /** File format version using this codec */
+    public static final int FILE_VERSION = 11;
+
+    /** The codec instance */
+    public static final HTClassicIntervalCodec INSTANCE = new HTClassicIntervalCodec();
+
+    private static final class Encoder implements INodeEncoder {
+        private final long fNodeStart;
+        private int fSize = 0;
+
+        public Encoder(long nodeStart) {
+            fNodeStart = nodeStart;
+        }
+
+        @Override
+        public int getSize() {
+            return fSize;
+        }
+
+        @Override
+        public int getSizeOnDisk(HTInterval interval) {
+            return interval.getSizeOnDisk(fNodeStart);
+        }
+
+        @Override
+        public int add(HTInterval interval) {
+            int size = interval.getSizeOnDisk(fNodeStart);
+            fSize += size;
+            return size;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, HTIntervalColumns intervals) {
+            for (int i = 0; i < intervals.size(); i++) {
+                intervals.createInterval(i).writeInterval(buffer, fNodeStart);
+            }
+        }
+    }
+
+    private HTClassicIntervalCodec() {
+        // Use the instance
+    }
+
+    @Override
+    public int getFileVersion() {
+        return FILE_VERSION;
+    }
+
+    @Override
+    public INodeEncoder createEncoder(long nodeStart) {
+        return new Encoder(nodeStart);
+    }
+
+    @Override
+    public void readIntervals(ByteBuffer buffer, int count, long nodeStart, HTIntervalColumns intervals) throws IOException {
+        for (int i = 0; i < count; i++) {
+            intervals.insert(HTInterval.readFrom(buffer, nodeStart));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.encoding.HTVarInt;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.internal.provisional.statesystem.core.statevalue.CustomStateValue;
+
+/**
+ * Codec of the version 12 of the history tree files, which stores the
+ * intervals of a node more compactly than the version 11:
+ * <ul>
+ * <li>The start time and the duration are variable length longs, relative to
+ * the start of the node, like in the version 11;</li>
+ * <li>The attribute, the integer and long values are variable length integers
+ * instead of fixed size ones, using the zigzag encoding for the values;</li>
+ * <li>The string values are written once per node, in a dictionary before the
+ * intervals, which refer to them by their index. The states of an attribute
+ * usually take a few values, which are repeated many times in a node.</li>
+ * </ul>
+ * The intervals section of a node with intervals is laid out as:
+ *
+ * <pre>
+ * dictionary size (varint)
+ * for each string: length (varint), UTF-8 bytes
+ * for each interval: start (HTVarInt), duration (HTVarInt), attribute (varint),
+ *                    value type (byte), value
+ * </pre>
+ */
+@NonNullByDefault
+public final class HTCompactIntervalCodec implements IHTIntervalCodec {
+
+    /** File format version using this codec */
+    public static final int FILE_VERSION = 12;
+
+    /** The codec instance */
+    public static final HTCompactIntervalCodec INSTANCE = new HTCompactIntervalCodec();
+
+    private static final Charset CHARSET = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    private static final String ERROR_MESSAGE = "Invalid interval data. Maybe your file is corrupt?"; //$NON-NLS-1$
+
+    /* 'Byte' equivalent for state values types */
+    private static final byte TYPE_NULL = -1;
+    private static final byte TYPE_INTEGER = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_CUSTOM = 20;
+
+    /* Maximum length of a varint encoding a long */
+    private static final int MAX_VARINT_LENGTH = 10;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_CONTINUE = 0x80;
+
+    private static final class Encoder implements INodeEncoder {
+        private final long fNodeStart;
+        private final Map<String, Integer> fIndexes = new HashMap<>();
+        private final List<byte[]> fDictionary = new ArrayList<>();
+        private int fDictionarySize = 0;
+        private int fIntervalsSize = 0;
+        private int fCount = 0;
+
+        public Encoder(long nodeStart) {
+            fNodeStart = nodeStart;
+        }
+
+        @Override
+        public int getSize() {
+            return getSize(fCount, fDictionary.size(), fDictionarySize, fIntervalsSize);
+        }
+
+        private static int getSize(int count, int nbStrings, int dictionarySize, int intervalsSize) {
+            if (count == 0) {
+                return 0;
+            }
+            return getVarIntLength(nbStrings) + dictionarySize + intervalsSize;
+        }
+
+        @Override
+        public int getSizeOnDisk(HTInterval interval) {
+            return encode(interval, false);
+        }
+
+        @Override
+        public int add(HTInterval interval) {
+            return encode(interval, true);
+        }
+
+        /**
+         * Compute the size of an interval, adding it to the node or not
+         */
+        private int encode(HTInterval interval, boolean add) {
+            int oldSize = getSize();
+            int size = HTVarInt.getEncodedLengthLong(interval.getStartTime() - fNodeStart)
+                    + HTVarInt.getEncodedLengthLong(interval.getEndTime() - interval.getStartTime())
+                    + getVarIntLength(Integer.toUnsignedLong(interval.getAttribute()))
+                    + Byte.BYTES;
+            int nbStrings = fDictionary.size();
+            int dictionarySize = fDictionarySize;
+
+            Object value = interval.getValue();
+            if (value == null) {
+                // Only the type
+            } else if (value instanceof Integer) {
+                size += getVarIntLength(zigzag((Integer) value));
+            } else if (value instanceof Long) {
+                size += getVarIntLength(zigzag((Long) value));
+            } else if (value instanceof Double) {
+                size += Double.BYTES;
+            } else if (value instanceof CustomStateValue) {
+                size += Short.BYTES + ((CustomStateValue) value).getSerializedSize();
+            } else {
+                String string = String.valueOf(value);
+                Integer index = fIndexes.get(string);
+                if (index == null) {
+                    byte[] bytes = string.getBytes(CHARSET);
+                    index = nbStrings;
+                    nbStrings++;
+                    dictionarySize += getVarIntLength(bytes.length) + bytes.length;
+                    if (add) {
+                        fIndexes.put(string, index);
+                        fDictionary.add(bytes);
+                    }
+                }
+                size += getVarIntLength(index);
+            }
+
+            int newSize = getSize(fCount + 1, nbStrings, dictionarySize, fIntervalsSize + size);
+            if (add) {
+                fDictionarySize = dictionarySize;
+                fIntervalsSize += size;
+                fCount++;
+            }
+            return newSize - oldSize;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, HTIntervalColumns intervals) {
+            if (intervals.isEmpty()) {
+                return;
+            }
+            putVarInt(buffer, fDictionary.size());
+            for (byte[] bytes : fDictionary) {
+                putVarInt(buffer, bytes.length);
+                buffer.put(bytes);
+            }
+            for (int i = 0; i < intervals.size(); i++) {
+                long start = intervals.getStartTime(i);
+                HTVarInt.writeLong(buffer, start - fNodeStart);
+                HTVarInt.writeLong(buffer, intervals.getEndTime(i) - start);
+                putVarInt(buffer, Integer.toUnsignedLong(intervals.getAttribute(i)));
+
+                switch (intervals.getType(i)) {
+                case HTIntervalColumns.TYPE_NULL:
+                    buffer.put(TYPE_NULL);
+                    break;
+                case HTIntervalColumns.TYPE_INTEGER:
+                    buffer.put(TYPE_INTEGER);
+                    putVarInt(buffer, zigzag(intervals.getLong(i)));
+                    break;
+                case HTIntervalColumns.TYPE_LONG:
+                    buffer.put(TYPE_LONG);
+                    putVarInt(buffer, zigzag(intervals.getLong(i)));
+                    break;
+                case HTIntervalColumns.TYPE_DOUBLE:
+                    buffer.put(TYPE_DOUBLE);
+                    buffer.putDouble(intervals.getDouble(i));
+                    break;
+                default:
+                    writeObject(buffer, intervals.getValue(i));
+                    break;
+                }
+            }
+        }
+
+        private void writeObject(ByteBuffer buffer, @Nullable Object value) {
+            if (value instanceof CustomStateValue) {
+                buffer.put(TYPE_CUSTOM);
+                int size = ((CustomStateValue) value).getSerializedSize();
+                buffer.putShort((short) size);
+                ISafeByteBufferWriter safeBuffer = SafeByteBufferFactory.wrapWriter(buffer, size);
+                ((CustomStateValue) value).serialize(safeBuffer);
+                return;
+            }
+            Integer index = fIndexes.get(String.valueOf(value));
+            if (index == null) {
+                throw new IllegalStateException("Value was not added to the node: " + value); //$NON-NLS-1$
+            }
+            buffer.put(TYPE_STRING);
+            putVarInt(buffer, index);
+        }
+    }
+
+    private HTCompactIntervalCodec() {
+        // Use the instance
+    }
+
+    @Override
+    public int getFileVersion() {
+        return FILE_VERSION;
+    }
+
+    @Override
+    public INodeEncoder createEncoder(long nodeStart) {
+        return new Encoder(nodeStart);
+    }
+
+    @Override
+    public void readIntervals(ByteBuffer buffer, int count, long nodeStart, HTIntervalColumns intervals) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        int nbStrings = (int) getVarInt(buffer);
+        String[] dictionary = new String[nbStrings];
+        for (int i = 0; i < nbStrings; i++) {
+            int length = (int) getVarInt(buffer);
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException(ERROR_MESSAGE);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            dictionary[i] = new String(bytes, CHARSET);
+        }
+
+        for (int i = 0; i < count; i++) {
+            long start = HTVarInt.readLong(buffer) + nodeStart;
+            long end = HTVarInt.readLong(buffer) + start;
+            int attribute = (int) getVarInt(buffer);
+            if (start > end) {
+                throw new IOException(ERROR_MESSAGE);
+            }
+
+            byte valueType = buffer.get();
+            switch (valueType) {
+            case TYPE_NULL:
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_NULL, 0, null);
+                break;
+            case TYPE_INTEGER:
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_INTEGER, (int) unzigzag(getVarInt(buffer)), null);
+                break;
+            case TYPE_LONG:
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_LONG, unzigzag(getVarInt(buffer)), null);
+                break;
+            case TYPE_DOUBLE:
+                /* Keep the bits of the double, it is only converted when read */
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_DOUBLE, buffer.getLong(), null);
+                break;
+            case TYPE_CUSTOM: {
+                short valueSize = buffer.getShort();
+                ISafeByteBufferReader safeBuffer = SafeByteBufferFactory.wrapReader(buffer, valueSize);
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_OBJECT, 0, CustomStateValue.readSerializedValue(safeBuffer));
+                break;
+            }
+            case TYPE_STRING: {
+                long index = getVarInt(buffer);
+                if (index < 0 || index >= nbStrings) {
+                    throw new IOException(ERROR_MESSAGE);
+                }
+                /* The intervals with the same string share the same object */
+                intervals.add(start, end, attribute, HTIntervalColumns.TYPE_OBJECT, 0, dictionary[(int) index]);
+                break;
+            }
+            default:
+                throw new IOException(ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Variable length integers
+    // ------------------------------------------------------------------------
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Get the number of bytes of an unsigned variable length integer, 7 bits
+     * per byte
+     */
+    private static int getVarIntLength(long value) {
+        int significantBits = Long.SIZE - Long.numberOfLeadingZeros(value);
+        return Math.max(1, (significantBits + VARINT_BITS - 1) / VARINT_BITS);
+    }
+
+    private static void putVarInt(ByteBuffer buffer, long value) {
+        long remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            buffer.put((byte) ((remaining & VARINT_MASK) | VARINT_CONTINUE));
+            remaining >>>= VARINT_BITS;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static long getVarInt(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int i = 0; i < MAX_VARINT_LENGTH; i++) {
+            byte b = buffer.get();
+            value |= (long) (b & VARINT_MASK) << (i * VARINT_BITS);
+            if ((b & VARINT_CONTINUE) == 0) {
+                return value;
+            }
+        }
+        throw new IOException(ERROR_MESSAGE);
+    }
+}
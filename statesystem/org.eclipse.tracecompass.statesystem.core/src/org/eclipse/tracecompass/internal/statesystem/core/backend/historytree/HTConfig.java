@@ -31,6 +31,7 @@ public final class HTConfig {
     private final int maxChildren;
     private final int providerVersion;
     private final long treeStart;
+    private final IHTIntervalCodec intervalCodec;
 
     /**
      * Full constructor.
@@ -49,14 +50,42 @@ public final class HTConfig {
      *            uselessly.
      * @param startTime
      *            The start time of the history
+     * @param intervalCodec
+     *            The codec of the intervals in the nodes, which determines the
+     *            version of the file format
      */
     public HTConfig(File newStateFile, int blockSize, int maxChildren,
-            int providerVersion, long startTime) {
+            int providerVersion, long startTime, IHTIntervalCodec intervalCodec) {
         this.stateFile = newStateFile;
         this.blockSize = blockSize;
         this.maxChildren = maxChildren;
         this.providerVersion = providerVersion;
         this.treeStart = startTime;
+        this.intervalCodec = intervalCodec;
+    }
+
+    /**
+     * Constructor using the classic format of the intervals, where each
+     * interval is written on its own.
+     *
+     * @param newStateFile
+     *            The name of the history file
+     * @param blockSize
+     *            The size of each "block" on disk. One node will always fit in
+     *            one block.
+     * @param maxChildren
+     *            The maximum number of children allowed per core (non-leaf)
+     *            node.
+     * @param providerVersion
+     *            The version of the state provider. If a file already exists,
+     *            and their versions match, the history file will not be rebuilt
+     *            uselessly.
+     * @param startTime
+     *            The start time of the history
+     */
+    public HTConfig(File newStateFile, int blockSize, int maxChildren,
+            int providerVersion, long startTime) {
+        this(newStateFile, blockSize, maxChildren, providerVersion, startTime, HTClassicIntervalCodec.INSTANCE);
     }
 
     /**
@@ -124,4 +153,13 @@ public final class HTConfig {
     public long getTreeStart() {
         return treeStart;
     }
+
+    /**
+     * Get the codec of the intervals in the nodes
+     *
+     * @return The interval codec
+     */
+    public IHTIntervalCodec getIntervalCodec() {
+        return intervalCodec;
+    }
 }
@@ -142,7 +142,7 @@ public final class HTInterval implements ITmfStateInterval {
      * of the strings entry, so there is no need to call
      * {@link #computeStringsEntrySize()} and do an extra copy.
      */
-    private HTInterval(long intervalStart, long intervalEnd, int attribute,
+    HTInterval(long intervalStart, long intervalEnd, int attribute,
             Object value, int size) throws TimeRangeException {
         if (intervalStart > intervalEnd) {
             throw new TimeRangeException("Start:" + intervalStart + ", End:" + intervalEnd); //$NON-NLS-1$ //$NON-NLS-2$
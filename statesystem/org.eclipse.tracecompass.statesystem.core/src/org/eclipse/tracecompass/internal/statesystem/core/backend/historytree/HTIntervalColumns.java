@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The intervals of a history tree node, stored as one array per field rather
+ * than one object per interval.
+ * <p>
+ * The times and attributes of the intervals are primitive arrays, so a query
+ * scanning a node does not touch any object until it finds a matching
+ * interval. The integer, long and double values are kept unboxed in a column
+ * of longs, only the other values are objects. The {@link HTInterval} objects
+ * are created only for the intervals that are returned, and kept with the
+ * columns so that the queries on a node in the cache do not create them again.
+ * <p>
+ * Like the list of intervals it replaces, the intervals are sorted by end
+ * time, then start time, then attribute. This class is not thread-safe, the
+ * node protects it with its lock.
+ */
+@NonNullByDefault
+public final class HTIntervalColumns {
+
+    /** Type of a null value */
+    public static final byte TYPE_NULL = 0;
+    /** Type of an integer value, stored in the numbers column */
+    public static final byte TYPE_INTEGER = 1;
+    /** Type of a long value, stored in the numbers column */
+    public static final byte TYPE_LONG = 2;
+    /** Type of a double value, whose bits are stored in the numbers column */
+    public static final byte TYPE_DOUBLE = 3;
+    /** Type of any other value, stored in the objects column */
+    public static final byte TYPE_OBJECT = 4;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] fStarts;
+    private long[] fEnds;
+    private int[] fAttributes;
+    private byte[] fTypes;
+    private long[] fNumbers;
+    private @Nullable Object[] fObjects;
+    /* The interval objects returned so far, created on the first query */
+    private @Nullable HTInterval @Nullable [] fIntervals = null;
+    private int fSize = 0;
+
+    /**
+     * Constructor
+     */
+    public HTIntervalColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity
+     *            The number of intervals that can be added before the columns
+     *            are grown
+     */
+    public HTIntervalColumns(int capacity) {
+        int initialCapacity = Math.max(1, capacity);
+        fStarts = new long[initialCapacity];
+        fEnds = new long[initialCapacity];
+        fAttributes = new int[initialCapacity];
+        fTypes = new byte[initialCapacity];
+        fNumbers = new long[initialCapacity];
+        fObjects = new @Nullable Object[initialCapacity];
+    }
+
+    // ------------------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the number of intervals
+     *
+     * @return The number of intervals
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Get whether there are no intervals
+     *
+     * @return true if there are no intervals
+     */
+    public boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    /**
+     * Get the start time of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The start time
+     */
+    public long getStartTime(int index) {
+        return fStarts[index];
+    }
+
+    /**
+     * Get the end time of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The end time
+     */
+    public long getEndTime(int index) {
+        return fEnds[index];
+    }
+
+    /**
+     * Get the attribute of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The attribute quark
+     */
+    public int getAttribute(int index) {
+        return fAttributes[index];
+    }
+
+    /**
+     * Get the type of the value of an interval, one of the TYPE_* constants
+     *
+     * @param index
+     *            The index of the interval
+     * @return The type of the value
+     */
+    public byte getType(int index) {
+        return fTypes[index];
+    }
+
+    /**
+     * Get the value of an interval whose type is integer or long
+     *
+     * @param index
+     *            The index of the interval
+     * @return The value
+     */
+    public long getLong(int index) {
+        return fNumbers[index];
+    }
+
+    /**
+     * Get the value of an interval whose type is double
+     *
+     * @param index
+     *            The index of the interval
+     * @return The value
+     */
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(fNumbers[index]);
+    }
+
+    /**
+     * Get the value of an interval, boxing it if it is a number
+     *
+     * @param index
+     *            The index of the interval
+     * @return The value
+     */
+    public @Nullable Object getValue(int index) {
+        switch (fTypes[index]) {
+        case TYPE_INTEGER:
+            return (int) fNumbers[index];
+        case TYPE_LONG:
+            return fNumbers[index];
+        case TYPE_DOUBLE:
+            return Double.longBitsToDouble(fNumbers[index]);
+        case TYPE_OBJECT:
+            return fObjects[index];
+        case TYPE_NULL:
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Get the interval object of an interval. The object is created the first
+     * time and returned again by the next calls.
+     * <p>
+     * The queries holding the read lock of the node can call this method
+     * concurrently: at worst, two threads create an object for the same
+     * interval, both are valid since intervals are immutable.
+     *
+     * @param index
+     *            The index of the interval
+     * @return The interval
+     */
+    public HTInterval getInterval(int index) {
+        @Nullable HTInterval[] intervals = fIntervals;
+        if (intervals == null) {
+            intervals = new @Nullable HTInterval[fStarts.length];
+            fIntervals = intervals;
+        }
+        HTInterval interval = intervals[index];
+        if (interval == null) {
+            interval = createInterval(index);
+            intervals[index] = interval;
+        }
+        return interval;
+    }
+
+    /**
+     * Create a new interval object of an interval, without keeping it. Used
+     * to go through all the intervals once, like when writing the node.
+     *
+     * @param index
+     *            The index of the interval
+     * @return The interval
+     */
+    public HTInterval createInterval(int index) {
+        return new HTInterval(fStarts[index], fEnds[index], fAttributes[index], getValue(index), 0);
+    }
+
+    // ------------------------------------------------------------------------
+    // Searches
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the index of the first interval that ends at or after a time. The
+     * intervals before it cannot intersect this time.
+     *
+     * @param t
+     *            The time
+     * @return The index of the first interval ending at or after t
+     */
+    public int getStartIndexFor(long t) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fEnds[mid] < t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the index where an interval should be inserted to keep the
+     * intervals sorted
+     *
+     * @param start
+     *            The start time of the interval
+     * @param end
+     *            The end time of the interval
+     * @param attribute
+     *            The attribute of the interval
+     * @return The insertion index
+     */
+    public int getInsertionIndex(long start, long end, int attribute) {
+        /* Intervals usually come in order, check the last one first */
+        if (fSize == 0 || compareTo(fSize - 1, start, end, attribute) <= 0) {
+            return fSize;
+        }
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTo(mid, start, end, attribute) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareTo(int index, long start, long end, int attribute) {
+        int cmp = Long.compare(fEnds[index], end);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compare(fStarts[index], start);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Integer.compare(fAttributes[index], attribute);
+    }
+
+    // ------------------------------------------------------------------------
+    // Modifiers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Add an interval at the end of the columns. The caller makes sure it is
+     * sorted.
+     *
+     * @param start
+     *            The start time of the interval
+     * @param end
+     *            The end time of the interval
+     * @param attribute
+     *            The attribute of the interval
+     * @param type
+     *            The type of the value, one of the TYPE_* constants
+     * @param number
+     *            The value if it is a number, the bits of the value for a
+     *            double
+     * @param object
+     *            The value if its type is {@link #TYPE_OBJECT}
+     */
+    public void add(long start, long end, int attribute, byte type, long number, @Nullable Object object) {
+        insert(fSize, start, end, attribute, type, number, object);
+    }
+
+    /**
+     * Add an interval at its position in the columns
+     *
+     * @param interval
+     *            The interval to add
+     */
+    public void insert(HTInterval interval) {
+        long start = interval.getStartTime();
+        long end = interval.getEndTime();
+        int attribute = interval.getAttribute();
+        int index = getInsertionIndex(start, end, attribute);
+        Object value = interval.getValue();
+        if (value == null) {
+            insert(index, start, end, attribute, TYPE_NULL, 0, null);
+        } else if (value instanceof Integer) {
+            insert(index, start, end, attribute, TYPE_INTEGER, (Integer) value, null);
+        } else if (value instanceof Long) {
+            insert(index, start, end, attribute, TYPE_LONG, (Long) value, null);
+        } else if (value instanceof Double) {
+            insert(index, start, end, attribute, TYPE_DOUBLE, Double.doubleToRawLongBits((Double) value), null);
+        } else {
+            insert(index, start, end, attribute, TYPE_OBJECT, 0, value);
+        }
+    }
+
+    private void insert(int index, long start, long end, int attribute, byte type, long number, @Nullable Object object) {
+        if (fSize == fStarts.length) {
+            grow();
+        }
+        if (index < fSize) {
+            int length = fSize - index;
+            System.arraycopy(fStarts, index, fStarts, index + 1, length);
+            System.arraycopy(fEnds, index, fEnds, index + 1, length);
+            System.arraycopy(fAttributes, index, fAttributes, index + 1, length);
+            System.arraycopy(fTypes, index, fTypes, index + 1, length);
+            System.arraycopy(fNumbers, index, fNumbers, index + 1, length);
+            System.arraycopy(fObjects, index, fObjects, index + 1, length);
+            @Nullable HTInterval[] intervals = fIntervals;
+            if (intervals != null) {
+                System.arraycopy(intervals, index, intervals, index + 1, length);
+            }
+        }
+        fStarts[index] = start;
+        fEnds[index] = end;
+        fAttributes[index] = attribute;
+        fTypes[index] = type;
+        fNumbers[index] = number;
+        fObjects[index] = object;
+        @Nullable HTInterval[] intervals = fIntervals;
+        if (intervals != null) {
+            intervals[index] = null;
+        }
+        fSize++;
+    }
+
+    private void grow() {
+        int capacity = fStarts.length * 2;
+        fStarts = Arrays.copyOf(fStarts, capacity);
+        fEnds = Arrays.copyOf(fEnds, capacity);
+        fAttributes = Arrays.copyOf(fAttributes, capacity);
+        fTypes = Arrays.copyOf(fTypes, capacity);
+        fNumbers = Arrays.copyOf(fNumbers, capacity);
+        fObjects = Arrays.copyOf(fObjects, capacity);
+        @Nullable HTInterval[] intervals = fIntervals;
+        if (intervals != null) {
+            fIntervals = Arrays.copyOf(intervals, capacity);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+
+/**
+ * A view of one interval in the columns of a node, which is moved from one
+ * interval to the next instead of creating an object for each of them.
+ * <p>
+ * The view is only valid until it is moved, it must be copied with
+ * {@link #copy()} to keep the interval. The numeric values can be read with
+ * {@link #getValueInt()}, {@link #getValueLong()} and
+ * {@link #getValueDouble()} without being boxed.
+ */
+@NonNullByDefault
+public final class HTIntervalCursor implements ITmfStateInterval {
+
+    private HTIntervalColumns fColumns = new HTIntervalColumns(1);
+    private int fIndex = -1;
+
+    /**
+     * Move the cursor to an interval
+     *
+     * @param columns
+     *            The intervals of a node
+     * @param index
+     *            The index of the interval in the node
+     */
+    void moveTo(HTIntervalColumns columns, int index) {
+        fColumns = columns;
+        fIndex = index;
+    }
+
+    /**
+     * Create an interval object with the values of the current interval
+     *
+     * @return The interval, which stays valid when the cursor is moved
+     */
+    public HTInterval copy() {
+        return fColumns.getInterval(fIndex);
+    }
+
+    @Override
+    public long getStartTime() {
+        return fColumns.getStartTime(fIndex);
+    }
+
+    @Override
+    public long getEndTime() {
+        return fColumns.getEndTime(fIndex);
+    }
+
+    @Override
+    public int getAttribute() {
+        return fColumns.getAttribute(fIndex);
+    }
+
+    @Override
+    public ITmfStateValue getStateValue() {
+        return TmfStateValue.newValue(getValue());
+    }
+
+    @Override
+    public @Nullable Object getValue() {
+        return fColumns.getValue(fIndex);
+    }
+
+    @Override
+    public int getValueInt() {
+        byte type = fColumns.getType(fIndex);
+        if (type == HTIntervalColumns.TYPE_INTEGER) {
+            return (int) fColumns.getLong(fIndex);
+        }
+        return ITmfStateInterval.super.getValueInt();
+    }
+
+    @Override
+    public long getValueLong() {
+        byte type = fColumns.getType(fIndex);
+        if (type == HTIntervalColumns.TYPE_LONG) {
+            return fColumns.getLong(fIndex);
+        }
+        return ITmfStateInterval.super.getValueLong();
+    }
+
+    @Override
+    public double getValueDouble() {
+        byte type = fColumns.getType(fIndex);
+        if (type == HTIntervalColumns.TYPE_DOUBLE) {
+            return fColumns.getDouble(fIndex);
+        }
+        return ITmfStateInterval.super.getValueDouble();
+    }
+
+    @Override
+    public boolean intersects(long timestamp) {
+        return getStartTime() <= timestamp && timestamp <= getEndTime();
+    }
+
+    @Override
+    public String toString() {
+        return copy().toString();
+    }
+}
@@ -22,18 +22,19 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHTIntervalCodec.INodeEncoder;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 
@@ -139,18 +140,18 @@ public abstract class HTNode {
     /* True if this node was read from disk (meaning its end time is now fixed) */
     private volatile boolean fIsOnDisk;
 
-    /* Vector containing all the intervals contained in this node */
-    private final List<HTInterval> fIntervals;
+    /* Columns containing all the intervals contained in this node */
+    private final HTIntervalColumns fIntervals;
+
+    /*
+     * Encoder of the intervals, which knows the size they take in the node. It
+     * is only created for the nodes read from disk if they are modified.
+     */
+    private @Nullable INodeEncoder fEncoder;
 
     /* Lock used to protect the accesses to intervals, nodeEnd and such */
     private final ReentrantReadWriteLock fRwl = new ReentrantReadWriteLock(false);
 
-    /** Order of intervals in a HTNode: sorted by end times, then by start times. */
-    private static final Comparator<ITmfStateInterval> NODE_ORDER = Comparator
-            .comparingLong(ITmfStateInterval::getEndTime)
-            .thenComparingLong(ITmfStateInterval::getStartTime)
-            .thenComparingInt(ITmfStateInterval::getAttribute);
-
     /**
      * Constructor
      *
@@ -172,7 +173,24 @@ public abstract class HTNode {
 
         fSizeOfIntervalSection = 0;
         fIsOnDisk = false;
-        fIntervals = new ArrayList<>();
+        fIntervals = new HTIntervalColumns();
+    }
+
+    /**
+     * Get the encoder of the intervals of this node, creating it from the
+     * intervals read from disk if needed.
+     */
+    private synchronized INodeEncoder getEncoder() {
+        INodeEncoder encoder = fEncoder;
+        if (encoder == null) {
+            encoder = fConfig.getIntervalCodec().createEncoder(fNodeStart);
+            for (int i = 0; i < fIntervals.size(); i++) {
+                encoder.add(fIntervals.createInterval(i));
+            }
+            fSizeOfIntervalSection = encoder.getSize();
+            fEncoder = encoder;
+        }
+        return encoder;
     }
 
     /**
@@ -192,8 +210,6 @@ public abstract class HTNode {
      */
     public static final @NonNull HTNode readNode(HTConfig config, FileChannel fc, IHistoryTree.IHTNodeFactory nodeFactory)
             throws IOException {
-        HTNode newNode = null;
-
         ByteBuffer buffer = ByteBuffer.allocate(config.getBlockSize());
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.clear();
@@ -202,6 +218,28 @@ public abstract class HTNode {
             throw new IOException("Expected " + config.getBlockSize() + " block size, but got " + res);  //$NON-NLS-1$//$NON-NLS-2$
         }
         buffer.flip();
+        return readNode(config, buffer, nodeFactory);
+    }
+
+    /**
+     * Reader factory method. Build a Node object (of the right type) from a
+     * block already read from the file.
+     *
+     * @param config
+     *            Configuration of the History Tree
+     * @param buffer
+     *            Buffer containing the block of the node, positioned at the
+     *            start of the node
+     * @param nodeFactory
+     *            The factory to create the nodes for this tree
+     * @return The node object
+     * @throws IOException
+     *             If the block does not contain a valid node
+     */
+    public static final @NonNull HTNode readNode(HTConfig config, ByteBuffer buffer, IHistoryTree.IHTNodeFactory nodeFactory)
+            throws IOException {
+        HTNode newNode = null;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
 
         /* Read the common header part */
         byte typeByte = buffer.get();
@@ -237,11 +275,9 @@ public abstract class HTNode {
          * At this point, we should be done reading the header and 'buffer'
          * should only have the intervals left
          */
-        for (int i = 0; i < intervalCount; i++) {
-            HTInterval interval = HTInterval.readFrom(buffer, start);
-            newNode.fIntervals.add(interval);
-            newNode.fSizeOfIntervalSection += interval.getSizeOnDisk();
-        }
+        int intervalsStart = buffer.position();
+        config.getIntervalCodec().readIntervals(buffer, intervalCount, start, newNode.fIntervals);
+        newNode.fSizeOfIntervalSection = buffer.position() - intervalsStart;
 
         /* Assign the node's other information we have read previously */
         newNode.fNodeEnd = end;
@@ -288,9 +324,7 @@ public abstract class HTNode {
             writeSpecificHeader(buffer);
 
             /* Back to us, we write the intervals */
-            for (HTInterval interval : fIntervals) {
-                interval.writeInterval(buffer, fNodeStart);
-            }
+            getEncoder().write(buffer, fIntervals);
             if (blockSize - buffer.position() != getNodeFreeSpace()) {
                 throw new IllegalStateException("Wrong free space: Actual: " + (blockSize - buffer.position()) + ", Expected: " + getNodeFreeSpace()); //$NON-NLS-1$ //$NON-NLS-2$
             }
@@ -400,38 +434,45 @@ public abstract class HTNode {
             /*
              * Just in case, should be checked before even calling this function
              */
-            int newSizeOnDisk = newInterval.getSizeOnDisk(fNodeStart);
+            INodeEncoder encoder = getEncoder();
+            int newSizeOnDisk = encoder.getSizeOnDisk(newInterval);
             if (newSizeOnDisk > getNodeFreeSpace()) {
                 // Could be an IO exception, but that would change the API
                 throw new IllegalStateException("Insufficient disk space."); //$NON-NLS-1$
             }
 
-            /* Find the insert position to keep the list sorted */
-            int index = 0;
-            if (fIntervals.isEmpty()) {
-                index = 0;
-            } else if (NODE_ORDER.compare(fIntervals.get(fIntervals.size() - 1), newInterval) <= 0) {
-                index = fIntervals.size();
-            } else {
-                index = Collections.binarySearch(fIntervals, newInterval, NODE_ORDER);
-                /*
-                 * Interval should not already be in the node, binarySearch will
-                 * return (-insertionPoint - 1).
-                 */
-                index = -index - 1;
-            }
+            /* Insert at the position keeping the intervals sorted */
+            encoder.add(newInterval);
             newInterval.setSizeOnDisk(newSizeOnDisk);
-            fIntervals.add(index, newInterval);
+            fIntervals.insert(newInterval);
             fNodeEnd = Long.max(fNodeEnd, newInterval.getEndTime());
             fMinQuark = Integer.min(fMinQuark, newInterval.getAttribute());
             fMaxQuark = Integer.max(fMaxQuark, newInterval.getAttribute());
-            fSizeOfIntervalSection += newInterval.getSizeOnDisk();
+            fSizeOfIntervalSection = encoder.getSize();
 
         } finally {
             fRwl.writeLock().unlock();
         }
     }
 
+    /**
+     * Get the number of bytes an interval would take if it was added to this
+     * node. It depends on the format of the file and on the intervals already
+     * in the node.
+     *
+     * @param interval
+     *            The interval to add
+     * @return The number of bytes the interval would take in this node
+     */
+    public int getSizeOnDisk(HTInterval interval) {
+        fRwl.readLock().lock();
+        try {
+            return getEncoder().getSizeOnDisk(interval);
+        } finally {
+            fRwl.readLock().unlock();
+        }
+    }
+
     /**
      * We've received word from the containerTree that newest nodes now exist to
      * our right. (Puts isDone = true and sets the endtime)
@@ -483,10 +524,10 @@ public abstract class HTNode {
                  * been created after stateInfo was instantiated (they would be
                  * null anyway).
                  */
-                ITmfStateInterval interval = fIntervals.get(i);
-                if (t >= interval.getStartTime() &&
-                        interval.getAttribute() < stateInfo.size()) {
-                    stateInfo.set(interval.getAttribute(), interval);
+                int attribute = fIntervals.getAttribute(i);
+                if (t >= fIntervals.getStartTime(i) &&
+                        attribute < stateInfo.size()) {
+                    stateInfo.set(attribute, fIntervals.getInterval(i));
                 }
             }
         } finally {
@@ -513,10 +554,9 @@ public abstract class HTNode {
                 "time", t, //$NON-NLS-1$
                 "attribute", key)) { //$NON-NLS-1$
             for (int i = getStartIndexFor(t); i < fIntervals.size(); i++) {
-                HTInterval curInterval = fIntervals.get(i);
-                if (curInterval.getAttribute() == key
-                        && curInterval.getStartTime() <= t) {
-                    return curInterval;
+                if (fIntervals.getAttribute(i) == key
+                        && fIntervals.getStartTime(i) <= t) {
+                    return fIntervals.getInterval(i);
                 }
             }
 
@@ -544,10 +584,10 @@ public abstract class HTNode {
                 "quarks", quarks, //$NON-NLS-1$
                 "times", times)) { //$NON-NLS-1$
             List<HTInterval> intervals = new ArrayList<>();
-            for (HTInterval interval : fIntervals.subList(getStartIndexFor(times.min()), fIntervals.size())) {
-                if (quarks.test(interval.getAttribute())
-                        && times.intersects(interval.getStartTime(), interval.getEndTime())) {
-                    intervals.add(interval);
+            for (int i = getStartIndexFor(times.min()); i < fIntervals.size(); i++) {
+                if (quarks.test(fIntervals.getAttribute(i))
+                        && times.intersects(fIntervals.getStartTime(i), fIntervals.getEndTime(i))) {
+                    intervals.add(fIntervals.getInterval(i));
                 }
             }
             return intervals;
@@ -556,24 +596,45 @@ public abstract class HTNode {
         }
     }
 
+    /**
+     * 2D query method which does not create an object per interval. The
+     * cursor is moved to each interval matching the conditions, then passed to
+     * the action.
+     *
+     * @param quarks
+     *            NumCondition on the quarks on which we want information
+     * @param times
+     *            NumCondition on the times on which we want information
+     * @param cursor
+     *            The cursor to move to the intervals
+     * @param action
+     *            The action to run on each interval. The cursor must be copied
+     *            to keep the interval after the action.
+     */
+    public void forEach2D(IntegerRangeCondition quarks, TimeRangeCondition times, HTIntervalCursor cursor, Consumer<? super HTIntervalCursor> action) {
+        fRwl.readLock().lock();
+        try {
+            for (int i = getStartIndexFor(times.min()); i < fIntervals.size(); i++) {
+                if (quarks.test(fIntervals.getAttribute(i))
+                        && times.intersects(fIntervals.getStartTime(i), fIntervals.getEndTime(i))) {
+                    cursor.moveTo(fIntervals, i);
+                    action.accept(cursor);
+                }
+            }
+        } finally {
+            fRwl.readLock().unlock();
+        }
+    }
+
     private int getStartIndexFor(long t) throws TimeRangeException {
         /* Should only be called by methods with the readLock taken */
 
-        if (fIntervals.isEmpty()) {
-            return 0;
-        }
-
         /*
          * Since the intervals are sorted by end time then by start time, we can
          * skip all the ones at the beginning whose end times are smaller than
-         * 't'. We search for a dummy interval from [Long.MIN_VALUE, t], which
-         * will return the first interval that ends with a time >= t.
+         * 't'.
          */
-        HTInterval dummy = new HTInterval(Long.MIN_VALUE, t, 0, null);
-        int index = Collections.binarySearch(fIntervals, dummy, NODE_ORDER);
-
-        /* Handle negative binarySearch return */
-        return (index >= 0 ? index : -index - 1);
+        return fIntervals.getStartIndexFor(t);
     }
 
     /**
@@ -702,7 +763,7 @@ public abstract class HTNode {
         /* List of intervals in the node */
         writer.println("  Intervals contained:");
         for (int i = 0; i < fIntervals.size(); i++) {
-            writer.println(fIntervals.get(i).toString());
+            writer.println(fIntervals.createInterval(i).toString());
         }
         writer.println('\n');
     }
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Cache of the history tree nodes read from disk, shared by all the open
+ * history trees.
+ * <p>
+ * The cache is bounded by the size of the nodes, in bytes, rather than by a
+ * number of nodes, each node counting as one block of its tree. When the cache
+ * is full, the least recently used node of the tree using the most memory is
+ * dropped, so a tree that is queried a lot cannot push all the nodes of the
+ * other trees out of the cache.
+ * <p>
+ * The core nodes, which are the upper levels of the trees and are read by
+ * every query, can be pinned in the cache, up to a quarter of its size.
+ */
+@NonNullByDefault
+public final class HTNodeCache {
+
+    /** Default maximum size of the cache, in bytes */
+    public static final long DEFAULT_MAXIMUM_SIZE = 64L * 1024 * 1024;
+
+    /** Part of the cache that can be used by pinned nodes */
+    private static final int PINNED_FRACTION = 4;
+
+    private static final HTNodeCache INSTANCE = new HTNodeCache(DEFAULT_MAXIMUM_SIZE, true);
+
+    private static final class TreeCache {
+        /* Nodes that can be evicted, in access order */
+        private final LinkedHashMap<Integer, HTNode> fNodes = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Integer, HTNode> fPinnedNodes = new HashMap<>();
+        private final long fNodeSize;
+
+        public TreeCache(long nodeSize) {
+            fNodeSize = nodeSize;
+        }
+
+        public long getEvictableSize() {
+            return fNodes.size() * fNodeSize;
+        }
+    }
+
+    private final Map<HT_IO, TreeCache> fTrees = new HashMap<>();
+    private long fMaximumSize;
+    private boolean fPinCoreNodes;
+    private long fSize = 0;
+    private long fPinnedSize = 0;
+
+    private final LongAdder fHitCount = new LongAdder();
+    private final LongAdder fMissCount = new LongAdder();
+    private final LongAdder fEvictionCount = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize
+     *            The maximum size of the cache, in bytes
+     * @param pinCoreNodes
+     *            Whether the core nodes are pinned in the cache
+     */
+    public HTNodeCache(long maximumSize, boolean pinCoreNodes) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size " + maximumSize); //$NON-NLS-1$
+        }
+        fMaximumSize = maximumSize;
+        fPinCoreNodes = pinCoreNodes;
+    }
+
+    /**
+     * Get the cache shared by the history trees
+     *
+     * @return The node cache
+     */
+    public static HTNodeCache getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------------------------------------
+    // Configuration
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the maximum size of the cache
+     *
+     * @return The maximum size, in bytes
+     */
+    public synchronized long getMaximumSize() {
+        return fMaximumSize;
+    }
+
+    /**
+     * Set the maximum size of the cache. Nodes are dropped if the cache is
+     * larger than the new size.
+     *
+     * @param maximumSize
+     *            The maximum size, in bytes
+     */
+    public synchronized void setMaximumSize(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size " + maximumSize); //$NON-NLS-1$
+        }
+        fMaximumSize = maximumSize;
+        unpinOverflow();
+        evict();
+    }
+
+    /**
+     * Set whether the core nodes of the trees are pinned in the cache
+     *
+     * @param pinCoreNodes
+     *            true to keep the core nodes in the cache, false to drop them
+     *            like the other nodes
+     */
+    public synchronized void setPinCoreNodes(boolean pinCoreNodes) {
+        fPinCoreNodes = pinCoreNodes;
+        if (!pinCoreNodes) {
+            for (TreeCache tree : fTrees.values()) {
+                tree.fNodes.putAll(tree.fPinnedNodes);
+                tree.fPinnedNodes.clear();
+            }
+            fPinnedSize = 0;
+            evict();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Statistics
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the number of lookups that found their node in the cache
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return fHitCount.sum();
+    }
+
+    /**
+     * Get the number of lookups that had to read their node from disk
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return fMissCount.sum();
+    }
+
+    /**
+     * Get the number of nodes dropped to make room for other nodes
+     *
+     * @return The number of evictions
+     */
+    public long getEvictionCount() {
+        return fEvictionCount.sum();
+    }
+
+    /**
+     * Get the current size of the cache
+     *
+     * @return The size of the cached nodes, in bytes
+     */
+    public synchronized long getSize() {
+        return fSize;
+    }
+
+    /**
+     * Get the current size of the nodes of a tree in the cache
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @return The size of the cached nodes of this tree, in bytes
+     */
+    public synchronized long getSize(HT_IO io) {
+        TreeCache tree = fTrees.get(io);
+        if (tree == null) {
+            return 0;
+        }
+        return (tree.fNodes.size() + tree.fPinnedNodes.size()) * tree.fNodeSize;
+    }
+
+    // ------------------------------------------------------------------------
+    // Cache operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get a node from the cache, counting the lookup as a hit or a miss
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node, or null if it is not in the cache and must be read
+     */
+    public @Nullable HTNode get(HT_IO io, int seqNumber) {
+        HTNode node = getIfPresent(io, seqNumber);
+        if (node == null) {
+            fMissCount.increment();
+        }
+        return node;
+    }
+
+    /**
+     * Get a node from the cache if it is there. Only a hit is counted, this is
+     * meant to look for any of several nodes.
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node, or null if it is not in the cache
+     */
+    public @Nullable HTNode getIfPresent(HT_IO io, int seqNumber) {
+        HTNode node;
+        synchronized (this) {
+            TreeCache tree = fTrees.get(io);
+            if (tree == null) {
+                return null;
+            }
+            node = tree.fPinnedNodes.get(seqNumber);
+            if (node == null) {
+                node = tree.fNodes.get(seqNumber);
+            }
+        }
+        if (node != null) {
+            fHitCount.increment();
+        }
+        return node;
+    }
+
+    /**
+     * Add a node to the cache, dropping other nodes if needed
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param node
+     *            The node
+     * @param nodeSize
+     *            The size of a node of this tree, in bytes
+     */
+    public synchronized void put(HT_IO io, HTNode node, int nodeSize) {
+        TreeCache tree = fTrees.computeIfAbsent(io, t -> new TreeCache(nodeSize));
+        Integer seqNumber = node.getSequenceNumber();
+        if (tree.fPinnedNodes.containsKey(seqNumber)) {
+            tree.fPinnedNodes.put(seqNumber, node);
+            return;
+        }
+        if (tree.fNodes.containsKey(seqNumber)) {
+            tree.fNodes.put(seqNumber, node);
+            return;
+        }
+        fSize += tree.fNodeSize;
+        if (fPinCoreNodes && node.getNodeType() == HTNode.NodeType.CORE &&
+                fPinnedSize + tree.fNodeSize <= fMaximumSize / PINNED_FRACTION) {
+            tree.fPinnedNodes.put(seqNumber, node);
+            fPinnedSize += tree.fNodeSize;
+        } else {
+            tree.fNodes.put(seqNumber, node);
+        }
+        evict();
+    }
+
+    /**
+     * Remove all the nodes of a tree, for example when it is closed
+     *
+     * @param io
+     *            The I/O object of the tree
+     */
+    public synchronized void invalidate(HT_IO io) {
+        TreeCache tree = fTrees.remove(io);
+        if (tree != null) {
+            fSize -= (tree.fNodes.size() + tree.fPinnedNodes.size()) * tree.fNodeSize;
+            fPinnedSize -= tree.fPinnedNodes.size() * tree.fNodeSize;
+        }
+    }
+
+    /**
+     * Move the pinned nodes back with the other nodes while they take more
+     * than their part of the cache
+     */
+    private void unpinOverflow() {
+        for (TreeCache tree : fTrees.values()) {
+            Iterator<Map.Entry<Integer, HTNode>> iterator = tree.fPinnedNodes.entrySet().iterator();
+            while (fPinnedSize > fMaximumSize / PINNED_FRACTION && iterator.hasNext()) {
+                Map.Entry<Integer, HTNode> entry = iterator.next();
+                iterator.remove();
+                tree.fNodes.put(entry.getKey(), entry.getValue());
+                fPinnedSize -= tree.fNodeSize;
+            }
+        }
+    }
+
+    /**
+     * Drop the least recently used nodes of the largest trees until the cache
+     * fits in its maximum size
+     */
+    private void evict() {
+        while (fSize > fMaximumSize) {
+            TreeCache largest = null;
+            for (TreeCache tree : fTrees.values()) {
+                if (!tree.fNodes.isEmpty() && (largest == null || tree.getEvictableSize() > largest.getEvictableSize())) {
+                    largest = tree;
+                }
+            }
+            if (largest == null) {
+                /* Only pinned nodes are left */
+                return;
+            }
+            Iterator<HTNode> iterator = largest.fNodes.values().iterator();
+            iterator.next();
+            iterator.remove();
+            fSize -= largest.fNodeSize;
+            fEvictionCount.increment();
+        }
+    }
+}
@@ -18,27 +18,25 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
-import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-
 /**
  * This class abstracts inputs/outputs of the HistoryTree nodes.
  *
@@ -54,62 +52,10 @@ public class HT_IO {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HT_IO.class);
 
-    // ------------------------------------------------------------------------
-    // Global cache of nodes
-    // ------------------------------------------------------------------------
-
-    private static final class CacheKey {
-
-        public final HT_IO fStateHistory;
-        public final int fSeqNumber;
-
-        public CacheKey(HT_IO stateHistory,  int seqNumber) {
-            fStateHistory = stateHistory;
-            fSeqNumber = seqNumber;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(fStateHistory.fConfig.getStateFile().getAbsolutePath(), fSeqNumber);
-        }
-
-        @Override
-        public boolean equals(@Nullable Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            CacheKey other = (CacheKey) obj;
-            return (fStateHistory.equals(other.fStateHistory) &&
-                    fSeqNumber == other.fSeqNumber);
-        }
-    }
-
-    private static final int CACHE_SIZE = 200;
-
-    private static final CacheLoader<CacheKey, HTNode> NODE_LOADER = new CacheLoader<CacheKey, HTNode>() {
-        @Override
-        public HTNode load(CacheKey key) throws IOException {
-            HT_IO io = key.fStateHistory;
-            int seqNb = key.fSeqNumber;
-
-            TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
-
-            synchronized (io) {
-                io.seekFCToNodePos(io.fFileChannelIn, seqNb);
-                return HTNode.readNode(io.fConfig, io.fFileChannelIn, key.fStateHistory.fNodeFactory);
-            }
-        }
-    };
-
-    private static final LoadingCache<CacheKey, HTNode> NODE_CACHE = CacheBuilder.newBuilder()
-            .maximumSize(CACHE_SIZE).build(NODE_LOADER);
-
+    /**
+     * Maximum number of bytes read at once when reading consecutive nodes
+     */
+    public static final int MAX_READ_SIZE = 4 * 1024 * 1024;
 
     // ------------------------------------------------------------------------
     // Instance fields
@@ -193,22 +139,29 @@ public class HT_IO {
     public @NonNull HTNode readNode(int seqNumber) throws ClosedChannelException {
         /* Do a cache lookup. If it's not present it will be loaded from disk */
         TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheLookup", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
-        CacheKey key = new CacheKey(this, seqNumber);
-        try {
-            return Objects.requireNonNull(NODE_CACHE.get(key));
+        HTNodeCache cache = HTNodeCache.getInstance();
+        HTNode node = cache.get(this, seqNumber);
+        if (node != null) {
+            return node;
+        }
 
-        } catch (ExecutionException e) {
-            /* Get the inner exception that was generated */
-            Throwable cause = e.getCause();
-            if (cause instanceof ClosedChannelException) {
-                throw (ClosedChannelException) cause;
+        TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            synchronized (this) {
+                seekFCToNodePos(fFileChannelIn, seqNumber);
+                node = HTNode.readNode(fConfig, fFileChannelIn, fNodeFactory);
             }
+        } catch (ClosedChannelException e) {
+            throw e;
+        } catch (IOException e) {
             /*
              * Other types of IOExceptions shouldn't happen at this point though.
              */
             Activator.getDefault().logError(e.getMessage(), e);
             throw new IllegalStateException(e);
         }
+        cache.put(this, node, fConfig.getBlockSize());
+        return node;
     }
 
     /**
@@ -230,8 +183,7 @@ public class HT_IO {
         Iterator<Integer> iterator = queue.iterator();
         while (iterator.hasNext()) {
             Integer seqNumber = iterator.next();
-            CacheKey key = new CacheKey(this, seqNumber);
-            HTNode node = NODE_CACHE.getIfPresent(key);
+            HTNode node = HTNodeCache.getInstance().getIfPresent(this, seqNumber);
             if (node != null) {
                 iterator.remove();
                 return node;
@@ -241,6 +193,74 @@ public class HT_IO {
         return readNode(queue.pop());
     }
 
+    /**
+     * Read several nodes from the file on disk. The nodes that are not in the
+     * cache are read in increasing file order, and consecutive nodes are read
+     * together in one operation of at most {@link #MAX_READ_SIZE} bytes.
+     *
+     * @param seqNumbers
+     *            The distinct sequence numbers of the nodes to read
+     * @return The nodes, in the same order as the sequence numbers
+     * @throws ClosedChannelException
+     *             Usually happens because the file was closed while we were
+     *             reading. Instead of using a big reader-writer lock, we'll
+     *             just catch this exception.
+     */
+    public @NonNull List<@NonNull HTNode> readNodes(List<Integer> seqNumbers) throws ClosedChannelException {
+        HTNodeCache cache = HTNodeCache.getInstance();
+        HTNode[] nodes = new HTNode[seqNumbers.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = cache.get(this, seqNumbers.get(i));
+            if (nodes[i] == null) {
+                missing.add(i);
+            }
+        }
+        missing.sort(Comparator.comparingInt(seqNumbers::get));
+
+        int blockSize = fConfig.getBlockSize();
+        int maxRun = Math.max(1, MAX_READ_SIZE / blockSize);
+        int start = 0;
+        while (start < missing.size()) {
+            /* Find the run of consecutive nodes starting here */
+            int firstSeqNumber = seqNumbers.get(missing.get(start));
+            int end = start + 1;
+            while (end < missing.size() && end - start < maxRun &&
+                    seqNumbers.get(missing.get(end)) == firstSeqNumber + (end - start)) {
+                end++;
+            }
+            TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMissBatch", "seqNum", firstSeqNumber, "count", end - start); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            ByteBuffer buffer = ByteBuffer.allocate((end - start) * blockSize);
+            long position = IHistoryTree.TREE_HEADER_SIZE + (long) firstSeqNumber * blockSize;
+            try {
+                while (buffer.hasRemaining()) {
+                    if (fFileChannelIn.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of file reading node " + firstSeqNumber); //$NON-NLS-1$
+                    }
+                }
+                for (int i = start; i < end; i++) {
+                    buffer.limit((i - start + 1) * blockSize);
+                    buffer.position((i - start) * blockSize);
+                    HTNode node = HTNode.readNode(fConfig, buffer.slice(), fNodeFactory);
+                    cache.put(this, node, blockSize);
+                    nodes[missing.get(i)] = node;
+                }
+            } catch (ClosedChannelException e) {
+                throw e;
+            } catch (IOException e) {
+                Activator.getDefault().logError(e.getMessage(), e);
+                throw new IllegalStateException(e);
+            }
+            start = end;
+        }
+
+        List<@NonNull HTNode> result = new ArrayList<>(nodes.length);
+        for (HTNode node : nodes) {
+            result.add(Objects.requireNonNull(node));
+        }
+        return result;
+    }
+
     /**
      * Write the given node to disk.
      *
@@ -252,8 +272,7 @@ public class HT_IO {
             int seqNumber = node.getSequenceNumber();
 
             /* "Write-back" the node into the cache */
-            CacheKey key = new CacheKey(this, seqNumber);
-            NODE_CACHE.put(key, node);
+            HTNodeCache.getInstance().put(this, node, fConfig.getBlockSize());
 
             /* Position ourselves at the start of the node and write it */
             synchronized (this) {
@@ -300,6 +319,7 @@ public class HT_IO {
      * Close all file channels and streams.
      */
     public synchronized void closeFile() {
+        HTNodeCache.getInstance().invalidate(this);
         try {
             fFileInputStream.close();
             fFileOutputStream.close();
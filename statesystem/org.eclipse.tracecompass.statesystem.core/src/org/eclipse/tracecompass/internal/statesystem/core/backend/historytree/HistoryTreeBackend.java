@@ -25,6 +25,7 @@ import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.function.Consumer;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -112,7 +113,7 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
             int maxChildren) throws IOException {
         fSsid = ssid;
         final HTConfig conf = new HTConfig(newStateFile, blockSize, maxChildren,
-                providerVersion, startTime);
+                providerVersion, startTime, HTCompactIntervalCodec.INSTANCE);
         fSht = initializeSHT(conf);
     }
 
@@ -361,6 +362,13 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
                 "ssid", getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
                 "timeCondition", times).build()) { //$NON-NLS-1$
+            if (!reverse) {
+                /*
+                 * Read the nodes in file order, the reverse queries visit the
+                 * latest branches first instead.
+                 */
+                return () -> new HTBulkQueryIterator(getSHT(), quarks, times, true);
+            }
             return () -> new Iterator<@NonNull ITmfStateInterval>() {
                 private final Deque<Integer> seqNumberQueue = new ArrayDeque<>(Collections.singleton(getSHT().getRootNode().getSequenceNumber()));
                 private Iterator<@NonNull HTInterval> intervalQueue = Collections.emptyIterator();
@@ -409,6 +417,24 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         }
     }
 
+    /**
+     * 2D query which runs an action on the intervals instead of returning
+     * them. The intervals are views on the nodes, which are moved from one
+     * interval to the next instead of creating an object per interval, so
+     * they are only valid during the call to the action and must be copied to
+     * be kept.
+     *
+     * @param quarks
+     *            The quark condition
+     * @param times
+     *            The time condition
+     * @param action
+     *            The action to run on each interval
+     */
+    public void forEach2D(IntegerRangeCondition quarks, TimeRangeCondition times, Consumer<? super @NonNull ITmfStateInterval> action) {
+        new HTBulkQueryIterator(getSHT(), quarks, times, true).forEachInterval(action);
+    }
+
     /**
      * Return the size of the tree history file
      *
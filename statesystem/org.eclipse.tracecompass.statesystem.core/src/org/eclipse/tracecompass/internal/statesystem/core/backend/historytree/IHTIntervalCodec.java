@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Encoding of the intervals section of the history tree nodes. Each file
+ * format version of the history tree has its codec, so that the files written
+ * with an older format can still be read.
+ */
+@NonNullByDefault
+public interface IHTIntervalCodec {
+
+    /**
+     * Encoder of the intervals of one node. The size of an interval may depend
+     * on the intervals already in the node, for example when the strings are
+     * shared, so the encoder keeps track of them.
+     */
+    interface INodeEncoder {
+
+        /**
+         * Get the current size of the intervals section
+         *
+         * @return The size of the intervals section, in bytes
+         */
+        int getSize();
+
+        /**
+         * Get by how much the intervals section would grow if an interval was
+         * added to the node
+         *
+         * @param interval
+         *            The interval to add
+         * @return The number of bytes the interval would take
+         */
+        int getSizeOnDisk(HTInterval interval);
+
+        /**
+         * Add an interval to the node
+         *
+         * @param interval
+         *            The interval to add
+         * @return The number of bytes the interval takes
+         */
+        int add(HTInterval interval);
+
+        /**
+         * Write the intervals section of the node
+         *
+         * @param buffer
+         *            The buffer of the node's block, positioned after the
+         *            header
+         * @param intervals
+         *            The intervals of the node, which must all have been added
+         *            to this encoder
+         */
+        void write(ByteBuffer buffer, HTIntervalColumns intervals);
+    }
+
+    /**
+     * Get the version of the history tree file format using this codec
+     *
+     * @return The file format version
+     */
+    int getFileVersion();
+
+    /**
+     * Create the encoder of a new node
+     *
+     * @param nodeStart
+     *            The start time of the node
+     * @return The encoder
+     */
+    INodeEncoder createEncoder(long nodeStart);
+
+    /**
+     * Read the intervals section of a node
+     *
+     * @param buffer
+     *            The buffer of the node's block, positioned after the header
+     * @param count
+     *            The number of intervals in the node
+     * @param nodeStart
+     *            The start time of the node
+     * @param intervals
+     *            The columns to which the intervals are added
+     * @throws IOException
+     *             If the intervals section is invalid
+     */
+    void readIntervals(ByteBuffer buffer, int count, long nodeStart, HTIntervalColumns intervals) throws IOException;
+
+    /**
+     * Get the codec of a file format version
+     *
+     * @param fileVersion
+     *            The file format version
+     * @return The codec, or null if this version is not supported
+     */
+    static @Nullable IHTIntervalCodec forFileVersion(int fileVersion) {
+        if (fileVersion == HTCompactIntervalCodec.FILE_VERSION) {
+            return HTCompactIntervalCodec.INSTANCE;
+        }
+        if (fileVersion == HTClassicIntervalCodec.FILE_VERSION) {
+            return HTClassicIntervalCodec.INSTANCE;
+        }
+        return null;
+    }
+}
@@ -15,7 +15,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 
@@ -172,6 +174,24 @@ public interface IHistoryTree {
      */
     HTNode readNode(Deque<Integer> queue) throws ClosedChannelException;
 
+    /**
+     * Read several nodes from the tree. Implementations can read the nodes
+     * that are on disk in file order and in larger blocks.
+     *
+     * @param seqNumbers
+     *            The distinct sequence numbers of the nodes to read
+     * @return The nodes, in the same order as the sequence numbers
+     * @throws ClosedChannelException
+     *             If the tree IO is unavailable
+     */
+    default List<HTNode> readNodes(List<Integer> seqNumbers) throws ClosedChannelException {
+        List<HTNode> nodes = new ArrayList<>(seqNumbers.size());
+        for (Integer seqNumber : seqNumbers) {
+            nodes.add(readNode(seqNumber));
+        }
+        return nodes;
+    }
+
     /**
      * Write a node object to the history file.
      *
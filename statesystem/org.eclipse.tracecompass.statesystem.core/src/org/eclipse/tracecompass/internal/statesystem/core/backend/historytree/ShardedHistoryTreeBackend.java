@@ -0,0 +1,462 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * History tree backend which partitions the attributes between several
+ * history trees, each one in its own file. When the history is built, each
+ * tree is written by its own thread, so the insertion of the intervals is not
+ * limited to a single writer thread. The queries are sent to the trees that
+ * contain the requested attributes and their results are merged.
+ * <p>
+ * An attribute is stored in the tree number <code>quark % nbShards</code>.
+ * Quarks are assigned in the order the attributes are created, so the
+ * attributes of a same subtree, which are usually created together, are spread
+ * evenly between the trees. The first tree is stored in the state file itself
+ * and also receives the attribute tree, the other ones are stored next to it,
+ * see {@link #getShardFile(File, int)}. The number of trees of a history is
+ * given by its files, see {@link #getShardCount(File)}, so that a history
+ * built with another number of trees is not opened with some of its
+ * attributes missing.
+ */
+public final class ShardedHistoryTreeBackend implements IStateHistoryBackend {
+
+    private static final String SHARD_EXTENSION = ".shard"; //$NON-NLS-1$
+
+    private final @NonNull String fSsid;
+    private final List<IStateHistoryBackend> fShards;
+
+    /**
+     * New state history constructor
+     *
+     * @param ssid
+     *            The state system's id
+     * @param newStateFile
+     *            The name of the history file that will be created. Should end
+     *            in ".ht"
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest timestamp stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue of each tree. If 0 is
+     *            specified, no queue is used and the trees are written in the
+     *            thread inserting the intervals.
+     * @param nbShards
+     *            The number of history trees
+     * @param blockSize
+     *            The size of the blocks in the files
+     * @param maxChildren
+     *            The maximum number of children allowed for each core node
+     * @throws IOException
+     *             If there was a problem opening the history files for writing
+     */
+    public ShardedHistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int queueSize,
+            int nbShards,
+            int blockSize,
+            int maxChildren)
+                    throws IOException {
+        checkShardCount(nbShards);
+        fSsid = ssid;
+        deleteShardFiles(newStateFile, nbShards);
+        List<IStateHistoryBackend> shards = new ArrayList<>(nbShards);
+        try {
+            for (int i = 0; i < nbShards; i++) {
+                File file = getShardFile(newStateFile, i);
+                if (queueSize > 0) {
+                    shards.add(new ThreadedHistoryTreeBackend(ssid, file, providerVersion, startTime, queueSize, blockSize, maxChildren));
+                } else {
+                    shards.add(new HistoryTreeBackend(ssid, file, providerVersion, startTime, blockSize, maxChildren));
+                }
+            }
+        } catch (IOException e) {
+            shards.forEach(IStateHistoryBackend::dispose);
+            throw e;
+        }
+        fShards = ImmutableList.copyOf(shards);
+    }
+
+    /**
+     * New state history constructor. This version provides default values for
+     * blockSize and maxChildren.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param newStateFile
+     *            The name of the history file that will be created. Should end
+     *            in ".ht"
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest timestamp stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue of each tree. If 0 is
+     *            specified, no queue is used and the trees are written in the
+     *            thread inserting the intervals.
+     * @param nbShards
+     *            The number of history trees
+     * @throws IOException
+     *             If there was a problem opening the history files for writing
+     */
+    public ShardedHistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int queueSize,
+            int nbShards)
+                    throws IOException {
+        this(ssid, newStateFile, providerVersion, startTime, queueSize, nbShards, 64 * 1024, 50);
+    }
+
+    /**
+     * Existing state file constructor.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param existingStateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param nbShards
+     *            The number of history trees the history was built with
+     * @throws IOException
+     *             If we can't read one of the files, if it doesn't exist, is
+     *             not recognized, if the version of the file does not match
+     *             the expected providerVersion or if the history was built
+     *             with another number of trees.
+     */
+    public ShardedHistoryTreeBackend(@NonNull String ssid, @NonNull File existingStateFile, int providerVersion, int nbShards)
+            throws IOException {
+        checkShardCount(nbShards);
+        checkExistingShardCount(existingStateFile, nbShards);
+        fSsid = ssid;
+        List<IStateHistoryBackend> shards = new ArrayList<>(nbShards);
+        try {
+            for (int i = 0; i < nbShards; i++) {
+                shards.add(new HistoryTreeBackend(ssid, getShardFile(existingStateFile, i), providerVersion));
+            }
+        } catch (IOException e) {
+            shards.forEach(IStateHistoryBackend::dispose);
+            throw e;
+        }
+        fShards = ImmutableList.copyOf(shards);
+    }
+
+    private static void checkShardCount(int nbShards) {
+        if (nbShards < 1) {
+            throw new IllegalArgumentException("Invalid number of shards: " + nbShards); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Get the file in which a history tree is stored
+     *
+     * @param stateFile
+     *            The state file of the history
+     * @param shard
+     *            The index of the history tree
+     * @return The state file itself for the first tree, a file next to it for
+     *         the other ones
+     */
+    public static @NonNull File getShardFile(File stateFile, int shard) {
+        if (shard == 0) {
+            return stateFile;
+        }
+        return new File(stateFile.getPath() + SHARD_EXTENSION + shard);
+    }
+
+    /**
+     * Get the number of history trees an existing history was built with. It
+     * is the number of consecutive shard files next to the state file, plus
+     * the state file itself.
+     *
+     * @param stateFile
+     *            The state file of the history
+     * @return The number of history trees of the history
+     */
+    public static int getShardCount(File stateFile) {
+        int nbShards = 1;
+        while (getShardFile(stateFile, nbShards).exists()) {
+            nbShards++;
+        }
+        return nbShards;
+    }
+
+    /**
+     * Check that an existing history was built with the expected number of
+     * history trees
+     *
+     * @param stateFile
+     *            The state file of the history
+     * @param nbShards
+     *            The expected number of history trees
+     * @throws IOException
+     *             If the history was built with another number of trees
+     */
+    public static void checkExistingShardCount(File stateFile, int nbShards) throws IOException {
+        int existingShards = getShardCount(stateFile);
+        if (existingShards != nbShards) {
+            throw new IOException("History " + stateFile + " has " + existingShards + " trees, expected " + nbShards); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    /**
+     * Delete the shard files of a previous history that are not part of a
+     * history of the given number of trees, so that the new history is not
+     * read with the trees of the old one
+     *
+     * @param stateFile
+     *            The state file of the history
+     * @param nbShards
+     *            The number of history trees of the new history
+     */
+    public static void deleteShardFiles(File stateFile, int nbShards) {
+        int shard = Math.max(1, nbShards);
+        File file = getShardFile(stateFile, shard);
+        while (file.exists()) {
+            file.delete();
+            shard++;
+            file = getShardFile(stateFile, shard);
+        }
+    }
+
+    /**
+     * Get the number of history trees of this backend
+     *
+     * @return The number of history trees
+     */
+    public int getShardCount() {
+        return fShards.size();
+    }
+
+    private IStateHistoryBackend getShard(int quark) {
+        return fShards.get(quark % fShards.size());
+    }
+
+    // ------------------------------------------------------------------------
+    // IStateHistoryBackend
+    // ------------------------------------------------------------------------
+
+    @Override
+    public @NonNull String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fShards.get(0).getStartTime();
+    }
+
+    @Override
+    public long getEndTime() {
+        long endTime = Long.MIN_VALUE;
+        for (IStateHistoryBackend shard : fShards) {
+            endTime = Math.max(endTime, shard.getEndTime());
+        }
+        return endTime;
+    }
+
+    @Override
+    public void insertPastState(long stateStartTime, long stateEndTime, int quark, @Nullable Object value) throws TimeRangeException {
+        getShard(quark).insertPastState(stateStartTime, stateEndTime, quark, value);
+    }
+
+    @Override
+    public void finishedBuilding(long endTime) throws TimeRangeException {
+        /*
+         * All the trees are closed with the same end time. The writer threads
+         * of the other trees keep running while we wait for the first ones.
+         */
+        for (IStateHistoryBackend shard : fShards) {
+            shard.finishedBuilding(endTime);
+        }
+    }
+
+    @Override
+    public @Nullable FileInputStream supplyAttributeTreeReader() {
+        return fShards.get(0).supplyAttributeTreeReader();
+    }
+
+    @Override
+    public @Nullable File supplyAttributeTreeWriterFile() {
+        return fShards.get(0).supplyAttributeTreeWriterFile();
+    }
+
+    @Override
+    public long supplyAttributeTreeWriterFilePosition() {
+        return fShards.get(0).supplyAttributeTreeWriterFilePosition();
+    }
+
+    @Override
+    public void removeFiles() {
+        fShards.forEach(IStateHistoryBackend::removeFiles);
+    }
+
+    @Override
+    public void dispose() {
+        fShards.forEach(IStateHistoryBackend::dispose);
+    }
+
+    @Override
+    public void doQuery(List<@Nullable ITmfStateInterval> currentStateInfo, long t)
+            throws TimeRangeException, StateSystemDisposedException {
+        long startTime = getStartTime();
+        long endTime = getEndTime();
+        if (t < startTime || t > endTime) {
+            throw new TimeRangeException(String.format("%s Time:%d, Start:%d, End:%d", //$NON-NLS-1$
+                    fSsid, t, startTime, endTime));
+        }
+        int nbAttributes = currentStateInfo.size();
+        if (nbAttributes == 0) {
+            return;
+        }
+        /*
+         * Use 2D queries on the trees rather than full queries, so that a tree
+         * still being built does not look for the attributes of the other
+         * trees in its insertion queue.
+         */
+        TimeRangeCondition time = TimeRangeCondition.singleton(t);
+        for (int i = 0; i < fShards.size(); i++) {
+            IntegerRangeCondition quarks = new ShardQuarkCondition(fShards.size(), i, 0, nbAttributes - 1);
+            for (ITmfStateInterval interval : fShards.get(i).query2D(quarks, time)) {
+                currentStateInfo.set(interval.getAttribute(), interval);
+            }
+        }
+    }
+
+    @Override
+    public @Nullable ITmfStateInterval doSingularQuery(long t, int attributeQuark)
+            throws TimeRangeException, StateSystemDisposedException {
+        return getShard(attributeQuark).doSingularQuery(t, attributeQuark);
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times)
+            throws TimeRangeException {
+        return query2D(quarks, times, false);
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times, boolean reverse)
+            throws TimeRangeException {
+        List<Iterable<@NonNull ITmfStateInterval>> results = new ArrayList<>();
+        for (int i = 0; i < fShards.size(); i++) {
+            if (hasQuarksInShard(quarks, i)) {
+                results.add(fShards.get(i).query2D(quarks, times, reverse));
+            }
+        }
+        return Iterables.concat(results);
+    }
+
+    /**
+     * Check whether a quark condition may contain quarks of a shard, to avoid
+     * going through the trees which cannot contain any of them
+     */
+    private boolean hasQuarksInShard(IntegerRangeCondition quarks, int shard) {
+        int nbShards = fShards.size();
+        if ((long) quarks.max() - quarks.min() >= nbShards) {
+            /* Every shard has quarks in the range, assume it may match */
+            return true;
+        }
+        for (int quark = quarks.min(); quark <= quarks.max(); quark++) {
+            if (quark % nbShards == shard && quarks.test(quark)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Continuous range of the quarks which are stored in a shard
+     */
+    private static final class ShardQuarkCondition implements IntegerRangeCondition {
+
+        private final int fNbShards;
+        private final int fShard;
+        private final int fMin;
+        private final int fMax;
+
+        public ShardQuarkCondition(int nbShards, int shard, int min, int max) {
+            fNbShards = nbShards;
+            fShard = shard;
+            fMin = min;
+            fMax = max;
+        }
+
+        @Override
+        public int min() {
+            return fMin;
+        }
+
+        @Override
+        public int max() {
+            return fMax;
+        }
+
+        @Override
+        public boolean test(int element) {
+            return element >= fMin && element <= fMax && element % fNbShards == fShard;
+        }
+
+        @Override
+        public boolean intersects(int low, int high) {
+            int from = Math.max(low, fMin);
+            int to = Math.min(high, fMax);
+            return from <= to && firstQuarkFrom(from) <= to;
+        }
+
+        @Override
+        public @Nullable IntegerRangeCondition subCondition(int from, int to) {
+            long min = firstQuarkFrom(Math.max(from, fMin));
+            int max = Math.min(to, fMax);
+            if (min > max) {
+                return null;
+            }
+            return new ShardQuarkCondition(fNbShards, fShard, (int) min, max);
+        }
+
+        private long firstQuarkFrom(int from) {
+            return from + Math.floorMod(fShard - from, fNbShards);
+        }
+
+        @Override
+        public String toString() {
+            return "Shard " + fShard + "/" + fNbShards + " [" + fMin + ", " + fMax + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+        }
+    }
+}
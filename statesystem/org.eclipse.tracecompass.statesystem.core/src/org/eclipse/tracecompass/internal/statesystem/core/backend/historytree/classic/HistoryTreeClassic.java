@@ -26,13 +26,16 @@ import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HT_IO;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHTIntervalCodec;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.LeafNode;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ParentNode;
@@ -55,9 +58,6 @@ public class HistoryTreeClassic implements IHistoryTree {
      */
     public static final int HISTORY_FILE_MAGIC_NUMBER = 0x05FFA900;
 
-    /** File format version. Increment when breaking compatibility. */
-    private static final int FILE_VERSION = 11;
-
     private static final IHTNodeFactory CLASSIC_NODE_FACTORY = new IHTNodeFactory() {
 
         @Override
@@ -183,7 +183,8 @@ public class HistoryTreeClassic implements IHistoryTree {
             }
 
             res = buffer.getInt(); /* File format version number */
-            if (res != FILE_VERSION) {
+            IHTIntervalCodec codec = IHTIntervalCodec.forFileVersion(res);
+            if (codec == null) {
                 throw new IOException("Mismatching History Tree file format versions"); //$NON-NLS-1$
             }
 
@@ -207,7 +208,7 @@ public class HistoryTreeClassic implements IHistoryTree {
             rootNodeSeqNb = buffer.getInt();
             startTime = buffer.getLong();
 
-            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime);
+            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime, codec);
         }
 
         /*
@@ -280,7 +281,7 @@ public class HistoryTreeClassic implements IHistoryTree {
 
                 buffer.putInt(HISTORY_FILE_MAGIC_NUMBER);
 
-                buffer.putInt(FILE_VERSION);
+                buffer.putInt(fConfig.getIntervalCodec().getFileVersion());
                 buffer.putInt(fConfig.getProviderVersion());
 
                 buffer.putInt(fConfig.getBlockSize());
@@ -428,6 +429,35 @@ public class HistoryTreeClassic implements IHistoryTree {
         return fTreeIO.readNode(queue);
     }
 
+    @Override
+    public List<HTNode> readNodes(List<Integer> seqNumbers) throws ClosedChannelException {
+        /* Take the nodes of the latest branch from memory */
+        List<@Nullable HTNode> nodes = new ArrayList<>(Collections.nCopies(seqNumbers.size(), null));
+        List<Integer> onDisk = new ArrayList<>();
+        synchronized (fLatestBranch) {
+            for (int i = 0; i < seqNumbers.size(); i++) {
+                int seqNumber = seqNumbers.get(i);
+                for (HTNode node : fLatestBranch) {
+                    if (node.getSequenceNumber() == seqNumber) {
+                        nodes.set(i, node);
+                        break;
+                    }
+                }
+                if (nodes.get(i) == null) {
+                    onDisk.add(seqNumber);
+                }
+            }
+        }
+
+        /* Read the other nodes from disk */
+        Iterator<HTNode> diskNodes = fTreeIO.readNodes(onDisk).iterator();
+        List<HTNode> result = new ArrayList<>(nodes.size());
+        for (HTNode node : nodes) {
+            result.add(node != null ? node : diskNodes.next());
+        }
+        return result;
+    }
+
     @Override
     public void writeNode(HTNode node) {
         fTreeIO.writeNode(node);
@@ -468,7 +498,7 @@ public class HistoryTreeClassic implements IHistoryTree {
         HTNode targetNode = fLatestBranch.get(indexOfNode);
 
         /* Verify if there is enough room in this node to store this interval */
-        int newSizeOnDisk = interval.getSizeOnDisk(targetNode.getNodeStart());
+        int newSizeOnDisk = targetNode.getSizeOnDisk(interval);
         if (newSizeOnDisk > targetNode.getNodeFreeSpace()) {
             /* Nope, not enough room. Insert in a new sibling instead. */
             addSiblingNode(indexOfNode, interval.getStartTime());
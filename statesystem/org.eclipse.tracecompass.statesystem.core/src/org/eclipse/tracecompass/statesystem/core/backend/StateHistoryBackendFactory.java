@@ -21,6 +21,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.InMemoryBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.NullBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ShardedHistoryTreeBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ThreadedHistoryTreeBackend;
 
 /**
@@ -117,4 +118,79 @@ public final class StateHistoryBackendFactory {
             int providerVersion) throws IOException {
         return new HistoryTreeBackend(ssid, stateFile, providerVersion);
     }
+
+    /**
+     * Create a new backend which stores its intervals in several History
+     * Trees, the attributes being partitioned between them. Each tree is
+     * stored in its own file and, if a 'queueSize' is specified, written by
+     * its own thread, so the history can be built using several cores.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht). The other trees are stored next to it.
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest time stamp that will be stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue of each tree. If 0 is
+     *            specified, no queue is used and the writes happen in the same
+     *            thread.
+     * @param nbShards
+     *            The number of History Trees to partition the attributes
+     *            into. With a single tree, the backend is the same as the one
+     *            of
+     *            {@link #createHistoryTreeBackendNewFile(String, File, int, long, int)}.
+     *            The files of the other trees of a previous history are
+     *            deleted.
+     * @return The state system backend
+     * @throws IOException
+     *             Thrown if we can't create the files for some reason
+     * @since 5.1
+     */
+    public static IStateHistoryBackend createShardedHistoryTreeBackendNewFile(String ssid,
+            File stateFile, int providerVersion, long startTime, int queueSize, int nbShards) throws IOException {
+        if (nbShards == 1) {
+            ShardedHistoryTreeBackend.deleteShardFiles(stateFile, nbShards);
+            return createHistoryTreeBackendNewFile(ssid, stateFile, providerVersion, startTime, queueSize);
+        }
+        return new ShardedHistoryTreeBackend(ssid, stateFile, providerVersion, startTime, queueSize, nbShards);
+    }
+
+    /**
+     * Create a backend partitioned between several History Trees, but attempt
+     * to open existing files on disk. If one of the files cannot be found or
+     * recognized, an IOException will be thrown.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param nbShards
+     *            The number of History Trees the history is expected to be
+     *            built with. With a single tree, the backend is the same as
+     *            the one of
+     *            {@link #createHistoryTreeBackendExistingFile(String, File, int)}.
+     * @return The state system backend
+     * @throws IOException
+     *             If we can't read one of the files, if it doesn't exist, is
+     *             not recognized, if the version of the file does not match
+     *             the expected providerVersion, or if the history was built
+     *             with another number of History Trees.
+     * @since 5.1
+     */
+    public static IStateHistoryBackend createShardedHistoryTreeBackendExistingFile(String ssid, File stateFile,
+            int providerVersion, int nbShards) throws IOException {
+        if (nbShards == 1) {
+            ShardedHistoryTreeBackend.checkExistingShardCount(stateFile, nbShards);
+            return createHistoryTreeBackendExistingFile(ssid, stateFile, providerVersion);
+        }
+        return new ShardedHistoryTreeBackend(ssid, stateFile, providerVersion, nbShards);
+    }
 }
@@ -13,10 +13,14 @@ package org.eclipse.tracecompass.tmf.core.tests.event.matching;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -26,6 +30,7 @@ import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.matching.IEventMatchingKey;
+import org.eclipse.tracecompass.tmf.core.event.matching.IMatchProcessingUnit;
 import org.eclipse.tracecompass.tmf.core.event.matching.ITmfMatchEventDefinition;
 import org.eclipse.tracecompass.tmf.core.event.matching.TmfEventDependency.DependencyEvent;
 import org.eclipse.tracecompass.tmf.core.event.matching.TmfEventMatching;
@@ -153,6 +158,11 @@ public class TmfEventMatchingTest {
             super(traces);
         }
 
+        @Override
+        public IMatchProcessingUnit getProcessingUnit() {
+            return super.getProcessingUnit();
+        }
+
         @Override
         public Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getUnmatchedIn() {
             return super.getUnmatchedIn();
@@ -409,4 +419,99 @@ public class TmfEventMatchingTest {
 
     }
 
+    /**
+     * Test that the events of hosts whose clocks differ by more than a
+     * timeout are matched by default, but not with this timeout
+     */
+    @Test
+    public void testClockOffset() {
+        long second = 1000000000L;
+        long offset = 60 * second;
+        long timeout = 10 * second;
+        int nbPackets = 1200;
+        assertEquals(nbPackets, matchWithClockOffset(offset, 0L));
+        assertTrue(matchWithClockOffset(offset, timeout) < nbPackets);
+        assertEquals(nbPackets, matchWithClockOffset(timeout / 2, timeout));
+    }
+
+    /**
+     * Match packets sent every 100 ms from the first trace to the second one,
+     * whose clock is behind by an offset, in the order of their timestamps
+     *
+     * @return The number of matches
+     */
+    private int matchWithClockOffset(long offset, long timeout) {
+        Collection<@NonNull ITmfTrace> traces = fTraces;
+        assertNotNull(traces);
+        TmfEventMatchingStub matching = new TmfEventMatchingStub(traces);
+        matching.initMatching();
+        if (timeout > 0) {
+            matching.setUnmatchedTimeout(timeout);
+        }
+        TmfTraceStub t1 = fT1;
+        assertNotNull(t1);
+        TmfTraceStub t2 = fT2;
+        assertNotNull(t2);
+
+        long period = 100000000L;
+        long latency = 1000000L;
+        List<@NonNull MatchEventStub> events = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            long sent = offset + i * period;
+            events.add(new MatchEventStub(t1, TmfTimestamp.fromNanos(sent), i, Direction.CAUSE));
+            events.add(new MatchEventStub(t2, TmfTimestamp.fromNanos(sent + latency - offset), i, Direction.EFFECT));
+        }
+        events.sort(Comparator.comparing(MatchEventStub::getTimestamp));
+        for (MatchEventStub event : events) {
+            matching.matchEvent(event, event.getTrace(), PROGRESS_MONITOR);
+        }
+        return matching.getProcessingUnit().countMatches();
+    }
+
+    /**
+     * Test that unmatched events older than the timeout are discarded
+     */
+    @Test
+    public void testUnmatchedTimeout() {
+        // Test-specific data initialization
+        int count = 1;
+        int unmatchedKey1 = count++;
+        int unmatchedKey2 = count++;
+        int unmatchedKey3 = count++;
+        int unmatchedKey4 = count++;
+
+        Collection<@NonNull ITmfTrace> traces = fTraces;
+        assertNotNull(traces);
+        TmfEventMatchingStub matching = new TmfEventMatchingStub(traces);
+        matching.initMatching();
+        matching.setUnmatchedTimeout(10L);
+
+        TmfTraceStub t1 = fT1;
+        assertNotNull(t1);
+        TmfTraceStub t2 = fT2;
+        assertNotNull(t2);
+
+        matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(1L), unmatchedKey1, Direction.CAUSE), t1, PROGRESS_MONITOR);
+        matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(5L), unmatchedKey2, Direction.EFFECT), t1, PROGRESS_MONITOR);
+        assertEquals(1, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(1, matching.getUnmatchedIn().row(t1).size());
+
+        // Events of another trace do not expire the events of t1
+        matching.matchEvent(new MatchEventStub(t2, TmfTimestamp.fromNanos(30L), unmatchedKey3, Direction.CAUSE), t2, PROGRESS_MONITOR);
+        assertEquals(1, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(1, matching.getUnmatchedIn().row(t1).size());
+        assertEquals(1, matching.getUnmatchedOut().row(t2).size());
+
+        // Only the event older than the timeout is discarded
+        matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(12L), unmatchedKey4, Direction.CAUSE), t1, PROGRESS_MONITOR);
+        assertEquals(1, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(1, matching.getUnmatchedIn().row(t1).size());
+        assertTrue(matching.getUnmatchedOut().contains(t1, new IntMatchingKey(unmatchedKey4)));
+
+        // Both remaining events of t1 are discarded
+        matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(25L), unmatchedKey1, Direction.EFFECT), t1, PROGRESS_MONITOR);
+        assertEquals(0, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(1, matching.getUnmatchedIn().row(t1).size());
+    }
+
 }
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.tracecompass.tmf.core.component.TmfEventProvider;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test suite for the order independent requests that join a running
+ * coalesced request
+ */
+@SuppressWarnings("javadoc")
+public class TmfJoinedEventRequestTest {
+
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private static final int NB_EVENTS = 10000;
+    private static final int JOIN_RANK = 4000;
+
+    private EventProviderStub fProvider;
+
+    /**
+     * Provider of NB_EVENTS events of a trace stub, which counts the events it
+     * reads
+     */
+    private static class EventProviderStub extends TmfEventProvider {
+
+        private final ITmfTrace fTrace = new TmfTraceStub();
+        private final AtomicLong fNbReads = new AtomicLong();
+
+        public EventProviderStub() {
+            super("Provider", ITmfEvent.class);
+        }
+
+        @Override
+        public ITmfContext armRequest(ITmfEventRequest request) {
+            return new TmfContext(null, request.getIndex());
+        }
+
+        @Override
+        public ITmfEvent getNext(ITmfContext context) {
+            long rank = context.getRank();
+            if (rank >= NB_EVENTS) {
+                return null;
+            }
+            context.increaseRank();
+            fNbReads.incrementAndGet();
+            return new TmfEvent(fTrace, rank, TmfTimestamp.fromNanos(rank), null, null);
+        }
+
+        @Override
+        public boolean matches(ITmfEvent event) {
+            return event.getTrace() == fTrace;
+        }
+    }
+
+    /**
+     * Request of all the events, which waits at a rank until a latch is
+     * released
+     */
+    private static class BlockingRequest extends TmfEventRequest {
+
+        private final CountDownLatch fReached = new CountDownLatch(1);
+        private final CountDownLatch fRelease = new CountDownLatch(1);
+
+        public BlockingRequest() {
+            super(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, ALL_DATA, ExecutionType.BACKGROUND);
+        }
+
+        @Override
+        public void handleData(ITmfEvent event) {
+            super.handleData(event);
+            if (event.getRank() == JOIN_RANK) {
+                fReached.countDown();
+                try {
+                    fRelease.await();
+                } catch (InterruptedException e) {
+                    cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Request of all the events that records the ranks it receives
+     */
+    private static class RecordingRequest extends TmfEventRequest {
+
+        private final boolean fOrderIndependent;
+        private final BitSet fRanks = new BitSet(NB_EVENTS);
+        private final AtomicInteger fNbDuplicates = new AtomicInteger();
+        private volatile long fFirstRank = -1;
+
+        public RecordingRequest(boolean orderIndependent) {
+            super(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, ALL_DATA, ExecutionType.BACKGROUND);
+            fOrderIndependent = orderIndependent;
+        }
+
+        @Override
+        public boolean isOrderIndependent() {
+            return fOrderIndependent;
+        }
+
+        @Override
+        public synchronized void handleData(ITmfEvent event) {
+            super.handleData(event);
+            int rank = (int) event.getRank();
+            if (fFirstRank < 0) {
+                fFirstRank = rank;
+            }
+            if (fRanks.get(rank)) {
+                fNbDuplicates.incrementAndGet();
+            }
+            fRanks.set(rank);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        fProvider = new EventProviderStub();
+    }
+
+    @After
+    public void tearDown() {
+        fProvider.dispose();
+    }
+
+    /**
+     * Test that an order independent request joins the running request: it
+     * receives all the events once, starting at the current position, and the
+     * events after it are read once for both requests
+     */
+    @Test
+    public void testJoinRunningRequest() throws InterruptedException {
+        BlockingRequest running = new BlockingRequest();
+        fProvider.sendRequest(running);
+        assertTrue(running.fReached.await(30, TimeUnit.SECONDS));
+
+        RecordingRequest joining = new RecordingRequest(true);
+        fProvider.sendRequest(joining);
+        running.fRelease.countDown();
+
+        running.waitForCompletion();
+        joining.waitForCompletion();
+
+        assertEquals(NB_EVENTS, running.getNbRead());
+        assertTrue(joining.isCompleted());
+        assertFalse(joining.isCancelled());
+        assertEquals(NB_EVENTS, joining.getNbRead());
+        assertEquals(NB_EVENTS, joining.fRanks.cardinality());
+        assertEquals(0, joining.fNbDuplicates.get());
+        assertEquals(JOIN_RANK + 1, joining.fFirstRank);
+        /* Only the events before the join are read twice */
+        assertEquals(NB_EVENTS + JOIN_RANK + 1, fProvider.fNbReads.get());
+    }
+
+    /**
+     * Test that a request that needs the events in order does not join the
+     * running request
+     */
+    @Test
+    public void testOrderedRequestDoesNotJoin() throws InterruptedException {
+        BlockingRequest running = new BlockingRequest();
+        fProvider.sendRequest(running);
+        assertTrue(running.fReached.await(30, TimeUnit.SECONDS));
+
+        RecordingRequest ordered = new RecordingRequest(false);
+        fProvider.sendRequest(ordered);
+        running.fRelease.countDown();
+
+        running.waitForCompletion();
+        ordered.waitForCompletion();
+
+        assertEquals(NB_EVENTS, ordered.getNbRead());
+        assertEquals(0, ordered.fFirstRank);
+        assertEquals(0, ordered.fNbDuplicates.get());
+        assertEquals(2 * NB_EVENTS, fProvider.fNbReads.get());
+    }
+
+    /**
+     * Test that a request that joined still receives all the events when the
+     * request it joined is cancelled
+     */
+    @Test
+    public void testCancelJoinedRequest() throws InterruptedException {
+        BlockingRequest running = new BlockingRequest();
+        fProvider.sendRequest(running);
+        assertTrue(running.fReached.await(30, TimeUnit.SECONDS));
+
+        RecordingRequest joining = new RecordingRequest(true);
+        fProvider.sendRequest(joining);
+        running.cancel();
+        running.fRelease.countDown();
+
+        joining.waitForCompletion();
+        assertTrue(running.isCancelled());
+        assertFalse(joining.isCancelled());
+        assertEquals(NB_EVENTS, joining.fRanks.cardinality());
+        assertEquals(0, joining.fNbDuplicates.get());
+    }
+}
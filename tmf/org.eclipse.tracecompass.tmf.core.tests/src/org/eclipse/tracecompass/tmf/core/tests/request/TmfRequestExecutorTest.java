@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.tracecompass.internal.tmf.core.component.TmfEventThread;
+import org.eclipse.tracecompass.internal.tmf.core.request.TmfRequestExecutor;
+import org.eclipse.tracecompass.tmf.core.component.TmfEventProvider;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test suite for the TmfRequestExecutor class.
+ */
+@SuppressWarnings("javadoc")
+public class TmfRequestExecutorTest {
+
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private static final int NB_EVENTS = 1000;
+
+    private TmfEventProvider fProvider;
+    private TmfRequestExecutor fExecutor;
+
+    /**
+     * Provider of NB_EVENTS events, each request reads them with its own
+     * context
+     */
+    private static class EventProviderStub extends TmfEventProvider {
+
+        public EventProviderStub() {
+            super("Provider", ITmfEvent.class);
+        }
+
+        @Override
+        public ITmfContext armRequest(ITmfEventRequest request) {
+            return new TmfContext(null, request.getIndex());
+        }
+
+        @Override
+        public ITmfEvent getNext(ITmfContext context) {
+            long rank = context.getRank();
+            if (rank >= NB_EVENTS) {
+                return null;
+            }
+            context.increaseRank();
+            return new TmfEvent(null, rank, TmfTimestamp.fromNanos(rank), null, null);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        fProvider = new EventProviderStub();
+        fExecutor = new TmfRequestExecutor(4);
+        fExecutor.init();
+    }
+
+    @After
+    public void tearDown() {
+        fExecutor.stop();
+        fProvider.dispose();
+    }
+
+    private void execute(ITmfEventRequest request) {
+        fExecutor.execute(new TmfEventThread(fProvider, request));
+    }
+
+    /**
+     * Test that several requests run at the same time: each request waits in
+     * its first event for all the others to start
+     */
+    @Test
+    public void testConcurrentRequests() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(4);
+        AtomicInteger nbTimeouts = new AtomicInteger();
+        List<TmfEventRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, 0, NB_EVENTS, ExecutionType.BACKGROUND) {
+                @Override
+                public void handleData(ITmfEvent event) {
+                    super.handleData(event);
+                    if (event.getRank() == 0) {
+                        started.countDown();
+                        try {
+                            if (!started.await(10, TimeUnit.SECONDS)) {
+                                nbTimeouts.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            nbTimeouts.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            requests.add(request);
+            execute(request);
+        }
+        for (TmfEventRequest request : requests) {
+            request.waitForCompletion();
+            assertEquals(NB_EVENTS, request.getNbRead());
+        }
+        assertEquals(0, nbTimeouts.get());
+        assertEquals(4, fExecutor.getMaxActiveRequests());
+        assertTrue(fExecutor.getNbScheduled() >= 4);
+    }
+
+    /**
+     * Test that more requests than the maximum are queued, then all complete
+     */
+    @Test
+    public void testQueuedRequests() throws InterruptedException {
+        List<TmfEventRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, 0, NB_EVENTS, i % 2 == 0 ? ExecutionType.FOREGROUND : ExecutionType.BACKGROUND) {
+                @Override
+                public void handleData(ITmfEvent event) {
+                    super.handleData(event);
+                    if (event.getRank() % 100 == 0) {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            cancel();
+                        }
+                    }
+                }
+            };
+            requests.add(request);
+            execute(request);
+        }
+        assertTrue(fExecutor.getActiveRequests() <= 4);
+        for (TmfEventRequest request : requests) {
+            request.waitForCompletion();
+            assertEquals(NB_EVENTS, request.getNbRead());
+            assertTrue(request.isCompleted());
+        }
+        assertEquals(0, fExecutor.getForegroundQueueDepth());
+        assertEquals(0, fExecutor.getBackgroundQueueDepth());
+        assertTrue(fExecutor.getNbScheduled() >= 20);
+        assertTrue(fExecutor.getMaxLatency() >= 0);
+    }
+
+    /**
+     * Test that the requests of a stopped executor are cancelled
+     */
+    @Test
+    public void testStop() {
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, 0, NB_EVENTS, ExecutionType.BACKGROUND) {
+        };
+        fExecutor.stop();
+        execute(request);
+        assertEquals(0, fExecutor.getActiveRequests());
+        assertTrue(fExecutor.isShutdown());
+        assertTrue(request.isCancelled());
+    }
+}
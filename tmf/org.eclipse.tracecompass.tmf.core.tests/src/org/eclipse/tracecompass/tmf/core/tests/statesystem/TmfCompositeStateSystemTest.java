@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.TmfCompositeStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.Test;
+
+/**
+ * Test the {@link TmfCompositeStateSystem}, the view of the state systems of
+ * the traces of an experiment
+ */
+public class TmfCompositeStateSystemTest {
+
+    private static final String SSID = "composite";
+
+    /**
+     * Build a state system with a "CPUs/<cpu>" attribute per CPU, whose value
+     * is the CPU number plus an offset at the start time, and the start time at
+     * the end time
+     */
+    private static ITmfStateSystem build(int nbCpus, long start, long end, int offset) {
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, start));
+        for (int cpu = 0; cpu < nbCpus; cpu++) {
+            int quark = ss.getQuarkAbsoluteAndAdd("CPUs", String.valueOf(cpu));
+            ss.modifyAttribute(start, cpu + offset, quark);
+            ss.modifyAttribute(end, (int) start, quark);
+        }
+        ss.closeHistory(end + 1);
+        return ss;
+    }
+
+    private static TmfCompositeStateSystem create() {
+        Map<String, ITmfStateSystem> stateSystems = new LinkedHashMap<>();
+        stateSystems.put("host1", build(2, 10, 100, 100));
+        stateSystems.put("empty", build(0, 10, 10, 0));
+        stateSystems.put("host2", build(3, 50, 200, 200));
+        return new TmfCompositeStateSystem(SSID, stateSystems);
+    }
+
+    /**
+     * Test the attribute tree of the composite state system
+     *
+     * @throws AttributeNotFoundException
+     *             If an attribute is not found
+     */
+    @Test
+    public void testAttributes() throws AttributeNotFoundException {
+        TmfCompositeStateSystem ss = create();
+        assertEquals(10, ss.getStartTime());
+        assertEquals(201, ss.getCurrentEndTime());
+        /* 3 roots, 3 attributes in host1 and 4 in host2 */
+        assertEquals(10, ss.getNbAttributes());
+        assertEquals(Arrays.asList(0, 1, 2), ss.getSubAttributes(ITmfStateSystem.ROOT_ATTRIBUTE, false));
+
+        int quark = ss.getQuarkAbsolute("host2", "CPUs", "1");
+        assertEquals("host2/CPUs/1", ss.getFullAttributePath(quark));
+        assertEquals("1", ss.getAttributeName(quark));
+        int cpus = ss.getParentAttributeQuark(quark);
+        assertEquals(ss.getQuarkAbsolute("host2", "CPUs"), cpus);
+        assertEquals(2, ss.getParentAttributeQuark(cpus));
+        assertEquals(ITmfStateSystem.ROOT_ATTRIBUTE, ss.getParentAttributeQuark(2));
+        assertEquals(quark, ss.getQuarkRelative(cpus, "1"));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, ss.optQuarkAbsolute("host3", "CPUs"));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, ss.optQuarkAbsolute("empty", "CPUs"));
+
+        assertEquals(5, ss.getQuarks("*", "CPUs", "*").size());
+        assertEquals(3, ss.getSubAttributes(2, true, "[0-9]").size());
+    }
+
+    /**
+     * Test the queries, inside and outside of the range of the state systems
+     *
+     * @throws StateSystemDisposedException
+     *             If a state system is disposed
+     * @throws AttributeNotFoundException
+     *             If an attribute is not found
+     */
+    @Test
+    public void testQueries() throws StateSystemDisposedException, AttributeNotFoundException {
+        TmfCompositeStateSystem ss = create();
+        int host1Cpu1 = ss.getQuarkAbsolute("host1", "CPUs", "1");
+        int host2Cpu2 = ss.getQuarkAbsolute("host2", "CPUs", "2");
+
+        List<ITmfStateInterval> full = ss.queryFullState(60);
+        assertEquals(ss.getNbAttributes(), full.size());
+        for (int quark = 0; quark < full.size(); quark++) {
+            assertEquals(quark, full.get(quark).getAttribute());
+        }
+        assertEquals(101, full.get(host1Cpu1).getValue());
+        assertEquals(202, full.get(host2Cpu2).getValue());
+
+        /* host2 starts at 50 */
+        ITmfStateInterval interval = ss.querySingleState(20, host2Cpu2);
+        assertNull(interval.getValue());
+        assertEquals(10, interval.getStartTime());
+        assertEquals(49, interval.getEndTime());
+        assertEquals(10, ss.querySingleState(100, host1Cpu1).getValue());
+        /* host1 ends at 101 */
+        interval = ss.querySingleState(150, host1Cpu1);
+        assertNull(interval.getValue());
+        assertEquals(102, interval.getStartTime());
+        assertEquals(201, interval.getEndTime());
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        ss.query2D(Arrays.asList(host1Cpu1, host2Cpu2), 20, 150).forEach(intervals::add);
+        /*
+         * 2 intervals of host1 and a null interval after it, a null interval
+         * before host2 and 1 interval of host2
+         */
+        assertEquals(5, intervals.size());
+        for (ITmfStateInterval i : intervals) {
+            assertTrue(i.getAttribute() == host1Cpu1 || i.getAttribute() == host2Cpu2);
+        }
+    }
+}
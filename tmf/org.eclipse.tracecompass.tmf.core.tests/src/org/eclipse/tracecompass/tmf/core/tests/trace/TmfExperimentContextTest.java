@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfExperimentContext;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfExperimentContext.ContextTuple;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfExperimentLocation;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfLocationArray;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
+import org.junit.Test;
+
+/**
+ * Test the merge of the events of the traces by {@link TmfExperimentContext}
+ */
+@SuppressWarnings("javadoc")
+public class TmfExperimentContextTest {
+
+    private static ITmfEvent event(long time) {
+        return new TmfEvent(null, ITmfContext.UNKNOWN_RANK, TmfTimestamp.fromNanos(time), null, null);
+    }
+
+    /**
+     * Merge the events of many traces, some of them empty, and with events at
+     * the same time in different traces
+     */
+    @Test
+    public void testMerge() {
+        for (int nbTraces : new int[] { 1, 2, 3, 37, 500 }) {
+            Random random = new Random(nbTraces);
+            List<List<Long>> traces = new ArrayList<>();
+            List<long[]> expected = new ArrayList<>();
+            for (int i = 0; i < nbTraces; i++) {
+                List<Long> times = new ArrayList<>();
+                int nbEvents = (i % 5 == 4) ? 0 : random.nextInt(50);
+                for (int j = 0; j < nbEvents; j++) {
+                    long time = random.nextInt(1000);
+                    times.add(time);
+                    expected.add(new long[] { time, i });
+                }
+                Collections.sort(times);
+                traces.add(times);
+            }
+            expected.sort((a, b) -> (a[0] != b[0]) ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+            TmfExperimentContext context = new TmfExperimentContext(nbTraces);
+            List<Iterator<Long>> iterators = new ArrayList<>();
+            for (int i = 0; i < nbTraces; i++) {
+                Iterator<Long> iterator = traces.get(i).iterator();
+                iterators.add(iterator);
+                context.setContent(i, new TmfContext(), iterator.hasNext() ? event(iterator.next()) : null);
+            }
+            for (long[] next : expected) {
+                ContextTuple tuple = context.getNext();
+                assertEquals(next[0], tuple.getEvent().getTimestamp().toNanos());
+                assertEquals(next[1], tuple.getIndex());
+                Iterator<Long> iterator = iterators.get(tuple.getIndex());
+                /* Traces without more events are not set again */
+                if (iterator.hasNext()) {
+                    context.setContent(tuple.getIndex(), tuple.getContext(), event(iterator.next()));
+                }
+            }
+            assertNull(context.getNext());
+        }
+    }
+
+    /**
+     * Set the event of a trace that was not consumed
+     */
+    @Test
+    public void testSetOtherTrace() {
+        TmfExperimentContext context = new TmfExperimentContext(3);
+        context.setContent(0, new TmfContext(), event(10));
+        context.setContent(1, new TmfContext(), event(20));
+        context.setContent(2, new TmfContext(), event(30));
+        ContextTuple tuple = context.getNext();
+        assertEquals(0, tuple.getIndex());
+        context.setContent(2, new TmfContext(), event(5));
+        assertEquals(2, context.getNext().getIndex());
+        assertEquals(1, context.getNext().getIndex());
+        assertNull(context.getNext());
+    }
+
+    /**
+     * Update the location of a trace in the context
+     */
+    @Test
+    public void testUpdateLocation() {
+        TmfExperimentContext context = new TmfExperimentContext(2);
+        assertFalse(context.updateLocation(0, new TmfLongLocation(1L), 1));
+
+        ITmfLocation[] locations = { new TmfLongLocation(0L), new TmfLongLocation(0L) };
+        TmfExperimentLocation initial = new TmfExperimentLocation(new TmfLocationArray(locations, new long[2]));
+        context.setLocation(initial);
+        assertTrue(context.updateLocation(1, new TmfLongLocation(42L), 3));
+        ITmfLocation location = context.getLocation();
+        assertNotEquals(initial, location);
+        TmfLocationArray array = ((TmfExperimentLocation) location).getLocationInfo();
+        assertEquals(new TmfLongLocation(0L), array.getLocation(0));
+        assertEquals(new TmfLongLocation(42L), array.getLocation(1));
+        assertEquals(3, array.getRank(1));
+
+        /* The returned location is not changed by the next updates */
+        assertTrue(context.updateLocation(0, new TmfLongLocation(7L), 1));
+        assertEquals(new TmfLongLocation(0L), array.getLocation(0));
+        assertEquals(new TmfLongLocation(7L), ((TmfExperimentLocation) context.getLocation()).getLocationInfo().getLocation(0));
+        assertEquals(0, initial.getLocationInfo().getRank(1));
+    }
+}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.trace.indexer.checkpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TmfParallelIndexBuilder;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpointIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.core.trace.text.TextTrace;
+import org.eclipse.tracecompass.tmf.core.trace.text.TextTraceEvent;
+import org.eclipse.tracecompass.tmf.core.trace.text.TextTraceEventContent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the parallel indexing of a text trace, the index should be the same as
+ * the index built by reading the trace sequentially
+ */
+@SuppressWarnings("javadoc")
+public class TmfParallelIndexTest {
+
+    private static final int NB_EVENTS = 150000;
+    private static final int INTERVAL = 1000;
+
+    private File fFile;
+    private LineTrace fTrace;
+
+    /**
+     * Text trace of lines starting with a timestamp, the other lines are part
+     * of the previous event
+     */
+    private static class LineTrace extends TextTrace<TextTraceEvent> {
+
+        private static final Pattern FIRST_LINE = Pattern.compile("(\\d+) (.*)");
+
+        private final boolean fParallel;
+
+        public LineTrace(boolean parallel) {
+            fParallel = parallel;
+        }
+
+        @Override
+        public boolean isParallelIndexable() {
+            return fParallel || super.isParallelIndexable();
+        }
+
+        @Override
+        protected Pattern getFirstLinePattern() {
+            return FIRST_LINE;
+        }
+
+        @Override
+        protected TextTraceEvent parseFirstLine(Matcher matcher, String line) {
+            return new TextTraceEvent(this, TmfTimestamp.fromNanos(Long.parseLong(matcher.group(1))), new TmfEventType("line", null), new TextTraceEventContent(0)) {
+            };
+        }
+
+        @Override
+        protected void parseNextLine(TextTraceEvent event, String line) {
+            // Nothing to parse
+        }
+
+        @Override
+        protected ITmfTraceIndexer createIndexer(int interval) {
+            return new TmfCheckpointIndexer(this, INTERVAL);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException, TmfTraceException {
+        fFile = File.createTempFile("parallelIndex", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(fFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("header line\n");
+            for (int i = 0; i < NB_EVENTS; i++) {
+                writer.write((1000L + i * 10L) + " event " + i + "\n");
+                if (i % 7 == 0) {
+                    writer.write("  continuation of event " + i + "\n");
+                }
+            }
+        }
+        fTrace = new LineTrace(true);
+        fTrace.initTrace(null, fFile.getAbsolutePath(), TextTraceEvent.class);
+    }
+
+    @After
+    public void tearDown() {
+        fTrace.dispose();
+        fFile.delete();
+    }
+
+    /**
+     * Test that the checkpoints of the parallel build are at the same
+     * locations as the events read sequentially
+     */
+    @Test
+    public void testBuilder() throws IOException {
+        for (int interval : new int[] { INTERVAL, 100, 16384 }) {
+            List<ITmfLocation> locations = new ArrayList<>();
+            List<Long> timestamps = new ArrayList<>();
+            ITmfContext context = fTrace.seekEvent((ITmfLocation) null);
+            context.setRank(0);
+            long rank = 0;
+            ITmfLocation location = context.getLocation();
+            ITmfEvent event = fTrace.getNext(context);
+            while (event != null) {
+                if (rank % interval == 0) {
+                    locations.add(location);
+                    timestamps.add(event.getTimestamp().toNanos());
+                }
+                rank++;
+                location = context.getLocation();
+                event = fTrace.getNext(context);
+            }
+            assertEquals(NB_EVENTS, rank);
+
+            TmfParallelIndexBuilder builder = new TmfParallelIndexBuilder(fTrace, interval, 4);
+            TmfParallelIndexBuilder.Result result = builder.build();
+            assertNotNull(result);
+            assertEquals(NB_EVENTS, result.getNbEvents());
+            TmfTimeRange range = result.getTimeRange();
+            assertNotNull(range);
+            assertEquals(1000L, range.getStartTime().toNanos());
+            assertEquals(1000L + (NB_EVENTS - 1) * 10L, range.getEndTime().toNanos());
+            List<ITmfCheckpoint> checkpoints = result.getCheckpoints();
+            assertEquals(locations.size(), checkpoints.size());
+            for (int i = 0; i < checkpoints.size(); i++) {
+                ITmfCheckpoint checkpoint = checkpoints.get(i);
+                assertEquals(i, checkpoint.getCheckpointRank());
+                assertEquals(locations.get(i), checkpoint.getLocation());
+                assertEquals((long) timestamps.get(i), checkpoint.getTimestamp().toNanos());
+            }
+        }
+    }
+
+    /**
+     * Test that the chunks are reported in order as they are indexed, with the
+     * events of the previous chunks
+     */
+    @Test
+    public void testListener() throws IOException {
+        List<ITmfCheckpoint> reported = new ArrayList<>();
+        List<Long> nbEvents = new ArrayList<>();
+        TmfParallelIndexBuilder builder = new TmfParallelIndexBuilder(fTrace, INTERVAL, 4, (checkpoints, nb, range) -> {
+            assertNotNull(range);
+            assertEquals(1000L, range.getStartTime().toNanos());
+            assertEquals(1000L + (nb - 1) * 10L, range.getEndTime().toNanos());
+            reported.addAll(checkpoints);
+            nbEvents.add(nb);
+        });
+        TmfParallelIndexBuilder.Result result = builder.build();
+        assertNotNull(result);
+        assertTrue(nbEvents.size() > 1);
+        for (int i = 1; i < nbEvents.size(); i++) {
+            assertTrue(nbEvents.get(i) >= nbEvents.get(i - 1));
+        }
+        assertEquals(NB_EVENTS, (long) nbEvents.get(nbEvents.size() - 1));
+        assertEquals(result.getCheckpoints(), reported);
+    }
+
+    /**
+     * Test that a text trace is not indexed in parallel unless it says so
+     */
+    @Test
+    public void testNotParallelByDefault() throws TmfTraceException {
+        LineTrace trace = new LineTrace(false);
+        try {
+            assertFalse(trace.isParallelIndexable());
+            trace.initTrace(null, fFile.getAbsolutePath(), TextTraceEvent.class);
+            trace.indexTrace(true);
+            assertEquals(NB_EVENTS, trace.getNbEvents());
+            ITmfContext context = trace.seekEvent(12345L);
+            ITmfEvent event = trace.getNext(context);
+            assertNotNull(event);
+            assertEquals(1000L + 12345L * 10L, event.getTimestamp().toNanos());
+        } finally {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test that the trace is indexed in parallel and that the events can be
+     * found by rank and time
+     */
+    @Test
+    public void testIndexTrace() {
+        assertTrue(fTrace.getChunkLocations(4).size() > 1);
+        fTrace.indexTrace(true);
+        assertEquals(NB_EVENTS, fTrace.getNbEvents());
+        assertEquals(1000L, fTrace.getStartTime().toNanos());
+        assertEquals(1000L + (NB_EVENTS - 1) * 10L, fTrace.getEndTime().toNanos());
+        for (long rank : new long[] { 0, 1, INTERVAL - 1, INTERVAL, 12345, 77777, NB_EVENTS - 1 }) {
+            ITmfContext context = fTrace.seekEvent(rank);
+            ITmfEvent event = fTrace.getNext(context);
+            assertNotNull(event);
+            assertEquals(1000L + rank * 10L, event.getTimestamp().toNanos());
+            context = fTrace.seekEvent(TmfTimestamp.fromNanos(1000L + rank * 10L));
+            assertEquals(rank, context.getRank());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.request;
+
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+
+/**
+ * Request that reads the events that an order independent request missed
+ * because it joined a running {@link TmfCoalescedEventRequest}: the events
+ * from the start of the trace to the rank of the first event it received. The
+ * events are forwarded to the request, which is done when this request is.
+ */
+class MissedEventsRequest extends TmfEventRequest {
+
+    private final ITmfEventRequest fRequest;
+
+    /**
+     * Constructor
+     *
+     * @param request
+     *            The request that joined the running request
+     * @param startRank
+     *            The rank of the first event the request received
+     */
+    public MissedEventsRequest(ITmfEventRequest request, long startRank) {
+        super(request.getDataType(),
+                request.getRange(),
+                0,
+                (int) Math.min(startRank, ITmfEventRequest.ALL_DATA),
+                request.getExecType(),
+                request.getDependencyLevel());
+        fRequest = request;
+        setProviderFilter(request.getProviderFilter());
+    }
+
+    @Override
+    public void handleData(ITmfEvent event) {
+        super.handleData(event);
+        if (fRequest.isCompleted()) {
+            cancel();
+            return;
+        }
+        if (fRequest.getProviderFilter().matches(event)) {
+            fRequest.handleData(event);
+        }
+    }
+
+    @Override
+    public synchronized void done() {
+        super.done();
+        if (fRequest.isCompleted()) {
+            return;
+        }
+        if (isFailed()) {
+            Throwable cause = getFailureCause();
+            fRequest.fail(cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause));
+        } else if (isCancelled()) {
+            fRequest.cancel();
+        } else {
+            fRequest.done();
+        }
+    }
+}
@@ -22,14 +22,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
 import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
+import org.eclipse.tracecompass.tmf.core.component.ITmfEventProvider;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 
 /**
  * The TMF coalesced event request
@@ -56,6 +60,30 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
      */
     private Map<String, Set<ITmfEventRequest>> fRequestsCache = new HashMap<>();
 
+    /**
+     * The order independent requests that joined this request while it was
+     * running, they start receiving the events with the next one
+     */
+    private final ConcurrentLinkedQueue<JoinedRequest> fJoiningRequests = new ConcurrentLinkedQueue<>();
+
+    /** The order independent requests that receive the events */
+    private final List<JoinedRequest> fJoinedRequests = new CopyOnWriteArrayList<>();
+
+    /**
+     * A request that joined this one, with the rank of the first event it
+     * received and the provider to read the events it missed
+     */
+    private static final class JoinedRequest {
+        private final ITmfEventRequest fRequest;
+        private final ITmfEventProvider fProvider;
+        private long fStartRank = 0;
+
+        public JoinedRequest(ITmfEventRequest request, ITmfEventProvider provider) {
+            fRequest = request;
+            fProvider = provider;
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Constructor
     // ------------------------------------------------------------------------
@@ -146,6 +174,59 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
     }
 
+    /**
+     * Make an order independent request join this request while it is
+     * running. The request receives the events of this request from the
+     * current position, then, when this request is done, the events it missed
+     * are read by a new request sent to the provider.
+     * <p>
+     * A request can join if it has the same priority and dependency level,
+     * and if both requests read all the events from the start of the trace,
+     * so that the events it missed are the ones before the current rank.
+     *
+     * @param request
+     *            The order independent request
+     * @param provider
+     *            The provider to which to send the request that reads the
+     *            missed events
+     * @return true if the request joined this one, false if it must be sent
+     *         separately
+     */
+    public synchronized boolean join(ITmfEventRequest request, ITmfEventProvider provider) {
+        if (!request.isOrderIndependent() || isCompleted() ||
+                request.getExecType() != getExecType() ||
+                request.getDependencyLevel() != getDependencyLevel() ||
+                !readsAllEvents(request) || !readsAllEvents(this) ||
+                request.getRange().getEndTime().compareTo(fRange.getEndTime()) > 0) {
+            return false;
+        }
+        fJoiningRequests.add(new JoinedRequest(request, provider));
+        return true;
+    }
+
+    private static boolean readsAllEvents(ITmfEventRequest request) {
+        return request.getIndex() == 0 &&
+                request.getNbRequested() == ITmfEventRequest.ALL_DATA &&
+                request.getRange().getStartTime().equals(TmfTimestamp.BIG_BANG);
+    }
+
+    /**
+     * Start the requests that joined since the last event, the caller must
+     * hold the lock of this request
+     *
+     * @param rank
+     *            The rank of the first event they receive
+     */
+    private void startJoiningRequests(long rank) {
+        JoinedRequest joined = fJoiningRequests.poll();
+        while (joined != null) {
+            joined.fStartRank = rank;
+            joined.fRequest.start();
+            fJoinedRequests.add(joined);
+            joined = fJoiningRequests.poll();
+        }
+    }
+
     private boolean ranksOverlap(ITmfEventRequest request) {
         long start = request.getIndex();
         long end = start + request.getNbRequested();
@@ -215,6 +296,12 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
         long index = getIndex() + getNbRead() - 1;
 
+        if (!fJoiningRequests.isEmpty()) {
+            synchronized (this) {
+                startJoiningRequests(index);
+            }
+        }
+
         String traceName = data.getTrace().getName();
         Set<ITmfEventRequest> requests = fRequestsCache.get(traceName);
 
@@ -233,24 +320,35 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
         for (ITmfEventRequest request : requests) {
             long start = request.getIndex();
             if (!request.isCompleted() && index >= start && request.getNbRead() < request.getNbRequested()) {
-                ITmfTimestamp ts = data.getTimestamp();
-                if (request.getRange().contains(ts)) {
-                    if (request.getDataType().isInstance(data)) {
-                        try {
-                            request.handleData(data);
-                        } catch (Exception e) {
-                            /*
-                             * We don't usually catch all exception, but here it
-                             * is important because this will cause the request
-                             * thread to hang forever and the other requests to
-                             * be stopped. This should properly cancel the
-                             * request with the exception and let the rest
-                             * continue.
-                             */
-                            Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
-                            request.fail(e);
-                        }
-                    }
+                dispatch(request, data);
+            }
+        }
+
+        // dispatch the same event to the requests that joined
+        for (JoinedRequest joined : fJoinedRequests) {
+            ITmfEventRequest request = joined.fRequest;
+            if (!request.isCompleted() && request.getProviderFilter().matches(data)) {
+                dispatch(request, data);
+            }
+        }
+    }
+
+    private static void dispatch(ITmfEventRequest request, ITmfEvent data) {
+        ITmfTimestamp ts = data.getTimestamp();
+        if (request.getRange().contains(ts)) {
+            if (request.getDataType().isInstance(data)) {
+                try {
+                    request.handleData(data);
+                } catch (Exception e) {
+                    /*
+                     * We don't usually catch all exception, but here it is
+                     * important because this will cause the request thread
+                     * to hang forever and the other requests to be stopped.
+                     * This should properly cancel the request with the
+                     * exception and let the rest continue.
+                     */
+                    Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
+                    request.fail(e);
                 }
             }
         }
@@ -267,13 +365,38 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
     }
 
     @Override
-    public synchronized void done() {
-        for (ITmfEventRequest request : fRequests) {
-            if (!request.isCompleted()) {
-                request.done();
+    public void done() {
+        synchronized (this) {
+            for (ITmfEventRequest request : fRequests) {
+                if (!request.isCompleted()) {
+                    request.done();
+                }
+            }
+            // The requests that did not receive any event miss them all
+            startJoiningRequests(getIndex() + getNbRead());
+            super.done();
+        }
+        /*
+         * Read the events that the joined requests missed outside of the lock,
+         * since sending a request locks the provider.
+         */
+        for (JoinedRequest joined : fJoinedRequests) {
+            if (!joined.fRequest.isCompleted()) {
+                readMissedEvents(joined);
             }
         }
-        super.done();
+    }
+
+    private static void readMissedEvents(JoinedRequest joined) {
+        ITmfEventRequest request = joined.fRequest;
+        if (joined.fStartRank <= 0) {
+            request.done();
+            return;
+        }
+        if (TmfCoreTracer.isRequestTraced()) {
+            TmfCoreTracer.traceRequest(request.getRequestId(), "reading the events before rank " + joined.fStartRank); //$NON-NLS-1$
+        }
+        joined.fProvider.sendRequest(new MissedEventsRequest(request, joined.fStartRank));
     }
 
     @Override
@@ -281,6 +404,9 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
         for (ITmfEventRequest request : fRequests) {
             request.fail(e);
         }
+        for (ITmfEventRequest request : getJoinedRequests()) {
+            request.fail(e);
+        }
         super.fail(e);
     }
 
@@ -291,9 +417,29 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
                 request.cancel();
             }
         }
+        for (ITmfEventRequest request : getJoinedRequests()) {
+            if (!request.isCompleted()) {
+                request.cancel();
+            }
+        }
         super.cancel();
     }
 
+    /**
+     * Get the requests that joined this one, including the ones that did not
+     * receive an event yet
+     */
+    private List<ITmfEventRequest> getJoinedRequests() {
+        List<ITmfEventRequest> requests = new ArrayList<>();
+        for (JoinedRequest joined : fJoinedRequests) {
+            requests.add(joined.fRequest);
+        }
+        for (JoinedRequest joined : fJoiningRequests) {
+            requests.add(joined.fRequest);
+        }
+        return requests;
+    }
+
     @Override
     public synchronized boolean isCompleted() {
         // Firstly, check if coalescing request is completed
@@ -301,6 +447,13 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
             return true;
         }
 
+        // The events must still be read for the requests that joined
+        for (ITmfEventRequest request : getJoinedRequests()) {
+            if (!request.isCompleted()) {
+                return false;
+            }
+        }
+
         // Secondly, check if all sub-requests are finished
         if (!fRequests.isEmpty()) {
             // If all sub requests are completed the coalesced request is
@@ -324,6 +477,12 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
             return true;
         }
 
+        for (ITmfEventRequest request : getJoinedRequests()) {
+            if (!request.isCancelled()) {
+                return false;
+            }
+        }
+
         // Secondly, check if all sub-requests are canceled
         if (!fRequests.isEmpty()) {
             // If all sub requests are canceled the coalesced request is
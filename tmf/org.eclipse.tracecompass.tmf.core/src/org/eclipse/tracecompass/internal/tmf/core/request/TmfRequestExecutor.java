@@ -18,17 +18,22 @@ package org.eclipse.tracecompass.internal.tmf.core.request;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.FlowScopeLog;
@@ -45,9 +50,15 @@ import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
  * Example: if we have one foreground and one background request, the foreground
  * request will be executed four times more often than the background request.
  *
+ * Several requests are executed at the same time, each in its own thread with
+ * its own context, up to a maximum which is by default the number of
+ * processors. When all the requests cannot run, the requests that ran the
+ * longest, background requests first, are suspended at each time slot to let
+ * the waiting requests run.
+ *
  * @author Francois Chouinard
  * @author Simon Delisle
- * @version 1.1
+ * @version 1.2
  */
 public class TmfRequestExecutor implements Executor {
 
@@ -69,26 +80,46 @@ public class TmfRequestExecutor implements Executor {
     private final ExecutorService fExecutor = Executors.newCachedThreadPool();
     private final String fExecutorName;
 
+    // The maximum number of requests running at the same time
+    private final int fMaxActiveTasks;
+
     // The request queues
-    private final Queue<TmfEventThread> fForegroundTasks = new ArrayBlockingQueue<>(10);
-    private final Queue<TmfEventThread> fBackgroundTasks = new ArrayBlockingQueue<>(10);
+    private final Queue<RequestTask> fForegroundTasks = new ArrayDeque<>();
+    private final Queue<RequestTask> fBackgroundTasks = new ArrayDeque<>();
 
-    // The tasks
-    private TmfEventThread fActiveTask;
+    // The tasks, in the order they were started or resumed
+    private final List<RequestTask> fActiveTasks = new ArrayList<>();
 
     private Timer fTimer;
     private TimerTask fTimerTask;
 
     private int fForegroundCycle = 0;
 
+    // The metrics, the latency is the time between queuing and running a task
+    private long fNbScheduled = 0;
+    private long fTotalLatency = 0;
+    private long fMaxLatency = 0;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
 
     /**
-     * Default constructor
+     * Default constructor, which runs as many requests at the same time as
+     * there are processors
      */
     public TmfRequestExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxActiveRequests
+     *            The maximum number of requests running at the same time
+     */
+    public TmfRequestExecutor(int maxActiveRequests) {
+        fMaxActiveTasks = Math.max(1, maxActiveRequests);
         // We know the canonical name is not null because we use ExecutorService
         // only
         String canonicalName = checkNotNull(fExecutor.getClass().getCanonicalName());
@@ -116,6 +147,59 @@ public class TmfRequestExecutor implements Executor {
         return fExecutor.isTerminated();
     }
 
+    /**
+     * @return the maximum number of requests running at the same time
+     */
+    public int getMaxActiveRequests() {
+        return fMaxActiveTasks;
+    }
+
+    /**
+     * @return the number of requests currently running
+     */
+    public synchronized int getActiveRequests() {
+        return fActiveTasks.size();
+    }
+
+    /**
+     * @return the number of foreground requests waiting to run, new or
+     *         suspended
+     */
+    public synchronized int getForegroundQueueDepth() {
+        return fForegroundTasks.size();
+    }
+
+    /**
+     * @return the number of background requests waiting to run, new or
+     *         suspended
+     */
+    public synchronized int getBackgroundQueueDepth() {
+        return fBackgroundTasks.size();
+    }
+
+    /**
+     * @return the number of times a request was started or resumed
+     */
+    public synchronized long getNbScheduled() {
+        return fNbScheduled;
+    }
+
+    /**
+     * @return the average time a request waited in the queues before being
+     *         started or resumed, in milliseconds
+     */
+    public synchronized double getAverageLatency() {
+        return fNbScheduled == 0 ? 0.0 : (double) fTotalLatency / fNbScheduled / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the longest time a request waited in the queues before being
+     *         started or resumed, in milliseconds
+     */
+    public synchronized long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(fMaxLatency);
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -145,28 +229,41 @@ public class TmfRequestExecutor implements Executor {
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:CreatingThread").setCategory(LOG_CATEGORY).build()) { //$NON-NLS-1$
             // Wrap the thread in a MyThread
             TmfEventThread thread = (TmfEventThread) command;
-            TmfEventThread wrapper = new TmfEventThread(thread) {
-                @Override
-                public void run() {
-                    try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:RunningRequest", "thread", thread.getThread(), "execution type", thread.getExecType()).setParentScope(scope).build()) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                        thread.run();
-                    } finally {
-                        scheduleNext();
-                    }
-                }
-            };
-
-            // Add the thread to the appropriate queue
-            ExecutionType priority = thread.getExecType();
-
-            if (priority == ExecutionType.FOREGROUND) {
-                if (!fForegroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
-            } else {
-                if (!fBackgroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
+            if (isShutdown()) {
+                thread.cancel();
+                return;
+            }
+            RequestTask wrapper = new RequestTask(thread, scope);
+
+            // Add the thread to the appropriate queue, and run it if there is
+            // a free slot
+            enqueue(wrapper);
+            schedule();
+        }
+    }
+
+    /**
+     * The wrapper of the event threads, which schedules the next requests when
+     * its request is completed
+     */
+    private class RequestTask extends TmfEventThread {
+
+        private final TmfEventThread fWrapped;
+        private final FlowScopeLog fScope;
+        private long fQueuedTime;
+
+        RequestTask(TmfEventThread thread, FlowScopeLog scope) {
+            super(thread);
+            fWrapped = thread;
+            fScope = scope;
+        }
+
+        @Override
+        public void run() {
+            try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:RunningRequest", "thread", fWrapped, "execution type", fWrapped.getExecType()).setParentScope(fScope).build()) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                fWrapped.run();
+            } finally {
+                scheduleNext();
             }
         }
     }
@@ -186,43 +283,24 @@ public class TmfRequestExecutor implements Executor {
     }
 
     /**
-     * Executes the next pending request, if applicable.
+     * Executes the next pending requests, if applicable. If all the requests
+     * cannot run, the requests that ran the longest are suspended and queued
+     * again.
      */
     protected synchronized void scheduleNext() {
-        if (!isShutdown()) {
-            if (fActiveTask == null) {
-                schedule();
-            } else if (fActiveTask.getExecType() == ExecutionType.FOREGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fForegroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
-                }
-
-            } else if (fActiveTask.getExecType() == ExecutionType.BACKGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fBackgroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
-                }
-            }
+        if (isShutdown()) {
+            return;
+        }
+        fActiveTasks.removeIf(task -> task.getThread().isCompleted());
+
+        int nbToSuspend = Math.min(fActiveTasks.size() + getQueueDepth() - fMaxActiveTasks, getQueueDepth());
+        if (nbToSuspend > 0) {
+            suspend(nbToSuspend, ExecutionType.BACKGROUND);
+            suspend(nbToSuspend - (fMaxActiveTasks - fActiveTasks.size()), ExecutionType.FOREGROUND);
         }
+        schedule();
+        TraceCompassLogUtils.traceCounter(LOGGER, Level.FINEST, "RequestExecutor:Queues", //$NON-NLS-1$
+                "active", fActiveTasks.size(), "foreground", fForegroundTasks.size(), "background", fBackgroundTasks.size()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
 
     /**
@@ -237,15 +315,17 @@ public class TmfRequestExecutor implements Executor {
             fTimer.cancel();
         }
 
-        if (fActiveTask != null) {
-            fActiveTask.cancel();
+        for (RequestTask task : fActiveTasks) {
+            task.cancel();
         }
+        fActiveTasks.clear();
 
-        while ((fActiveTask = fForegroundTasks.poll()) != null) {
-            fActiveTask.cancel();
+        RequestTask task;
+        while ((task = fForegroundTasks.poll()) != null) {
+            task.cancel();
         }
-        while ((fActiveTask = fBackgroundTasks.poll()) != null) {
-            fActiveTask.cancel();
+        while ((task = fBackgroundTasks.poll()) != null) {
+            task.cancel();
         }
 
         fExecutor.shutdown();
@@ -259,58 +339,82 @@ public class TmfRequestExecutor implements Executor {
     // ------------------------------------------------------------------------
 
     /**
-     * Determine which type of request (foreground or background) we schedule
-     * next
+     * Add a task to the queue of its priority
      */
-    private void schedule() {
-        if (!fForegroundTasks.isEmpty()) {
-            scheduleNextForeground();
+    private void enqueue(RequestTask task) {
+        task.fQueuedTime = System.nanoTime();
+        if (task.getExecType() == ExecutionType.FOREGROUND) {
+            fForegroundTasks.add(task);
         } else {
-            scheduleNextBackground();
+            fBackgroundTasks.add(task);
         }
     }
 
     /**
-     * Schedule the next foreground request
+     * Suspend the active tasks of a type that ran the longest and queue them
+     * again, so that the next time slot goes to the waiting tasks
      */
-    private void scheduleNextForeground() {
-        if (fForegroundCycle < FOREGROUND_SLOT || fBackgroundTasks.isEmpty()) {
-            ++fForegroundCycle;
-            fActiveTask = fForegroundTasks.poll();
-            executefActiveTask();
-        } else {
-            fActiveTask = null;
-            scheduleNextBackground();
+    private void suspend(int nbToSuspend, ExecutionType type) {
+        int nbSuspended = 0;
+        Iterator<RequestTask> iterator = fActiveTasks.iterator();
+        while (nbSuspended < nbToSuspend && iterator.hasNext()) {
+            RequestTask task = iterator.next();
+            if (task.getExecType() == type) {
+                task.getThread().suspend();
+                iterator.remove();
+                enqueue(task);
+                nbSuspended++;
+            }
         }
     }
 
     /**
-     * Schedule the next background request
+     * Execute the next tasks in the free slots, foreground or background
      */
-    private void scheduleNextBackground() {
-        fForegroundCycle = 0;
-        if (!fBackgroundTasks.isEmpty()) {
-            fActiveTask = fBackgroundTasks.poll();
-            executefActiveTask();
+    private void schedule() {
+        while (fActiveTasks.size() < fMaxActiveTasks) {
+            RequestTask task = pollNext();
+            if (task == null) {
+                return;
+            }
+            long latency = System.nanoTime() - task.fQueuedTime;
+            fNbScheduled++;
+            fTotalLatency += latency;
+            fMaxLatency = Math.max(fMaxLatency, latency);
+            fActiveTasks.add(task);
+            executeTask(task);
         }
     }
 
     /**
-     * Execute or resume the active task
+     * Determine which type of request (foreground or background) we schedule
+     * next
+     */
+    private @Nullable RequestTask pollNext() {
+        if (!fForegroundTasks.isEmpty() && (fForegroundCycle < FOREGROUND_SLOT || fBackgroundTasks.isEmpty())) {
+            ++fForegroundCycle;
+            return fForegroundTasks.poll();
+        }
+        fForegroundCycle = 0;
+        return fBackgroundTasks.poll();
+    }
+
+    /**
+     * Execute or resume a task
      */
-    private void executefActiveTask() {
-        if (fActiveTask.getThread().isPaused()) {
-            fActiveTask.getThread().resume();
+    private void executeTask(RequestTask task) {
+        if (task.getThread().isPaused()) {
+            task.getThread().resume();
         } else {
-            fExecutor.execute(fActiveTask);
+            fExecutor.execute(task);
         }
     }
 
     /**
-     * Check if the scheduler has tasks
+     * Get the number of tasks waiting to run
      */
-    private boolean hasTasks() {
-        return !(fForegroundTasks.isEmpty() && fBackgroundTasks.isEmpty());
+    private int getQueueDepth() {
+        return fForegroundTasks.size() + fBackgroundTasks.size();
     }
 
     // ------------------------------------------------------------------------
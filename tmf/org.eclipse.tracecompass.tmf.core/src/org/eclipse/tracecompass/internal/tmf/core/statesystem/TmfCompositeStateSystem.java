@@ -0,0 +1,517 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.statesystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.collect.Iterables;
+
+/**
+ * Read-only view of several state systems as a single state system. Each state
+ * system is mounted under a root attribute, named after the trace it was built
+ * from for example, so the path of an attribute in the composite state system
+ * is its path in its state system, prefixed by the name of the state system.
+ * <p>
+ * The quarks of the root attributes are 0 to n - 1, followed by the quarks of
+ * each state system in order, shifted by the number of quarks before them. The
+ * state systems must be built, so that their number of attributes does not
+ * change. Outside of the time range of a state system, its attributes have a
+ * null value.
+ * <p>
+ * The state systems belong to the analyses that built them, so they are not
+ * disposed with the composite state system.
+ */
+public class TmfCompositeStateSystem implements ITmfStateSystem {
+
+    private static final String PARENT = ".."; //$NON-NLS-1$
+    private static final String WILDCARD = "*"; //$NON-NLS-1$
+
+    private final String fId;
+    private final List<String> fNames = new ArrayList<>();
+    private final List<ITmfStateSystem> fStateSystems = new ArrayList<>();
+    /**
+     * The composite quark of the quark 0 of each state system, followed by the
+     * number of attributes of the composite state system
+     */
+    private final int[] fOffsets;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            The ID of the composite state system
+     * @param stateSystems
+     *            The built state systems, by name of their root attribute, in
+     *            the order of the root attributes
+     */
+    public TmfCompositeStateSystem(String id, Map<String, ITmfStateSystem> stateSystems) {
+        fId = id;
+        fOffsets = new int[stateSystems.size() + 1];
+        int offset = stateSystems.size();
+        int i = 0;
+        for (Entry<String, ITmfStateSystem> entry : stateSystems.entrySet()) {
+            fNames.add(entry.getKey());
+            fStateSystems.add(entry.getValue());
+            fOffsets[i++] = offset;
+            offset += entry.getValue().getNbAttributes();
+        }
+        fOffsets[i] = offset;
+    }
+
+    // ------------------------------------------------------------------------
+    // Quark mapping
+    // ------------------------------------------------------------------------
+
+    private boolean isRoot(int quark) {
+        return quark >= 0 && quark < fStateSystems.size();
+    }
+
+    /**
+     * Get the index of the state system of a quark that is not a root
+     * attribute
+     */
+    private int getIndex(int quark) {
+        if (quark < fStateSystems.size() || quark >= getNbAttributes()) {
+            throw new IndexOutOfBoundsException("Invalid quark " + quark + " for state system " + fId); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        /* The last state system whose first quark is at or before this one */
+        int low = 0;
+        int high = fStateSystems.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (fOffsets[mid] <= quark) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int toComposite(int index, int quark) {
+        if (quark == ROOT_ATTRIBUTE) {
+            return index;
+        }
+        if (quark == INVALID_ATTRIBUTE) {
+            return INVALID_ATTRIBUTE;
+        }
+        return quark + fOffsets[index];
+    }
+
+    private List<Integer> toComposite(int index, List<Integer> quarks) {
+        List<Integer> list = new ArrayList<>(quarks.size());
+        for (Integer quark : quarks) {
+            list.add(toComposite(index, quark));
+        }
+        return list;
+    }
+
+    private ITmfStateInterval toComposite(int index, ITmfStateInterval interval) {
+        return new TmfStateInterval(interval.getStartTime(), interval.getEndTime(), toComposite(index, interval.getAttribute()), interval.getValue());
+    }
+
+    /**
+     * Get the null interval of an attribute at a time outside of the range of
+     * its state system
+     */
+    private ITmfStateInterval getGapInterval(ITmfStateSystem ss, long t, int quark) {
+        if (t < ss.getStartTime()) {
+            return new TmfStateInterval(getStartTime(), ss.getStartTime() - 1, quark, (Object) null);
+        }
+        return new TmfStateInterval(ss.getCurrentEndTime() + 1, getCurrentEndTime(), quark, (Object) null);
+    }
+
+    private static boolean contains(ITmfStateSystem ss, long t) {
+        return t >= ss.getStartTime() && t <= ss.getCurrentEndTime();
+    }
+
+    private void checkTime(long t) {
+        if (t < getStartTime() || t > getCurrentEndTime()) {
+            throw new TimeRangeException(fId + " Time:" + t + ", Start:" + getStartTime() + ", End:" + getCurrentEndTime()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // ITmfStateSystem
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String getSSID() {
+        return fId;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fStateSystems.stream().mapToLong(ITmfStateSystem::getStartTime).min().orElse(0L);
+    }
+
+    @Override
+    public long getCurrentEndTime() {
+        return fStateSystems.stream().mapToLong(ITmfStateSystem::getCurrentEndTime).max().orElse(0L);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return fStateSystems.stream().anyMatch(ITmfStateSystem::isCancelled);
+    }
+
+    @Override
+    public void waitUntilBuilt() {
+        fStateSystems.forEach(ITmfStateSystem::waitUntilBuilt);
+    }
+
+    @Override
+    public boolean waitUntilBuilt(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        for (ITmfStateSystem ss : fStateSystems) {
+            if (!ss.waitUntilBuilt(Math.max(0, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void dispose() {
+        /* The state systems are disposed by their analyses */
+    }
+
+    @Override
+    public int getNbAttributes() {
+        return fOffsets[fStateSystems.size()];
+    }
+
+    @Override
+    public int getQuarkAbsolute(String... attribute) throws AttributeNotFoundException {
+        return getQuarkRelative(ROOT_ATTRIBUTE, attribute);
+    }
+
+    @Override
+    public int optQuarkAbsolute(String... attribute) {
+        return optQuarkRelative(ROOT_ATTRIBUTE, attribute);
+    }
+
+    @Override
+    public int getQuarkRelative(int startingNodeQuark, String... subPath) throws AttributeNotFoundException {
+        int quark = optQuarkRelative(startingNodeQuark, subPath);
+        if (quark == INVALID_ATTRIBUTE) {
+            throw new AttributeNotFoundException(fId + " Quark:" + startingNodeQuark + ", SubPath:" + Arrays.toString(subPath)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return quark;
+    }
+
+    @Override
+    public int optQuarkRelative(int startingNodeQuark, String... subPath) {
+        if (subPath.length == 0) {
+            return startingNodeQuark;
+        }
+        if (startingNodeQuark == ROOT_ATTRIBUTE) {
+            int index = fNames.indexOf(subPath[0]);
+            if (index < 0) {
+                return INVALID_ATTRIBUTE;
+            }
+            return optQuarkRelative(index, Arrays.copyOfRange(subPath, 1, subPath.length));
+        }
+        if (isRoot(startingNodeQuark)) {
+            return toComposite(startingNodeQuark, fStateSystems.get(startingNodeQuark).optQuarkAbsolute(subPath));
+        }
+        int index = getIndex(startingNodeQuark);
+        return toComposite(index, fStateSystems.get(index).optQuarkRelative(startingNodeQuark - fOffsets[index], subPath));
+    }
+
+    @Override
+    public List<Integer> getSubAttributes(int quark, boolean recursive) {
+        if (quark == ROOT_ATTRIBUTE) {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < fStateSystems.size(); i++) {
+                list.add(i);
+                if (recursive) {
+                    list.addAll(toComposite(i, fStateSystems.get(i).getSubAttributes(ROOT_ATTRIBUTE, true)));
+                }
+            }
+            return list;
+        }
+        if (isRoot(quark)) {
+            return toComposite(quark, fStateSystems.get(quark).getSubAttributes(ROOT_ATTRIBUTE, recursive));
+        }
+        int index = getIndex(quark);
+        return toComposite(index, fStateSystems.get(index).getSubAttributes(quark - fOffsets[index], recursive));
+    }
+
+    @Override
+    public List<Integer> getSubAttributes(int quark, boolean recursive, String pattern) {
+        Pattern regex = Pattern.compile(pattern, Pattern.MULTILINE | Pattern.DOTALL);
+        List<Integer> list = new ArrayList<>();
+        for (Integer subQuark : getSubAttributes(quark, recursive)) {
+            if (regex.matcher(getAttributeName(subQuark)).matches()) {
+                list.add(subQuark);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public List<Integer> getQuarks(String... pattern) {
+        return getQuarks(ROOT_ATTRIBUTE, pattern);
+    }
+
+    @Override
+    public List<Integer> getQuarks(int startingNodeQuark, String... pattern) {
+        Builder<Integer> builder = ImmutableSet.builder();
+        if (pattern.length > 0) {
+            getQuarks(builder, startingNodeQuark, Arrays.asList(pattern));
+        } else {
+            builder.add(startingNodeQuark);
+        }
+        return builder.build().asList();
+    }
+
+    private void getQuarks(Builder<Integer> builder, int quark, List<String> pattern) {
+        String element = pattern.get(0);
+        List<String> remainder = pattern.subList(1, pattern.size());
+        List<Integer> next;
+        if (element.equals(WILDCARD)) {
+            next = getSubAttributes(quark, false);
+        } else if (element.equals(PARENT)) {
+            next = ImmutableList.of(getParentAttributeQuark(quark));
+        } else {
+            int subQuark = optQuarkRelative(quark, element);
+            next = (subQuark == INVALID_ATTRIBUTE) ? ImmutableList.of() : ImmutableList.of(subQuark);
+        }
+        for (Integer nextQuark : next) {
+            if (remainder.isEmpty()) {
+                builder.add(nextQuark);
+            } else {
+                getQuarks(builder, nextQuark, remainder);
+            }
+        }
+    }
+
+    @Override
+    public String getAttributeName(int attributeQuark) {
+        if (isRoot(attributeQuark)) {
+            return fNames.get(attributeQuark);
+        }
+        int index = getIndex(attributeQuark);
+        return fStateSystems.get(index).getAttributeName(attributeQuark - fOffsets[index]);
+    }
+
+    @Override
+    public String getFullAttributePath(int attributeQuark) {
+        return String.join("/", getFullAttributePathArray(attributeQuark)); //$NON-NLS-1$
+    }
+
+    @Override
+    public String[] getFullAttributePathArray(int attributeQuark) {
+        if (isRoot(attributeQuark)) {
+            return new String[] { fNames.get(attributeQuark) };
+        }
+        int index = getIndex(attributeQuark);
+        String[] path = fStateSystems.get(index).getFullAttributePathArray(attributeQuark - fOffsets[index]);
+        String[] fullPath = new String[path.length + 1];
+        fullPath[0] = fNames.get(index);
+        System.arraycopy(path, 0, fullPath, 1, path.length);
+        return fullPath;
+    }
+
+    @Override
+    public int getParentAttributeQuark(int attributeQuark) {
+        if (attributeQuark == ROOT_ATTRIBUTE || isRoot(attributeQuark)) {
+            return ROOT_ATTRIBUTE;
+        }
+        int index = getIndex(attributeQuark);
+        return toComposite(index, fStateSystems.get(index).getParentAttributeQuark(attributeQuark - fOffsets[index]));
+    }
+
+    @Override
+    public ITmfStateValue queryOngoingState(int attributeQuark) {
+        if (isRoot(attributeQuark)) {
+            return TmfStateValue.nullValue();
+        }
+        int index = getIndex(attributeQuark);
+        return fStateSystems.get(index).queryOngoingState(attributeQuark - fOffsets[index]);
+    }
+
+    @Override
+    public long getOngoingStartTime(int attributeQuark) {
+        if (isRoot(attributeQuark)) {
+            return getStartTime();
+        }
+        int index = getIndex(attributeQuark);
+        return fStateSystems.get(index).getOngoingStartTime(attributeQuark - fOffsets[index]);
+    }
+
+    @Override
+    public List<ITmfStateInterval> queryFullState(long t) throws StateSystemDisposedException {
+        checkTime(t);
+        List<ITmfStateInterval> list = new ArrayList<>(getNbAttributes());
+        for (int i = 0; i < fStateSystems.size(); i++) {
+            list.add(new TmfStateInterval(getStartTime(), getCurrentEndTime(), i, (Object) null));
+        }
+        for (int i = 0; i < fStateSystems.size(); i++) {
+            ITmfStateSystem ss = fStateSystems.get(i);
+            int nbAttributes = fOffsets[i + 1] - fOffsets[i];
+            if (contains(ss, t)) {
+                List<ITmfStateInterval> intervals = ss.queryFullState(t);
+                for (int quark = 0; quark < nbAttributes; quark++) {
+                    list.add(toComposite(i, intervals.get(quark)));
+                }
+            } else {
+                for (int quark = 0; quark < nbAttributes; quark++) {
+                    list.add(getGapInterval(ss, t, quark + fOffsets[i]));
+                }
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public ITmfStateInterval querySingleState(long t, int attributeQuark) throws StateSystemDisposedException {
+        checkTime(t);
+        if (isRoot(attributeQuark)) {
+            return new TmfStateInterval(getStartTime(), getCurrentEndTime(), attributeQuark, (Object) null);
+        }
+        int index = getIndex(attributeQuark);
+        ITmfStateSystem ss = fStateSystems.get(index);
+        if (!contains(ss, t)) {
+            return getGapInterval(ss, t, attributeQuark);
+        }
+        return toComposite(index, ss.querySingleState(t, attributeQuark - fOffsets[index]));
+    }
+
+    @Override
+    public Iterable<ITmfStateInterval> query2D(Collection<Integer> quarks, Collection<Long> times) throws StateSystemDisposedException {
+        if (times.isEmpty()) {
+            return ImmutableList.of();
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Long time : times) {
+            min = Math.min(min, time);
+            max = Math.max(max, time);
+        }
+        if (min < getStartTime()) {
+            throw new TimeRangeException(fId + " Time:" + min + ", Start:" + getStartTime()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        List<Iterable<ITmfStateInterval>> iterables = new ArrayList<>();
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        List<List<Integer>> localQuarks = splitQuarks(quarks, intervals);
+        for (int i = 0; i < fStateSystems.size(); i++) {
+            ITmfStateSystem ss = fStateSystems.get(i);
+            List<Integer> local = localQuarks.get(i);
+            if (local.isEmpty()) {
+                continue;
+            }
+            List<Long> ssTimes = new ArrayList<>();
+            for (Long time : times) {
+                if (contains(ss, time)) {
+                    ssTimes.add(time);
+                }
+            }
+            if (!ssTimes.isEmpty()) {
+                int index = i;
+                iterables.add(Iterables.transform(ss.query2D(local, ssTimes), interval -> toComposite(index, interval)));
+            }
+            addGapIntervals(intervals, i, local, min, max);
+        }
+        iterables.add(intervals);
+        return Iterables.concat(iterables);
+    }
+
+    @Override
+    public Iterable<ITmfStateInterval> query2D(Collection<Integer> quarks, long start, long end) throws StateSystemDisposedException {
+        long min = Math.min(start, end);
+        long max = Math.max(start, end);
+        if (min < getStartTime()) {
+            throw new TimeRangeException(fId + " Time:" + min + ", Start:" + getStartTime()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        List<Iterable<ITmfStateInterval>> iterables = new ArrayList<>();
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        List<List<Integer>> localQuarks = splitQuarks(quarks, intervals);
+        for (int i = 0; i < fStateSystems.size(); i++) {
+            ITmfStateSystem ss = fStateSystems.get(i);
+            List<Integer> local = localQuarks.get(i);
+            if (local.isEmpty()) {
+                continue;
+            }
+            long ssMin = Math.max(min, ss.getStartTime());
+            long ssMax = Math.min(max, ss.getCurrentEndTime());
+            if (ssMin <= ssMax) {
+                int index = i;
+                Iterable<ITmfStateInterval> ssIntervals = (start <= end) ? ss.query2D(local, ssMin, ssMax) : ss.query2D(local, ssMax, ssMin);
+                iterables.add(Iterables.transform(ssIntervals, interval -> toComposite(index, interval)));
+            }
+            addGapIntervals(intervals, i, local, min, max);
+        }
+        iterables.add(intervals);
+        return Iterables.concat(iterables);
+    }
+
+    /**
+     * Split composite quarks by state system, the intervals of the root
+     * attributes are added to the list of intervals
+     */
+    private List<List<Integer>> splitQuarks(Collection<Integer> quarks, List<ITmfStateInterval> intervals) {
+        List<List<Integer>> localQuarks = new ArrayList<>();
+        for (int i = 0; i < fStateSystems.size(); i++) {
+            localQuarks.add(new ArrayList<>());
+        }
+        for (Integer quark : quarks) {
+            if (isRoot(quark)) {
+                intervals.add(new TmfStateInterval(getStartTime(), getCurrentEndTime(), quark, (Object) null));
+            } else {
+                int index = getIndex(quark);
+                localQuarks.get(index).add(quark - fOffsets[index]);
+            }
+        }
+        return localQuarks;
+    }
+
+    /**
+     * Add the null intervals of attributes of a state system for the parts of
+     * a time range outside of the range of the state system
+     */
+    private void addGapIntervals(List<ITmfStateInterval> intervals, int index, List<Integer> quarks, long min, long max) {
+        ITmfStateSystem ss = fStateSystems.get(index);
+        for (Integer quark : quarks) {
+            if (min < ss.getStartTime()) {
+                intervals.add(getGapInterval(ss, min, quark + fOffsets[index]));
+            }
+            if (max > ss.getCurrentEndTime()) {
+                intervals.add(getGapInterval(ss, max, quark + fOffsets[index]));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TmfCompositeStateSystem [fId=" + fId + ", fNames=" + fNames + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
@@ -12,17 +12,18 @@
  *   Francois Chouinard - Initial API and implementation
  *   Francois Chouinard - Put in shape for 1.0
  *   Patrick Tasse - Updated for removal of context clone
+ *   Ericsson - Use a loser tree to merge the traces
  *******************************************************************************/
 
 package org.eclipse.tracecompass.internal.tmf.core.trace.experiment;
 
 import java.util.Arrays;
-import java.util.PriorityQueue;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -37,6 +38,14 @@ import com.google.common.annotations.VisibleForTesting;
  * <p>
  * The last trace refers to the trace from which the last event was "consumed"
  * at the experiment level.
+ * <p>
+ * The next events of the traces are merged with a loser tree (tournament
+ * tree): replacing the event of the trace that was consumed takes one
+ * comparison per level of the tree, which matters for experiments with many
+ * traces. The location of the context is also updated in place as the events
+ * are consumed, and the {@link TmfExperimentLocation} is only created when it
+ * is requested, instead of copying the locations of all the traces for every
+ * event.
  */
 public final class TmfExperimentContext extends TmfContext {
 
@@ -102,11 +111,29 @@ public final class TmfExperimentContext extends TmfContext {
     // ------------------------------------------------------------------------
 
     private final ITmfContext[] fContexts;
+
+    /**
+     * The next event of each trace, null if the trace has no more events
+     */
+    private final ContextTuple[] fTuples;
+    /**
+     * The loser tree: fTree[0] is the index of the trace with the earliest
+     * event, and the other nodes are the indexes of the losers of the matches
+     * between their two subtrees. The parent of the node of trace i is (i + n)
+     * / 2, where n is the number of traces.
+     */
+    private final int[] fTree;
+    private boolean fTreeValid = false;
+    /** The trace whose event was returned by the last call to getNext() */
+    private int fConsumed = -1;
+
     /**
-     * fPriority is a PriorityQueue of initial capacity fContexts.length,
-     * ordered by increasing timestamps of the ContextTuple events.
+     * The locations and ranks of the traces, updated in place as the events
+     * are consumed, or null if the location is not an experiment location.
      */
-    private final PriorityQueue<ContextTuple> fPriority;
+    private ITmfLocation[] fTraceLocations = null;
+    private long[] fTraceRanks = null;
+    private boolean fLocationChanged = false;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -124,7 +151,8 @@ public final class TmfExperimentContext extends TmfContext {
             throw new IllegalArgumentException("TmfExperimentContext size cannot be negative"); //$NON-NLS-1$
         }
         fContexts = new ITmfContext[nbTraces];
-        fPriority = new PriorityQueue<>(Math.max(1, nbTraces), null);
+        fTuples = new ContextTuple[nbTraces];
+        fTree = new int[nbTraces];
     }
 
     @Override
@@ -151,8 +179,15 @@ public final class TmfExperimentContext extends TmfContext {
      */
     public void setContent(int traceIndex, ITmfContext ctx, ITmfEvent event) {
         fContexts[traceIndex] = ctx;
-        if (event != null && ctx != null) {
-            fPriority.add(new ContextTuple(traceIndex, event, ctx));
+        fTuples[traceIndex] = (event != null && ctx != null) ? new ContextTuple(traceIndex, event, ctx) : null;
+        if (fTreeValid) {
+            if (traceIndex == fConsumed) {
+                replay(traceIndex);
+                fConsumed = -1;
+            } else {
+                /* Another trace changed, rebuild the tree on the next read */
+                fTreeValid = false;
+            }
         }
     }
 
@@ -160,12 +195,134 @@ public final class TmfExperimentContext extends TmfContext {
      * Get the tuple containing the index, context and event of the for the
      * trace with the earliest event, and the trace with the lowest index in the
      * Experiment in case of indetermination.
+     * <p>
+     * The event is consumed, the next event of its trace should be set with
+     * {@link #setContent} before the next call.
      *
      * @return The information concerning the next trace in the context's
      *         priority queue.
      */
     public ContextTuple getNext() {
-        return fPriority.poll();
+        if (fTuples.length == 0) {
+            return null;
+        }
+        if (!fTreeValid) {
+            build();
+        } else if (fConsumed >= 0) {
+            /* The consumed trace has no next event */
+            replay(fConsumed);
+            fConsumed = -1;
+        }
+        int winner = fTree[0];
+        ContextTuple next = fTuples[winner];
+        if (next != null) {
+            fTuples[winner] = null;
+            fConsumed = winner;
+        }
+        return next;
+    }
+
+    /**
+     * Update the location and rank of a trace in the location of this context
+     *
+     * @param traceIndex
+     *            The index of the trace in the experiment
+     * @param location
+     *            The new location of the trace
+     * @param rank
+     *            The new rank of the trace
+     * @return true if the location was updated, false if the location of this
+     *         context is not an experiment location
+     */
+    public boolean updateLocation(int traceIndex, ITmfLocation location, long rank) {
+        if (fTraceLocations == null) {
+            ITmfLocation current = super.getLocation();
+            if (!(current instanceof TmfExperimentLocation)) {
+                return false;
+            }
+            TmfLocationArray locationArray = ((TmfExperimentLocation) current).getLocationInfo();
+            fTraceLocations = locationArray.getLocations();
+            fTraceRanks = locationArray.getRanks();
+        }
+        fTraceLocations[traceIndex] = location;
+        fTraceRanks[traceIndex] = rank;
+        fLocationChanged = true;
+        return true;
+    }
+
+    @Override
+    public ITmfLocation getLocation() {
+        if (fLocationChanged) {
+            super.setLocation(new TmfExperimentLocation(new TmfLocationArray(fTraceLocations, fTraceRanks)));
+            fLocationChanged = false;
+        }
+        return super.getLocation();
+    }
+
+    @Override
+    public void setLocation(ITmfLocation location) {
+        super.setLocation(location);
+        fTraceLocations = null;
+        fTraceRanks = null;
+        fLocationChanged = false;
+    }
+
+    // ------------------------------------------------------------------------
+    // Loser tree
+    // ------------------------------------------------------------------------
+
+    /**
+     * Compare the next events of two traces, a trace without event being
+     * after all the others
+     */
+    private boolean isBefore(int trace1, int trace2) {
+        ContextTuple tuple1 = fTuples[trace1];
+        ContextTuple tuple2 = fTuples[trace2];
+        if (tuple1 == null || tuple2 == null) {
+            return (tuple1 != null) || (tuple2 == null && trace1 < trace2);
+        }
+        return tuple1.compareTo(tuple2) < 0;
+    }
+
+    /**
+     * Build the whole tree, bottom-up
+     */
+    private void build() {
+        int n = fTuples.length;
+        int[] winners = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            winners[n + i] = i;
+        }
+        for (int node = n - 1; node > 0; node--) {
+            int left = winners[2 * node];
+            int right = winners[2 * node + 1];
+            if (isBefore(right, left)) {
+                winners[node] = right;
+                fTree[node] = left;
+            } else {
+                winners[node] = left;
+                fTree[node] = right;
+            }
+        }
+        fTree[0] = (n > 1) ? winners[1] : 0;
+        fTreeValid = true;
+        fConsumed = -1;
+    }
+
+    /**
+     * Replay the matches from the leaf of a trace to the root, after the
+     * event of this trace, which was the winner, changed
+     */
+    private void replay(int traceIndex) {
+        int winner = traceIndex;
+        for (int node = (traceIndex + fTuples.length) / 2; node > 0; node /= 2) {
+            int loser = fTree[node];
+            if (isBefore(loser, winner)) {
+                fTree[node] = winner;
+                winner = loser;
+            }
+        }
+        fTree[0] = winner;
     }
 
     /**
@@ -192,6 +349,11 @@ public final class TmfExperimentContext extends TmfContext {
         if (this == other) {
             return true;
         }
+        /* Create the pending locations before they are compared */
+        getLocation();
+        if (other instanceof TmfExperimentContext) {
+            ((TmfExperimentContext) other).getLocation();
+        }
         if (!super.equals(other)) {
             return false;
         }
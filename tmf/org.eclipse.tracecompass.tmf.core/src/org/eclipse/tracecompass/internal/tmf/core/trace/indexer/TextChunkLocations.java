@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.trace.indexer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
+
+/**
+ * Splits a line-based text file in chunks that start at the beginning of a
+ * line, for the text traces that are indexed in parallel.
+ */
+public final class TextChunkLocations {
+
+    /** Minimum size of a chunk, smaller files are indexed sequentially */
+    public static final long MIN_CHUNK_SIZE = 1L << 20;
+
+    private TextChunkLocations() {
+        // Do nothing
+    }
+
+    /**
+     * Split a text file in chunks of about the same size, each starting at the
+     * beginning of a line
+     *
+     * @param path
+     *            The path of the file
+     * @param nbChunks
+     *            The maximum number of chunks
+     * @param minChunkSize
+     *            The minimum size of a chunk, in bytes
+     * @return The start locations of the chunks, as {@link TmfLongLocation}
+     *         file offsets, or an empty list if the file cannot be read
+     */
+    public static List<ITmfLocation> getChunkLocations(String path, int nbChunks, long minChunkSize) {
+        try (BufferedRandomAccessFile file = new BufferedRandomAccessFile(path, "r")) { //$NON-NLS-1$
+            long length = file.length();
+            long nb = Math.min(nbChunks, length / Math.max(1, minChunkSize));
+            List<ITmfLocation> locations = new ArrayList<>();
+            long previous = -1;
+            for (long i = 0; i < nb; i++) {
+                long pos = length / nb * i;
+                if (pos > 0) {
+                    /* Move to the start of the next line */
+                    file.seek(pos - 1);
+                    file.getNextLine();
+                    pos = file.getFilePointer();
+                }
+                if (pos > previous && pos < length) {
+                    locations.add(new TmfLongLocation(pos));
+                    previous = pos;
+                }
+            }
+            return locations;
+        } catch (IOException e) {
+            Activator.logError("Error splitting file: " + path, e); //$NON-NLS-1$
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.trace.indexer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfLostEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfParallelIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceChunkReader;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+
+/**
+ * Computes the checkpoints of a trace index by reading the chunks of a
+ * {@link ITmfParallelIndexable} trace in parallel.
+ * <p>
+ * The rank of the first event of a chunk is not known until the previous
+ * chunks are read, so the checkpoints are computed in two passes:
+ * <ol>
+ * <li>Each chunk is read by a worker thread, which counts its events and keeps
+ * the location of every {@link #SUB_CHECKPOINTS}th of a checkpoint interval,
+ * with local ranks.</li>
+ * <li>The global rank of the first event of each chunk is the sum of the
+ * number of events of the previous chunks. The location of each checkpoint is
+ * then found by seeking to the closest location kept by the first pass, so
+ * only a small fraction of the events are read again.</li>
+ * </ol>
+ * The second pass of a chunk starts as soon as the first pass of all the
+ * previous chunks is done, and has priority over the first pass of the
+ * following chunks. The chunks whose checkpoints are found are reported in
+ * order to the {@link IChunkListener}, so the index can be used and the trace
+ * range updated while the rest of the trace is read.
+ */
+public class TmfParallelIndexBuilder {
+
+    /** Number of locations kept by the first pass per checkpoint interval */
+    private static final int SUB_CHECKPOINTS = 16;
+    /** Number of chunks per thread, to balance the load between threads */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ITmfParallelIndexable fTrace;
+    private final int fInterval;
+    private final int fStep;
+    private final int fNbThreads;
+    private final @Nullable IChunkListener fListener;
+    private final AtomicLong fNbEvents = new AtomicLong();
+    private volatile boolean fCancelled = false;
+
+    /**
+     * Listener notified as the chunks of the trace are indexed
+     */
+    @FunctionalInterface
+    public interface IChunkListener {
+        /**
+         * A chunk was indexed. The chunks are reported in order, from the
+         * thread calling {@link TmfParallelIndexBuilder#build()}.
+         *
+         * @param checkpoints
+         *            The checkpoints of the chunk, ordered by rank
+         * @param nbEvents
+         *            The number of events of this chunk and the previous ones
+         * @param timeRange
+         *            The time range of this chunk and the previous ones, or
+         *            null if they have no events
+         */
+        void chunkIndexed(List<ITmfCheckpoint> checkpoints, long nbEvents, @Nullable TmfTimeRange timeRange);
+    }
+
+    /**
+     * The checkpoints of the trace and the attributes of the trace computed
+     * while reading the events
+     */
+    public static final class Result {
+        private final List<ITmfCheckpoint> fCheckpoints;
+        private final long fNbEvents;
+        private final @Nullable TmfTimeRange fTimeRange;
+
+        private Result(List<ITmfCheckpoint> checkpoints, long nbEvents, @Nullable TmfTimeRange timeRange) {
+            fCheckpoints = checkpoints;
+            fNbEvents = nbEvents;
+            fTimeRange = timeRange;
+        }
+
+        /**
+         * @return The checkpoints, ordered by rank
+         */
+        public List<ITmfCheckpoint> getCheckpoints() {
+            return fCheckpoints;
+        }
+
+        /**
+         * @return The number of events of the trace
+         */
+        public long getNbEvents() {
+            return fNbEvents;
+        }
+
+        /**
+         * @return The time range of the trace, or null if it has no events
+         */
+        public @Nullable TmfTimeRange getTimeRange() {
+            return fTimeRange;
+        }
+    }
+
+    /** The result of the first pass on a chunk */
+    private static final class Chunk {
+        private final ITmfLocation fStart;
+        private final @Nullable ITmfLocation fEnd;
+        private final List<ITmfLocation> fSubLocations = new ArrayList<>();
+        private final List<ITmfTimestamp> fSubTimestamps = new ArrayList<>();
+        private long fNbEvents = 0;
+        private long fStartRank = 0;
+        private @Nullable ITmfTimestamp fStartTime = null;
+        private @Nullable ITmfTimestamp fEndTime = null;
+        /* The time range of the trace up to the end of this chunk */
+        private @Nullable TmfTimeRange fRangeSoFar = null;
+        private final List<ITmfCheckpoint> fCheckpoints = new ArrayList<>();
+
+        public Chunk(ITmfLocation start, @Nullable ITmfLocation end) {
+            fStart = start;
+            fEnd = end;
+        }
+    }
+
+    /**
+     * A task of one pass on a chunk. The tasks of the earlier chunks run
+     * first, and the second pass of a chunk runs before the first pass of the
+     * next ones.
+     */
+    private static final class ChunkTask extends FutureTask<Void> implements Comparable<ChunkTask> {
+        private final int fPriority;
+
+        public ChunkTask(int priority, Callable<Void> callable) {
+            super(callable);
+            fPriority = priority;
+        }
+
+        @Override
+        public int compareTo(ChunkTask o) {
+            return Integer.compare(fPriority, o.fPriority);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace to index
+     * @param interval
+     *            The interval between checkpoints, in events
+     * @param nbThreads
+     *            The number of threads reading the trace
+     */
+    public TmfParallelIndexBuilder(ITmfParallelIndexable trace, int interval, int nbThreads) {
+        this(trace, interval, nbThreads, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace to index
+     * @param interval
+     *            The interval between checkpoints, in events
+     * @param nbThreads
+     *            The number of threads reading the trace
+     * @param listener
+     *            The listener notified as the chunks are indexed, can be null
+     */
+    public TmfParallelIndexBuilder(ITmfParallelIndexable trace, int interval, int nbThreads, @Nullable IChunkListener listener) {
+        fTrace = trace;
+        fInterval = interval;
+        fStep = Math.max(1, interval / SUB_CHECKPOINTS);
+        fNbThreads = Math.max(1, nbThreads);
+        fListener = listener;
+    }
+
+    /**
+     * Cancel the build, {@link #build()} returns null
+     */
+    public void cancel() {
+        fCancelled = true;
+    }
+
+    /**
+     * @return true if the build was cancelled
+     */
+    public boolean isCancelled() {
+        return fCancelled;
+    }
+
+    /**
+     * Get the number of events read by the first pass so far, for progress
+     * reporting
+     *
+     * @return The number of events read
+     */
+    public long getNbEvents() {
+        return fNbEvents.get();
+    }
+
+    /**
+     * Read the trace and compute its checkpoints
+     *
+     * @return The checkpoints, or null if the trace cannot be split or if the
+     *         build was cancelled
+     * @throws IOException
+     *             If the trace cannot be read
+     */
+    public @Nullable Result build() throws IOException {
+        List<ITmfLocation> locations = fTrace.getChunkLocations(fNbThreads * CHUNKS_PER_THREAD);
+        if (locations.size() < 2) {
+            return null;
+        }
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < locations.size(); i++) {
+            chunks.add(new Chunk(locations.get(i), i + 1 < locations.size() ? locations.get(i + 1) : null));
+        }
+        TmfCoreTracer.traceIndexer("Parallel indexing of " + chunks.size() + " chunks with " + fNbThreads + " threads"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        AtomicInteger threadId = new AtomicInteger();
+        int nbThreads = Math.min(fNbThreads, chunks.size());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nbThreads, nbThreads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "Trace indexer " + threadId.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            /* First pass: count the events of each chunk */
+            List<ChunkTask> scans = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                Chunk chunk = chunks.get(i);
+                ChunkTask scan = new ChunkTask(2 * i + 1, () -> {
+                    scanChunk(chunk);
+                    return null;
+                });
+                scans.add(scan);
+                executor.execute(scan);
+            }
+
+            /*
+             * The ranks of the chunks are the prefix sums of their sizes, the
+             * second pass of a chunk starts once the previous ones are counted
+             */
+            List<ChunkTask> finds = new ArrayList<>();
+            long nbEvents = 0;
+            ITmfTimestamp startTime = null;
+            ITmfTimestamp endTime = null;
+            int nbReported = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                await(scans.get(i));
+                Chunk chunk = chunks.get(i);
+                chunk.fStartRank = nbEvents;
+                nbEvents += chunk.fNbEvents;
+                ITmfTimestamp chunkStart = chunk.fStartTime;
+                if (chunkStart != null && (startTime == null || chunkStart.compareTo(startTime) < 0)) {
+                    startTime = chunkStart;
+                }
+                ITmfTimestamp chunkEnd = chunk.fEndTime;
+                if (chunkEnd != null && (endTime == null || chunkEnd.compareTo(endTime) > 0)) {
+                    endTime = chunkEnd;
+                }
+                chunk.fRangeSoFar = (startTime != null && endTime != null) ? new TmfTimeRange(startTime, endTime) : null;
+
+                /* Second pass: find the checkpoints of the chunk */
+                ChunkTask find = new ChunkTask(2 * i, () -> {
+                    findCheckpoints(chunk, chunk.fCheckpoints);
+                    return null;
+                });
+                finds.add(find);
+                executor.execute(find);
+                nbReported = reportChunks(chunks, finds, nbReported, false);
+            }
+            reportChunks(chunks, finds, nbReported, true);
+
+            List<ITmfCheckpoint> checkpoints = new ArrayList<>();
+            chunks.forEach(chunk -> checkpoints.addAll(chunk.fCheckpoints));
+            TmfTimeRange timeRange = (startTime != null && endTime != null) ? new TmfTimeRange(startTime, endTime) : null;
+            return new Result(checkpoints, nbEvents, timeRange);
+        } catch (CancellationException e) {
+            return null;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Report the chunks whose checkpoints were found, in order
+     *
+     * @param from
+     *            The index of the first chunk not reported yet
+     * @param wait
+     *            true to wait for all the chunks, false to only report the
+     *            chunks that are done
+     * @return The index of the first chunk not reported
+     */
+    private int reportChunks(List<Chunk> chunks, List<ChunkTask> finds, int from, boolean wait) throws IOException {
+        int next = from;
+        while (next < finds.size() && (wait || finds.get(next).isDone())) {
+            await(finds.get(next));
+            Chunk chunk = chunks.get(next);
+            IChunkListener listener = fListener;
+            if (listener != null) {
+                listener.chunkIndexed(chunk.fCheckpoints, chunk.fStartRank + chunk.fNbEvents, chunk.fRangeSoFar);
+            }
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * Wait for a task
+     *
+     * @throws CancellationException
+     *             if the build was cancelled
+     */
+    private void await(ChunkTask task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+        if (fCancelled) {
+            throw new CancellationException();
+        }
+    }
+
+    private void scanChunk(Chunk chunk) throws IOException {
+        try (ITmfTraceChunkReader reader = fTrace.openChunk(chunk.fStart, chunk.fEnd)) {
+            long rank = 0;
+            ITmfLocation location = reader.getLocation();
+            ITmfEvent event = reader.readNext();
+            while (event != null && !fCancelled) {
+                ITmfTimestamp timestamp = event.getTimestamp();
+                if (rank % fStep == 0) {
+                    chunk.fSubLocations.add(location);
+                    chunk.fSubTimestamps.add(timestamp);
+                }
+                ITmfTimestamp endTime = (event instanceof ITmfLostEvent) ? ((ITmfLostEvent) event).getTimeRange().getEndTime() : timestamp;
+                if (chunk.fStartTime == null || timestamp.compareTo(chunk.fStartTime) < 0) {
+                    chunk.fStartTime = timestamp;
+                }
+                if (chunk.fEndTime == null || endTime.compareTo(chunk.fEndTime) > 0) {
+                    chunk.fEndTime = endTime;
+                }
+                rank++;
+                fNbEvents.incrementAndGet();
+                location = reader.getLocation();
+                event = reader.readNext();
+            }
+            chunk.fNbEvents = rank;
+        }
+    }
+
+    private void findCheckpoints(Chunk chunk, List<ITmfCheckpoint> checkpoints) throws IOException {
+        long first = (fInterval - chunk.fStartRank % fInterval) % fInterval;
+        if (first >= chunk.fNbEvents) {
+            return;
+        }
+        ITmfTraceChunkReader reader = null;
+        try {
+            /* The local rank of the next event of the reader */
+            long position = -1;
+            for (long rank = first; rank < chunk.fNbEvents && !fCancelled; rank += fInterval) {
+                int sub = (int) (rank / fStep);
+                long checkpointRank = (chunk.fStartRank + rank) / fInterval;
+                if (rank % fStep == 0) {
+                    checkpoints.add(new TmfCheckpoint(chunk.fSubTimestamps.get(sub), chunk.fSubLocations.get(sub), checkpointRank));
+                    continue;
+                }
+                if (reader == null) {
+                    reader = fTrace.openChunk(chunk.fStart, chunk.fEnd);
+                }
+                long subRank = (long) sub * fStep;
+                if (position < subRank || position > rank) {
+                    reader.seek(chunk.fSubLocations.get(sub));
+                    position = subRank;
+                }
+                while (position < rank) {
+                    reader.readNext();
+                    position++;
+                }
+                ITmfLocation location = reader.getLocation();
+                ITmfEvent event = reader.readNext();
+                position++;
+                if (location == null || event == null) {
+                    throw new IOException("The chunk has less events than in the first pass"); //$NON-NLS-1$
+                }
+                checkpoints.add(new TmfCheckpoint(event.getTimestamp(), location, checkpointRank));
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+}
@@ -72,6 +72,9 @@ public abstract class TmfEventProvider extends TmfComponent implements ITmfEvent
     /** List of coalesced requests */
     private final List<TmfCoalescedEventRequest> fPendingCoalescedRequests = new LinkedList<>();
 
+    /** List of coalesced requests that were queued and may be running */
+    private final List<TmfCoalescedEventRequest> fRunningCoalescedRequests = new LinkedList<>();
+
     /** The type of event handled by this provider */
     private Class<? extends ITmfEvent> fType;
 
@@ -204,6 +207,10 @@ public abstract class TmfEventProvider extends TmfComponent implements ITmfEvent
                 return;
             }
 
+            if (request.isOrderIndependent() && !hasCompatiblePendingRequest(request) && joinRunningRequest(request)) {
+                return;
+            }
+
             if (request.getExecType() == ExecutionType.FOREGROUND) {
                 if ((fSignalDepth > 0) || (fRequestPendingCounter > 0)) {
                     coalesceEventRequest(request);
@@ -340,6 +347,41 @@ public abstract class TmfEventProvider extends TmfComponent implements ITmfEvent
         }
     }
 
+    /*
+     * Checks if a request can be coalesced with a pending request, which reads
+     * the events in order.
+     */
+    private boolean hasCompatiblePendingRequest(ITmfEventRequest request) {
+        for (TmfCoalescedEventRequest coalescedRequest : getPendingRequests()) {
+            if (coalescedRequest.isCompatible(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Makes an order independent request join a running coalesced request, so
+     * that the events are read once for both.
+     */
+    private boolean joinRunningRequest(ITmfEventRequest request) {
+        synchronized (fLock) {
+            Iterator<TmfCoalescedEventRequest> iter = fRunningCoalescedRequests.iterator();
+            while (iter.hasNext()) {
+                TmfCoalescedEventRequest runningRequest = iter.next();
+                if (runningRequest.isCompleted()) {
+                    iter.remove();
+                } else if (runningRequest.join(request, this)) {
+                    if (TmfCoreTracer.isRequestTraced()) {
+                        TmfCoreTracer.traceRequest(request.getRequestId(), "JOINED running request " + runningRequest.getRequestId()); //$NON-NLS-1$
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /*
      * Sends a request with the parent if compatible.
      */
@@ -414,6 +456,13 @@ public abstract class TmfEventProvider extends TmfComponent implements ITmfEvent
             return;
         }
 
+        if (request instanceof TmfCoalescedEventRequest) {
+            synchronized (fLock) {
+                fRunningCoalescedRequests.removeIf(ITmfEventRequest::isCompleted);
+                fRunningCoalescedRequests.add((TmfCoalescedEventRequest) request);
+            }
+        }
+
         TmfEventThread thread = new TmfEventThread(this, request);
 
         if (TmfCoreTracer.isRequestTraced()) {
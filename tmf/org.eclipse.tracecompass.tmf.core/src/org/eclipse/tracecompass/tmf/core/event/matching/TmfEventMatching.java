@@ -14,14 +14,15 @@
 
 package org.eclipse.tracecompass.tmf.core.event.matching;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
@@ -74,14 +75,20 @@ public class TmfEventMatching implements ITmfEventMatching {
     private final Multimap<ITmfTrace, ITmfMatchEventDefinition> fMatchMap = HashMultimap.create();
 
     /**
-     * Hashtables for unmatches incoming events
+     * Unmatched incoming events
      */
-    private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fUnmatchedIn = HashBasedTable.create();
+    private final UnmatchedEvents fUnmatchedIn = new UnmatchedEvents();
 
     /**
-     * Hashtables for unmatches outgoing events
+     * Unmatched outgoing events
      */
-    private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fUnmatchedOut = HashBasedTable.create();
+    private final UnmatchedEvents fUnmatchedOut = new UnmatchedEvents();
+
+    /**
+     * Time after which an unmatched event is discarded, or 0 to keep them
+     * until a cleanup
+     */
+    private long fUnmatchedTimeout = 0L;
 
     /**
      * Hash tables matching the latest match between 2 hosts (sender, receiver) by
@@ -182,6 +189,31 @@ public class TmfEventMatching implements ITmfEventMatching {
         return ImmutableList.copyOf(fMatchMap.get(trace));
     }
 
+    /**
+     * Set the time after which unmatched events are discarded. When an event
+     * of a trace is matched, the unmatched events of this trace that are
+     * older than this time are removed, whether they could still be matched
+     * or not. This bounds the memory used by the matching of long traces
+     * where many events are never matched (lost packets, traffic with hosts
+     * that are not traced), but matches with a larger latency than the
+     * timeout will be missed.
+     * <p>
+     * The events are read in the order of their timestamps, before the
+     * traces are synchronized, so the companion of an event comes about the
+     * clock offset between the hosts plus the latency after it. The timeout
+     * must be larger than both together, it should only be set by callers who
+     * know this bound. By default, there is no timeout and unmatched events
+     * are only removed once matches with all other hosts make them obsolete.
+     *
+     * @param timeout
+     *            The timeout in nanoseconds, 0 or a negative value to keep
+     *            unmatched events until they are obsolete
+     * @since 6.3
+     */
+    public void setUnmatchedTimeout(long timeout) {
+        fUnmatchedTimeout = Math.max(0L, timeout);
+    }
+
     /**
      * Method that initializes any data structure for the event matching. It
      * also assigns to each trace an event matching definition instance that
@@ -224,8 +256,8 @@ public class TmfEventMatching implements ITmfEventMatching {
         int i = 0;
         for (ITmfTrace trace : getIndividualTraces()) {
             b.append("Trace " + i++ + ":" + cr + //$NON-NLS-1$ //$NON-NLS-2$
-                    "  " + fUnmatchedIn.row(trace).size() + " unmatched incoming events" + cr + //$NON-NLS-1$ //$NON-NLS-2$
-                    "  " + fUnmatchedOut.row(trace).size() + " unmatched outgoing events" + cr); //$NON-NLS-1$ //$NON-NLS-2$
+                    "  " + fUnmatchedIn.getTable().row(trace).size() + " unmatched incoming events" + cr + //$NON-NLS-1$ //$NON-NLS-2$
+                    "  " + fUnmatchedOut.getTable().row(trace).size() + " unmatched outgoing events" + cr); //$NON-NLS-1$ //$NON-NLS-2$
         }
 
         return b.toString();
@@ -266,7 +298,7 @@ public class TmfEventMatching implements ITmfEventMatching {
             return;
         }
 
-        Table<ITmfTrace, IEventMatchingKey, DependencyEvent> unmatchedTbl, companionTbl;
+        UnmatchedEvents unmatchedTbl, companionTbl;
 
         /* Point to the appropriate table */
         switch (evType) {
@@ -284,6 +316,12 @@ public class TmfEventMatching implements ITmfEventMatching {
 
         TmfEventDependency dep = null;
         DependencyEvent depEvent = new DependencyEvent(event);
+        long timeout = fUnmatchedTimeout;
+        if (timeout > 0) {
+            long expiry = depEvent.getTimestamp().toNanos() - timeout;
+            fUnmatchedIn.removeOlderThan(event.getTrace(), keyClass -> true, expiry);
+            fUnmatchedOut.removeOlderThan(event.getTrace(), keyClass -> true, expiry);
+        }
         /* Search for the event in the companion table */
         for (ITmfTrace mTrace : getIndividualTraces()) {
             if (companionTbl.contains(mTrace, eventKey)) {
@@ -311,7 +349,7 @@ public class TmfEventMatching implements ITmfEventMatching {
                     if (!companionEvent.getTrace().getHostId().equals(depEvent.getTrace().getHostId())) {
                         dep = new TmfEventDependency(depEvent, companionEvent);
                     } else {
-                        companionTbl.put(mTrace,  eventKey, companionEvent);
+                        companionTbl.restore(mTrace, eventKey, companionEvent);
                     }
                     break;
                 default:
@@ -340,9 +378,7 @@ public class TmfEventMatching implements ITmfEventMatching {
              * events as value for the unmatched table. Not necessary right now
              * though
              */
-            if (!unmatchedTbl.contains(event.getTrace(), eventKey)) {
-                unmatchedTbl.put(event.getTrace(), eventKey, depEvent);
-            }
+            unmatchedTbl.add(event.getTrace(), eventKey, depEvent);
         }
     }
 
@@ -362,7 +398,7 @@ public class TmfEventMatching implements ITmfEventMatching {
         return fLastMatches.computeIfAbsent(eventKey.getClass(), k -> HashBasedTable.create());
     }
 
-    private void cleanupList(@NonNull IEventMatchingKey eventKey, Map<String, TmfEventDependency> lastMatches, DependencyEvent lastDep, ToLongFunction<TmfEventDependency> mapToTime, Table<ITmfTrace, IEventMatchingKey, DependencyEvent> toClean) {
+    private void cleanupList(@NonNull IEventMatchingKey eventKey, Map<String, TmfEventDependency> lastMatches, DependencyEvent lastDep, ToLongFunction<TmfEventDependency> mapToTime, UnmatchedEvents toClean) {
      // Is there a match with all other hosts
         long otherHosts = lastMatches.keySet().stream().filter(s -> !s.equals(lastDep.getTrace().getHostId())).count();
         if (otherHosts == fDistinctHosts.size() - 1) {
@@ -372,13 +408,7 @@ public class TmfEventMatching implements ITmfEventMatching {
                     .min()
                     .orElse(0L);
             if (earliest > 0) {
-                List<IEventMatchingKey> toRemove = new ArrayList<>();
-                for (Entry<IEventMatchingKey, DependencyEvent> entry : toClean.row(lastDep.getTrace()).entrySet()) {
-                    if (entry.getValue().getTimestamp().toNanos() < earliest && entry.getKey().getClass().isAssignableFrom(eventKey.getClass())) {
-                        toRemove.add(entry.getKey());
-                    }
-                }
-                toRemove.forEach(m -> toClean.remove(lastDep.getTrace(), m));
+                toClean.removeOlderThan(lastDep.getTrace(), keyClass -> keyClass.isAssignableFrom(eventKey.getClass()), earliest);
             }
         }
     }
@@ -470,7 +500,7 @@ public class TmfEventMatching implements ITmfEventMatching {
      */
     @VisibleForTesting
     protected Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getUnmatchedIn() {
-        return fUnmatchedIn;
+        return fUnmatchedIn.getTable();
     }
 
     /**
@@ -481,7 +511,109 @@ public class TmfEventMatching implements ITmfEventMatching {
      */
     @VisibleForTesting
     protected Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getUnmatchedOut() {
-        return fUnmatchedOut;
+        return fUnmatchedOut.getTable();
+    }
+
+    /**
+     * The unmatched events of one direction. Besides the table to find the
+     * events by key, the events of each trace and key class are queued in the
+     * order they were added, which is chronological for the events of a
+     * trace. The old events are then removed from the head of the queues
+     * instead of scanning all the unmatched events of a trace at each cleanup.
+     * The queues may contain events that were matched since, they are skipped
+     * when they reach the head of the queue.
+     */
+    private static final class UnmatchedEvents {
+
+        /*
+         * Minimum number of entries in a queue before matched events are
+         * purged from it
+         */
+        private static final int MIN_COMPACT_SIZE = 64;
+
+        private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fTable = HashBasedTable.create();
+        private final Map<ITmfTrace, Map<Class<?>, Deque<UnmatchedEvent>>> fQueues = new HashMap<>();
+
+        public Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getTable() {
+            return fTable;
+        }
+
+        public boolean contains(ITmfTrace trace, IEventMatchingKey key) {
+            return fTable.contains(trace, key);
+        }
+
+        public DependencyEvent remove(ITmfTrace trace, IEventMatchingKey key) {
+            return fTable.remove(trace, key);
+        }
+
+        /**
+         * Add an event, if no event of this trace is already associated with
+         * the key
+         */
+        public void add(ITmfTrace trace, IEventMatchingKey key, DependencyEvent event) {
+            if (fTable.contains(trace, key)) {
+                return;
+            }
+            fTable.put(trace, key, event);
+            Deque<UnmatchedEvent> queue = fQueues.computeIfAbsent(trace, t -> new HashMap<>())
+                    .computeIfAbsent(key.getClass(), c -> new ArrayDeque<>());
+            queue.addLast(new UnmatchedEvent(key, event));
+            if (queue.size() > MIN_COMPACT_SIZE && queue.size() > 2 * fTable.row(trace).size()) {
+                queue.removeIf(unmatched -> !unmatched.isIn(fTable, trace));
+            }
+        }
+
+        /**
+         * Put back an event that was just removed, it is still in its queue
+         */
+        public void restore(ITmfTrace trace, IEventMatchingKey key, DependencyEvent event) {
+            fTable.put(trace, key, event);
+        }
+
+        /**
+         * Remove the events of a trace older than a time, for the key classes
+         * accepted by the filter
+         */
+        public void removeOlderThan(ITmfTrace trace, Predicate<Class<?>> keyClassFilter, long time) {
+            Map<Class<?>, Deque<UnmatchedEvent>> queues = fQueues.get(trace);
+            if (queues == null) {
+                return;
+            }
+            for (Entry<Class<?>, Deque<UnmatchedEvent>> entry : queues.entrySet()) {
+                if (!keyClassFilter.test(entry.getKey())) {
+                    continue;
+                }
+                Deque<UnmatchedEvent> queue = entry.getValue();
+                UnmatchedEvent head = queue.peekFirst();
+                while (head != null && head.fEvent.getTimestamp().toNanos() < time) {
+                    queue.removeFirst();
+                    if (head.isIn(fTable, trace)) {
+                        fTable.remove(trace, head.fKey);
+                    }
+                    head = queue.peekFirst();
+                }
+            }
+        }
+
+        public void clear() {
+            fTable.clear();
+            fQueues.clear();
+        }
+    }
+
+    private static final class UnmatchedEvent {
+        private final IEventMatchingKey fKey;
+        private final DependencyEvent fEvent;
+
+        public UnmatchedEvent(IEventMatchingKey key, DependencyEvent event) {
+            fKey = key;
+            fEvent = event;
+        }
+
+        /* Whether this event is still the unmatched event for its key */
+        public boolean isIn(Table<ITmfTrace, IEventMatchingKey, DependencyEvent> table, ITmfTrace trace) {
+            return table.get(trace, fKey) == fEvent;
+        }
     }
 
 }
@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -32,8 +33,10 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
 import org.eclipse.tracecompass.internal.tmf.core.parsers.custom.CustomEventAspects;
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TextChunkLocations;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
@@ -49,7 +52,9 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfParallelIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceChunkReader;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.TmfBTreeTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
@@ -62,7 +67,7 @@ import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
  *
  * @author Patrick Tassé
  */
-public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexable {
+public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexable, ITmfParallelIndexable {
 
     private static final TmfLongLocation NULL_LOCATION = new TmfLongLocation(-1L);
     private static final int DEFAULT_CACHE_SIZE = 100;
@@ -163,28 +168,7 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
             return context;
         }
         try {
-            if (location == null) {
-                fFile.seek(0);
-            } else if (location.getLocationInfo() instanceof Long) {
-                fFile.seek((Long) location.getLocationInfo());
-            }
-            long rawPos = fFile.getFilePointer();
-            String line = fFile.getNextLine();
-            while (line != null) {
-                for (final InputLine input : getFirstLines()) {
-                    final Matcher matcher = input.getPattern().matcher(line);
-                    if (matcher.matches()) {
-                        context.setLocation(new TmfLongLocation(rawPos));
-                        context.firstLineMatcher = matcher;
-                        context.firstLine = line;
-                        context.nextLineLocation = fFile.getFilePointer();
-                        context.inputLine = input;
-                        return context;
-                    }
-                }
-                rawPos = fFile.getFilePointer();
-                line = fFile.getNextLine();
-            }
+            seek(context, fFile, location);
             return context;
         } catch (final FileNotFoundException e) {
             Activator.logError("Error seeking event. File not found: " + getPath(), e); //$NON-NLS-1$
@@ -196,6 +180,35 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
 
     }
 
+    /**
+     * Position a context at the first event at or after a location of a file.
+     * The context is not changed if there is no such event.
+     */
+    private void seek(final CustomTxtTraceContext context, final BufferedRandomAccessFile file, final @Nullable ITmfLocation location) throws IOException {
+        if (location == null) {
+            file.seek(0);
+        } else if (location.getLocationInfo() instanceof Long) {
+            file.seek((Long) location.getLocationInfo());
+        }
+        long rawPos = file.getFilePointer();
+        String line = file.getNextLine();
+        while (line != null) {
+            for (final InputLine input : getFirstLines()) {
+                final Matcher matcher = input.getPattern().matcher(line);
+                if (matcher.matches()) {
+                    context.setLocation(new TmfLongLocation(rawPos));
+                    context.firstLineMatcher = matcher;
+                    context.firstLine = line;
+                    context.nextLineLocation = file.getFilePointer();
+                    context.inputLine = input;
+                    return;
+                }
+            }
+            rawPos = file.getFilePointer();
+            line = file.getNextLine();
+        }
+    }
+
     @Override
     public synchronized TmfContext seekEvent(final double ratio) {
         if (fFile == null) {
@@ -262,6 +275,10 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
         if (fFile == null) {
             return null;
         }
+        return parse(tmfContext, fFile);
+    }
+
+    private CustomTxtEvent parse(final ITmfContext tmfContext, final BufferedRandomAccessFile file) {
         if (!(tmfContext instanceof CustomTxtTraceContext)) {
             return null;
         }
@@ -282,11 +299,11 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
         }
 
         try {
-            if (fFile.getFilePointer() != context.nextLineLocation) {
-                fFile.seek(context.nextLineLocation);
+            if (file.getFilePointer() != context.nextLineLocation) {
+                file.seek(context.nextLineLocation);
             }
-            long rawPos = fFile.getFilePointer();
-            String line = fFile.getNextLine();
+            long rawPos = file.getFilePointer();
+            String line = file.getNextLine();
             while (line != null) {
                 boolean processed = false;
                 if (currentInput == null) {
@@ -296,7 +313,7 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
                             context.setLocation(new TmfLongLocation(rawPos));
                             context.firstLineMatcher = matcher;
                             context.firstLine = line;
-                            context.nextLineLocation = fFile.getFilePointer();
+                            context.nextLineLocation = file.getFilePointer();
                             context.inputLine = input;
                             return event;
                         }
@@ -311,7 +328,7 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
                                     context.setLocation(new TmfLongLocation(rawPos));
                                     context.firstLineMatcher = matcher;
                                     context.firstLine = line;
-                                    context.nextLineLocation = fFile.getFilePointer();
+                                    context.nextLineLocation = file.getFilePointer();
                                     context.inputLine = input;
                                     return event;
                                 }
@@ -388,8 +405,8 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
                         ((StringBuffer) event.getContentValue()).append("\n").append(line); //$NON-NLS-1$
                     }
                 }
-                rawPos = fFile.getFilePointer();
-                line = fFile.getNextLine();
+                rawPos = file.getFilePointer();
+                line = file.getNextLine();
             }
         } catch (final IOException e) {
             Activator.logError("Error seeking event. File: " + getPath(), e); //$NON-NLS-1$
@@ -499,6 +516,77 @@ public class CustomTxtTrace extends TmfTrace implements ITmfPersistentlyIndexabl
         return new TmfLongLocation(bufferIn);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The trace can be split at any line if its events have only one line
+     * each. Otherwise a line that matches a first line may be part of an
+     * event depending on the previous lines, so the trace is not split.
+     *
+     * @since 6.3
+     */
+    @Override
+    public List<ITmfLocation> getChunkLocations(int nbChunks) {
+        for (InputLine input : getFirstLines()) {
+            if (input.childrenInputs != null && !input.childrenInputs.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        return TextChunkLocations.getChunkLocations(getPath(), nbChunks, TextChunkLocations.MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * @since 6.3
+     */
+    @Override
+    public ITmfTraceChunkReader openChunk(ITmfLocation start, @Nullable ITmfLocation end) throws IOException {
+        return new CustomTxtTraceChunkReader(start, end);
+    }
+
+    /**
+     * Reader of the events of a chunk, with its own file
+     */
+    private class CustomTxtTraceChunkReader implements ITmfTraceChunkReader {
+
+        private final BufferedRandomAccessFile fChunkFile;
+        private final long fEnd;
+        private final CustomTxtTraceContext fContext = new CustomTxtTraceContext(NULL_LOCATION, ITmfContext.UNKNOWN_RANK);
+
+        public CustomTxtTraceChunkReader(ITmfLocation start, @Nullable ITmfLocation end) throws IOException {
+            fChunkFile = new BufferedRandomAccessFile(getPath(), "r"); //$NON-NLS-1$
+            fEnd = (end != null && end.getLocationInfo() instanceof Long) ? (Long) end.getLocationInfo() : Long.MAX_VALUE;
+            seek(start);
+        }
+
+        @Override
+        public @Nullable ITmfLocation getLocation() {
+            ITmfLocation location = fContext.getLocation();
+            if (NULL_LOCATION.equals(location) || !(location.getLocationInfo() instanceof Long) || (Long) location.getLocationInfo() >= fEnd) {
+                return null;
+            }
+            return location;
+        }
+
+        @Override
+        public @Nullable ITmfEvent readNext() {
+            if (getLocation() == null) {
+                return null;
+            }
+            return parse(fContext, fChunkFile);
+        }
+
+        @Override
+        public void seek(ITmfLocation location) throws IOException {
+            fContext.setLocation(NULL_LOCATION);
+            CustomTxtTrace.this.seek(fContext, fChunkFile, location);
+        }
+
+        @Override
+        public void close() throws IOException {
+            fChunkFile.close();
+        }
+    }
+
     @Override
     protected ITmfTraceIndexer createIndexer(int interval) {
         return new TmfBTreeTraceIndexer(this, interval);
@@ -81,6 +81,23 @@ public interface ITmfEventRequest {
         return 0;
     }
 
+    /**
+     * Gets whether the request can handle the events in any order. Such a
+     * request, if it reads all the events from the start of the trace, can
+     * join a request that is already reading the trace: it receives the events
+     * from the current position of the running request, then the events that
+     * it missed are read again once the running request is done. The events
+     * are still read only once for all the requests that are sent at the same
+     * time.
+     *
+     * @return true if the events can be handled in any order, false if they
+     *         must be handled in chronological order (the default)
+     * @since 6.3
+     */
+    default boolean isOrderIndependent() {
+        return false;
+    }
+
     /**
      * @return the index of the first event requested
      */
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,6 +38,7 @@ import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.ScopeLog;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.internal.tmf.core.statesystem.TmfCompositeStateSystem;
 import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.PartialHistoryBackend;
 import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.PartialStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
@@ -87,6 +89,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     private final Object fRequestSyncObj = new Object();
 
     private @Nullable ITmfStateSystemBuilder fStateSystem;
+    private @Nullable ITmfStateSystem fCompositeStateSystem;
     private @Nullable ITmfEventRequest fRequest;
     private @Nullable TmfTimeRange fTimeRange = null;
 
@@ -158,6 +161,41 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         return StateSystemBackendType.FULL;
     }
 
+    /**
+     * Get the number of history trees a full history is partitioned into. With
+     * more than one tree, the attributes are spread between the trees and each
+     * tree is written by its own thread, which speeds up the construction of
+     * large histories. The number of trees of a history is checked when its
+     * files are opened, the history is rebuilt if it does not match.
+     *
+     * @return The number of history trees, 1 by default
+     * @since 6.3
+     */
+    protected int getHistoryShardCount() {
+        return 1;
+    }
+
+    /**
+     * Whether this analysis, when executed on an experiment, is built from the
+     * events of each trace of the experiment separately instead of from the
+     * merged events of the experiment. This is the case for analyses whose
+     * state is per trace, for example per host.
+     * <p>
+     * If true, the analysis modules with the same ID of the traces of the
+     * experiment are scheduled, so that their state systems are built
+     * concurrently, and the state system of this module is a read-only view of
+     * their state systems, each under an attribute named after its trace. It is
+     * available once all the state systems of the traces are built. The
+     * analysis must also apply to experiments for this module to exist.
+     *
+     * @return true to build the analysis per trace of an experiment, false by
+     *         default
+     * @since 6.3
+     */
+    protected boolean isPerChildExecution() {
+        return false;
+    }
+
     /**
      * Get the supplementary file name where to save this state system. The default
      * is the ID of the analysis followed by the extension.
@@ -176,7 +214,8 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      */
     @Nullable
     public ITmfStateSystem getStateSystem() {
-        return fStateSystem;
+        ITmfStateSystem stateSystem = fStateSystem;
+        return (stateSystem != null) ? stateSystem : fCompositeStateSystem;
     }
 
     @Override
@@ -254,6 +293,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     @Override
     protected boolean executeAnalysis(@Nullable final IProgressMonitor monitor) {
         IProgressMonitor mon = (monitor == null ? new NullProgressMonitor() : monitor);
+        ITmfTrace analysisTrace = getTrace();
+        if (isPerChildExecution() && analysisTrace instanceof TmfExperiment) {
+            return executePerChild((TmfExperiment) analysisTrace, mon);
+        }
         final ITmfStateProvider provider = createStateProvider();
         fProviderVersion = provider.getVersion();
 
@@ -304,6 +347,43 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         return !mon.isCanceled();
     }
 
+    /**
+     * Build the analysis with the modules of the traces of an experiment, see
+     * {@link #isPerChildExecution()}
+     */
+    private boolean executePerChild(TmfExperiment experiment, IProgressMonitor monitor) {
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:executingPerChild", "id", getId())) { //$NON-NLS-1$ //$NON-NLS-2$
+            List<TmfStateSystemAnalysisModule> modules = new ArrayList<>();
+            for (ITmfTrace child : experiment.getTraces()) {
+                TmfStateSystemAnalysisModule module = TmfTraceUtils.getAnalysisModuleOfClass(child, TmfStateSystemAnalysisModule.class, getId());
+                if (module != null) {
+                    /* Each module runs in its own job */
+                    module.schedule();
+                    modules.add(module);
+                }
+            }
+            Map<String, ITmfStateSystem> stateSystems = new LinkedHashMap<>();
+            for (TmfStateSystemAnalysisModule module : modules) {
+                if (!module.waitForCompletion(monitor)) {
+                    analysisReady(false);
+                    return false;
+                }
+                ITmfStateSystem stateSystem = module.getStateSystem();
+                ITmfTrace child = module.getTrace();
+                if (stateSystem != null && child != null) {
+                    String name = child.getName();
+                    for (int i = 2; stateSystems.containsKey(name); i++) {
+                        name = child.getName() + " (" + i + ')'; //$NON-NLS-1$
+                    }
+                    stateSystems.put(name, stateSystem);
+                }
+            }
+            fCompositeStateSystem = new TmfCompositeStateSystem(getId(), stateSystems);
+            analysisReady(true);
+        }
+        return !monitor.isCanceled();
+    }
+
     /**
      * Make the module available and set whether the initialization succeeded or
      * not. If not, no state system is available and
@@ -347,20 +427,21 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         // TODO for now we assume it's complete. Might be a good idea to check
         // at least if its range matches the trace's range.
 
+        int nbShards = getHistoryShardCount();
         if (htFile.exists()) {
             /* Load an existing history */
             final int version = provider.getVersion();
             try {
-                IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(
-                        id, htFile, version);
+                IStateHistoryBackend backend = StateHistoryBackendFactory.createShardedHistoryTreeBackendExistingFile(
+                        id, htFile, version, nbShards);
                 fStateSystem = StateSystemFactory.newStateSystem(backend, false);
                 analysisReady(true);
                 return;
             } catch (IOException e) {
                 /*
                  * There was an error opening the existing file. Perhaps it was corrupted,
-                 * perhaps it's an old version? We'll just fall-through and try to build a new
-                 * one from scratch instead.
+                 * perhaps it's an old version or it was built with another number of trees?
+                 * We'll just fall-through and try to build a new one from scratch instead.
                  */
             }
         }
@@ -369,8 +450,8 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         final int QUEUE_SIZE = 10000;
 
         try {
-            IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
-                    id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE);
+            IStateHistoryBackend backend = StateHistoryBackendFactory.createShardedHistoryTreeBackendNewFile(
+                    id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE, nbShards);
             fStateSystem = StateSystemFactory.newStateSystem(backend);
             provider.assignTargetStateSystem(fStateSystem);
             build(provider);
@@ -745,14 +826,14 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     @Nullable
     public ITmfStateSystem getStateSystem(String id) {
         if (id.equals(getId())) {
-            return fStateSystem;
+            return getStateSystem();
         }
         return null;
     }
 
     @Override
     public @NonNull Iterable<@NonNull ITmfStateSystem> getStateSystems() {
-        ITmfStateSystemBuilder stateSystem = fStateSystem;
+        ITmfStateSystem stateSystem = getStateSystem();
         if (stateSystem == null) {
             return Collections.emptySet();
         }
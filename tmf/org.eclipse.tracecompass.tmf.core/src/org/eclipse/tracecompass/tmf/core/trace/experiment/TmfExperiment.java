@@ -563,7 +563,12 @@ public class TmfExperiment extends TmfTrace implements ITmfPersistentlyIndexable
     }
 
     @Override
-    public synchronized ITmfEvent getNext(ITmfContext context) {
+    public ITmfEvent getNext(ITmfContext context) {
+        /*
+         * Not synchronized: the context is only used by its reader, and the
+         * traces and the experiment attributes are protected by their own
+         * locks, so contexts can be read concurrently.
+         */
 
         // Make sure that we have something to read from
         if (getNbChildren() == 0) {
@@ -586,14 +591,9 @@ public class TmfExperiment extends TmfTrace implements ITmfPersistentlyIndexable
             experimentContext.increaseRank();
 
             // Update the experiment location
-            ITmfLocation location = experimentContext.getLocation();
-            if (location instanceof TmfExperimentLocation) {
-                int trace = next.getIndex();
-                ITmfContext traceContext = next.getContext();
-                TmfLocationArray locationArray = new TmfLocationArray(
-                        ((TmfExperimentLocation) location).getLocationInfo(),
-                        trace, traceContext.getLocation(), traceContext.getRank());
-                experimentContext.setLocation(new TmfExperimentLocation(locationArray));
+            int trace = next.getIndex();
+            ITmfContext traceContext = next.getContext();
+            if (experimentContext.updateLocation(trace, traceContext.getLocation(), traceContext.getRank())) {
                 // queue the next event
                 ITmfEvent nextEvent = ((ITmfTrace) getChild(trace)).getNext(traceContext);
                 experimentContext.setContent(trace, traceContext, nextEvent);
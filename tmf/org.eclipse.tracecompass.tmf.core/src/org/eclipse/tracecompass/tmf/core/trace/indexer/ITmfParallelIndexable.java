@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.trace.indexer;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpointIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+
+/**
+ * A trace implementing this interface can be split in chunks that are read by
+ * several threads at once, so that the {@link TmfCheckpointIndexer} can index
+ * it in parallel.
+ * <p>
+ * The chunks start at locations where the trace can be read without reading
+ * the events before, for example at byte offsets of a text file. A chunk
+ * contains the events whose location is at or after its start location and
+ * before the start location of the next chunk, so that the events of all the
+ * chunks, in order, are the events of the trace.
+ *
+ * @since 6.3
+ */
+public interface ITmfParallelIndexable {
+
+    /**
+     * Whether the trace can be indexed in parallel. A trace whose parser keeps
+     * a state from one event to the next cannot be read from the middle, and
+     * should return false.
+     *
+     * @return true if the chunks of the trace can be read independently
+     */
+    default boolean isParallelIndexable() {
+        return true;
+    }
+
+    /**
+     * Split the trace in chunks
+     *
+     * @param nbChunks
+     *            The maximum number of chunks
+     * @return The start locations of the chunks, in order, the first one being
+     *         the start of the trace. A list with less than 2 locations means
+     *         that the trace should not be indexed in parallel.
+     */
+    List<ITmfLocation> getChunkLocations(int nbChunks);
+
+    /**
+     * Open a reader of the events of a chunk. The reader is independent from
+     * the trace and from the other readers, it can be used by another thread.
+     *
+     * @param start
+     *            The start location of the chunk
+     * @param end
+     *            The start location of the next chunk, or null for the last
+     *            chunk
+     * @return The reader, positioned at the first event of the chunk
+     * @throws IOException
+     *             If the trace cannot be read
+     */
+    ITmfTraceChunkReader openChunk(ITmfLocation start, @Nullable ITmfLocation end) throws IOException;
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.trace.indexer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+
+/**
+ * Reader of the events of a chunk of a trace, opened by
+ * {@link ITmfParallelIndexable#openChunk}. A reader is used by one thread.
+ *
+ * @since 6.3
+ */
+public interface ITmfTraceChunkReader extends Closeable {
+
+    /**
+     * Get the location of the next event, which is the location to seek to
+     * read it again
+     *
+     * @return The location of the next event, or null if there are no more
+     *         events in the chunk
+     */
+    @Nullable ITmfLocation getLocation();
+
+    /**
+     * Read the next event of the chunk
+     *
+     * @return The event, or null if there are no more events in the chunk
+     * @throws IOException
+     *             If the trace cannot be read
+     */
+    @Nullable ITmfEvent readNext() throws IOException;
+
+    /**
+     * Position the reader at a location of the chunk, returned by
+     * {@link #getLocation()}
+     *
+     * @param location
+     *            The location of the next event to read
+     * @throws IOException
+     *             If the trace cannot be read
+     */
+    void seek(ITmfLocation location) throws IOException;
+}
@@ -15,6 +15,8 @@
 
 package org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,12 +26,14 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
 import org.eclipse.tracecompass.internal.tmf.core.Messages;
 import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
 import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TmfMemoryIndex;
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TmfParallelIndexBuilder;
 import org.eclipse.tracecompass.tmf.core.component.TmfEventProvider;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
@@ -41,6 +45,7 @@ import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfParallelIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 
@@ -56,6 +61,11 @@ import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
  * <p>
  * Locating a specific checkpoint is trivial for both rank (rank % interval) and
  * timestamp (bsearch in the array). *
+ * <p>
+ * If the trace is a {@link ITmfParallelIndexable} that can be indexed in
+ * parallel, the index is built from scratch by reading the chunks of the trace
+ * in parallel, instead of with one request over the whole trace. The
+ * checkpoints and the trace range are updated as the chunks are indexed.
  *
  * @see ITmfTrace
  * @see ITmfEvent
@@ -90,6 +100,11 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
      */
     private ITmfEventRequest fIndexingRequest = null;
 
+    /**
+     * The parallel build of the index, if the trace is read in parallel
+     */
+    private volatile TmfParallelIndexBuilder fParallelBuilder = null;
+
     /** Whether or not the index was built once */
     private boolean fBuiltOnce;
 
@@ -137,6 +152,10 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
 
     @Override
     public void dispose() {
+        TmfParallelIndexBuilder builder = fParallelBuilder;
+        if (builder != null) {
+            builder.cancel();
+        }
         if ((fIndexingRequest != null) && !fIndexingRequest.isCompleted()) {
             fIndexingRequest.cancel();
         }
@@ -189,6 +208,26 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
         fBuiltOnce = true;
         job.schedule();
 
+        if (indexingOffset == 0 && TmfTimeRange.ETERNITY.equals(indexingTimeRange) && fTrace instanceof ITmfParallelIndexable && ((ITmfParallelIndexable) fTrace).isParallelIndexable()) {
+            TmfParallelIndexBuilder builder = new TmfParallelIndexBuilder((ITmfParallelIndexable) fTrace, fCheckpointInterval, Runtime.getRuntime().availableProcessors(), this::chunkIndexed);
+            fParallelBuilder = builder;
+            if (waitForCompletion) {
+                buildParallelIndex(builder, job);
+            } else {
+                Thread thread = new Thread(() -> buildParallelIndex(builder, job), "Indexing " + fTrace.getName()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                thread.start();
+            }
+            return;
+        }
+
+        sendIndexingRequest(indexingOffset, indexingTimeRange, job, waitForCompletion);
+    }
+
+    /**
+     * Build the index with a background request for all the trace data
+     */
+    private void sendIndexingRequest(long indexingOffset, TmfTimeRange indexingTimeRange, TmfIndexingJob job, boolean waitForCompletion) {
         // Build a background request for all the trace data. The index is
         // updated as we go by readNextEvent().
         fIndexingRequest = new TmfEventRequest(ITmfEvent.class,
@@ -241,6 +280,59 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
         }
     }
 
+    /**
+     * Build the index by reading the chunks of the trace in parallel, the
+     * checkpoints being written in order as the chunks are indexed. If the
+     * trace cannot be split, the index is built with a request.
+     */
+    private void buildParallelIndex(TmfParallelIndexBuilder builder, TmfIndexingJob job) {
+        TmfParallelIndexBuilder.Result result;
+        try {
+            result = builder.build();
+        } catch (IOException | RuntimeException e) {
+            Activator.logError("Error indexing " + fTrace.getName() + " in parallel", e); //$NON-NLS-1$ //$NON-NLS-2$
+            result = null;
+        } finally {
+            fParallelBuilder = null;
+        }
+        if (result == null) {
+            if (builder.isCancelled()) {
+                job.cancel();
+                fIsIndexing = false;
+            } else {
+                TmfCoreTracer.traceIndexer("Parallel indexing not possible, indexing with a request"); //$NON-NLS-1$
+                sendIndexingRequest(0, TmfTimeRange.ETERNITY, job, true);
+            }
+            return;
+        }
+        TmfTimeRange timeRange = result.getTimeRange();
+        if (timeRange != null) {
+            fTraceIndex.setTimeRange(timeRange);
+            fTraceIndex.setNbEvents(result.getNbEvents());
+        }
+        job.cancel();
+        fIsIndexing = false;
+        TmfCoreTracer.traceIndexer("Parallel indexing completed. nbEvents: " + result.getNbEvents() + " checkpoints: " + fTraceIndex.size()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Write the checkpoints of a chunk indexed in parallel and update the
+     * trace with the events indexed so far
+     */
+    private void chunkIndexed(List<ITmfCheckpoint> checkpoints, long nbEvents, @Nullable TmfTimeRange timeRange) {
+        synchronized (this) {
+            for (ITmfCheckpoint checkpoint : checkpoints) {
+                /* Skip the checkpoints inserted by requests in the meantime */
+                if (fTraceIndex.size() == checkpoint.getCheckpointRank()) {
+                    fTraceIndex.insert(checkpoint);
+                }
+            }
+        }
+        if (timeRange != null) {
+            fTrace.broadcast(new TmfTraceUpdatedSignal(this, fTrace, timeRange, nbEvents));
+        }
+    }
+
     /**
      * Notify the interested parties that the trace time range has changed
      *
@@ -376,9 +468,9 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
             }
             while (!monitor.isCanceled()) {
                 try {
-                    long prevNbEvents = fTrace.getNbEvents();
+                    long prevNbEvents = getNbIndexedEvents();
                     Thread.sleep(250);
-                    long nbEvents = fTrace.getNbEvents();
+                    long nbEvents = getNbIndexedEvents();
                     if (fTraceWithSize != null) {
                         final int done = fTraceWithSize.progress();
                         subMonitor.setWorkRemaining(fTraceWithSize.size() - done);
@@ -403,5 +495,10 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
             fException = e;
         }
 
+        private long getNbIndexedEvents() {
+            TmfParallelIndexBuilder builder = fParallelBuilder;
+            return (builder != null) ? builder.getNbEvents() : fTrace.getNbEvents();
+        }
+
     }
 }
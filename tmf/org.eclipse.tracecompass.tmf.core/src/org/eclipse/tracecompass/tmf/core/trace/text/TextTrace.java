@@ -30,6 +30,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TextChunkLocations;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.io.BufferedRandomAccessFile;
@@ -41,7 +42,9 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfParallelIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceChunkReader;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.TmfBTreeTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
@@ -54,11 +57,19 @@ import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
  * regular expressions. Each line that matches the first line pattern indicates
  * the start of a new event. The subsequent lines can contain additional
  * information that is added to the current event.
+ * <p>
+ * Since the events start at the lines that match the first line pattern, the
+ * trace can be split at any line and indexed in parallel. This is only done
+ * for the subclasses that override {@link #isParallelIndexable()}: the chunks
+ * are read from several threads at once without
+ * {@link #parse(TextTraceContext)}, so {@link #preProcessLine},
+ * {@link #parseFirstLine} and {@link #parseNextLine} must not depend on the
+ * state of the trace.
  *
  * @param <T>
  *            TmfEvent class returned by this trace
  */
-public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace implements ITmfPersistentlyIndexable {
+public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace implements ITmfPersistentlyIndexable, ITmfParallelIndexable {
 
     private static final TmfLongLocation NULL_LOCATION = new TmfLongLocation(-1L);
     private static final int MAX_LINES = 100;
@@ -167,23 +178,7 @@ public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace imple
             return context;
         }
         try {
-            if (location == null) {
-                fFile.seek(0);
-            } else if (location.getLocationInfo() instanceof Long) {
-                fFile.seek((Long) location.getLocationInfo());
-            }
-            long rawPos = fFile.getFilePointer();
-            String line = fFile.getNextLine();
-            while (line != null) {
-                line = preProcessLine(line);
-                Matcher matcher = getFirstLinePattern().matcher(line);
-                if (matcher.matches()) {
-                    setupContext(context, rawPos, line, matcher);
-                    return context;
-                }
-                rawPos = fFile.getFilePointer();
-                line = fFile.getNextLine();
-            }
+            seek(context, fFile, location);
             return context;
         } catch (IOException e) {
             Activator.logError("Error seeking file: " + getPath(), e); //$NON-NLS-1$
@@ -191,11 +186,35 @@ public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace imple
         }
     }
 
-    private void setupContext(TextTraceContext context, long rawPos, String line, Matcher matcher) throws IOException {
+    /**
+     * Position a context at the first event at or after a location of a file.
+     * The context is not changed if there is no such event.
+     */
+    private void seek(TextTraceContext context, BufferedRandomAccessFile file, @Nullable ITmfLocation location) throws IOException {
+        if (location == null) {
+            file.seek(0);
+        } else if (location.getLocationInfo() instanceof Long) {
+            file.seek((Long) location.getLocationInfo());
+        }
+        long rawPos = file.getFilePointer();
+        String line = file.getNextLine();
+        while (line != null) {
+            line = preProcessLine(line);
+            Matcher matcher = getFirstLinePattern().matcher(line);
+            if (matcher.matches()) {
+                setupContext(context, file, rawPos, line, matcher);
+                return;
+            }
+            rawPos = file.getFilePointer();
+            line = file.getNextLine();
+        }
+    }
+
+    private static void setupContext(TextTraceContext context, BufferedRandomAccessFile file, long rawPos, String line, Matcher matcher) throws IOException {
         context.setLocation(new TmfLongLocation(rawPos));
         context.firstLineMatcher = matcher;
         context.firstLine = line;
-        context.nextLineLocation = fFile.getFilePointer();
+        context.nextLineLocation = file.getFilePointer();
     }
 
     @Override
@@ -277,7 +296,10 @@ public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace imple
         if (fFile == null) {
             return null;
         }
-        TextTraceContext context = tmfContext;
+        return parse(tmfContext, fFile);
+    }
+
+    private @Nullable T parse(TextTraceContext context, BufferedRandomAccessFile file) {
         ITmfLocation location = context.getLocation();
         if (location == null || !(location.getLocationInfo() instanceof Long) || NULL_LOCATION.equals(location)) {
             return null;
@@ -286,21 +308,21 @@ public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace imple
         T event = parseFirstLine(context.firstLineMatcher, context.firstLine);
 
         try {
-            if (fFile.getFilePointer() != context.nextLineLocation) {
-                fFile.seek(context.nextLineLocation);
+            if (file.getFilePointer() != context.nextLineLocation) {
+                file.seek(context.nextLineLocation);
             }
-            long rawPos = fFile.getFilePointer();
-            String line = fFile.getNextLine();
+            long rawPos = file.getFilePointer();
+            String line = file.getNextLine();
             while (line != null) {
                 line = preProcessLine(line);
                 Matcher matcher = getFirstLinePattern().matcher(line);
                 if (matcher.matches()) {
-                    setupContext(context, rawPos, line, matcher);
+                    setupContext(context, file, rawPos, line, matcher);
                     return event;
                 }
                 parseNextLine(event, line);
-                rawPos = fFile.getFilePointer();
-                line = fFile.getNextLine();
+                rawPos = file.getFilePointer();
+                line = file.getNextLine();
             }
         } catch (IOException e) {
             Activator.logError("Error reading file: " + getPath(), e); //$NON-NLS-1$
@@ -418,6 +440,79 @@ public abstract class TextTrace<T extends TextTraceEvent> extends TmfTrace imple
         return new TmfLongLocation(bufferIn);
     }
 
+    /**
+     * Text traces are not indexed in parallel by default. A subclass whose
+     * {@link #preProcessLine}, {@link #parseFirstLine} and
+     * {@link #parseNextLine} do not depend on the state of the trace or on the
+     * previous lines can override this method to return true.
+     *
+     * @since 6.3
+     */
+    @Override
+    public boolean isParallelIndexable() {
+        return false;
+    }
+
+    /**
+     * @since 6.3
+     */
+    @Override
+    public List<ITmfLocation> getChunkLocations(int nbChunks) {
+        return TextChunkLocations.getChunkLocations(getPath(), nbChunks, TextChunkLocations.MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * @since 6.3
+     */
+    @Override
+    public ITmfTraceChunkReader openChunk(ITmfLocation start, @Nullable ITmfLocation end) throws IOException {
+        return new TextTraceChunkReader(start, end);
+    }
+
+    /**
+     * Reader of the events of a chunk, with its own file
+     */
+    private class TextTraceChunkReader implements ITmfTraceChunkReader {
+
+        private final BufferedRandomAccessFile fChunkFile;
+        private final long fEnd;
+        private final TextTraceContext fContext = new TextTraceContext(NULL_LOCATION, ITmfContext.UNKNOWN_RANK);
+
+        public TextTraceChunkReader(ITmfLocation start, @Nullable ITmfLocation end) throws IOException {
+            fChunkFile = new BufferedRandomAccessFile(getPath(), "r"); //$NON-NLS-1$
+            fEnd = (end != null && end.getLocationInfo() instanceof Long) ? (Long) end.getLocationInfo() : Long.MAX_VALUE;
+            seek(start);
+        }
+
+        @Override
+        public @Nullable ITmfLocation getLocation() {
+            ITmfLocation location = fContext.getLocation();
+            if (NULL_LOCATION.equals(location) || !(location.getLocationInfo() instanceof Long) || (Long) location.getLocationInfo() >= fEnd) {
+                return null;
+            }
+            return location;
+        }
+
+        @Override
+        public @Nullable ITmfEvent readNext() {
+            if (getLocation() == null) {
+                return null;
+            }
+            return parse(fContext, fChunkFile);
+        }
+
+        @Override
+        public void seek(ITmfLocation location) throws IOException {
+            fContext.setLocation(NULL_LOCATION);
+            TextTrace.this.seek(fContext, fChunkFile, location);
+        }
+
+        @Override
+        public void close() throws IOException {
+            fChunkFile.close();
+        }
+    }
+
     @TmfSignalHandler
     @Override
     public void traceRangeUpdated(TmfTraceRangeUpdatedSignal signal) {